@@ -0,0 +1,237 @@
+package com.retyrment.config;
+
+import com.retyrment.model.*;
+import com.retyrment.service.ReportJob;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes behind per-user queries and checks at startup that repository
+ * finders can use them.
+ *
+ * {@code auto-index-creation} is off in production, so the indexes are declared here and
+ * ensured on startup; ensuring an index that already exists with the same keys is a no-op.
+ * Verification parses each derived finder into a filter, asks the server to explain it and
+ * reports the finders whose winning plan is a collection scan.
+ */
+@Slf4j
+@Component
+public class MongoIndexManager {
+
+    private static final String PROBE_VALUE = "index-probe";
+
+    static final List<IndexSpec> INDEXES = List.of(
+            new IndexSpec(Income.class, false, "userId", "isActive"),
+            new IndexSpec(Investment.class, false, "userId", "type"),
+            new IndexSpec(Investment.class, false, "userId", "monthlySip"),
+            new IndexSpec(Loan.class, false, "userId", "remainingMonths"),
+            new IndexSpec(Insurance.class, false, "userId", "type"),
+            new IndexSpec(Expense.class, false, "userId", "category"),
+            new IndexSpec(Expense.class, false, "userId", "isTimeBound", "endYear"),
+            new IndexSpec(Expense.class, false, "userId", "isFixed"),
+            new IndexSpec(Expense.class, false, "userId", "dependentName"),
+            new IndexSpec(Goal.class, false, "userId", "targetYear"),
+            new IndexSpec(Goal.class, false, "userId", "isRecurring"),
+            new IndexSpec(CalendarEntry.class, false, "userId", "isActive"),
+            new IndexSpec(FamilyMember.class, false, "userId", "relationship"),
+            new IndexSpec(FamilyMember.class, false, "userId", "dateOfBirth"),
+            new IndexSpec(FamilyMember.class, false, "userId", "isDependent"),
+            new IndexSpec(RetirementScenario.class, false, "userId", "isDefault"),
+            new IndexSpec(Settings.class, false, "userId"),
+            new IndexSpec(UserSettings.class, false, "userId"),
+            // Same name and options as the @Indexed declarations, so they are no-ops where those exist
+            new IndexSpec(UserFeatureAccess.class, true, "userId"),
+            new IndexSpec(UserPreference.class, true, "userId"),
+            new IndexSpec(UserStrategy.class, true, "userId"),
+            new IndexSpec(User.class, true, "email"),
+            new IndexSpec(User.class, false, "providerId"),
+            new IndexSpec(User.class, false, "roleExpiryDate"),
+            new IndexSpec(ReportJob.class, false, "userId", "status"));
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationContext applicationContext;
+    private final boolean createIndexes;
+    private final boolean verifyIndexes;
+    private final boolean failOnUnindexed;
+
+    public MongoIndexManager(MongoTemplate mongoTemplate, ApplicationContext applicationContext,
+                             @Value("${app.mongo.indexes.create:true}") boolean createIndexes,
+                             @Value("${app.mongo.indexes.verify:true}") boolean verifyIndexes,
+                             @Value("${app.mongo.indexes.fail-on-unindexed:false}") boolean failOnUnindexed) {
+        this.mongoTemplate = mongoTemplate;
+        this.applicationContext = applicationContext;
+        this.createIndexes = createIndexes;
+        this.verifyIndexes = verifyIndexes;
+        this.failOnUnindexed = failOnUnindexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void provisionIndexes() {
+        if (createIndexes) {
+            ensureIndexes();
+        }
+        if (!verifyIndexes) {
+            return;
+        }
+        List<FinderCheck> unindexed = verifyFinders().stream()
+                .filter(check -> !check.indexed())
+                .toList();
+        unindexed.forEach(check -> log.warn("{} scans {} without an index (filter {})",
+                check.finder(), check.collection(), check.filter()));
+        long userScoped = unindexed.stream().filter(FinderCheck::userScoped).count();
+        if (userScoped > 0 && failOnUnindexed) {
+            throw new IllegalStateException(userScoped + " per-user repository finders are not index-backed");
+        }
+    }
+
+    /**
+     * Create every declared index. An index that exists already is left alone; one that
+     * cannot be built (for example a unique index over duplicate values) is logged and skipped.
+     *
+     * @return the number of indexes that were ensured
+     */
+    public int ensureIndexes() {
+        int ensured = 0;
+        for (IndexSpec spec : INDEXES) {
+            try {
+                mongoTemplate.indexOps(spec.type()).ensureIndex(spec.toIndex());
+                ensured++;
+            } catch (DataAccessException e) {
+                log.error("Could not create index {} on {}: {}", spec.name(), spec.type().getSimpleName(), e.getMessage());
+            }
+        }
+        log.info("Ensured {} of {} MongoDB indexes", ensured, INDEXES.size());
+        return ensured;
+    }
+
+    /**
+     * Explain the query behind every derived finder of every repository.
+     * Finders without criteria, such as {@code findAll}, are not checked.
+     */
+    public List<FinderCheck> verifyFinders() {
+        Repositories repositories = new Repositories(applicationContext);
+        List<FinderCheck> checks = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation info = repositories.getRepositoryInformationFor(domainType).orElse(null);
+            if (info == null) {
+                continue;
+            }
+            String collection = mongoTemplate.getCollectionName(domainType);
+            for (Method method : info.getQueryMethods()) {
+                if (method.isAnnotationPresent(Query.class)) {
+                    continue;
+                }
+                String finder = info.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                try {
+                    PartTree tree = new PartTree(method.getName(), domainType);
+                    Document filter = probeFilter(tree);
+                    if (filter.isEmpty()) {
+                        continue;
+                    }
+                    checks.add(new FinderCheck(finder, collection, filter.toJson(),
+                            filter.containsKey("userId"), isIndexed(collection, filter, tree.getSort())));
+                } catch (RuntimeException e) {
+                    log.warn("Could not verify {}: {}", finder, e.getMessage());
+                }
+            }
+        }
+        return checks;
+    }
+
+    private boolean isIndexed(String collection, Document filter, Sort sort) {
+        Document find = new Document("find", collection).append("filter", filter);
+        if (sort.isSorted()) {
+            Document sortDocument = new Document();
+            sort.forEach(order -> sortDocument.append(order.getProperty(), order.isAscending() ? 1 : -1));
+            find.append("sort", sortDocument);
+        }
+        Document explain = mongoTemplate.getDb()
+                .runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+        Object queryPlanner = explain.get("queryPlanner");
+        return queryPlanner == null || !containsStage(queryPlanner, "COLLSCAN");
+    }
+
+    /**
+     * A filter with the same fields as the finder, using placeholder values. Plan selection
+     * depends on which fields are queried, not on their values.
+     */
+    static Document probeFilter(PartTree tree) {
+        List<Document> branches = new ArrayList<>();
+        for (PartTree.OrPart orPart : tree) {
+            Document branch = new Document();
+            for (Part part : orPart) {
+                String field = part.getProperty().toDotPath();
+                branch.append("id".equals(field) ? "_id" : field, probeValue(part.getType()));
+            }
+            branches.add(branch);
+        }
+        if (branches.isEmpty()) {
+            return new Document();
+        }
+        return branches.size() == 1 ? branches.get(0) : new Document("$or", branches);
+    }
+
+    private static Object probeValue(Part.Type type) {
+        return switch (type) {
+            case TRUE -> true;
+            case FALSE -> false;
+            case IS_NULL -> null;
+            case IN, CONTAINING -> new Document("$in", List.of(PROBE_VALUE));
+            case GREATER_THAN -> new Document("$gt", 0);
+            case GREATER_THAN_EQUAL -> new Document("$gte", 0);
+            case LESS_THAN -> new Document("$lt", 0);
+            case LESS_THAN_EQUAL -> new Document("$lte", 0);
+            default -> PROBE_VALUE;
+        };
+    }
+
+    static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Map<?, ?> map) {
+            if (stage.equals(map.get("stage"))) {
+                return true;
+            }
+            return map.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    record IndexSpec(Class<?> type, boolean unique, String... fields) {
+
+        String name() {
+            return String.join("_", fields);
+        }
+
+        Index toIndex() {
+            Index index = new Index().named(name());
+            for (String field : fields) {
+                index.on(field, Sort.Direction.ASC);
+            }
+            return unique ? index.unique() : index;
+        }
+    }
+
+    public record FinderCheck(String finder, String collection, String filter, boolean userScoped, boolean indexed) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.retyrment.config;
+
+import com.retyrment.controller.ModifiesUserData;
+import com.retyrment.model.User;
+import com.retyrment.service.UserDataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+
+/**
+ * Bumps the current user's data version around a write through a {@link ModifiesUserData}
+ * endpoint.
+ *
+ * The version is bumped before the handler runs, because the response body is flushed before
+ * {@link #afterCompletion} is called: a client that reads straight after the write's response
+ * must already miss the caches. It is bumped again after a successful write, so a read that
+ * raced with the write and cached the old data under the first bump misses as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataChangeInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final UserDataVersionService dataVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && isDataChange(handlerMethod, request.getMethod())) {
+            markCurrentUserChanged();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (ex != null || response.getStatus() >= 400 || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        if (isDataChange(handlerMethod, request.getMethod())) {
+            markCurrentUserChanged();
+        }
+    }
+
+    private void markCurrentUserChanged() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user) {
+            dataVersionService.markChanged(user.getId());
+        }
+    }
+
+    static boolean isDataChange(HandlerMethod handlerMethod, String httpMethod) {
+        if (handlerMethod.hasMethodAnnotation(ModifiesUserData.class)) {
+            return true;
+        }
+        return handlerMethod.getBeanType().isAnnotationPresent(ModifiesUserData.class)
+                && WRITE_METHODS.contains(httpMethod);
+    }
+}
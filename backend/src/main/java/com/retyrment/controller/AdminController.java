@@ -1,17 +1,17 @@
 package com.retyrment.controller;
 
+import com.retyrment.config.MongoIndexManager;
 import com.retyrment.dto.UserResponseDTO;
 import com.retyrment.model.User;
 import com.retyrment.model.UserFeatureAccess;
-import com.retyrment.repository.ExpenseRepository;
-import com.retyrment.repository.FamilyMemberRepository;
-import com.retyrment.repository.GoalRepository;
-import com.retyrment.repository.IncomeRepository;
-import com.retyrment.repository.InsuranceRepository;
-import com.retyrment.repository.InvestmentRepository;
-import com.retyrment.repository.LoanRepository;
 import com.retyrment.repository.UserRepository;
+import com.retyrment.security.UserPrincipalCache;
+import com.retyrment.service.AdminUserService;
+import com.retyrment.service.CalendarService;
 import com.retyrment.service.FeatureAccessService;
+import com.retyrment.service.JobLeaseService;
+import com.retyrment.service.ReportJobService;
+import com.retyrment.service.RetirementMatrixCache;
 import com.retyrment.service.RoleExpiryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,7 +21,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/admin")
@@ -31,13 +30,13 @@ public class AdminController {
     private final UserRepository userRepository;
     private final RoleExpiryService roleExpiryService;
     private final FeatureAccessService featureAccessService;
-    private final IncomeRepository incomeRepository;
-    private final InvestmentRepository investmentRepository;
-    private final ExpenseRepository expenseRepository;
-    private final InsuranceRepository insuranceRepository;
-    private final LoanRepository loanRepository;
-    private final GoalRepository goalRepository;
-    private final FamilyMemberRepository familyMemberRepository;
+    private final AdminUserService adminUserService;
+    private final RetirementMatrixCache retirementMatrixCache;
+    private final ReportJobService reportJobService;
+    private final MongoIndexManager mongoIndexManager;
+    private final UserPrincipalCache userPrincipalCache;
+    private final JobLeaseService jobLeaseService;
+    private final CalendarService calendarService;
 
     /**
      * Check if current user is admin
@@ -51,66 +50,28 @@ public class AdminController {
     }
 
     /**
-     * Get all users (admin only)
+     * Get a page of users with record counts and role statistics (admin only)
+     *
+     * Query parameters:
+     * - page: zero-based page index (default 0)
+     * - size: users per page (default 50, at most 200)
+     * - sort: createdAt, lastLoginAt, email, name or role (default createdAt)
+     * - direction: asc or desc (default desc)
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
         if (!isCurrentUserAdmin()) {
             return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
         }
+        if (!AdminUserService.SORT_FIELDS.contains(sort)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid sort field. Must be one of " + AdminUserService.SORT_FIELDS));
+        }
 
-        List<Map<String, Object>> users = userRepository.findAll().stream()
-                .map(user -> {
-                    Map<String, Object> userMap = UserResponseDTO.fromUser(user, true).toMap();
-                    Map<String, Object> recordSummary = new LinkedHashMap<>();
-                    String userId = user.getId();
-                    recordSummary.put("income", incomeRepository.countByUserId(userId));
-                    recordSummary.put("investments", investmentRepository.countByUserId(userId));
-                    recordSummary.put("expenses", expenseRepository.countByUserId(userId));
-                    recordSummary.put("insurance", insuranceRepository.countByUserId(userId));
-                    recordSummary.put("loans", loanRepository.countByUserId(userId));
-                    recordSummary.put("goals", goalRepository.countByUserId(userId));
-                    recordSummary.put("family", familyMemberRepository.countByUserId(userId));
-                    userMap.put("recordSummary", recordSummary);
-                    return userMap;
-                })
-                .collect(Collectors.toList());
-
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("total", users.size());
-        response.put("users", users);
-        
-        // Stats
-        long freeCount = users.stream().filter(u -> "FREE".equals(u.get("role"))).count();
-        long proCount = users.stream().filter(u -> "PRO".equals(u.get("role"))).count();
-        long adminCount = users.stream().filter(u -> "ADMIN".equals(u.get("role"))).count();
-        
-        // Count users with active trials
-        long activeTrials = users.stream()
-            .filter(u -> u.get("trial") != null)
-            .filter(u -> Boolean.TRUE.equals(((Map<?, ?>) u.get("trial")).get("active")))
-            .count();
-        
-        // Count users with temporary roles
-        long temporaryRoles = users.stream()
-            .filter(u -> u.get("roleInfo") != null)
-            .filter(u -> Boolean.TRUE.equals(((Map<?, ?>) u.get("roleInfo")).get("temporary")))
-            .count();
-        
-        // Count expiring roles in next 7 days
-        long expiringIn7Days = roleExpiryService.countExpiringRoles(7);
-        
-        Map<String, Object> stats = new LinkedHashMap<>();
-        stats.put("free", freeCount);
-        stats.put("pro", proCount);
-        stats.put("admin", adminCount);
-        stats.put("activeTrials", activeTrials);
-        stats.put("temporaryRoles", temporaryRoles);
-        stats.put("expiringIn7Days", expiringIn7Days);
-        
-        response.put("stats", stats);
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(adminUserService.listUsers(page, size, sort, "asc".equalsIgnoreCase(direction)));
     }
 
     /**
@@ -218,6 +179,7 @@ public class AdminController {
         user.setRoleChangedBy(adminEmail);
         
         userRepository.save(user);
+        userPrincipalCache.evict(user);
 
         String message = durationDays != null && durationDays > 0 
             ? String.format("User role updated to %s for %d days", role, durationDays)
@@ -264,6 +226,7 @@ public class AdminController {
         user.setTrialEndDate(extendFrom.plusDays(additionalDays));
         
         userRepository.save(user);
+        userPrincipalCache.evict(user);
         
         return ResponseEntity.ok(Map.of(
             "message", String.format("Trial extended by %d days", additionalDays),
@@ -315,6 +278,7 @@ public class AdminController {
         }
         
         userRepository.save(user);
+        userPrincipalCache.evict(user);
         
         return ResponseEntity.ok(Map.of(
             "message", "Role expiry removed - role is now permanent",
@@ -337,7 +301,7 @@ public class AdminController {
     }
 
     /**
-     * Search users by email (admin only)
+     * Search users whose email starts with the given text (admin only)
      */
     @GetMapping("/users/search")
     public ResponseEntity<?> searchUsers(@RequestParam String email) {
@@ -345,10 +309,7 @@ public class AdminController {
             return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
         }
 
-        List<Map<String, Object>> users = userRepository.findAll().stream()
-                .filter(u -> u.getEmail().toLowerCase().contains(email.toLowerCase()))
-                .map(user -> UserResponseDTO.fromUser(user, true).toMap())
-                .collect(Collectors.toList());
+        List<Map<String, Object>> users = adminUserService.searchByEmailPrefix(email, AdminUserService.MAX_PAGE_SIZE);
 
         return ResponseEntity.ok(Map.of("users", users));
     }
@@ -375,6 +336,8 @@ public class AdminController {
         }
 
         userRepository.deleteById(userId);
+        userPrincipalCache.evictById(userId);
+        featureAccessService.evict(userId);
         return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
     }
 
@@ -422,4 +385,73 @@ public class AdminController {
             "featureAccess", updated
         ));
     }
+
+    /**
+     * Hit/miss/eviction statistics for in-memory result caches (admin only)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("retirementMatrix", retirementMatrixCache.getStats());
+        stats.put("userPrincipal", userPrincipalCache.getStats());
+        stats.put("featureAccess", featureAccessService.getStats());
+        stats.put("paymentCalendar", calendarService.getCacheStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Queue depth, outcome counts and render times of background report jobs (admin only)
+     */
+    @GetMapping("/report-jobs/stats")
+    public ResponseEntity<?> getReportJobStats() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(reportJobService.getStats());
+    }
+
+    /**
+     * Processed, conflicting and failed role reverts of the role expiry job (admin only)
+     */
+    @GetMapping("/role-expiry/stats")
+    public ResponseEntity<?> getRoleExpiryStats() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(roleExpiryService.getStats());
+    }
+
+    /**
+     * Lease acquisitions, skips and losses of cluster-exclusive background jobs on this instance (admin only)
+     */
+    @GetMapping("/job-leases/stats")
+    public ResponseEntity<?> getJobLeaseStats() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(jobLeaseService.getStats());
+    }
+
+    /**
+     * Explain every derived repository finder and report whether it is index-backed (admin only)
+     */
+    @GetMapping("/indexes/verification")
+    public ResponseEntity<?> verifyIndexes() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        List<MongoIndexManager.FinderCheck> checks = mongoIndexManager.verifyFinders();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("checked", checks.size());
+        result.put("unindexed", checks.stream().filter(check -> !check.indexed()).toList());
+        return ResponseEntity.ok(result);
+    }
 }
@@ -1,6 +1,7 @@
 package com.retyrment.controller;
 
 import com.retyrment.service.AnalysisService;
+import com.retyrment.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +13,7 @@ import java.util.Map;
 public class AnalysisController extends BaseController {
 
     private final AnalysisService analysisService;
+    private final DashboardService dashboardService;
 
     @GetMapping("/networth")
     public Map<String, Object> getNetWorth() {
@@ -40,14 +42,19 @@ public class AnalysisController extends BaseController {
     @GetMapping("/montecarlo")
     public Map<String, Object> runMonteCarloSimulation(
             @RequestParam(defaultValue = "1000") Integer simulations,
-            @RequestParam(defaultValue = "10") Integer years) {
+            @RequestParam(defaultValue = "10") Integer years,
+            @RequestParam(required = false) Long seed) {
         String userId = getCurrentUserId();
-        return analysisService.runMonteCarloSimulation(userId, simulations, years);
+        return analysisService.runMonteCarloSimulation(userId, simulations, years, seed);
     }
 
+    /**
+     * All four sections, loaded and computed concurrently. A section that fails or times out is
+     * null and reported under {@code sections}, without failing the others.
+     */
     @GetMapping("/summary")
     public Map<String, Object> getFullSummary() {
         String userId = getCurrentUserId();
-        return analysisService.getFullSummary(userId);
+        return dashboardService.getDashboard(userId);
     }
 }
@@ -7,21 +7,26 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/calendar")
 @RequiredArgsConstructor
+@ModifiesUserData
 public class CalendarController extends BaseController {
 
     private final CalendarEntryRepository calendarEntryRepository;
     private final CalendarService calendarService;
 
     @GetMapping
-    public Map<String, Object> getFullYearCalendar() {
+    public Map<String, Object> getFullYearCalendar(@RequestParam(required = false) Integer year) {
         String userId = getCurrentUserId();
-        return calendarService.generateYearCalendar(userId);
+        if (year == null) {
+            return calendarService.generateYearCalendar(userId);
+        }
+        return calendarService.generateYearCalendar(userId, year);
     }
 
     @GetMapping("/month/{month}")
@@ -36,6 +41,24 @@ public class CalendarController extends BaseController {
         return calendarService.getUpcomingPayments(userId, 30);
     }
 
+    /**
+     * Month by month payments between two months, e.g. {@code ?from=2026-01&to=2026-06}
+     */
+    @GetMapping("/range")
+    public Map<String, Object> getRange(@RequestParam YearMonth from, @RequestParam YearMonth to) {
+        String userId = getCurrentUserId();
+        return calendarService.getRange(userId, from, to);
+    }
+
+    /**
+     * Payments falling due in the next N days, ordered by due date
+     */
+    @GetMapping("/due")
+    public List<Map<String, Object>> getPaymentsDue(@RequestParam(defaultValue = "30") int days) {
+        String userId = getCurrentUserId();
+        return calendarService.getPaymentsDue(userId, days);
+    }
+
     @GetMapping("/entries")
     public List<CalendarEntry> getManualEntries() {
         return calendarEntryRepository.findByAutoLinkedFalse();
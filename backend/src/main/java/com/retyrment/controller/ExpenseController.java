@@ -15,6 +15,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @RestController
+@ModifiesUserData
 @RequestMapping("/expenses")
 @RequiredArgsConstructor
 public class ExpenseController extends BaseController {
@@ -1,22 +1,28 @@
 package com.retyrment.controller;
 
+import com.retyrment.service.BulkImportService;
 import com.retyrment.service.ExportService;
+import com.retyrment.service.ImportReport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @Slf4j
 @RestController
+@ModifiesUserData
 @RequestMapping("/export")
 @RequiredArgsConstructor
 public class ExportController extends BaseController {
 
     private final ExportService exportService;
+    private final BulkImportService bulkImportService;
 
     @GetMapping("/json")
     public Map<String, Object> exportAllDataAsJson() {
@@ -36,6 +42,23 @@ public class ExportController extends BaseController {
         }
     }
 
+    /**
+     * Import a JSON export read straight from the request body, writing each collection in
+     * bulk batches. With {@code atomic=true} nothing is kept unless every record imports.
+     */
+    @PostMapping(value = "/import/json/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> bulkImportDataFromJson(
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean atomic,
+            @RequestParam(required = false) Integer batchSize) {
+        String userId = getCurrentUserId();
+        ImportReport report = bulkImportService.importData(userId, body, atomic, batchSize);
+        if (report.isRolledBack()) {
+            return ResponseEntity.unprocessableEntity().body(report.toMap());
+        }
+        return ResponseEntity.ok(report.toMap());
+    }
+
     @GetMapping("/pdf")
     public ResponseEntity<byte[]> exportPdfReport(@RequestParam(defaultValue = "summary") String type) {
         try {
@@ -64,6 +87,34 @@ public class ExportController extends BaseController {
         }
     }
 
+    /**
+     * Same reports as {@link #exportPdfReport(String)}, with pages written to the response
+     * as they are laid out instead of being buffered in memory first.
+     */
+    @GetMapping("/pdf/stream")
+    public ResponseEntity<StreamingResponseBody> streamPdfReport(@RequestParam(defaultValue = "summary") String type) {
+        // Resolve the user on the request thread; the body is written on an async thread
+        String userId = getCurrentUserId();
+        StreamingResponseBody body;
+        String filename;
+
+        if ("retirement".equals(type)) {
+            body = outputStream -> exportService.writeRetirementPdfReport(userId, outputStream);
+            filename = "Retyrment_Retirement_Report.pdf";
+        } else if ("calendar".equals(type)) {
+            body = outputStream -> exportService.writeCalendarPdfReport(userId, outputStream);
+            filename = "Retyrment_Calendar_Report.pdf";
+        } else {
+            body = outputStream -> exportService.writeFinancialSummaryPdfReport(userId, outputStream);
+            filename = "Retyrment_Financial_Summary.pdf";
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
     @GetMapping("/excel")
     public ResponseEntity<byte[]> exportExcelReport() {
         try {
@@ -78,4 +129,19 @@ public class ExportController extends BaseController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * Same report as {@link #exportExcelReport()}, written to the response as it is generated
+     * instead of being buffered in memory first.
+     */
+    @GetMapping("/excel/stream")
+    public ResponseEntity<StreamingResponseBody> streamExcelReport() {
+        // Resolve the user on the request thread; the body is written on an async thread
+        String userId = getCurrentUserId();
+        StreamingResponseBody body = outputStream -> exportService.writeExcelReport(userId, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Retyrment_Report.xlsx")
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
+    }
 }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ModifiesUserData
 @RequestMapping("/goals")
 @RequiredArgsConstructor
 public class GoalController extends BaseController {
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ModifiesUserData
 @RequestMapping("/income")
 @RequiredArgsConstructor
 public class IncomeController extends BaseController {
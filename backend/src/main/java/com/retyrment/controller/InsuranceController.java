@@ -11,6 +11,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @RestController
+@ModifiesUserData
 @RequestMapping("/insurance")
 @RequiredArgsConstructor
 public class InsuranceController extends BaseController {
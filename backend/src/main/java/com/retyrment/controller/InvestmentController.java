@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ModifiesUserData
 @RequestMapping("/investments")
 @RequiredArgsConstructor
 public class InvestmentController extends BaseController {
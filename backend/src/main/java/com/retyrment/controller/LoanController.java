@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 @RestController
+@ModifiesUserData
 @RequestMapping("/loans")
 @RequiredArgsConstructor
 public class LoanController extends BaseController {
@@ -0,0 +1,18 @@
+package com.retyrment.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks controller endpoints that change the current user's financial data or saved scenarios.
+ *
+ * On a class, every successful POST, PUT, PATCH or DELETE handled by the controller counts
+ * as a change; on a method, that endpoint counts regardless of HTTP method. Each change
+ * bumps the user's data version, which invalidates cached retirement results and payment calendars.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ModifiesUserData {
+}
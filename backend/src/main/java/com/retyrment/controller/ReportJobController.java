@@ -0,0 +1,59 @@
+package com.retyrment.controller;
+
+import com.retyrment.exception.BusinessException;
+import com.retyrment.service.ReportJob;
+import com.retyrment.service.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Background report exports: submit a job, poll its status, then download the file.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/export/jobs")
+@RequiredArgsConstructor
+public class ReportJobController extends BaseController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestParam(defaultValue = "summary") String type) {
+        String userId = getCurrentUserId();
+        try {
+            ReportJob job = reportJobService.submit(userId, ReportJob.Kind.fromType(type));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toMap());
+        } catch (BusinessException e) {
+            log.warn("Report job rejected for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public Map<String, Object> getJob(@PathVariable String id) {
+        return reportJobService.getJob(getCurrentUserId(), id).toMap();
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<?> downloadJob(@PathVariable String id) {
+        ReportJob job = reportJobService.getJob(getCurrentUserId(), id);
+        if (job.getStatus() != ReportJob.Status.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.toMap());
+        }
+
+        Resource file = new InputStreamResource(reportJobService.openFile(job));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getKind().getFilename())
+                .contentType(MediaType.parseMediaType(job.getKind().getContentType()))
+                .body(file);
+    }
+}
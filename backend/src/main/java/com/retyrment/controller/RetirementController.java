@@ -5,7 +5,10 @@ import com.retyrment.model.UserStrategy;
 import com.retyrment.model.User;
 import com.retyrment.repository.RetirementScenarioRepository;
 import com.retyrment.repository.UserStrategyRepository;
+import com.retyrment.service.RetirementMatrixCache;
 import com.retyrment.service.RetirementService;
+import com.retyrment.service.ScenarioComparisonService;
+import com.retyrment.service.WhatIfSessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,17 +26,117 @@ public class RetirementController extends BaseController {
     private final RetirementScenarioRepository scenarioRepository;
     private final UserStrategyRepository userStrategyRepository;
     private final RetirementService retirementService;
+    private final RetirementMatrixCache retirementMatrixCache;
+    private final ScenarioComparisonService scenarioComparisonService;
+    private final WhatIfSessionService whatIfSessionService;
+
+    /**
+     * Saved scenarios by ID and unsaved scenarios, compared in one request.
+     */
+    public record ScenarioComparisonRequest(List<String> scenarioIds, List<RetirementScenario> scenarios) {
+    }
+
+    /**
+     * A scenario and the values to sweep for each assumption; an omitted axis uses defaults
+     * around the scenario's own value.
+     */
+    public record SensitivityRequest(RetirementScenario scenario, List<Integer> retirementAges,
+                                     List<Double> mfReturns, List<Double> inflationRates,
+                                     List<Double> sipStepUps) {
+    }
 
     @GetMapping("/matrix")
     public Map<String, Object> getRetirementMatrix() {
         String userId = getCurrentUserId();
-        return retirementService.generateRetirementMatrix(userId, null);
+        return retirementMatrixCache.get(userId, null,
+                () -> retirementService.generateRetirementMatrix(userId, null));
     }
 
     @PostMapping("/calculate")
     public Map<String, Object> calculateWithAssumptions(@RequestBody RetirementScenario scenario) {
         String userId = getCurrentUserId();
-        return retirementService.generateRetirementMatrix(userId, scenario);
+        return retirementMatrixCache.get(userId, scenario,
+                () -> retirementService.generateRetirementMatrix(userId, scenario));
+    }
+
+    /**
+     * Side-by-side summaries of several scenarios: final corpus, required corpus per strategy,
+     * gap and the first year the user can retire. The user's data is loaded once for all of them.
+     */
+    @PostMapping("/compare")
+    public Map<String, Object> compareScenarios(@RequestBody ScenarioComparisonRequest request) {
+        String userId = getCurrentUserId();
+        return scenarioComparisonService.compare(userId, request.scenarioIds(), request.scenarios());
+    }
+
+    /**
+     * Monte Carlo run of the retirement projection with correlated market returns and inflation.
+     * Returns success probability per income strategy and corpus percentile bands per year.
+     */
+    @PostMapping("/simulate")
+    public Map<String, Object> simulateRetirement(
+            @RequestBody(required = false) RetirementScenario scenario,
+            @RequestParam(defaultValue = "5000") int paths,
+            @RequestParam(required = false) Long seed) {
+        String userId = getCurrentUserId();
+        return retirementService.simulateRetirement(userId, scenario, paths, seed);
+    }
+
+    /**
+     * Earliest age the user can retire under each income strategy, searched up to life expectancy.
+     */
+    @PostMapping("/earliest")
+    public Map<String, Object> findEarliestRetirement(@RequestBody(required = false) RetirementScenario scenario) {
+        String userId = getCurrentUserId();
+        return retirementService.findEarliestRetirement(userId, scenario);
+    }
+
+    /**
+     * The smallest extra SIP, step-up, yearly lumpsum or retirement delay that closes the corpus
+     * gap, each solved against the full projection.
+     */
+    @PostMapping("/close-gap")
+    public Map<String, Object> closeGap(@RequestBody(required = false) RetirementScenario scenario) {
+        String userId = getCurrentUserId();
+        return retirementService.closeGap(userId, scenario);
+    }
+
+    /**
+     * Final corpus, required corpus and gap for every combination of retirement age, MF return,
+     * inflation and SIP step-up, with a tornado ranking the assumptions by how much they move the gap.
+     */
+    @PostMapping("/sensitivity")
+    public Map<String, Object> analyzeSensitivity(@RequestBody SensitivityRequest request) {
+        String userId = getCurrentUserId();
+        return retirementService.analyzeSensitivity(userId, request.scenario(), request.retirementAges(),
+                request.mfReturns(), request.inflationRates(), request.sipStepUps());
+    }
+
+    /**
+     * Start a what-if session on a scenario (or the default one). Returns the full matrix rows
+     * and summary; later edits to the session return only what changed.
+     */
+    @PostMapping("/what-if")
+    public Map<String, Object> startWhatIf(@RequestBody(required = false) RetirementScenario scenario) {
+        String userId = getCurrentUserId();
+        return whatIfSessionService.start(userId, scenario);
+    }
+
+    /**
+     * Apply the non-null assumption fields in the body to a what-if session. Only the rows from
+     * the first affected year are recomputed, and only changed rows and summary fields are returned.
+     */
+    @PatchMapping("/what-if/{sessionId}")
+    public Map<String, Object> editWhatIf(@PathVariable String sessionId, @RequestBody RetirementScenario edits) {
+        String userId = getCurrentUserId();
+        return whatIfSessionService.edit(userId, sessionId, edits);
+    }
+
+    @DeleteMapping("/what-if/{sessionId}")
+    public ResponseEntity<Void> endWhatIf(@PathVariable String sessionId) {
+        String userId = getCurrentUserId();
+        whatIfSessionService.end(userId, sessionId);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/scenarios")
@@ -56,6 +159,7 @@ public class RetirementController extends BaseController {
     }
 
     @PostMapping("/scenarios")
+    @ModifiesUserData
     public RetirementScenario createScenario(@RequestBody RetirementScenario scenario) {
         // If this is set as default, unset other defaults
         if (Boolean.TRUE.equals(scenario.getIsDefault())) {
@@ -68,6 +172,7 @@ public class RetirementController extends BaseController {
     }
 
     @PutMapping("/scenarios/{id}")
+    @ModifiesUserData
     public ResponseEntity<RetirementScenario> updateScenario(@PathVariable String id, 
                                                               @RequestBody RetirementScenario scenario) {
         if (!scenarioRepository.existsById(id)) {
@@ -78,6 +183,7 @@ public class RetirementController extends BaseController {
     }
 
     @DeleteMapping("/scenarios/{id}")
+    @ModifiesUserData
     public ResponseEntity<Void> deleteScenario(@PathVariable String id) {
         if (!scenarioRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
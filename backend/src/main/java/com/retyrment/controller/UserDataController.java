@@ -1,6 +1,7 @@
 package com.retyrment.controller;
 
 import com.retyrment.model.User;
+import com.retyrment.service.UserDataDeletion;
 import com.retyrment.service.UserDataDeletionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +16,7 @@ import java.util.Map;
 
 @Slf4j
 @RestController
+@ModifiesUserData
 @RequestMapping("/user/data")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
@@ -63,11 +65,14 @@ public class UserDataController extends BaseController {
      * Delete ALL user financial data
      * DELETE /api/user/data/all
      * 
-     * Requires confirmation parameter to prevent accidental deletion
+     * Requires confirmation parameter to prevent accidental deletion.
+     * With async=true the deletion runs in the background and 202 returns its status,
+     * which can then be polled at GET /api/user/data/deletion
      */
     @DeleteMapping("/all")
     public ResponseEntity<Map<String, Object>> deleteAllData(
-            @RequestParam(required = true) String confirmation) {
+            @RequestParam(required = true) String confirmation,
+            @RequestParam(defaultValue = "false") boolean async) {
         
         try {
             String userId = getCurrentUserId();
@@ -84,6 +89,11 @@ public class UserDataController extends BaseController {
             
             log.warn("User {} ({}) is deleting all their data", userEmail, userId);
             
+            if (async) {
+                UserDataDeletion deletion = userDataDeletionService.startDeletion(userId);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(deletion.toMap());
+            }
+            
             Map<String, Object> result = userDataDeletionService.deleteAllUserData(userId);
             
             if (Boolean.TRUE.equals(result.get("success"))) {
@@ -103,4 +113,20 @@ public class UserDataController extends BaseController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /**
+     * Status of the user's running or most recent data deletion
+     * GET /api/user/data/deletion
+     */
+    @GetMapping("/deletion")
+    public ResponseEntity<Map<String, Object>> getDeletionStatus() {
+        String userId = getCurrentUserId();
+        return userDataDeletionService.getDeletion(userId)
+                .map(deletion -> ResponseEntity.ok(deletion.toMap()))
+                .orElseGet(() -> {
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("error", "No data deletion found");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
 }
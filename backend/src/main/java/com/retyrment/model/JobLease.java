@@ -0,0 +1,33 @@
+package com.retyrment.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide lease for a background job, one document per job.
+ * The token grows by one on every acquisition and serves as a fencing token.
+ */
+@Document(collection = "job_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    @Id
+    private String job;
+
+    private String owner;           // Instance that holds or last held the lease
+
+    private long token;
+
+    private Instant acquiredAt;
+
+    private Instant expiresAt;      // Free to take after this. Never TTL-deleted, which would reset the token
+}
@@ -18,7 +18,7 @@ import java.util.List;
 @lombok.Setter
 @lombok.EqualsAndHashCode
 @lombok.ToString
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "retirement_scenarios")
@@ -0,0 +1,25 @@
+package com.retyrment.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Version of a user's financial data, one document per user that has written any.
+ * Shared by every instance, so a write on one invalidates results cached on the others.
+ */
+@Document(collection = "user_data_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDataVersion {
+
+    @Id
+    private String userId;
+
+    private long version;
+}
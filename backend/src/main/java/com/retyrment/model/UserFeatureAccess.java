@@ -16,6 +16,9 @@ import java.util.Set;
 /**
  * Per-user feature access control.
  * Controls which pages, tabs, and features are visible to each user.
+ *
+ * Stored documents are overrides of the role template in FeatureAccessService:
+ * a null field means the user gets the default for their role.
  */
 @Document(collection = "user_feature_access")
 @Data
@@ -31,56 +34,39 @@ public class UserFeatureAccess {
     private String userId;
 
     // Page visibility flags
-    @Builder.Default
-    private Boolean incomePage = true;  // Always visible
+    private Boolean incomePage;  // Always visible
 
-    @Builder.Default
-    private Boolean investmentPage = true;  // Visible by default
+    private Boolean investmentPage;  // Visible by default
 
-    @Builder.Default
-    private Boolean loanPage = true;  // Always visible
+    private Boolean loanPage;  // Always visible
 
-    @Builder.Default
-    private Boolean insurancePage = true;  // Visible by default
+    private Boolean insurancePage;  // Visible by default
 
-    @Builder.Default
-    private Boolean expensePage = true;  // Always visible
+    private Boolean expensePage;  // Always visible
 
-    @Builder.Default
-    private Boolean goalsPage = true;  // Visible by default
+    private Boolean goalsPage;  // Visible by default
 
-    @Builder.Default
-    private Boolean familyPage = true;  // Family members page - visible by default
+    private Boolean familyPage;  // Family members page - visible by default
 
-    @Builder.Default
-    private Boolean calendarPage = false;  // Restricted by default
+    private Boolean calendarPage;  // Restricted by default
 
-    @Builder.Default
-    private Boolean retirementPage = true;  // Visible by default
+    private Boolean retirementPage;  // Visible by default
 
-    @Builder.Default
-    private Boolean insuranceRecommendationsPage = true;  // Insurance Advisor page - visible by default
+    private Boolean insuranceRecommendationsPage;  // Insurance Advisor page - visible by default
 
-    @Builder.Default
-    private Boolean reportsPage = false;  // Restricted by default
+    private Boolean reportsPage;  // Restricted by default
 
-    @Builder.Default
-    private Boolean simulationPage = false;  // Restricted by default - controls page visibility
+    private Boolean simulationPage;  // Restricted by default - controls page visibility
 
-    @Builder.Default
-    private Boolean canRunSimulation = false;  // Restricted by default - controls ability to run simulations
+    private Boolean canRunSimulation;  // Restricted by default - controls ability to run simulations
 
-    @Builder.Default
-    private Boolean adminPanel = false;  // Admin only
+    private Boolean adminPanel;  // Admin only
 
-    @Builder.Default
-    private Boolean preferencesPage = false;  // Restricted by default
+    private Boolean preferencesPage;  // Restricted by default
 
-    @Builder.Default
-    private Boolean settingsPage = true;  // Always visible
+    private Boolean settingsPage;  // Always visible
 
-    @Builder.Default
-    private Boolean accountPage = true;  // Always visible
+    private Boolean accountPage;  // Always visible
 
     // Investment type restrictions (allowed types)
     private Set<String> allowedInvestmentTypes;
@@ -106,24 +92,18 @@ public class UserFeatureAccess {
     }
 
     // Retirement page tab restrictions
-    @Builder.Default
-    private Boolean retirementStrategyPlannerTab = false;  // Restricted by default
+    private Boolean retirementStrategyPlannerTab;  // Restricted by default
 
-    @Builder.Default
-    private Boolean retirementWithdrawalStrategyTab = false;  // Restricted by default
+    private Boolean retirementWithdrawalStrategyTab;  // Restricted by default
 
     // Report type restrictions
-    @Builder.Default
-    private Boolean canExportPdf = false;  // Restricted by default
+    private Boolean canExportPdf;  // Restricted by default
 
-    @Builder.Default
-    private Boolean canExportExcel = false;  // Restricted by default
+    private Boolean canExportExcel;  // Restricted by default
 
-    @Builder.Default
-    private Boolean canExportJson = false;  // Restricted by default
+    private Boolean canExportJson;  // Restricted by default
 
-    @Builder.Default
-    private Boolean canImportData = false;  // Restricted by default
+    private Boolean canImportData;  // Restricted by default
 
     private LocalDateTime createdAt;
 
@@ -1,7 +1,7 @@
 package com.retyrment.security;
 
 import com.retyrment.model.User;
-import com.retyrment.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,14 +16,13 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -32,12 +31,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String token = extractToken(request);
         
-        if (token != null && jwtUtils.validateToken(token)) {
-            String email = jwtUtils.getEmailFromToken(token);
-            Optional<User> userOpt = userRepository.findByEmail(email);
+        // One signature check and parse per request; the user normally comes from the cache
+        Claims claims = token != null ? jwtUtils.parseValidClaims(token) : null;
+        if (claims != null) {
+            User user = userPrincipalCache.get(claims.getSubject());
             
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
+            if (user != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -26,6 +26,7 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
 
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
     private final OAuth2RedirectStateStore redirectStateStore;
 
     @Value("${app.frontend-url}")
@@ -86,6 +87,7 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
         }
         
         userRepository.save(user);
+        userPrincipalCache.evict(user);
         
         // Generate JWT with role
         String token = jwtUtils.generateToken(email, name, user.getRole().name());
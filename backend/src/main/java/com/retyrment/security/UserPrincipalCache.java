@@ -0,0 +1,68 @@
+package com.retyrment.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.retyrment.model.User;
+import com.retyrment.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived cache of authenticated users by email, so a request with a valid token does
+ * not need a user lookup.
+ *
+ * Code that changes a user's role, trial or subscription must evict the user, so the next
+ * request sees the change. Evictions only reach this instance; the TTL bounds how long
+ * another instance can serve the old user. Cached users are shared between requests and
+ * must not be modified.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${app.cache.user-principal.max-entries:10000}") long maxEntries,
+                              @Value("${app.cache.user-principal.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The user with this email, or null if there is none. Unknown emails are not cached.
+     */
+    public User get(String email) {
+        return cache.get(email, e -> userRepository.findByEmail(e).orElse(null));
+    }
+
+    public void evict(User user) {
+        if (user != null && user.getEmail() != null) {
+            cache.invalidate(user.getEmail());
+        }
+    }
+
+    public void evictById(String userId) {
+        cache.asMap().values().removeIf(user -> userId.equals(user.getId()));
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package com.retyrment.service;
+
+import com.retyrment.dto.UserResponseDTO;
+import com.retyrment.model.*;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Admin user listing backed by a single aggregation per page.
+ *
+ * One {@code $facet} over the users collection returns the requested page, the total and the
+ * role, trial and expiry statistics. Each user on the page gets their record counts from
+ * {@code $lookup} stages on the userId indexes, so a page costs one round trip however many
+ * users and collections there are.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminUserService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final Set<String> SORT_FIELDS = Set.of("createdAt", "lastLoginAt", "email", "name", "role");
+
+    static final int EXPIRING_WITHIN_DAYS = 7;
+    private static final String USER_ID_STRING = "_userIdString";
+    private static final String COUNT_PREFIX = "_count_";
+
+    /** Record summary keys shown to admins and the entities they count. */
+    private static final Map<String, Class<?>> SUMMARY_TYPES = summaryTypes();
+
+    private final MongoTemplate mongoTemplate;
+
+    private static Map<String, Class<?>> summaryTypes() {
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        types.put("income", Income.class);
+        types.put("investments", Investment.class);
+        types.put("expenses", Expense.class);
+        types.put("insurance", Insurance.class);
+        types.put("loans", Loan.class);
+        types.put("goals", Goal.class);
+        types.put("family", FamilyMember.class);
+        return Collections.unmodifiableMap(types);
+    }
+
+    /**
+     * One page of users with their record counts, plus totals and role statistics for all users.
+     *
+     * @param sortField one of {@link #SORT_FIELDS}
+     */
+    public Map<String, Object> listUsers(int page, int size, String sortField, boolean ascending) {
+        int pageIndex = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, String> summaryCollections = new LinkedHashMap<>();
+        SUMMARY_TYPES.forEach((key, type) -> summaryCollections.put(key, mongoTemplate.getCollectionName(type)));
+        List<Document> pipeline = listPipeline(summaryCollections, pageIndex, pageSize, sortField, ascending,
+                toDate(now), toDate(now.plusDays(EXPIRING_WITHIN_DAYS)));
+
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .first();
+        if (result == null) {
+            result = new Document();
+        }
+
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (Document userDocument : result.getList("users", Document.class, List.of())) {
+            Document counts = (Document) userDocument.remove("recordSummary");
+            User user = mongoTemplate.getConverter().read(User.class, userDocument);
+            Map<String, Object> userMap = UserResponseDTO.fromUser(user, true).toMap();
+            Map<String, Object> recordSummary = new LinkedHashMap<>();
+            for (String key : SUMMARY_TYPES.keySet()) {
+                Object count = counts == null ? null : counts.get(key);
+                recordSummary.put(key, count instanceof Number n ? n.longValue() : 0L);
+            }
+            userMap.put("recordSummary", recordSummary);
+            users.add(userMap);
+        }
+
+        Map<String, Long> roleCounts = new HashMap<>();
+        for (Document role : result.getList("roles", Document.class, List.of())) {
+            String name = role.get("_id") == null ? User.UserRole.FREE.name() : role.get("_id").toString();
+            roleCounts.merge(name, ((Number) role.get("n")).longValue(), Long::sum);
+        }
+
+        long total = facetCount(result, "total");
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total", total);
+        response.put("page", pageIndex);
+        response.put("size", pageSize);
+        response.put("totalPages", (total + pageSize - 1) / pageSize);
+        response.put("users", users);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("free", roleCounts.getOrDefault(User.UserRole.FREE.name(), 0L));
+        stats.put("pro", roleCounts.getOrDefault(User.UserRole.PRO.name(), 0L));
+        stats.put("admin", roleCounts.getOrDefault(User.UserRole.ADMIN.name(), 0L));
+        stats.put("activeTrials", facetCount(result, "activeTrials"));
+        stats.put("temporaryRoles", facetCount(result, "temporaryRoles"));
+        stats.put("expiringIn7Days", facetCount(result, "expiringIn7Days"));
+        response.put("stats", stats);
+        return response;
+    }
+
+    /**
+     * Users whose email starts with the given text, matched on the unique email index.
+     * Emails are stored as the identity provider returns them, which is lower case.
+     */
+    public List<Map<String, Object>> searchByEmailPrefix(String emailPrefix, int limit) {
+        Query query = Query.query(Criteria.where("email").regex(prefixRegex(emailPrefix)))
+                .with(Sort.by("email"))
+                .limit(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        return mongoTemplate.find(query, User.class).stream()
+                .map(user -> UserResponseDTO.fromUser(user, true).toMap())
+                .toList();
+    }
+
+    static List<Document> listPipeline(Map<String, String> summaryCollections, int page, int size,
+                                       String sortField, boolean ascending, Date now, Date expiringBefore) {
+        int direction = ascending ? 1 : -1;
+        List<Document> pagePipeline = new ArrayList<>();
+        pagePipeline.add(new Document("$sort", new Document(sortField, direction).append("_id", direction)));
+        pagePipeline.add(new Document("$skip", (long) page * size));
+        pagePipeline.add(new Document("$limit", size));
+        pagePipeline.add(new Document("$addFields",
+                new Document(USER_ID_STRING, new Document("$toString", "$_id"))));
+
+        Document recordSummary = new Document();
+        Document cleanup = new Document(USER_ID_STRING, 0);
+        summaryCollections.forEach((key, collection) -> {
+            pagePipeline.add(new Document("$lookup", new Document("from", collection)
+                    .append("localField", USER_ID_STRING)
+                    .append("foreignField", "userId")
+                    .append("pipeline", List.of(new Document("$count", "n")))
+                    .append("as", COUNT_PREFIX + key)));
+            recordSummary.append(key, new Document("$ifNull",
+                    List.of(new Document("$arrayElemAt", List.of("$" + COUNT_PREFIX + key + ".n", 0)), 0)));
+            cleanup.append(COUNT_PREFIX + key, 0);
+        });
+        pagePipeline.add(new Document("$addFields", new Document("recordSummary", recordSummary)));
+        pagePipeline.add(new Document("$project", cleanup));
+
+        Document facets = new Document("users", pagePipeline)
+                .append("total", List.of(new Document("$count", "n")))
+                .append("roles", List.of(new Document("$group",
+                        new Document("_id", "$role").append("n", new Document("$sum", 1)))))
+                .append("activeTrials", countWhere(new Document("trialEndDate", new Document("$gt", now))))
+                .append("temporaryRoles", countWhere(new Document("roleExpiryDate", new Document("$ne", null))))
+                .append("expiringIn7Days", countWhere(new Document("roleExpiryDate",
+                        new Document("$gt", now).append("$lt", expiringBefore))));
+        return List.of(new Document("$facet", facets));
+    }
+
+    private static List<Document> countWhere(Document filter) {
+        return List.of(new Document("$match", filter), new Document("$count", "n"));
+    }
+
+    private static long facetCount(Document result, String facet) {
+        List<Document> counts = result.getList(facet, Document.class, List.of());
+        return counts.isEmpty() ? 0L : ((Number) counts.get(0).get("n")).longValue();
+    }
+
+    /**
+     * An anchored, case-sensitive regex for the prefix, so the server can bound the index scan.
+     */
+    static String prefixRegex(String prefix) {
+        StringBuilder regex = new StringBuilder("^");
+        for (char c : prefix.trim().toLowerCase(Locale.ROOT).toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+
+    /** Same conversion Spring Data applies when it stores a LocalDateTime. */
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
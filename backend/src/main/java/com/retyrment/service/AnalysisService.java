@@ -25,6 +25,10 @@ public class AnalysisService {
     private final UserStrategyRepository userStrategyRepository;
     private final RetirementService retirementService;
 
+    private static final int MAX_MONTE_CARLO_SIMULATIONS = 1_000_000;
+    private static final int MAX_MONTE_CARLO_YEARS = 100;
+    static final int SUMMARY_PROJECTION_YEARS = 10;
+
     @Value("${app.defaults.inflation-rate}")
     private double defaultInflation;
 
@@ -32,24 +36,30 @@ public class AnalysisService {
     private double defaultMFReturn;
 
     public Map<String, Object> calculateNetWorth(String userId) {
+        return netWorth(investmentRepository.findByUserId(userId),
+                insuranceRepository.findByUserId(userId),
+                loanRepository.findByUserId(userId));
+    }
+
+    Map<String, Object> netWorth(List<Investment> investments, List<Insurance> insurances, List<Loan> loans) {
         Map<String, Object> result = new LinkedHashMap<>();
 
-        // Calculate total assets - filter by userId
-        double totalInvestments = investmentRepository.findByUserId(userId).stream()
+        // Calculate total assets
+        double totalInvestments = investments.stream()
                 .mapToDouble(i -> i.getCurrentValue() != null ? i.getCurrentValue() : 
                                   (i.getInvestedAmount() != null ? i.getInvestedAmount() : 0))
                 .sum();
 
-        // Add insurance fund values (ULIP, Endowment) - filter by userId
-        double insuranceFundValue = insuranceRepository.findByUserId(userId).stream()
+        // Add insurance fund values (ULIP, Endowment)
+        double insuranceFundValue = insurances.stream()
                 .filter(i -> i.getFundValue() != null)
                 .mapToDouble(Insurance::getFundValue)
                 .sum();
 
         double totalAssets = totalInvestments + insuranceFundValue;
 
-        // Calculate total liabilities - filter by userId
-        double totalLiabilities = loanRepository.findByUserId(userId).stream()
+        // Calculate total liabilities
+        double totalLiabilities = loans.stream()
                 .mapToDouble(l -> l.getOutstandingAmount() != null ? l.getOutstandingAmount() : 0)
                 .sum();
 
@@ -61,9 +71,9 @@ public class AnalysisService {
         result.put("totalLiabilities", Math.round(totalLiabilities));
         result.put("netWorth", Math.round(netWorth));
 
-        // Breakdown by investment type - filter by userId
+        // Breakdown by investment type
         Map<String, Double> assetBreakdown = new LinkedHashMap<>();
-        investmentRepository.findByUserId(userId).forEach(inv -> {
+        investments.forEach(inv -> {
             String type = inv.getType() != null ? inv.getType().name() : "OTHER";
             double value = inv.getCurrentValue() != null ? inv.getCurrentValue() : 
                           (inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0);
@@ -71,10 +81,10 @@ public class AnalysisService {
         });
         result.put("assetBreakdown", assetBreakdown);
         
-     // Breakdown by investment type - filter by userId
+     // Breakdown by investment type
         Map<String, Double> sellableAssets = new LinkedHashMap<>();
-        investmentRepository.findByUserIdAndType(userId, InvestmentType.REAL_ESTATE)
-        .stream()
+        investments.stream()
+        .filter(inv -> inv.getType() == InvestmentType.REAL_ESTATE)
         .filter(inv -> inv.getMonthlyRentalIncome() == null 
                 || (
                 		!"SELF_OCCUPIED".equals(inv.getRealEstateType())
@@ -93,36 +103,38 @@ public class AnalysisService {
     }
 
     public Map<String, Object> calculateProjections(String userId, int years) {
+        return projections(investmentRepository.findByUserId(userId), years);
+    }
+
+    /**
+     * All holdings are projected together by {@link ProjectionKernel}, one multiply-add per
+     * holding per year.
+     */
+    Map<String, Object> projections(List<Investment> investments, int years) {
         Map<String, Object> result = new LinkedHashMap<>();
         List<Map<String, Object>> yearlyProjection = new ArrayList<>();
 
-        List<Investment> investments = investmentRepository.findByUserId(userId);
         int currentYear = LocalDate.now().getYear();
 
-        for (int year = 0; year <= years; year++) {
+        int holdings = investments.size();
+        double[] principals = new double[holdings];
+        double[] returnRates = new double[holdings];
+        double[] monthlySips = new double[holdings];
+        for (int i = 0; i < holdings; i++) {
+            Investment inv = investments.get(i);
+            principals[i] = inv.getCurrentValue() != null ? inv.getCurrentValue() : 
+                            (inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0);
+            returnRates[i] = inv.getExpectedReturn() != null ? inv.getExpectedReturn() : defaultMFReturn;
+            monthlySips[i] = inv.getMonthlySip() != null ? inv.getMonthlySip() : 0;
+        }
+        double[] totals = years >= 0
+                ? ProjectionKernel.portfolioTotals(principals, returnRates, monthlySips, years)
+                : new double[0];
+
+        for (int year = 0; year < totals.length; year++) {
             Map<String, Object> yearData = new LinkedHashMap<>();
             yearData.put("year", currentYear + year);
-            
-            double totalValue = 0;
-
-            // Project each investment
-            for (Investment inv : investments) {
-                double currentValue = inv.getCurrentValue() != null ? inv.getCurrentValue() : 
-                                     (inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0);
-                double returnRate = inv.getExpectedReturn() != null ? inv.getExpectedReturn() : defaultMFReturn;
-                
-                // Lumpsum growth
-                double projected = calculationService.calculateFutureValue(currentValue, returnRate, year);
-                
-                // SIP growth
-                if (inv.getMonthlySip() != null && inv.getMonthlySip() > 0) {
-                    projected += calculationService.calculateSIPFutureValue(inv.getMonthlySip(), returnRate, year);
-                }
-                
-                totalValue += projected;
-            }
-
-            yearData.put("projectedValue", Math.round(totalValue));
+            yearData.put("projectedValue", Math.round(totals[year]));
             yearlyProjection.add(yearData);
         }
 
@@ -134,8 +146,16 @@ public class AnalysisService {
     }
 
     public Map<String, Object> analyzeGoals(String userId) {
-        Map<String, Object> result = new LinkedHashMap<>();
         List<Goal> goals = goalRepository.findByUserIdOrderByTargetYearAsc(userId);
+        return goalAnalysis(goals, goals.isEmpty() ? List.of() : investmentRepository.findByUserId(userId));
+    }
+
+    /**
+     * @param goals       the user's goals, ordered by target year
+     * @param investments the user's investments, projected to each goal's year
+     */
+    Map<String, Object> goalAnalysis(List<Goal> goals, List<Investment> investments) {
+        Map<String, Object> result = new LinkedHashMap<>();
         
         int currentYear = LocalDate.now().getYear();
 
@@ -155,7 +175,7 @@ public class AnalysisService {
             double inflatedAmount = calculationService.calculateInflatedValue(targetAmount, defaultInflation, yearsToGoal);
             
             // Calculate projected corpus at goal year
-            Map<String, Object> projection = calculateProjections(userId, yearsToGoal);
+            Map<String, Object> projection = projections(investments, yearsToGoal);
             double projectedCorpus = ((Number) projection.get("finalValue")).doubleValue();
             
             // Simple proportional allocation based on total goals
@@ -191,15 +211,20 @@ public class AnalysisService {
     }
 
     public Map<String, Object> generateRecommendations(String userId) {
+        return recommendations(investmentRepository.findByUserId(userId),
+                insuranceRepository.findByUserId(userId),
+                expenseRepository.findByUserId(userId),
+                incomeRepository.findByUserIdAndIsActiveTrue(userId));
+    }
+
+    /**
+     * @param incomes the user's active incomes
+     */
+    Map<String, Object> recommendations(List<Investment> investments, List<Insurance> insurances,
+                                        List<Expense> expenses, List<Income> incomes) {
         Map<String, Object> result = new LinkedHashMap<>();
         List<Map<String, Object>> recommendations = new ArrayList<>();
 
-        // Get current data - filter by userId
-        List<Investment> investments = investmentRepository.findByUserId(userId);
-        List<Insurance> insurances = insuranceRepository.findByUserId(userId);
-        List<Expense> expenses = expenseRepository.findByUserId(userId);
-        List<Income> incomes = incomeRepository.findByUserIdAndIsActiveTrue(userId);
-
         double totalMonthlyIncome = incomes.stream()
                 .mapToDouble(i -> i.getMonthlyAmount() != null ? i.getMonthlyAmount() : 0)
                 .sum();
@@ -280,8 +305,22 @@ public class AnalysisService {
     }
 
     public Map<String, Object> runMonteCarloSimulation(String userId, int simulations, int years) {
+        return runMonteCarloSimulation(userId, simulations, years, null);
+    }
+
+    /**
+     * Monte Carlo projection of the current portfolio. Passing the same seed again
+     * (it is echoed back in the response) reproduces the same result; a null seed picks a random one.
+     */
+    public Map<String, Object> runMonteCarloSimulation(String userId, int simulations, int years, Long seed) {
+        if (simulations < 1 || simulations > MAX_MONTE_CARLO_SIMULATIONS) {
+            throw new IllegalArgumentException("Simulations must be between 1 and " + MAX_MONTE_CARLO_SIMULATIONS);
+        }
+        if (years < 0 || years > MAX_MONTE_CARLO_YEARS) {
+            throw new IllegalArgumentException("Years must be between 0 and " + MAX_MONTE_CARLO_YEARS);
+        }
         Map<String, Object> result = new LinkedHashMap<>();
-        java.security.SecureRandom random = new java.security.SecureRandom();
+        long effectiveSeed = seed != null ? seed : new java.security.SecureRandom().nextLong();
 
         UserSettings userSettings = userSettingsRepository.findByUserId(userId).orElse(null);
         double meanReturn = userSettings != null && userSettings.getMfEquityReturn() != null
@@ -332,51 +371,56 @@ public class AnalysisService {
 
         double stdDev = 8.0; // Typical equity volatility
 
-        List<Double> finalValues = new ArrayList<>();
+        double[] finalValues = MonteCarloEngine.simulateFinalValues(
+                currentValue, monthlySIP * 12, meanReturn, stdDev, years, simulations, effectiveSeed);
 
-        for (int sim = 0; sim < simulations; sim++) {
-            double value = currentValue;
-            for (int year = 0; year < years; year++) {
-                // Random return with normal distribution
-                double yearReturn = meanReturn + random.nextGaussian() * stdDev;
-                value = value * (1 + yearReturn / 100);
-                value += monthlySIP * 12 * (1 + yearReturn / 200); // Simplified SIP addition
+        double sum = 0;
+        long successfulSimulations = 0;
+        for (double value : finalValues) {
+            sum += value;
+            if (value >= targetCorpus) {
+                successfulSimulations++;
             }
-            finalValues.add(value);
         }
 
-        Collections.sort(finalValues);
+        double[] p = MonteCarloEngine.percentiles(finalValues, 0.10, 0.25, 0.50, 0.75, 0.90);
 
         // Create percentiles object for frontend compatibility
         Map<String, Object> percentiles = new LinkedHashMap<>();
-        percentiles.put("p10", Math.round(finalValues.get((int)(simulations * 0.10))));
-        percentiles.put("p25", Math.round(finalValues.get((int)(simulations * 0.25))));
-        percentiles.put("p50", Math.round(finalValues.get((int)(simulations * 0.50))));
-        percentiles.put("p75", Math.round(finalValues.get((int)(simulations * 0.75))));
-        percentiles.put("p90", Math.round(finalValues.get((int)(simulations * 0.90))));
+        percentiles.put("p10", Math.round(p[0]));
+        percentiles.put("p25", Math.round(p[1]));
+        percentiles.put("p50", Math.round(p[2]));
+        percentiles.put("p75", Math.round(p[3]));
+        percentiles.put("p90", Math.round(p[4]));
 
         // Calculate success rate based on inflation-adjusted target corpus
-        long successfulSimulations = finalValues.stream()
-                .mapToLong(v -> v >= targetCorpus ? 1 : 0)
-                .sum();
         double successRate = (successfulSimulations * 100.0) / simulations;
 
         result.put("simulations", simulations);
         result.put("years", years);
         result.put("percentiles", percentiles);  // ✅ Nested structure
-        result.put("average", Math.round(finalValues.stream().mapToDouble(d -> d).average().orElse(0)));
+        result.put("average", Math.round(sum / simulations));
         result.put("successRate", Math.round(successRate * 10) / 10.0);  // ✅ Add success rate
         result.put("targetCorpus", Math.round(targetCorpus));
+        result.put("seed", effectiveSeed);
 
         return result;
     }
 
+    /**
+     * All four dashboard sections, computed one after another from a single load of each
+     * collection. {@link DashboardService} computes the same sections concurrently.
+     */
     public Map<String, Object> getFullSummary(String userId) {
+        List<Investment> investments = investmentRepository.findByUserId(userId);
+        List<Insurance> insurances = insuranceRepository.findByUserId(userId);
+
         Map<String, Object> summary = new LinkedHashMap<>();
-        summary.put("netWorth", calculateNetWorth(userId));
-        summary.put("projections", calculateProjections(userId, 10));
-        summary.put("goals", analyzeGoals(userId));
-        summary.put("recommendations", generateRecommendations(userId));
+        summary.put("netWorth", netWorth(investments, insurances, loanRepository.findByUserId(userId)));
+        summary.put("projections", projections(investments, SUMMARY_PROJECTION_YEARS));
+        summary.put("goals", goalAnalysis(goalRepository.findByUserIdOrderByTargetYearAsc(userId), investments));
+        summary.put("recommendations", recommendations(investments, insurances,
+                expenseRepository.findByUserId(userId), incomeRepository.findByUserIdAndIsActiveTrue(userId)));
         return summary;
     }
 }
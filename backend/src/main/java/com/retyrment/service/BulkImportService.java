@@ -0,0 +1,225 @@
+package com.retyrment.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.retyrment.exception.BusinessException;
+import com.retyrment.model.Expense;
+import com.retyrment.model.Goal;
+import com.retyrment.model.Income;
+import com.retyrment.model.Insurance;
+import com.retyrment.model.Investment;
+import com.retyrment.model.Loan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Imports a JSON data export with one bulk insert per batch instead of one save per record.
+ *
+ * The payload is read with a streaming parser, one record at a time, so only the current
+ * batch is held in memory. An export that has already been parsed, as the original
+ * {@code /export/import/json} endpoint receives it, goes through the same batches. Records
+ * that fail to map are counted and reported, not imported.
+ * In atomic mode the whole import runs in a Mongo transaction and is rolled back if any
+ * record fails; this needs a replica set. Otherwise every valid record is kept.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    static final int MAX_BATCH_SIZE = 5000;
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {
+    };
+
+    // Collections of a data export that can be imported; other fields are skipped
+    private static final Map<String, Target<?>> TARGETS = Map.of(
+            "income", new Target<>(Income.class, ImportRecordMapper::toIncome, Income::setUserId),
+            "investments", new Target<>(Investment.class, ImportRecordMapper::toInvestment, Investment::setUserId),
+            "loans", new Target<>(Loan.class, ImportRecordMapper::toLoan, Loan::setUserId),
+            "insurance", new Target<>(Insurance.class, ImportRecordMapper::toInsurance, Insurance::setUserId),
+            "expenses", new Target<>(Expense.class, ImportRecordMapper::toExpense, Expense::setUserId),
+            "goals", new Target<>(Goal.class, ImportRecordMapper::toGoal, Goal::setUserId));
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionOperations transactions;
+    private final int defaultBatchSize;
+
+    /**
+     * The transaction manager is private to this service: registering it as a bean would
+     * turn on {@code @Transactional} everywhere, which fails against a standalone server.
+     */
+    @Autowired
+    public BulkImportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                             @Value("${app.import.batch-size:500}") int defaultBatchSize) {
+        this(mongoTemplate, objectMapper,
+                new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory())),
+                defaultBatchSize);
+    }
+
+    BulkImportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                      TransactionOperations transactions, int defaultBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.transactions = transactions;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Import the export in {@code json} for the user.
+     *
+     * @param batchSize records per bulk insert, or null for the configured default
+     * @throws BusinessException if the payload is not a well-formed JSON object
+     */
+    public ImportReport importData(String userId, InputStream json, boolean atomic, Integer batchSize) {
+        int size = batchSize != null ? Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE)) : defaultBatchSize;
+        ImportReport report = new ImportReport(atomic);
+        if (!atomic) {
+            parse(userId, json, size, BulkMode.UNORDERED, report);
+            return report;
+        }
+        try {
+            transactions.executeWithoutResult(status -> {
+                parse(userId, json, size, BulkMode.ORDERED, report);
+                if (report.hasErrors()) {
+                    status.setRollbackOnly();
+                    report.markRolledBack();
+                }
+            });
+        } catch (BulkOperationException e) {
+            // The failed write aborted the transaction, and the template rolled it back on the way out
+            report.markRolledBack();
+        }
+        return report;
+    }
+
+    private void parse(String userId, InputStream json, int batchSize, BulkMode mode, ImportReport report) {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new BusinessException("Import payload must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                Target<?> target = TARGETS.get(field);
+                if (target == null || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                importArray(userId, parser, field, target, batchSize, mode, report.collection(field));
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Malformed import payload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Import an export that has already been parsed, as the legacy JSON endpoint receives it.
+     * Collections are written in unordered batches of the configured size, so every valid
+     * record is kept.
+     */
+    public ImportReport importData(String userId, Map<String, Object> data) {
+        ImportReport report = new ImportReport(false);
+        data.forEach((field, value) -> {
+            Target<?> target = TARGETS.get(field);
+            if (target != null && value instanceof List<?> items) {
+                importList(userId, items, field, target, report.collection(field));
+            }
+        });
+        return report;
+    }
+
+    private <T> void importList(String userId, List<?> items, String field, Target<T> target,
+                                ImportReport.CollectionResult result) {
+        List<T> batch = new ArrayList<>(defaultBatchSize);
+        for (int i = 0; i < items.size(); i++) {
+            add(userId, field, i, items.get(i), target, batch, defaultBatchSize, BulkMode.UNORDERED, result);
+        }
+        flush(target.type(), batch, BulkMode.UNORDERED, result);
+    }
+
+    private <T> void importArray(String userId, JsonParser parser, String field, Target<T> target, int batchSize,
+                                 BulkMode mode, ImportReport.CollectionResult result) throws IOException {
+        List<T> batch = new ArrayList<>(batchSize);
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            Object item = null;
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                item = parser.readValueAs(RECORD_TYPE);
+            } else {
+                parser.skipChildren();
+            }
+            add(userId, field, index++, item, target, batch, batchSize, mode, result);
+        }
+        flush(target.type(), batch, mode, result);
+    }
+
+    /**
+     * Map one record into the batch, or report it, and write the batch once it is full.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void add(String userId, String field, int position, Object item, Target<T> target, List<T> batch,
+                         int batchSize, BulkMode mode, ImportReport.CollectionResult result) {
+        result.received();
+        if (!(item instanceof Map<?, ?> fields)) {
+            result.failed(1, field + "[" + position + "]: not an object");
+            return;
+        }
+        try {
+            T record = target.mapper().apply((Map<String, Object>) fields);
+            target.userIdSetter().accept(record, userId);
+            batch.add(record);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            result.failed(1, field + "[" + position + "]: " + e.getMessage());
+            return;
+        }
+        if (batch.size() == batchSize) {
+            flush(target.type(), batch, mode, result);
+        }
+    }
+
+    private void flush(Class<?> type, List<?> batch, BulkMode mode, ImportReport.CollectionResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int inserted = mongoTemplate.bulkOps(mode, type).insert(batch).execute().getInsertedCount();
+            result.imported(inserted);
+        } catch (BulkOperationException e) {
+            result.imported(e.getResult().getInsertedCount());
+            for (BulkWriteError error : e.getErrors()) {
+                result.failed(1, error.getMessage());
+            }
+            log.warn("Bulk insert of {} {} records had {} failures", batch.size(), type.getSimpleName(),
+                    e.getErrors().size());
+            if (mode == BulkMode.ORDERED) {
+                // Atomic import: the server has aborted the transaction, so stop here and let it roll back
+                throw e;
+            }
+        }
+        batch.clear();
+    }
+
+    private record Target<T>(Class<T> type, Function<Map<String, Object>, T> mapper,
+                             BiConsumer<T, String> userIdSetter) {
+    }
+}
@@ -153,21 +153,15 @@ public class CalculationService {
      */
     public double calculateStepUpSIPFutureValue(double initialMonthly, double annualRate, 
                                                   double stepUpPercent, int years) {
-        double total = 0;
-        double currentSIP = initialMonthly;
-        double monthlyRate = annualRate / 100 / 12;
-        
-        for (int year = 1; year <= years; year++) {
-            // Calculate FV of this year's SIP at the end of total period
-            int monthsRemaining = (years - year + 1) * 12;
-            for (int month = 1; month <= 12; month++) {
-                int monthsToGrow = monthsRemaining - month + 1;
-                total += currentSIP * Math.pow(1 + monthlyRate, monthsToGrow);
-            }
-            // Step up SIP for next year
-            currentSIP *= (1 + stepUpPercent / 100);
-        }
-        
-        return total;
+        return ProjectionKernel.stepUpSipFutureValue(initialMonthly, annualRate, stepUpPercent, years);
+    }
+
+    /**
+     * Project a whole portfolio at once: total value at the end of each year 0..years, each
+     * holding growing as calculateFutureValue of its principal plus calculateSIPFutureValue of its SIP.
+     * The three arrays hold one entry per holding.
+     */
+    public double[] projectPortfolio(double[] principals, double[] annualRates, double[] monthlySips, int years) {
+        return ProjectionKernel.portfolioTotals(principals, annualRates, monthlySips, years);
     }
 }
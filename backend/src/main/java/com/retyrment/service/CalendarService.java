@@ -1,267 +1,344 @@
 package com.retyrment.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.retyrment.model.*;
 import com.retyrment.repository.*;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 
+/**
+ * Payment calendar built from SIPs, RDs, loan EMIs, insurance premiums, PPF contributions and
+ * manual calendar entries.
+ *
+ * The calendar is materialized once per user and data version as a {@link PaymentCalendar}
+ * running from January of the current year for {@code app.calendar.horizon-years} years, so the
+ * year, month, range and upcoming views are lookups on that projection rather than fresh
+ * queries. Writes through a {@code ModifiesUserData} endpoint bump the data version and drop
+ * the user's cached calendar.
+ */
 @Service
-@RequiredArgsConstructor
 public class CalendarService {
 
     private final InvestmentRepository investmentRepository;
     private final LoanRepository loanRepository;
     private final InsuranceRepository insuranceRepository;
     private final CalendarEntryRepository calendarEntryRepository;
+    private final UserDataVersionService dataVersionService;
+    private final int horizonYears;
+    private final Cache<Key, PaymentCalendar> calendars;
 
     private static final String[] MONTH_NAMES = {
             "JAN", "FEB", "MAR", "APR", "MAY", "JUN",
             "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
     };
 
+    public CalendarService(InvestmentRepository investmentRepository,
+                           LoanRepository loanRepository,
+                           InsuranceRepository insuranceRepository,
+                           CalendarEntryRepository calendarEntryRepository,
+                           UserDataVersionService dataVersionService,
+                           @Value("${app.calendar.horizon-years:3}") int horizonYears,
+                           @Value("${app.cache.payment-calendar.max-entries:5000}") long maxEntries,
+                           @Value("${app.cache.payment-calendar.ttl-minutes:30}") long ttlMinutes) {
+        this.investmentRepository = investmentRepository;
+        this.loanRepository = loanRepository;
+        this.insuranceRepository = insuranceRepository;
+        this.calendarEntryRepository = calendarEntryRepository;
+        this.dataVersionService = dataVersionService;
+        // Two years at least, so December's "next month" and the next N days stay inside the calendar
+        this.horizonYears = Math.max(horizonYears, 2);
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        dataVersionService.addListener(this::evict);
+    }
+
     public Map<String, Object> generateYearCalendar(String userId) {
+        return generateYearCalendar(userId, LocalDate.now().getYear());
+    }
+
+    public Map<String, Object> generateYearCalendar(String userId, int year) {
+        PaymentCalendar calendar = calendarFor(userId);
+        if (!calendar.covers(YearMonth.of(year, 1))) {
+            throw new IllegalArgumentException("Year must be between " + calendar.start().getYear()
+                    + " and " + calendar.end().getYear());
+        }
+
         Map<String, Object> result = new LinkedHashMap<>();
         List<Map<String, Object>> entries = new ArrayList<>();
-        double[] monthlyTotals = new double[12];
-
-        // 1. Add SIPs from Mutual Funds - filter by userId
-        investmentRepository.findByUserIdAndMonthlySipGreaterThan(userId, 0.0).forEach(inv -> {
+        for (PaymentCalendar.Line line : calendar.lines()) {
             Map<String, Object> entry = new LinkedHashMap<>();
-            entry.put("id", inv.getId());
-            entry.put("description", inv.getName() + " SIP");
-            entry.put("category", "SIP");
-            entry.put("autoLinked", true);
-            
-            // Include SIP day for calendar display
-            Integer sipDay = inv.getSipDay();
-            entry.put("sipDay", sipDay != null ? sipDay : 1); // Default to 1st if not set
-            
-            Map<String, Double> months = new LinkedHashMap<>();
-            for (int m = 0; m < 12; m++) {
-                months.put(MONTH_NAMES[m], inv.getMonthlySip());
-                monthlyTotals[m] += inv.getMonthlySip();
+            entry.put("id", line.id());
+            entry.put("description", line.description());
+            entry.put("category", line.category());
+            entry.put("autoLinked", line.autoLinked());
+            if (line.dayKey() != null) {
+                entry.put(line.dayKey(), line.day());
             }
-            entry.put("months", months);
-            entry.put("yearlyTotal", inv.getMonthlySip() * 12);
+            double[] amounts = calendar.year(line, year);
+            entry.put("months", byMonthName(amounts));
+            entry.put("yearlyTotal", Arrays.stream(amounts).sum());
             entries.add(entry);
+        }
+
+        double[] monthlyTotals = calendar.yearTotals(year);
+        result.put("entries", entries);
+        result.put("monthlyTotals", byMonthName(monthlyTotals));
+        result.put("yearlyGrandTotal", Arrays.stream(monthlyTotals).sum());
+        result.put("year", year);
+
+        return result;
+    }
+
+    public Map<String, Object> getMonthCalendar(String userId, int month) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1 and 12");
+        }
+        return monthView(calendarFor(userId), YearMonth.of(LocalDate.now().getYear(), month));
+    }
+
+    /**
+     * Month by month view of the payments from {@code from} to {@code to}, both inclusive.
+     */
+    public Map<String, Object> getRange(String userId, YearMonth from, YearMonth to) {
+        PaymentCalendar calendar = calendarFor(userId);
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end must not be before its start");
+        }
+        if (!calendar.covers(from) || !calendar.covers(to)) {
+            throw new IllegalArgumentException("Range must lie between " + calendar.start() + " and " + calendar.end());
+        }
+
+        List<Map<String, Object>> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(monthView(calendar, month));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("months", months);
+        result.put("total", calendar.total(from, to));
+        return result;
+    }
+
+    /**
+     * Payments of the current and the next month.
+     */
+    public List<Map<String, Object>> getUpcomingPayments(String userId, int days) {
+        PaymentCalendar calendar = calendarFor(userId);
+        YearMonth current = YearMonth.now();
+        YearMonth next = current.plusMonths(1);
+
+        List<Map<String, Object>> upcoming = new ArrayList<>();
+        for (PaymentCalendar.Payment payment : calendar.payments(current)) {
+            Map<String, Object> entry = paymentEntry(payment);
+            entry.put("dueMonth", current.getMonthValue());
+            entry.put("isCurrentMonth", true);
+            upcoming.add(entry);
+        }
+        for (PaymentCalendar.Payment payment : calendar.payments(next)) {
+            Map<String, Object> entry = paymentEntry(payment);
+            entry.put("dueMonth", next.getMonthValue());
+            entry.put("isCurrentMonth", false);
+            upcoming.add(entry);
+        }
+        return upcoming;
+    }
+
+    /**
+     * Payments falling due in the next {@code days} days, today included, ordered by due date.
+     */
+    public List<Map<String, Object>> getPaymentsDue(String userId, int days) {
+        return getPaymentsDue(userId, LocalDate.now(), days);
+    }
+
+    List<Map<String, Object>> getPaymentsDue(String userId, LocalDate from, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days must not be negative");
+        }
+        List<Map<String, Object>> due = new ArrayList<>();
+        for (PaymentCalendar.Payment payment : calendarFor(userId).dueBetween(from, from.plusDays(days))) {
+            Map<String, Object> entry = paymentEntry(payment);
+            entry.put("dueDate", payment.dueDate());
+            due.add(entry);
+        }
+        return due;
+    }
+
+    /**
+     * Drop the user's materialized calendar.
+     */
+    public void evict(String userId) {
+        calendars.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = calendars.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", calendars.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    PaymentCalendar calendarFor(String userId) {
+        // Read the version before building, so a write racing with the build leaves the result under the old version
+        Key key = new Key(userId, dataVersionService.currentVersion(userId), YearMonth.of(LocalDate.now().getYear(), 1));
+        return calendars.get(key, k -> build(k.userId(), k.start()));
+    }
+
+    private PaymentCalendar build(String userId, YearMonth start) {
+        int months = horizonYears * 12;
+        int startMonth = start.getMonthValue() - 1;
+        List<PaymentCalendar.Line> lines = new ArrayList<>();
+
+        // 1. Add SIPs from Mutual Funds - filter by userId
+        investmentRepository.findByUserIdAndMonthlySipGreaterThan(userId, 0.0).forEach(inv -> {
+            double[] amounts = new double[months];
+            Arrays.fill(amounts, inv.getMonthlySip());
+            Integer sipDay = inv.getSipDay() != null ? inv.getSipDay() : 1; // Default to 1st if not set
+            lines.add(new PaymentCalendar.Line(inv.getId(), inv.getName() + " SIP", "SIP", true,
+                    "sipDay", sipDay, amounts));
         });
-        
-        // 1b. Add RD (Recurring Deposits) - filter by userId
-        investmentRepository.findByUserId(userId).stream()
-                .filter(inv -> inv.getType() == Investment.InvestmentType.RD && 
+
+        // RDs and PPF come from the same investment list
+        List<Investment> investments = investmentRepository.findByUserId(userId);
+
+        // 1b. Add RD (Recurring Deposits)
+        investments.stream()
+                .filter(inv -> inv.getType() == Investment.InvestmentType.RD &&
                               inv.getMonthlySip() != null && inv.getMonthlySip() > 0)
                 .forEach(inv -> {
-                    Map<String, Object> entry = new LinkedHashMap<>();
-                    entry.put("id", inv.getId());
-                    entry.put("description", inv.getName() + " RD");
-                    entry.put("category", "RD");
-                    entry.put("autoLinked", true);
-                    
-                    // Include RD day for calendar display
-                    Integer rdDay = inv.getRdDay() != null ? inv.getRdDay() : 
+                    double[] amounts = new double[months];
+                    Arrays.fill(amounts, inv.getMonthlySip());
+                    Integer rdDay = inv.getRdDay() != null ? inv.getRdDay() :
                                    (inv.getSipDay() != null ? inv.getSipDay() : 1);
-                    entry.put("sipDay", rdDay);
-                    
-                    Map<String, Double> months = new LinkedHashMap<>();
-                    for (int m = 0; m < 12; m++) {
-                        months.put(MONTH_NAMES[m], inv.getMonthlySip());
-                        monthlyTotals[m] += inv.getMonthlySip();
-                    }
-                    entry.put("months", months);
-                    entry.put("yearlyTotal", inv.getMonthlySip() * 12);
-                    entries.add(entry);
+                    lines.add(new PaymentCalendar.Line(inv.getId(), inv.getName() + " RD", "RD", true,
+                            "sipDay", rdDay, amounts));
                 });
 
-        // 2. Add EMIs from Loans - filter by userId
+        // 2. Add EMIs from Loans, from the start of the calendar for the remaining months
         loanRepository.findByUserIdAndRemainingMonthsGreaterThan(userId, 0).forEach(loan -> {
-            Map<String, Object> entry = new LinkedHashMap<>();
-            entry.put("id", loan.getId());
-            entry.put("description", loan.getName() + " EMI");
-            entry.put("category", "EMI");
-            entry.put("autoLinked", true);
-            entry.put("emiDay", loan.getEmiDay() != null ? loan.getEmiDay() : 1);
-            
-            Map<String, Double> months = new LinkedHashMap<>();
-            int remainingMonths = Math.min(loan.getRemainingMonths(), 12);
-            for (int m = 0; m < 12; m++) {
-                double amount = m < remainingMonths ? loan.getEmi() : 0;
-                months.put(MONTH_NAMES[m], amount);
-                monthlyTotals[m] += amount;
-            }
-            entry.put("months", months);
-            entry.put("yearlyTotal", loan.getEmi() * remainingMonths);
-            entries.add(entry);
+            double[] amounts = new double[months];
+            double emi = loan.getEmi() != null ? loan.getEmi() : 0;
+            Arrays.fill(amounts, 0, Math.min(loan.getRemainingMonths(), months), emi);
+            lines.add(new PaymentCalendar.Line(loan.getId(), loan.getName() + " EMI", "EMI", true,
+                    "emiDay", loan.getEmiDay() != null ? loan.getEmiDay() : 1, amounts));
         });
 
-        // 3. Add Insurance Premiums - filter by userId
+        // 3. Add Insurance Premiums
         insuranceRepository.findByUserId(userId).forEach(ins -> {
             if (ins.getAnnualPremium() != null && ins.getAnnualPremium() > 0) {
-                Map<String, Object> entry = new LinkedHashMap<>();
-                entry.put("id", ins.getId());
-                entry.put("description", ins.getPolicyName() + " Premium");
-                entry.put("category", "INSURANCE");
-                entry.put("autoLinked", true);
-                
-                Map<String, Double> months = new LinkedHashMap<>();
-                int renewalMonth = ins.getRenewalMonth() != null ? ins.getRenewalMonth() - 1 : 0;
-                
-                for (int m = 0; m < 12; m++) {
-                    double amount = 0;
-                    if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.YEARLY) {
-                        amount = (m == renewalMonth) ? ins.getAnnualPremium() : 0;
-                    } else if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.HALF_YEARLY) {
-                        amount = (m == renewalMonth || m == (renewalMonth + 6) % 12) ? 
-                                ins.getAnnualPremium() / 2 : 0;
-                    } else if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.QUARTERLY) {
-                        if (m == renewalMonth || m == (renewalMonth + 3) % 12 || 
-                            m == (renewalMonth + 6) % 12 || m == (renewalMonth + 9) % 12) {
-                            amount = ins.getAnnualPremium() / 4;
-                        }
-                    } else if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.MONTHLY) {
-                        amount = ins.getAnnualPremium() / 12;
-                    }
-                    months.put(MONTH_NAMES[m], amount);
-                    monthlyTotals[m] += amount;
+                double[] amounts = new double[months];
+                for (int m = 0; m < months; m++) {
+                    amounts[m] = premiumFor(ins, (startMonth + m) % 12);
                 }
-                entry.put("months", months);
-                entry.put("yearlyTotal", ins.getAnnualPremium());
-                entries.add(entry);
+                lines.add(new PaymentCalendar.Line(ins.getId(), ins.getPolicyName() + " Premium", "INSURANCE", true,
+                        null, ins.getRenewalDay(), amounts));
             }
         });
 
-        // 4. Add PPF/RD contributions - filter by userId
-        investmentRepository.findByUserId(userId).stream()
-                .filter(inv -> inv.getType() == Investment.InvestmentType.PPF && 
+        // 4. Add PPF contributions
+        investments.stream()
+                .filter(inv -> inv.getType() == Investment.InvestmentType.PPF &&
                               inv.getYearlyContribution() != null && inv.getYearlyContribution() > 0)
                 .forEach(inv -> {
-                    Map<String, Object> entry = new LinkedHashMap<>();
-                    entry.put("id", inv.getId());
-                    entry.put("description", "PPF Contribution");
-                    entry.put("category", "PPF");
-                    entry.put("autoLinked", true);
-                    
                     // Assume yearly contribution in March (financial year end)
-                    Map<String, Double> months = new LinkedHashMap<>();
-                    for (int m = 0; m < 12; m++) {
-                        double amount = (m == 2) ? inv.getYearlyContribution() : 0; // March
-                        months.put(MONTH_NAMES[m], amount);
-                        monthlyTotals[m] += amount;
+                    double[] amounts = new double[months];
+                    for (int m = 0; m < months; m++) {
+                        amounts[m] = (startMonth + m) % 12 == 2 ? inv.getYearlyContribution() : 0;
                     }
-                    entry.put("months", months);
-                    entry.put("yearlyTotal", inv.getYearlyContribution());
-                    entries.add(entry);
+                    lines.add(new PaymentCalendar.Line(inv.getId(), "PPF Contribution", "PPF", true,
+                            null, null, amounts));
                 });
 
-        // 5. Add manual calendar entries - filter by userId
+        // 5. Add manual calendar entries; one-time entries fall in the first year only
         calendarEntryRepository.findByUserIdAndIsActiveTrue(userId).forEach(calEntry -> {
-            Map<String, Object> entry = new LinkedHashMap<>();
-            entry.put("id", calEntry.getId());
-            entry.put("description", calEntry.getDescription());
-            entry.put("category", calEntry.getCategory().name());
-            entry.put("autoLinked", false);
-            
-            Map<String, Double> months = new LinkedHashMap<>();
-            double yearlyTotal = 0;
-            for (int m = 0; m < 12; m++) {
-                double amount = 0;
-                if (calEntry.getDueMonths() != null && calEntry.getDueMonths().contains(m + 1)) {
-                    amount = calEntry.getAmount();
+            double[] amounts = new double[months];
+            if (calEntry.getDueMonths() != null && calEntry.getAmount() != null) {
+                int span = calEntry.getFrequency() == CalendarEntry.Frequency.ONE_TIME ? 12 - startMonth : months;
+                for (int m = 0; m < span; m++) {
+                    if (calEntry.getDueMonths().contains((startMonth + m) % 12 + 1)) {
+                        amounts[m] = calEntry.getAmount();
+                    }
                 }
-                months.put(MONTH_NAMES[m], amount);
-                monthlyTotals[m] += amount;
-                yearlyTotal += amount;
             }
-            entry.put("months", months);
-            entry.put("yearlyTotal", yearlyTotal);
-            entries.add(entry);
+            lines.add(new PaymentCalendar.Line(calEntry.getId(), calEntry.getDescription(),
+                    calEntry.getCategory().name(), false, null, null, amounts));
         });
 
-        // Build monthly totals map
-        Map<String, Double> totals = new LinkedHashMap<>();
-        for (int m = 0; m < 12; m++) {
-            totals.put(MONTH_NAMES[m], monthlyTotals[m]);
-        }
-
-        result.put("entries", entries);
-        result.put("monthlyTotals", totals);
-        result.put("yearlyGrandTotal", Arrays.stream(monthlyTotals).sum());
-        result.put("year", LocalDate.now().getYear());
+        return new PaymentCalendar(start, months, lines);
+    }
 
-        return result;
+    /**
+     * Premium due in a month of the year (0 for January) for the policy's frequency and renewal month.
+     */
+    static double premiumFor(Insurance ins, int month) {
+        int renewalMonth = ins.getRenewalMonth() != null ? ins.getRenewalMonth() - 1 : 0;
+        if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.YEARLY) {
+            return month == renewalMonth ? ins.getAnnualPremium() : 0;
+        } else if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.HALF_YEARLY) {
+            return (month == renewalMonth || month == (renewalMonth + 6) % 12) ?
+                    ins.getAnnualPremium() / 2 : 0;
+        } else if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.QUARTERLY) {
+            return (month - renewalMonth + 12) % 3 == 0 ? ins.getAnnualPremium() / 4 : 0;
+        } else if (ins.getPremiumFrequency() == Insurance.PremiumFrequency.MONTHLY) {
+            return ins.getAnnualPremium() / 12;
+        }
+        return 0;
     }
 
-    public Map<String, Object> getMonthCalendar(String userId, int month) {
-        Map<String, Object> fullCalendar = generateYearCalendar(userId);
-        Map<String, Object> result = new LinkedHashMap<>();
-        
-        String monthName = MONTH_NAMES[month - 1];
+    private Map<String, Object> monthView(PaymentCalendar calendar, YearMonth month) {
         List<Map<String, Object>> monthEntries = new ArrayList<>();
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> allEntries = (List<Map<String, Object>>) fullCalendar.get("entries");
-
-        for (Map<String, Object> entry : allEntries) {
-            @SuppressWarnings("unchecked")
-            Map<String, Double> months = (Map<String, Double>) entry.get("months");
-            Double amount = months.get(monthName);
-            if (amount != null && amount > 0) {
-                Map<String, Object> monthEntry = new LinkedHashMap<>();
-                monthEntry.put("id", entry.get("id"));
-                monthEntry.put("description", entry.get("description"));
-                monthEntry.put("category", entry.get("category"));
-                monthEntry.put("amount", amount);
-                
-                // Include the day of month for SIPs and RDs
-                if (entry.get("sipDay") != null) {
-                    monthEntry.put("dayOfMonth", entry.get("sipDay"));
-                }
-                
-                monthEntries.add(monthEntry);
-            }
+        for (PaymentCalendar.Payment payment : calendar.payments(month)) {
+            monthEntries.add(paymentEntry(payment));
         }
 
-        @SuppressWarnings("unchecked")
-        Map<String, Double> totals = (Map<String, Double>) fullCalendar.get("monthlyTotals");
-
-        result.put("month", month);
-        result.put("monthName", monthName);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("month", month.getMonthValue());
+        result.put("monthName", MONTH_NAMES[month.getMonthValue() - 1]);
+        result.put("year", month.getYear());
         result.put("entries", monthEntries);
-        result.put("total", totals.get(monthName));
-
+        result.put("total", calendar.total(month));
         return result;
     }
 
-    public List<Map<String, Object>> getUpcomingPayments(String userId, int days) {
-        LocalDate today = LocalDate.now();
-        int currentMonth = today.getMonthValue();
-        int nextMonth = (currentMonth % 12) + 1;
+    private Map<String, Object> paymentEntry(PaymentCalendar.Payment payment) {
+        PaymentCalendar.Line line = payment.line();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", line.id());
+        entry.put("description", line.description());
+        entry.put("category", line.category());
+        entry.put("amount", payment.amount());
 
-        List<Map<String, Object>> upcoming = new ArrayList<>();
-
-        // Get current month and next month entries
-        Map<String, Object> currentMonthData = getMonthCalendar(userId, currentMonth);
-        Map<String, Object> nextMonthData = getMonthCalendar(userId, nextMonth);
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> currentEntries = (List<Map<String, Object>>) currentMonthData.get("entries");
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> nextEntries = (List<Map<String, Object>>) nextMonthData.get("entries");
-
-        currentEntries.forEach(e -> {
-            e.put("dueMonth", currentMonth);
-            e.put("isCurrentMonth", true);
-            upcoming.add(e);
-        });
+        // Include the day of month for SIPs and RDs
+        if ("sipDay".equals(line.dayKey())) {
+            entry.put("dayOfMonth", line.day());
+        }
+        return entry;
+    }
 
-        nextEntries.forEach(e -> {
-            e.put("dueMonth", nextMonth);
-            e.put("isCurrentMonth", false);
-            upcoming.add(e);
-        });
+    private static Map<String, Double> byMonthName(double[] amounts) {
+        Map<String, Double> months = new LinkedHashMap<>();
+        for (int m = 0; m < 12; m++) {
+            months.put(MONTH_NAMES[m], amounts[m]);
+        }
+        return months;
+    }
 
-        return upcoming;
+    private record Key(String userId, long dataVersion, YearMonth start) {
     }
 }
@@ -0,0 +1,158 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import com.retyrment.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the analysis dashboard (net worth, projections, goals and recommendations) with
+ * every collection loaded once and all queries and sections running concurrently.
+ *
+ * The six queries start together on a bounded worker pool and each section is computed as
+ * soon as the collections it needs have arrived, so the dashboard takes about as long as its
+ * slowest query plus its slowest section. A section that fails, or is not done by the
+ * {@code app.dashboard.timeout-ms} deadline, is returned as null and its status says why; the
+ * other sections are still returned. When the pool and its queue are full, the request thread
+ * runs the work itself rather than failing.
+ */
+@Slf4j
+@Service
+public class DashboardService {
+
+    public enum SectionStatus { OK, FAILED, TIMEOUT }
+
+    private final InvestmentRepository investmentRepository;
+    private final InsuranceRepository insuranceRepository;
+    private final LoanRepository loanRepository;
+    private final ExpenseRepository expenseRepository;
+    private final IncomeRepository incomeRepository;
+    private final GoalRepository goalRepository;
+    private final AnalysisService analysisService;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public DashboardService(InvestmentRepository investmentRepository,
+                            InsuranceRepository insuranceRepository,
+                            LoanRepository loanRepository,
+                            ExpenseRepository expenseRepository,
+                            IncomeRepository incomeRepository,
+                            GoalRepository goalRepository,
+                            AnalysisService analysisService,
+                            WorkerPools workerPools,
+                            @Value("${app.dashboard.workers:8}") int workers,
+                            @Value("${app.dashboard.queue-capacity:200}") int queueCapacity,
+                            @Value("${app.dashboard.timeout-ms:3000}") long timeoutMillis) {
+        this(investmentRepository, insuranceRepository, loanRepository, expenseRepository, incomeRepository,
+                goalRepository, analysisService, workerPools.callerRuns("dashboard-worker", workers, queueCapacity),
+                timeoutMillis);
+    }
+
+    DashboardService(InvestmentRepository investmentRepository, InsuranceRepository insuranceRepository,
+                     LoanRepository loanRepository, ExpenseRepository expenseRepository,
+                     IncomeRepository incomeRepository, GoalRepository goalRepository,
+                     AnalysisService analysisService, ExecutorService executor, long timeoutMillis) {
+        this.investmentRepository = investmentRepository;
+        this.insuranceRepository = insuranceRepository;
+        this.loanRepository = loanRepository;
+        this.expenseRepository = expenseRepository;
+        this.incomeRepository = incomeRepository;
+        this.goalRepository = goalRepository;
+        this.analysisService = analysisService;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * The four sections of {@link AnalysisService#getFullSummary(String)}, plus {@code sections}
+     * with the status and time of each, {@code complete} and {@code elapsedMillis}.
+     */
+    public Map<String, Object> getDashboard(String userId) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        CompletableFuture<List<Investment>> investments = load(() -> investmentRepository.findByUserId(userId));
+        CompletableFuture<List<Insurance>> insurances = load(() -> insuranceRepository.findByUserId(userId));
+        CompletableFuture<List<Loan>> loans = load(() -> loanRepository.findByUserId(userId));
+        CompletableFuture<List<Expense>> expenses = load(() -> expenseRepository.findByUserId(userId));
+        CompletableFuture<List<Income>> incomes = load(() -> incomeRepository.findByUserIdAndIsActiveTrue(userId));
+        CompletableFuture<List<Goal>> goals = load(() -> goalRepository.findByUserIdOrderByTargetYearAsc(userId));
+
+        Map<String, CompletableFuture<Map<String, Object>>> sections = new LinkedHashMap<>();
+        sections.put("netWorth", CompletableFuture.allOf(investments, insurances, loans).thenApplyAsync(
+                ignored -> analysisService.netWorth(investments.join(), insurances.join(), loans.join()), executor));
+        sections.put("projections", investments.thenApplyAsync(
+                list -> analysisService.projections(list, AnalysisService.SUMMARY_PROJECTION_YEARS), executor));
+        sections.put("goals", investments.thenCombineAsync(goals,
+                (investmentList, goalList) -> analysisService.goalAnalysis(goalList, investmentList), executor));
+        sections.put("recommendations", CompletableFuture.allOf(investments, insurances, expenses, incomes).thenApplyAsync(
+                ignored -> analysisService.recommendations(investments.join(), insurances.join(),
+                        expenses.join(), incomes.join()), executor));
+
+        Map<String, Long> finishedAt = new ConcurrentHashMap<>();
+        sections.forEach((name, section) -> section.whenComplete((value, error) -> finishedAt.put(name, System.nanoTime())));
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        Map<String, Object> statuses = new LinkedHashMap<>();
+        boolean complete = true;
+        for (Map.Entry<String, CompletableFuture<Map<String, Object>>> section : sections.entrySet()) {
+            String name = section.getKey();
+            Map<String, Object> status = new LinkedHashMap<>();
+            Map<String, Object> value = null;
+            try {
+                value = section.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                status.put("status", SectionStatus.OK.name());
+            } catch (TimeoutException e) {
+                section.getValue().cancel(false);
+                status.put("status", SectionStatus.TIMEOUT.name());
+                log.warn("Dashboard section {} for user {} timed out after {} ms", name, userId, timeoutMillis);
+            } catch (ExecutionException e) {
+                Throwable cause = rootCause(e);
+                status.put("status", SectionStatus.FAILED.name());
+                status.put("error", cause.getMessage());
+                log.error("Dashboard section {} failed for user {}: {}", name, userId, cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                section.getValue().cancel(false);
+                status.put("status", SectionStatus.TIMEOUT.name());
+            }
+            Long finished = finishedAt.get(name);
+            status.put("millis", ((finished != null ? finished : System.nanoTime()) - start) / 1_000_000);
+            complete &= value != null;
+            dashboard.put(name, value);
+            statuses.put(name, status);
+        }
+
+        dashboard.put("sections", statuses);
+        dashboard.put("complete", complete);
+        dashboard.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        return dashboard;
+    }
+
+    private <T> CompletableFuture<List<T>> load(Supplier<List<T>> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -3,8 +3,6 @@ package com.retyrment.service;
 import com.retyrment.model.*;
 import com.retyrment.repository.*;
 // iText PDF imports
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.layout.Document;
@@ -23,12 +21,13 @@ import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -36,6 +35,21 @@ import java.util.*;
 @RequiredArgsConstructor
 public class ExportService {
 
+    // Rows per sheet kept in memory while streaming an Excel report
+    private static final int EXCEL_ROW_WINDOW = 100;
+
+    // Asset breakdown colours in the financial summary PDF
+    private static final Map<String, DeviceRgb> ASSET_COLORS = Map.of(
+            "cash", new DeviceRgb(34, 197, 94),              // Green
+            "ppf", new DeviceRgb(59, 130, 246),              // Blue
+            "epf", new DeviceRgb(147, 51, 234),              // Purple
+            "mutual_funds", new DeviceRgb(249, 115, 22),     // Orange
+            "nps", new DeviceRgb(236, 72, 153),              // Pink
+            "real_estate", new DeviceRgb(168, 85, 247),      // Violet
+            "gold", new DeviceRgb(234, 179, 8),              // Yellow
+            "other_liquid", new DeviceRgb(107, 114, 128),    // Gray
+            "other_illiquid", new DeviceRgb(75, 85, 99));    // Dark Gray
+
     private final IncomeRepository incomeRepository;
     private final InvestmentRepository investmentRepository;
     private final LoanRepository loanRepository;
@@ -46,6 +60,8 @@ public class ExportService {
     private final RetirementScenarioRepository scenarioRepository;
     private final RetirementService retirementService;
     private final AnalysisService analysisService;
+    private final CalendarService calendarService;
+    private final BulkImportService bulkImportService;
 
     public Map<String, Object> exportAllData(String userId) {
         Map<String, Object> data = new LinkedHashMap<>();
@@ -62,193 +78,51 @@ public class ExportService {
         return data;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Import a parsed data export through bulk inserts. Every valid record is kept.
+     *
+     * @throws IllegalArgumentException with the first error if any record could not be imported
+     */
     public void importAllData(String userId, Map<String, Object> data) {
-        // Import income
-        if (data.containsKey("income")) {
-            List<Map<String, Object>> incomeList = (List<Map<String, Object>>) data.get("income");
-            for (Map<String, Object> item : incomeList) {
-                Income income = mapToIncome(item);
-                income.setUserId(userId);
-                incomeRepository.save(income);
-            }
+        ImportReport report = bulkImportService.importData(userId, data);
+        if (report.hasErrors()) {
+            throw new IllegalArgumentException(report.firstError());
         }
-
-        // Import investments
-        if (data.containsKey("investments")) {
-            List<Map<String, Object>> invList = (List<Map<String, Object>>) data.get("investments");
-            for (Map<String, Object> item : invList) {
-                Investment inv = mapToInvestment(item);
-                inv.setUserId(userId);
-                investmentRepository.save(inv);
-            }
-        }
-
-        // Import loans
-        if (data.containsKey("loans")) {
-            List<Map<String, Object>> loanList = (List<Map<String, Object>>) data.get("loans");
-            for (Map<String, Object> item : loanList) {
-                Loan loan = mapToLoan(item);
-                loan.setUserId(userId);
-                loanRepository.save(loan);
-            }
-        }
-
-        // Import insurance
-        if (data.containsKey("insurance")) {
-            List<Map<String, Object>> insList = (List<Map<String, Object>>) data.get("insurance");
-            for (Map<String, Object> item : insList) {
-                Insurance ins = mapToInsurance(item);
-                ins.setUserId(userId);
-                insuranceRepository.save(ins);
-            }
-        }
-
-        // Import expenses
-        if (data.containsKey("expenses")) {
-            List<Map<String, Object>> expList = (List<Map<String, Object>>) data.get("expenses");
-            for (Map<String, Object> item : expList) {
-                Expense exp = mapToExpense(item);
-                exp.setUserId(userId);
-                expenseRepository.save(exp);
-            }
-        }
-
-        // Import goals
-        if (data.containsKey("goals")) {
-            List<Map<String, Object>> goalList = (List<Map<String, Object>>) data.get("goals");
-            for (Map<String, Object> item : goalList) {
-                Goal goal = mapToGoal(item);
-                goal.setUserId(userId);
-                goalRepository.save(goal);
-            }
-        }
-    }
-
-    private Income mapToIncome(Map<String, Object> item) {
-        return Income.builder()
-                .source((String) item.get("source"))
-                .monthlyAmount(getDouble(item, "monthlyAmount"))
-                .annualIncrement(getDouble(item, "annualIncrement"))
-                .isActive((Boolean) item.getOrDefault("isActive", true))
-                .build();
     }
 
-    private Investment mapToInvestment(Map<String, Object> item) {
-        return Investment.builder()
-                .type(item.get("type") != null ? Investment.InvestmentType.valueOf((String) item.get("type")) : null)
-                .name((String) item.get("name"))
-                .investedAmount(getDouble(item, "investedAmount"))
-                .currentValue(getDouble(item, "currentValue"))
-                .monthlySip(getDouble(item, "monthlySip"))
-                .expectedReturn(getDouble(item, "expectedReturn"))
-                .build();
-    }
-
-    private Loan mapToLoan(Map<String, Object> item) {
-        return Loan.builder()
-                .type(item.get("type") != null ? Loan.LoanType.valueOf((String) item.get("type")) : null)
-                .name((String) item.get("name"))
-                .outstandingAmount(getDouble(item, "outstandingAmount"))
-                .emi(getDouble(item, "emi"))
-                .interestRate(getDouble(item, "interestRate"))
-                .remainingMonths(getInt(item, "remainingMonths"))
-                .build();
-    }
-
-    private Insurance mapToInsurance(Map<String, Object> item) {
-        return Insurance.builder()
-                .type(item.get("type") != null ? Insurance.InsuranceType.valueOf((String) item.get("type")) : null)
-                .company((String) item.get("company"))
-                .policyName((String) item.get("policyName"))
-                .sumAssured(getDouble(item, "sumAssured"))
-                .annualPremium(getDouble(item, "annualPremium"))
-                .renewalMonth(getInt(item, "renewalMonth"))
-                .fundValue(getDouble(item, "fundValue"))
-                .build();
-    }
-
-    private Expense mapToExpense(Map<String, Object> item) {
-        return Expense.builder()
-                .category(item.get("category") != null ? Expense.ExpenseCategory.valueOf((String) item.get("category")) : null)
-                .name((String) item.get("name"))
-                .monthlyAmount(getDouble(item, "monthlyAmount"))
-                .isFixed((Boolean) item.getOrDefault("isFixed", true))
-                .build();
-    }
-
-    private Goal mapToGoal(Map<String, Object> item) {
-        return Goal.builder()
-                .icon((String) item.get("icon"))
-                .name((String) item.get("name"))
-                .targetAmount(getDouble(item, "targetAmount"))
-                .targetYear(getInt(item, "targetYear"))
-                .priority(item.get("priority") != null ? Goal.Priority.valueOf((String) item.get("priority")) : Goal.Priority.MEDIUM)
-                .isRecurring((Boolean) item.getOrDefault("isRecurring", false))
-                .build();
-    }
-
-    private Double getDouble(Map<String, Object> map, String key) {
-        Object value = map.get(key);
-        if (value == null) return null;
-        if (value instanceof Number) return ((Number) value).doubleValue();
-        return Double.parseDouble(value.toString());
-    }
-
-    private Integer getInt(Map<String, Object> map, String key) {
-        Object value = map.get(key);
-        if (value == null) return null;
-        if (value instanceof Number) return ((Number) value).intValue();
-        return Integer.parseInt(value.toString());
+    public byte[] generateFinancialSummaryPdfReport(String userId) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeFinancialSummaryPdfReport(userId, outputStream);
+        return outputStream.toByteArray();
     }
 
-    public byte[] generateFinancialSummaryPdfReport(String userId) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
-            
-            // Standard font
+    /**
+     * Write the financial summary PDF to the stream page by page. Each collection is read once
+     * and shared by the cash-flow overview and the detail tables.
+     */
+    public void writeFinancialSummaryPdfReport(String userId, OutputStream outputStream) {
+        try (Document document = PdfReportStyles.openDocument(outputStream)) {
             float bodyFontSize = 10f;
-            float headerFontSize = 14f;
-            float titleFontSize = 20f;
-            
-            // Colors
-            DeviceRgb primaryColor = new DeviceRgb(79, 70, 229); // Indigo
-            DeviceRgb successColor = new DeviceRgb(16, 185, 129); // Green
-            DeviceRgb dangerColor = new DeviceRgb(239, 68, 68); // Red
-            DeviceRgb amberColor = new DeviceRgb(245, 158, 11); // Amber
-            
-            // Title
-            document.add(new Paragraph("FINANCIAL SUMMARY REPORT")
-                    .setFontSize(titleFontSize)
-                    .setBold()
-                    .setFontColor(primaryColor)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(5));
-            
-            document.add(new Paragraph("Generated: " + LocalDate.now())
-                    .setFontSize(9)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
+
+            addReportTitle(document, "FINANCIAL SUMMARY REPORT");
             
             // Net Worth Overview
-        Map<String, Object> netWorth = analysisService.calculateNetWorth(userId);
+            Map<String, Object> netWorth = analysisService.calculateNetWorth(userId);
+            List<Income> incomes = incomeRepository.findByUserId(userId);
+            List<Expense> expenses = expenseRepository.findByUserId(userId);
+            List<Loan> loans = loanRepository.findByUserId(userId);
+            List<Insurance> insurances = insuranceRepository.findByUserId(userId);
+            List<Investment> investments = investmentRepository.findByUserId(userId);
             
-            document.add(new Paragraph("NET WORTH OVERVIEW")
-                    .setFontSize(headerFontSize)
-                    .setBold()
-                    .setFontColor(primaryColor)
-                    .setMarginBottom(10));
+            document.add(sectionHeading("NET WORTH OVERVIEW"));
             
             Table netWorthTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}))
                     .setWidth(UnitValue.createPercentValue(100))
                     .setMarginBottom(15);
             
-            addTableRow(netWorthTable, "Total Assets", formatCurrency(netWorth.get("totalAssets")), successColor, bodyFontSize);
-            addTableRow(netWorthTable, "Total Liabilities", formatCurrency(netWorth.get("totalLiabilities")), dangerColor, bodyFontSize);
-            addTableRow(netWorthTable, "Net Worth", formatCurrency(netWorth.get("netWorth")), primaryColor, bodyFontSize);
+            addTableRow(netWorthTable, "Total Assets", formatCurrency(netWorth.get("totalAssets")), PdfReportStyles.SUCCESS, bodyFontSize);
+            addTableRow(netWorthTable, "Total Liabilities", formatCurrency(netWorth.get("totalLiabilities")), PdfReportStyles.DANGER, bodyFontSize);
+            addTableRow(netWorthTable, "Net Worth", formatCurrency(netWorth.get("netWorth")), PdfReportStyles.PRIMARY, bodyFontSize);
             
             document.add(netWorthTable);
             
@@ -256,28 +130,12 @@ public class ExportService {
             @SuppressWarnings("unchecked")
             Map<String, Object> assetBreakdown = (Map<String, Object>) netWorth.get("assetBreakdown");
             if (assetBreakdown != null && !assetBreakdown.isEmpty()) {
-                document.add(new Paragraph("ASSET BREAKDOWN")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
+                document.add(sectionHeading("ASSET BREAKDOWN"));
                 
                 // Calculate total for percentage
                 double totalAssets = netWorth.get("totalAssets") != null ? 
                         ((Number) netWorth.get("totalAssets")).doubleValue() : 0;
                 
-                // Define colors for different asset types
-                Map<String, DeviceRgb> assetColors = new java.util.HashMap<>();
-                assetColors.put("cash", new DeviceRgb(34, 197, 94)); // Green
-                assetColors.put("ppf", new DeviceRgb(59, 130, 246)); // Blue
-                assetColors.put("epf", new DeviceRgb(147, 51, 234)); // Purple
-                assetColors.put("mutual_funds", new DeviceRgb(249, 115, 22)); // Orange
-                assetColors.put("nps", new DeviceRgb(236, 72, 153)); // Pink
-                assetColors.put("real_estate", new DeviceRgb(168, 85, 247)); // Violet
-                assetColors.put("gold", new DeviceRgb(234, 179, 8)); // Yellow
-                assetColors.put("other_liquid", new DeviceRgb(107, 114, 128)); // Gray
-                assetColors.put("other_illiquid", new DeviceRgb(75, 85, 99)); // Dark Gray
-                
                 Table assetTable = new Table(UnitValue.createPercentArray(new float[]{2, 2, 1}))
                         .setWidth(UnitValue.createPercentValue(100))
                         .setMarginBottom(15);
@@ -296,7 +154,7 @@ public class ExportService {
                         String assetName = entry.getKey().replace("_", " ").toUpperCase();
                         double value = ((Number) entry.getValue()).doubleValue();
                         double percentage = totalAssets > 0 ? (value / totalAssets) * 100 : 0;
-                        DeviceRgb color = assetColors.getOrDefault(entry.getKey(), new DeviceRgb(100, 116, 139));
+                        DeviceRgb color = ASSET_COLORS.getOrDefault(entry.getKey(), PdfReportStyles.NEUTRAL);
                         
                         assetTable.addCell(new com.itextpdf.layout.element.Cell()
                                 .add(new Paragraph(assetName).setFontSize(bodyFontSize))
@@ -311,32 +169,22 @@ public class ExportService {
             }
             
             // Monthly Cash Flow Overview
-            document.add(new Paragraph("MONTHLY CASH FLOW OVERVIEW")
-                    .setFontSize(headerFontSize)
-                    .setBold()
-                    .setFontColor(primaryColor)
-                    .setMarginBottom(10));
+            document.add(sectionHeading("MONTHLY CASH FLOW OVERVIEW"));
             
-            // Calculate monthly cash flow
-            List<Income> incomesForCalc = incomeRepository.findByUserId(userId);
-            List<Expense> expensesForCalc = expenseRepository.findByUserId(userId);
-            List<Loan> loansForCalc = loanRepository.findByUserId(userId);
-            List<Insurance> insurancesForCalc = insuranceRepository.findByUserId(userId);
-            
-            double monthlyIncome = incomesForCalc.stream()
+            double monthlyIncome = incomes.stream()
                     .filter(i -> i.getIsActive() != null && i.getIsActive())
                     .mapToDouble(i -> i.getMonthlyAmount() != null ? i.getMonthlyAmount() : 0)
                     .sum();
             
-            double monthlyExpenses = expensesForCalc.stream()
+            double monthlyExpenses = expenses.stream()
                     .mapToDouble(e -> e.getMonthlyEquivalent() != null ? e.getMonthlyEquivalent() : 0)
                     .sum();
             
-            double monthlyEMI = loansForCalc.stream()
+            double monthlyEMI = loans.stream()
                     .mapToDouble(l -> l.getEmi() != null ? l.getEmi() : 0)
                     .sum();
             
-            double monthlyPremium = insurancesForCalc.stream()
+            double monthlyPremium = insurances.stream()
                     .mapToDouble(ins -> {
                         double annual = ins.getAnnualPremium() != null ? ins.getAnnualPremium() : 0;
                         return annual / 12;
@@ -349,59 +197,38 @@ public class ExportService {
                     .setWidth(UnitValue.createPercentValue(100))
                     .setMarginBottom(15);
             
-            addTableRow(cashFlowTable, "Total Income", formatCurrency(monthlyIncome), successColor, bodyFontSize);
-            addTableRow(cashFlowTable, "Expenses", formatCurrency(monthlyExpenses), dangerColor, bodyFontSize);
-            addTableRow(cashFlowTable, "EMIs", formatCurrency(monthlyEMI), dangerColor, bodyFontSize);
-            addTableRow(cashFlowTable, "Insurance Premiums", formatCurrency(monthlyPremium), amberColor, bodyFontSize);
-            addTableRow(cashFlowTable, "Monthly Savings", formatCurrency(monthlySavings), monthlySavings > 0 ? successColor : dangerColor, bodyFontSize);
+            addTableRow(cashFlowTable, "Total Income", formatCurrency(monthlyIncome), PdfReportStyles.SUCCESS, bodyFontSize);
+            addTableRow(cashFlowTable, "Expenses", formatCurrency(monthlyExpenses), PdfReportStyles.DANGER, bodyFontSize);
+            addTableRow(cashFlowTable, "EMIs", formatCurrency(monthlyEMI), PdfReportStyles.DANGER, bodyFontSize);
+            addTableRow(cashFlowTable, "Insurance Premiums", formatCurrency(monthlyPremium), PdfReportStyles.AMBER, bodyFontSize);
+            addTableRow(cashFlowTable, "Monthly Savings", formatCurrency(monthlySavings),
+                    monthlySavings > 0 ? PdfReportStyles.SUCCESS : PdfReportStyles.DANGER, bodyFontSize);
             
             document.add(cashFlowTable);
             
             // Income Sources
-            List<Income> incomes = incomeRepository.findByUserId(userId);
             if (!incomes.isEmpty()) {
-                document.add(new Paragraph("INCOME SOURCES")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
-                
-                Table incomeTable = new Table(UnitValue.createPercentArray(new float[]{3, 2, 1}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(15);
-                
-                incomeTable.addHeaderCell(createHeaderCell("Source", bodyFontSize));
-                incomeTable.addHeaderCell(createHeaderCell("Monthly Amount", bodyFontSize));
-                incomeTable.addHeaderCell(createHeaderCell("Annual Increment", bodyFontSize));
+                document.add(sectionHeading("INCOME SOURCES"));
                 
+                Table incomeTable = startLargeTable(document, new float[]{3, 2, 1}, bodyFontSize,
+                        "Source", "Monthly Amount", "Annual Increment");
+                int rows = 0;
                 for (Income inc : incomes) {
                     incomeTable.addCell(createBodyCell(inc.getSource() != null ? inc.getSource() : "-", bodyFontSize));
                     incomeTable.addCell(createBodyCell(formatCurrency(inc.getMonthlyAmount()), bodyFontSize));
                     incomeTable.addCell(createBodyCell((inc.getAnnualIncrement() != null ? inc.getAnnualIncrement() : 0) + "%", bodyFontSize));
+                    flushPeriodically(incomeTable, ++rows);
                 }
-                
-                document.add(incomeTable);
+                incomeTable.complete();
             }
             
             // Expenses
-            List<Expense> expenses = expenseRepository.findByUserId(userId);
             if (!expenses.isEmpty()) {
-                document.add(new Paragraph("EXPENSES")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
-                
-                Table expenseTable = new Table(UnitValue.createPercentArray(new float[]{2, 2, 1.5f, 1, 1}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(15);
-                
-                expenseTable.addHeaderCell(createHeaderCell("Category", bodyFontSize));
-                expenseTable.addHeaderCell(createHeaderCell("Name", bodyFontSize));
-                expenseTable.addHeaderCell(createHeaderCell("Amount", bodyFontSize));
-                expenseTable.addHeaderCell(createHeaderCell("Frequency", bodyFontSize));
-                expenseTable.addHeaderCell(createHeaderCell("Type", bodyFontSize));
+                document.add(sectionHeading("EXPENSES"));
                 
+                Table expenseTable = startLargeTable(document, new float[]{2, 2, 1.5f, 1, 1}, bodyFontSize,
+                        "Category", "Name", "Amount", "Frequency", "Type");
+                int rows = 0;
                 for (Expense exp : expenses) {
                     expenseTable.addCell(createBodyCell(exp.getCategory() != null ? exp.getCategory().name() : "-", bodyFontSize));
                     expenseTable.addCell(createBodyCell(exp.getName() != null ? exp.getName() : "-", bodyFontSize));
@@ -410,35 +237,22 @@ public class ExportService {
                     String type = (exp.getIsFixed() != null && exp.getIsFixed() ? "Fixed" : "Variable") + 
                                   (exp.getIsTimeBound() != null && exp.getIsTimeBound() ? ", Time-Bound" : "");
                     expenseTable.addCell(createBodyCell(type, bodyFontSize));
+                    flushPeriodically(expenseTable, ++rows);
                 }
-                
-                document.add(expenseTable);
+                expenseTable.complete();
             }
             
             // Page break
             document.add(new AreaBreak());
             
             // Investments Detail
-            List<Investment> investments2 = investmentRepository.findByUserId(userId);
-            if (!investments2.isEmpty()) {
-                document.add(new Paragraph("INVESTMENTS DETAIL")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
-                
-                Table invTable = new Table(UnitValue.createPercentArray(new float[]{1.5f, 2, 1.5f, 1.5f, 1, 1}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(15);
-                
-                invTable.addHeaderCell(createHeaderCell("Type", bodyFontSize));
-                invTable.addHeaderCell(createHeaderCell("Name", bodyFontSize));
-                invTable.addHeaderCell(createHeaderCell("Invested", bodyFontSize));
-                invTable.addHeaderCell(createHeaderCell("Current Value", bodyFontSize));
-                invTable.addHeaderCell(createHeaderCell("Gain/Loss", bodyFontSize));
-                invTable.addHeaderCell(createHeaderCell("Monthly SIP", bodyFontSize));
+            if (!investments.isEmpty()) {
+                document.add(sectionHeading("INVESTMENTS DETAIL"));
                 
-                for (Investment inv : investments2) {
+                Table invTable = startLargeTable(document, new float[]{1.5f, 2, 1.5f, 1.5f, 1, 1}, bodyFontSize,
+                        "Type", "Name", "Invested", "Current Value", "Gain/Loss", "Monthly SIP");
+                int rows = 0;
+                for (Investment inv : investments) {
                     double invested = inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0;
                     double current = inv.getCurrentValue() != null ? inv.getCurrentValue() : 0;
                     double gain = current - invested;
@@ -447,140 +261,71 @@ public class ExportService {
                     invTable.addCell(createBodyCell(inv.getName() != null ? inv.getName() : "-", bodyFontSize));
                     invTable.addCell(createBodyCell(formatCurrency(invested), bodyFontSize));
                     invTable.addCell(createBodyCell(formatCurrency(current), bodyFontSize));
-                    invTable.addCell(createBodyCell(formatCurrency(gain), bodyFontSize).setFontColor(gain >= 0 ? successColor : dangerColor));
+                    invTable.addCell(createBodyCell(formatCurrency(gain), bodyFontSize)
+                            .setFontColor(gain >= 0 ? PdfReportStyles.SUCCESS : PdfReportStyles.DANGER));
                     invTable.addCell(createBodyCell(formatCurrency(inv.getMonthlySip()), bodyFontSize));
+                    flushPeriodically(invTable, ++rows);
                 }
-                
-                document.add(invTable);
+                invTable.complete();
             }
             
             // Loans Detail
-            List<Loan> loans2 = loanRepository.findByUserId(userId);
-            if (!loans2.isEmpty()) {
-                document.add(new Paragraph("LOANS DETAIL")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(dangerColor)
-                        .setMarginBottom(10));
-                
-                Table loanTable = new Table(UnitValue.createPercentArray(new float[]{1.5f, 2, 1.5f, 1, 1, 1}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(15);
-                
-                loanTable.addHeaderCell(createHeaderCell("Type", bodyFontSize));
-                loanTable.addHeaderCell(createHeaderCell("Name", bodyFontSize));
-                loanTable.addHeaderCell(createHeaderCell("Outstanding", bodyFontSize));
-                loanTable.addHeaderCell(createHeaderCell("EMI", bodyFontSize));
-                loanTable.addHeaderCell(createHeaderCell("Interest Rate", bodyFontSize));
-                loanTable.addHeaderCell(createHeaderCell("Remaining", bodyFontSize));
+            if (!loans.isEmpty()) {
+                document.add(sectionHeading("LOANS DETAIL").setFontColor(PdfReportStyles.DANGER));
                 
-                for (Loan loan : loans2) {
+                Table loanTable = startLargeTable(document, new float[]{1.5f, 2, 1.5f, 1, 1, 1}, bodyFontSize,
+                        "Type", "Name", "Outstanding", "EMI", "Interest Rate", "Remaining");
+                int rows = 0;
+                for (Loan loan : loans) {
                     loanTable.addCell(createBodyCell(loan.getType() != null ? loan.getType().name() : "-", bodyFontSize));
                     loanTable.addCell(createBodyCell(loan.getName() != null ? loan.getName() : "-", bodyFontSize));
                     loanTable.addCell(createBodyCell(formatCurrency(loan.getOutstandingAmount()), bodyFontSize));
                     loanTable.addCell(createBodyCell(formatCurrency(loan.getEmi()), bodyFontSize));
                     loanTable.addCell(createBodyCell((loan.getInterestRate() != null ? loan.getInterestRate() : 0) + "%", bodyFontSize));
                     loanTable.addCell(createBodyCell((loan.getRemainingMonths() != null ? loan.getRemainingMonths() : 0) + " months", bodyFontSize));
+                    flushPeriodically(loanTable, ++rows);
                 }
-                
-                document.add(loanTable);
+                loanTable.complete();
             }
             
             // Insurance Detail
-            List<Insurance> insurances = insuranceRepository.findByUserId(userId);
             if (!insurances.isEmpty()) {
-                document.add(new Paragraph("INSURANCE POLICIES")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
-                
-                Table insTable = new Table(UnitValue.createPercentArray(new float[]{1.5f, 2, 1.5f, 1.5f, 1}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(15);
-                
-                insTable.addHeaderCell(createHeaderCell("Type", bodyFontSize));
-                insTable.addHeaderCell(createHeaderCell("Policy Name", bodyFontSize));
-                insTable.addHeaderCell(createHeaderCell("Company", bodyFontSize));
-                insTable.addHeaderCell(createHeaderCell("Sum Assured", bodyFontSize));
-                insTable.addHeaderCell(createHeaderCell("Annual Premium", bodyFontSize));
+                document.add(sectionHeading("INSURANCE POLICIES"));
                 
+                Table insTable = startLargeTable(document, new float[]{1.5f, 2, 1.5f, 1.5f, 1}, bodyFontSize,
+                        "Type", "Policy Name", "Company", "Sum Assured", "Annual Premium");
+                int rows = 0;
                 for (Insurance ins : insurances) {
                     insTable.addCell(createBodyCell(ins.getType() != null ? ins.getType().name() : "-", bodyFontSize));
                     insTable.addCell(createBodyCell(ins.getPolicyName() != null ? ins.getPolicyName() : "-", bodyFontSize));
                     insTable.addCell(createBodyCell(ins.getCompany() != null ? ins.getCompany() : "-", bodyFontSize));
                     insTable.addCell(createBodyCell(formatCurrency(ins.getSumAssured()), bodyFontSize));
                     insTable.addCell(createBodyCell(formatCurrency(ins.getAnnualPremium()), bodyFontSize));
+                    flushPeriodically(insTable, ++rows);
                 }
-                
-                document.add(insTable);
+                insTable.complete();
             }
             
-            // Footer
-            document.add(new Paragraph("\n"));
-            document.add(new Paragraph("Report generated by Retyrment - Your Retirement Planning Partner")
-                    .setFontSize(8)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER));
-            
-            document.close();
-            return outputStream.toByteArray();
-            
+            addReportFooter(document);
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate Financial Summary PDF", e);
         }
     }
     
     public byte[] generateRetirementPdfReport(String userId) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
-            
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeRetirementPdfReport(userId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    public void writeRetirementPdfReport(String userId, OutputStream outputStream) {
+        try (Document document = PdfReportStyles.openDocument(outputStream)) {
             float bodyFontSize = 9f;
-            float headerFontSize = 14f;
-            float titleFontSize = 20f;
-            
-            DeviceRgb primaryColor = new DeviceRgb(79, 70, 229);
-            DeviceRgb successColor = new DeviceRgb(16, 185, 129);
-            DeviceRgb dangerColor = new DeviceRgb(239, 68, 68);
-            
-            // Title
-            document.add(new Paragraph("RETIREMENT PROJECTION REPORT")
-                    .setFontSize(titleFontSize)
-                    .setBold()
-                    .setFontColor(primaryColor)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(5));
-            
-            document.add(new Paragraph("Generated: " + LocalDate.now())
-                    .setFontSize(9)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
             
-            // Get retirement data with default scenario or create one
-            RetirementScenario defaultScenario = scenarioRepository.findByUserIdAndIsDefaultTrue(userId)
-                    .orElse(null);
+            addReportTitle(document, "RETIREMENT PROJECTION REPORT");
             
-            // If no default scenario exists, create a temporary one with default values
-            if (defaultScenario == null) {
-                defaultScenario = RetirementScenario.builder()
-                        .userId(userId)
-                        .name("Default")
-                        .isDefault(true)
-                        .currentAge(35)
-                        .retirementAge(60)
-                        .lifeExpectancy(85)
-                        .inflation(6.0)
-                        .mfReturn(12.0)
-                        .ppfReturn(7.1)
-                        .epfReturn(8.5)
-                        .withdrawalRate(6.0)
-                        .sipStepup(10.0)
-                        .effectiveFromYear(0)
-                        .build();
-            }
+            // Get retirement data with default scenario or create one
+            RetirementScenario defaultScenario = reportScenario(userId);
             
             Map<String, Object> retirementData = retirementService.generateRetirementMatrix(userId, defaultScenario);
             
@@ -593,31 +338,23 @@ public class ExportService {
             
             if (summary != null) {
                 // Overview Section
-                document.add(new Paragraph("RETIREMENT OVERVIEW")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
+                document.add(sectionHeading("RETIREMENT OVERVIEW"));
                 
                 Table overviewTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}))
                         .setWidth(UnitValue.createPercentValue(100))
                         .setMarginBottom(15);
                 
-                addTableRow(overviewTable, "Current Age", summary.get("currentAge") + " years", primaryColor, bodyFontSize);
-                addTableRow(overviewTable, "Retirement Age", summary.get("retirementAge") + " years", primaryColor, bodyFontSize);
-                addTableRow(overviewTable, "Years to Retirement", summary.get("yearsToRetirement") + " years", primaryColor, bodyFontSize);
-                addTableRow(overviewTable, "Projected Corpus", formatCurrency(summary.get("finalCorpus")), successColor, bodyFontSize);
+                addTableRow(overviewTable, "Current Age", summary.get("currentAge") + " years", PdfReportStyles.PRIMARY, bodyFontSize);
+                addTableRow(overviewTable, "Retirement Age", summary.get("retirementAge") + " years", PdfReportStyles.PRIMARY, bodyFontSize);
+                addTableRow(overviewTable, "Years to Retirement", summary.get("yearsToRetirement") + " years", PdfReportStyles.PRIMARY, bodyFontSize);
+                addTableRow(overviewTable, "Projected Corpus", formatCurrency(summary.get("finalCorpus")), PdfReportStyles.SUCCESS, bodyFontSize);
                 
                 document.add(overviewTable);
             }
             
             // Gap Analysis
             if (gapAnalysis != null) {
-                document.add(new Paragraph("GAP ANALYSIS")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
+                document.add(sectionHeading("GAP ANALYSIS"));
                 
                 Table gapTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}))
                         .setWidth(UnitValue.createPercentValue(100))
@@ -625,35 +362,23 @@ public class ExportService {
                 
                 double corpusGap = gapAnalysis.get("corpusGap") != null ? ((Number) gapAnalysis.get("corpusGap")).doubleValue() : 0;
                 
-                addTableRow(gapTable, "Required Corpus", formatCurrency(gapAnalysis.get("requiredCorpus")), primaryColor, bodyFontSize);
-                addTableRow(gapTable, "Projected Corpus", formatCurrency(gapAnalysis.get("projectedCorpus")), primaryColor, bodyFontSize);
-                addTableRow(gapTable, "Corpus Gap", formatCurrency(Math.abs(corpusGap)), corpusGap > 0 ? dangerColor : successColor, bodyFontSize);
-                addTableRow(gapTable, "Monthly SIP Required", formatCurrency(gapAnalysis.get("monthlySIP")), primaryColor, bodyFontSize);
-                addTableRow(gapTable, "Monthly Savings Available", formatCurrency(gapAnalysis.get("netMonthlySavings")), primaryColor, bodyFontSize);
+                addTableRow(gapTable, "Required Corpus", formatCurrency(gapAnalysis.get("requiredCorpus")), PdfReportStyles.PRIMARY, bodyFontSize);
+                addTableRow(gapTable, "Projected Corpus", formatCurrency(gapAnalysis.get("projectedCorpus")), PdfReportStyles.PRIMARY, bodyFontSize);
+                addTableRow(gapTable, "Corpus Gap", formatCurrency(Math.abs(corpusGap)),
+                        corpusGap > 0 ? PdfReportStyles.DANGER : PdfReportStyles.SUCCESS, bodyFontSize);
+                addTableRow(gapTable, "Monthly SIP Required", formatCurrency(gapAnalysis.get("monthlySIP")), PdfReportStyles.PRIMARY, bodyFontSize);
+                addTableRow(gapTable, "Monthly Savings Available", formatCurrency(gapAnalysis.get("netMonthlySavings")), PdfReportStyles.PRIMARY, bodyFontSize);
                 
                 document.add(gapTable);
             }
             
             // Year-by-Year Matrix (first 20 years)
             if (matrix != null && !matrix.isEmpty()) {
-                document.add(new Paragraph("YEAR-BY-YEAR PROJECTION (First 20 Years)")
-                        .setFontSize(headerFontSize)
-                        .setBold()
-                        .setFontColor(primaryColor)
-                        .setMarginBottom(10));
-                
-                Table matrixTable = new Table(UnitValue.createPercentArray(new float[]{1, 1, 1.5f, 1.5f, 1.5f, 1.5f, 1.5f}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(15)
-                        .setFontSize(8);
+                document.add(sectionHeading("YEAR-BY-YEAR PROJECTION (First 20 Years)"));
                 
-                matrixTable.addHeaderCell(createHeaderCell("Year", 8f));
-                matrixTable.addHeaderCell(createHeaderCell("Age", 8f));
-                matrixTable.addHeaderCell(createHeaderCell("PPF", 8f));
-                matrixTable.addHeaderCell(createHeaderCell("EPF", 8f));
-                matrixTable.addHeaderCell(createHeaderCell("MF", 8f));
-                matrixTable.addHeaderCell(createHeaderCell("Goals", 8f));
-                matrixTable.addHeaderCell(createHeaderCell("Net Corpus", 8f));
+                Table matrixTable = startLargeTable(document, new float[]{1, 1, 1.5f, 1.5f, 1.5f, 1.5f, 1.5f}, 8f,
+                        "Year", "Age", "PPF", "EPF", "MF", "Goals", "Net Corpus");
+                matrixTable.setFontSize(8);
                 
                 int count = 0;
                 for (Map<String, Object> row : matrix) {
@@ -666,65 +391,99 @@ public class ExportService {
                     matrixTable.addCell(createBodyCell(formatCurrency(row.get("mfBalance")), 8f));
                     matrixTable.addCell(createBodyCell(formatCurrency(row.get("goalOutflow")), 8f));
                     matrixTable.addCell(createBodyCell(formatCurrency(row.get("netCorpus")), 8f));
+                    flushPeriodically(matrixTable, count);
                 }
-                
-                document.add(matrixTable);
+                matrixTable.complete();
             }
             
-            // Footer
-            document.add(new Paragraph("\n"));
-            document.add(new Paragraph("Report generated by Retyrment - Your Retirement Planning Partner")
-                    .setFontSize(8)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER));
-            
-            document.close();
-            return outputStream.toByteArray();
-            
+            addReportFooter(document);
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate Retirement PDF", e);
         }
     }
     
+    /**
+     * The user's default scenario, or a temporary one with default values if none is saved.
+     */
+    private RetirementScenario reportScenario(String userId) {
+        return scenarioRepository.findByUserIdAndIsDefaultTrue(userId)
+                .orElseGet(() -> RetirementScenario.builder()
+                        .userId(userId)
+                        .name("Default")
+                        .isDefault(true)
+                        .currentAge(35)
+                        .retirementAge(60)
+                        .lifeExpectancy(85)
+                        .inflation(6.0)
+                        .mfReturn(12.0)
+                        .ppfReturn(7.1)
+                        .epfReturn(8.5)
+                        .withdrawalRate(6.0)
+                        .sipStepup(10.0)
+                        .effectiveFromYear(0)
+                        .build());
+    }
+
     public byte[] generateCalendarPdfReport(String userId) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
-            
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeCalendarPdfReport(userId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    public void writeCalendarPdfReport(String userId, OutputStream outputStream) {
+        try (Document document = PdfReportStyles.openDocument(outputStream)) {
             float bodyFontSize = 10f;
-            float titleFontSize = 20f;
-            DeviceRgb primaryColor = new DeviceRgb(79, 70, 229);
-            
-            document.add(new Paragraph("FINANCIAL CALENDAR REPORT")
-                    .setFontSize(titleFontSize)
-                    .setBold()
-                    .setFontColor(primaryColor)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(5));
-            
-            document.add(new Paragraph("Generated: " + LocalDate.now())
-                    .setFontSize(9)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
+            
+            addReportTitle(document, "FINANCIAL CALENDAR REPORT");
             
             document.add(new Paragraph("Calendar report feature coming soon...")
                     .setFontSize(bodyFontSize)
                     .setTextAlignment(TextAlignment.CENTER));
-            
-            document.close();
-            return outputStream.toByteArray();
-            
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate Calendar PDF", e);
         }
     }
+
+    private void addReportTitle(Document document, String title) {
+        document.add(new Paragraph(title).addStyle(PdfReportStyles.TITLE));
+        document.add(new Paragraph("Generated: " + LocalDate.now()).addStyle(PdfReportStyles.GENERATED_ON));
+    }
+
+    private void addReportFooter(Document document) {
+        document.add(new Paragraph("\n"));
+        document.add(new Paragraph("Report generated by Retyrment - Your Retirement Planning Partner")
+                .addStyle(PdfReportStyles.FOOTER));
+    }
+
+    private Paragraph sectionHeading(String text) {
+        return new Paragraph(text).addStyle(PdfReportStyles.SECTION_HEADING);
+    }
+
+    /**
+     * Add a full-width table in large-table mode with the given header row. Body rows added
+     * afterwards are laid out and written on {@link Table#flush()}; call {@link Table#complete()} at the end.
+     */
+    private Table startLargeTable(Document document, float[] columnWidths, float fontSize, String... headers) {
+        Table table = new Table(UnitValue.createPercentArray(columnWidths), true)
+                .setWidth(UnitValue.createPercentValue(100))
+                .setMarginBottom(15);
+        for (String header : headers) {
+            table.addHeaderCell(createHeaderCell(header, fontSize));
+        }
+        document.add(table);
+        return table;
+    }
+
+    private void flushPeriodically(Table table, int rowsAdded) {
+        if (rowsAdded % PdfReportStyles.ROWS_PER_FLUSH == 0) {
+            table.flush();
+        }
+    }
     
     private com.itextpdf.layout.element.Cell createHeaderCell(String text, float fontSize) {
         return new com.itextpdf.layout.element.Cell()
                 .add(new Paragraph(text).setBold().setFontSize(fontSize))
-                .setBackgroundColor(new DeviceRgb(241, 245, 249))
+                .setBackgroundColor(PdfReportStyles.HEADER_BACKGROUND)
                 .setPadding(8);
     }
     
@@ -748,7 +507,21 @@ public class ExportService {
     }
 
     public byte[] generateExcelReport(String userId) {
-        try (Workbook workbook = new XSSFWorkbook()) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeExcelReport(userId, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Write the Excel report straight to the given stream. Rows are built through a
+     * {@link SXSSFWorkbook} that keeps only the last {@value #EXCEL_ROW_WINDOW} rows of each
+     * sheet in memory and spills the rest to a compressed temp file, so heap use does not
+     * grow with the number of records or projection years.
+     */
+    public void writeExcelReport(String userId, OutputStream outputStream) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             // Create styles
             CellStyle headerStyle = workbook.createCellStyle();
             Font headerFont = workbook.createFont();
@@ -763,7 +536,7 @@ public class ExportService {
             currencyStyle.setDataFormat(format.getFormat("₹#,##0"));
 
             // 1. Net Worth Summary Sheet
-            Sheet summarySheet = workbook.createSheet("Net Worth Summary");
+            Sheet summarySheet = createSheet(workbook, "Net Worth Summary");
             Map<String, Object> netWorth = analysisService.calculateNetWorth(userId);
             int rowNum = 0;
             
@@ -826,7 +599,7 @@ public class ExportService {
             summarySheet.autoSizeColumn(1);
 
             // 2. Income Sheet
-            Sheet incomeSheet = workbook.createSheet("Income");
+            Sheet incomeSheet = createSheet(workbook, "Income");
             List<Income> incomes = incomeRepository.findByUserId(userId);
             rowNum = 0;
             Row incHeader = incomeSheet.createRow(rowNum++);
@@ -845,7 +618,7 @@ public class ExportService {
             for (int i = 0; i < incHeaders.length; i++) incomeSheet.autoSizeColumn(i);
 
             // 3. Expenses Sheet
-            Sheet expenseSheet = workbook.createSheet("Expenses");
+            Sheet expenseSheet = createSheet(workbook, "Expenses");
             List<Expense> expenses = expenseRepository.findByUserId(userId);
             rowNum = 0;
             Row expHeader = expenseSheet.createRow(rowNum++);
@@ -868,7 +641,7 @@ public class ExportService {
             for (int i = 0; i < expHeaders.length; i++) expenseSheet.autoSizeColumn(i);
 
             // 4. Investments Sheet
-            Sheet invSheet = workbook.createSheet("Investments");
+            Sheet invSheet = createSheet(workbook, "Investments");
             List<Investment> investments = investmentRepository.findByUserId(userId);
             rowNum = 0;
             Row invHeader = invSheet.createRow(rowNum++);
@@ -893,7 +666,7 @@ public class ExportService {
             for (int i = 0; i < invHeaders.length; i++) invSheet.autoSizeColumn(i);
 
             // 5. Loans Sheet
-            Sheet loanSheet = workbook.createSheet("Loans");
+            Sheet loanSheet = createSheet(workbook, "Loans");
             List<Loan> loans = loanRepository.findByUserId(userId);
             rowNum = 0;
             Row loanHeader = loanSheet.createRow(rowNum++);
@@ -915,7 +688,7 @@ public class ExportService {
             for (int i = 0; i < loanHeaders.length; i++) loanSheet.autoSizeColumn(i);
 
             // 6. Insurance Sheet
-            Sheet insSheet = workbook.createSheet("Insurance");
+            Sheet insSheet = createSheet(workbook, "Insurance");
             List<Insurance> insurances = insuranceRepository.findByUserId(userId);
             rowNum = 0;
             Row insHeader = insSheet.createRow(rowNum++);
@@ -935,13 +708,125 @@ public class ExportService {
             }
             for (int i = 0; i < insHeaders.length; i++) insSheet.autoSizeColumn(i);
 
-            // Write to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            // 7. Retirement Matrix Sheet
+            Sheet matrixSheet = createSheet(workbook, "Retirement Matrix");
+            RetirementProjection projection = retirementService.projectRetirement(
+                    retirementService.loadSnapshot(userId), reportScenario(userId));
+            if (projection != null) {
+                writeRetirementMatrixSheet(matrixSheet, projection, headerStyle, currencyStyle);
+            }
+
+            // 8. Calendar Sheet
+            Sheet calendarSheet = createSheet(workbook, "Calendar");
+            writeCalendarSheet(calendarSheet, calendarService.generateYearCalendar(userId), headerStyle, currencyStyle);
+
             workbook.write(outputStream);
-            return outputStream.toByteArray();
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate Excel report", e);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private void writeRetirementMatrixSheet(Sheet sheet, RetirementProjection p, CellStyle headerStyle, CellStyle currencyStyle) {
+        int selected = Math.max(0, Arrays.asList(RequiredCorpusSolver.STRATEGIES).indexOf(p.incomeStrategy));
+        int rowNum = 0;
+        String[] headers = {"Year", "Age", "PPF", "EPF", "Mutual Funds", "Monthly SIP", "NPS", "Other Liquid",
+                "Maturities", "Goal Outflow", "Total Corpus", "Net Corpus", "Required Corpus", "Goals"};
+        createHeaderRow(sheet, rowNum++, headers, headerStyle);
+        for (int year = 0; year < p.rows(); year++) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(p.calendarYear(year));
+            row.createCell(1).setCellValue(p.age(year));
+            setCurrency(row, 2, p.ppf[year], currencyStyle);
+            setCurrency(row, 3, p.epf[year], currencyStyle);
+            setCurrency(row, 4, p.mf[year], currencyStyle);
+            setCurrency(row, 5, p.mfSip[year], currencyStyle);
+            setCurrency(row, 6, p.nps[year], currencyStyle);
+            setCurrency(row, 7, p.otherLiquid[year], currencyStyle);
+            setCurrency(row, 8, p.inflow[year], currencyStyle);
+            setCurrency(row, 9, p.goalOutflow[year], currencyStyle);
+            setCurrency(row, 10, p.totalCorpus[year], currencyStyle);
+            setCurrency(row, 11, p.netCorpus[year], currencyStyle);
+            setCurrency(row, 12, p.requiredCorpus[selected][year], currencyStyle);
+            row.createCell(13).setCellValue(String.join(", ", RetirementProjection.labels(p.goalsThisYear, year)));
         }
+
+        // Drawdown for the selected income strategy, below the accumulation rows
+        rowNum++;
+        String[] drawdownHeaders = {"Year", "Age", "Corpus", "Monthly Income", "Annuity", "Rent", "Goal Outflow"};
+        createHeaderRow(sheet, rowNum++, drawdownHeaders, headerStyle);
+        for (int year = 0; year < p.drawdownRows(); year++) {
+            int offset = p.yearsToRetirement + year;
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(p.calendarYear(offset));
+            row.createCell(1).setCellValue(p.age(offset));
+            setCurrency(row, 2, p.drawdownCorpus[year], currencyStyle);
+            setCurrency(row, 3, p.drawdownMonthlyIncome[year], currencyStyle);
+            setCurrency(row, 4, p.drawdownAnnuity[year], currencyStyle);
+            setCurrency(row, 5, p.drawdownRent[year], currencyStyle);
+            setCurrency(row, 6, p.drawdownGoal[year], currencyStyle);
+        }
+        for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeCalendarSheet(Sheet sheet, Map<String, Object> calendar, CellStyle headerStyle, CellStyle currencyStyle) {
+        String[] headers = {"Description", "Category", "JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+                "JUL", "AUG", "SEP", "OCT", "NOV", "DEC", "Yearly Total"};
+        int rowNum = 0;
+        createHeaderRow(sheet, rowNum++, headers, headerStyle);
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) calendar.getOrDefault("entries", List.of());
+        for (Map<String, Object> entry : entries) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(entry.get("description") != null ? entry.get("description").toString() : "");
+            row.createCell(1).setCellValue(entry.get("category") != null ? entry.get("category").toString() : "");
+            writeMonthCells(row, (Map<String, Object>) entry.get("months"), headers, currencyStyle);
+            setCurrency(row, 14, toDouble(entry.get("yearlyTotal")), currencyStyle);
+        }
+        Map<String, Object> totals = (Map<String, Object>) calendar.get("monthlyTotals");
+        if (totals != null) {
+            Row row = sheet.createRow(rowNum);
+            Cell label = row.createCell(0);
+            label.setCellValue("TOTAL");
+            label.setCellStyle(headerStyle);
+            writeMonthCells(row, totals, headers, currencyStyle);
+            setCurrency(row, 14, toDouble(calendar.get("yearlyGrandTotal")), currencyStyle);
+        }
+        for (int i = 0; i < headers.length; i++) sheet.autoSizeColumn(i);
+    }
+
+    private void writeMonthCells(Row row, Map<String, Object> months, String[] headers, CellStyle currencyStyle) {
+        if (months == null) return;
+        for (int m = 0; m < 12; m++) {
+            setCurrency(row, m + 2, toDouble(months.get(headers[m + 2])), currencyStyle);
+        }
+    }
+
+    private Sheet createSheet(SXSSFWorkbook workbook, String name) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        // Column widths have to be measured as rows stream past, before they are flushed to disk
+        sheet.trackAllColumnsForAutoSizing();
+        return sheet;
+    }
+
+    private void createHeaderRow(Sheet sheet, int rowNum, String[] headers, CellStyle headerStyle) {
+        Row row = sheet.createRow(rowNum);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    private void setCurrency(Row row, int column, double value, CellStyle currencyStyle) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(Math.round(value));
+        cell.setCellStyle(currencyStyle);
+    }
+
+    private double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
     }
 
     private void createSummaryRow(Sheet sheet, int rowNum, String label, String value) {
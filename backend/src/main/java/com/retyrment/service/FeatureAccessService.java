@@ -1,13 +1,17 @@
 package com.retyrment.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.retyrment.model.Investment;
 import com.retyrment.model.Insurance;
 import com.retyrment.model.User;
 import com.retyrment.model.UserFeatureAccess;
 import com.retyrment.repository.UserFeatureAccessRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.HashSet;
@@ -15,27 +19,105 @@ import java.util.HashSet;
 /**
  * Service to manage and check user feature access.
  * Provides default access based on user role and allows per-user overrides.
+ *
+ * A user's access is the template for their tier with their stored overrides applied. It is
+ * resolved once and then served from memory; users without overrides share the template, so
+ * nothing is written on first access. The tier is kept with the cached entry, so role, trial
+ * and subscription changes apply on the next check, and override updates evict the user.
+ * Evictions only reach this instance, and access gates features, so entries live for seconds:
+ * the TTL bounds how long another instance can grant a revoked feature. Resolved access is
+ * shared between requests, so templates hold immutable sets and callers of
+ * {@link #getUserFeatureAccess} get a copy.
  */
 @Service
-@RequiredArgsConstructor
 public class FeatureAccessService {
 
+    private static final List<String> ALL_INVESTMENT_TYPES = List.of(
+            "MUTUAL_FUND", "PPF", "EPF", "FD", "RD", "REAL_ESTATE",
+            "STOCK", "NPS", "GOLD", "CRYPTO", "CASH");
+
+    private static final Map<User.UserRole, UserFeatureAccess> TEMPLATES = buildTemplates();
+
     private final UserFeatureAccessRepository featureAccessRepository;
+    private final Cache<String, ResolvedAccess> cache;
+
+    public FeatureAccessService(UserFeatureAccessRepository featureAccessRepository,
+                                @Value("${app.cache.feature-access.max-entries:10000}") long maxEntries,
+                                @Value("${app.cache.feature-access.ttl-seconds:30}") long ttlSeconds) {
+        this.featureAccessRepository = featureAccessRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
 
     /**
-     * Get feature access for a user, creating defaults if not exists.
+     * Get the effective feature access for a user: the tier template merged with any overrides.
+     * The result is the caller's own copy, with {@code userId} set even when the user has no
+     * stored overrides ({@code id} is then null).
      */
     public UserFeatureAccess getUserFeatureAccess(User user) {
-        return featureAccessRepository.findByUserId(user.getId())
-                .orElseGet(() -> createDefaultFeatureAccess(user));
+        return copyFor(user.getId(), resolve(user));
+    }
+
+    /**
+     * The shared resolved access, cached or loaded; never handed out of this class.
+     */
+    private UserFeatureAccess resolve(User user) {
+        User.UserRole tier = tierOf(user);
+        ResolvedAccess cached = cache.getIfPresent(user.getId());
+        if (cached != null && cached.tier() == tier) {
+            return cached.access();
+        }
+        UserFeatureAccess access = featureAccessRepository.findByUserId(user.getId())
+                .map(overrides -> merge(TEMPLATES.get(tier), overrides))
+                .orElse(TEMPLATES.get(tier));
+        cache.put(user.getId(), new ResolvedAccess(tier, access));
+        return access;
+    }
+
+    /**
+     * Drop the cached access of a user, e.g. after the user is deleted.
+     */
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * Admins use the ADMIN template, trial users and active PRO subscribers PRO, everyone else FREE.
+     */
+    private static User.UserRole tierOf(User user) {
+        if (user.isAdmin()) {
+            return User.UserRole.ADMIN;
+        }
+        return user.isPro() ? User.UserRole.PRO : User.UserRole.FREE;
+    }
+
+    private static Map<User.UserRole, UserFeatureAccess> buildTemplates() {
+        Map<User.UserRole, UserFeatureAccess> templates = new EnumMap<>(User.UserRole.class);
+        for (User.UserRole role : User.UserRole.values()) {
+            templates.put(role, createTemplate(role));
+        }
+        return templates;
     }
 
     /**
-     * Create default feature access based on user role.
+     * Default feature access for a tier.
      */
-    private UserFeatureAccess createDefaultFeatureAccess(User user) {
+    private static UserFeatureAccess createTemplate(User.UserRole tier) {
         UserFeatureAccess.UserFeatureAccessBuilder builder = UserFeatureAccess.builder()
-                .userId(user.getId())
                 // Pages - defaults from requirements
                 .incomePage(true)  // All users
                 .investmentPage(true)  // Visible by default
@@ -48,21 +130,19 @@ public class FeatureAccessService {
                 .retirementPage(true)  // Visible by default
                 .insuranceRecommendationsPage(true)  // Insurance Advisor - visible by default
                 .reportsPage(false)  // Restricted by default
-                .simulationPage(true)  // Restricted by default
-                .adminPanel(user.isAdmin())  // Admin only
+                .simulationPage(true)  // Visible by default
+                .canRunSimulation(false)  // Restricted by default
+                .adminPanel(tier == User.UserRole.ADMIN)  // Admin only
                 .preferencesPage(false)  // Restricted by default
                 .settingsPage(true)  // All users
                 .accountPage(true)  // All users
                 // Investment types - default allowed
-                .allowedInvestmentTypes(new HashSet<>(Arrays.asList(
-                        "MUTUAL_FUND", "PPF", "EPF", "FD", "RD", "REAL_ESTATE", 
-                    "STOCK", "NPS", "GOLD", "CRYPTO", "CASH"
-                )))
+                .allowedInvestmentTypes(Set.copyOf(ALL_INVESTMENT_TYPES))
                 // Insurance types - default blocked
                 // Note: Frontend uses categories (PENSION, LIFE_SAVINGS) but backend uses types
                 // PENSION category -> ANNUITY type
                 // LIFE_SAVINGS category -> ENDOWMENT, MONEY_BACK, ULIP types
-                .blockedInsuranceTypes(new HashSet<>(Arrays.asList()))
+                .blockedInsuranceTypes(Set.of())
                 // Retirement tabs
                 .retirementStrategyPlannerTab(false)  // Restricted by default
                 .retirementWithdrawalStrategyTab(false)  // Restricted by default
@@ -72,23 +152,13 @@ public class FeatureAccessService {
                 .canExportJson(false)  // Restricted by default
                 .canImportData(false);  // Restricted by default
 
-        // PRO users get some additional access by default
-        if (user.isPro()) {
-            builder.reportsPage(true)
-                    .canExportPdf(false)
-                    .canExportExcel(false)
-                    .canExportJson(false)
-                    .canImportData(false)
-                    .simulationPage(true)
-                    .canRunSimulation(false)
-                    .retirementStrategyPlannerTab(false)
-                    .retirementWithdrawalStrategyTab(false)
-                    .calendarPage(false)
-                    .preferencesPage(false);
+        // PRO users get the reports page by default
+        if (tier == User.UserRole.PRO) {
+            builder.reportsPage(true);
         }
 
         // ADMIN specific overrides - Admins have access to everything by default
-        if (user.isAdmin()) {
+        if (tier == User.UserRole.ADMIN) {
             builder.reportsPage(true)
                     .canExportPdf(true)
                     .canExportExcel(true)
@@ -100,27 +170,41 @@ public class FeatureAccessService {
                     .retirementWithdrawalStrategyTab(true)
                     .calendarPage(true)
                     .preferencesPage(true);
-            // Admins have access to all investment types by default
-            builder.allowedInvestmentTypes(new HashSet<>(Arrays.asList(
-                    "MUTUAL_FUND", "PPF", "EPF", "FD", "RD", "REAL_ESTATE", 
-                    "STOCK", "NPS", "GOLD", "CRYPTO", "CASH"
-            )));
-            // Admins have no blocked insurance types
-            builder.blockedInsuranceTypes(new HashSet<>());
         }
+        return builder.build();
+    }
 
-        UserFeatureAccess access = builder
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-        return featureAccessRepository.save(access);
+    /**
+     * The template with every non-null override applied. adminPanel always comes from the template.
+     */
+    private static UserFeatureAccess merge(UserFeatureAccess template, UserFeatureAccess overrides) {
+        UserFeatureAccess merged = new UserFeatureAccess();
+        merged.setId(overrides.getId());
+        merged.setUserId(overrides.getUserId());
+        merged.setAdminPanel(template.getAdminPanel());
+        applyOverrides(merged, template);
+        applyOverrides(merged, overrides);
+        merged.setCreatedAt(overrides.getCreatedAt());
+        merged.setUpdatedAt(overrides.getUpdatedAt());
+        return merged;
+    }
+
+    private static UserFeatureAccess copyFor(String userId, UserFeatureAccess access) {
+        UserFeatureAccess copy = new UserFeatureAccess();
+        copy.setId(access.getId());
+        copy.setUserId(userId);
+        copy.setAdminPanel(access.getAdminPanel());
+        applyOverrides(copy, access);
+        copy.setCreatedAt(access.getCreatedAt());
+        copy.setUpdatedAt(access.getUpdatedAt());
+        return copy;
     }
 
     /**
      * Check if user can access a specific page.
      */
     public boolean canAccessPage(User user, String pageName) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         
         return switch (pageName.toLowerCase()) {
             case "dashboard", "index" -> true;  // Dashboard always accessible for all users
@@ -146,7 +230,7 @@ public class FeatureAccessService {
      * Check if user can access a specific investment type.
      */
     public boolean canAccessInvestmentType(User user, Investment.InvestmentType type) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return access.getAllowedInvestmentTypes().contains(type.name());
     }
 
@@ -154,7 +238,7 @@ public class FeatureAccessService {
      * Check if user can access a specific insurance type.
      */
     public boolean canAccessInsuranceType(User user, Insurance.InsuranceType type) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return !access.getBlockedInsuranceTypes().contains(type.name());
     }
 
@@ -162,7 +246,7 @@ public class FeatureAccessService {
      * Check if user can access retirement strategy planner tab.
      */
     public boolean canAccessRetirementStrategyPlanner(User user) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return access.getRetirementStrategyPlannerTab();
     }
 
@@ -170,7 +254,7 @@ public class FeatureAccessService {
      * Check if user can export PDF.
      */
     public boolean canExportPdf(User user) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return access.getCanExportPdf();
     }
 
@@ -178,7 +262,7 @@ public class FeatureAccessService {
      * Check if user can export Excel.
      */
     public boolean canExportExcel(User user) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return access.getCanExportExcel();
     }
 
@@ -186,7 +270,7 @@ public class FeatureAccessService {
      * Check if user can export JSON.
      */
     public boolean canExportJson(User user) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return access.getCanExportJson();
     }
 
@@ -194,7 +278,7 @@ public class FeatureAccessService {
      * Check if user can import data.
      */
     public boolean canImportData(User user) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         return access.getCanImportData();
     }
 
@@ -202,7 +286,7 @@ public class FeatureAccessService {
      * Get all feature access as a map for frontend.
      */
     public Map<String, Object> getFeatureAccessMap(User user) {
-        UserFeatureAccess access = getUserFeatureAccess(user);
+        UserFeatureAccess access = resolve(user);
         Map<String, Object> features = new LinkedHashMap<>();
 
         // Page access
@@ -243,18 +327,28 @@ public class FeatureAccessService {
 
     /**
      * Update feature access for a user (admin only).
+     * Only the fields that are set are stored; the others keep following the user's tier.
      * Note: adminPanel is NOT updated here - it's determined by user role.
      */
     public UserFeatureAccess updateFeatureAccess(String userId, UserFeatureAccess updatedAccess) {
         UserFeatureAccess existing = featureAccessRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    UserFeatureAccess newAccess = new UserFeatureAccess();
-                    newAccess.setUserId(userId);
-                    // Set adminPanel to true by default for new records - will be filtered by role in getFeatureAccessMap
-                    newAccess.setAdminPanel(true);
-                    return newAccess;
-                });
+                .orElseGet(() -> UserFeatureAccess.builder()
+                        .userId(userId)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+
+        applyOverrides(existing, updatedAccess);
+
+        existing.setUpdatedAt(LocalDateTime.now());
+        UserFeatureAccess saved = featureAccessRepository.save(existing);
+        cache.invalidate(userId);
+        return saved;
+    }
 
+    /**
+     * Copy every non-null field of {@code updatedAccess} onto {@code existing}, except adminPanel.
+     */
+    private static void applyOverrides(UserFeatureAccess existing, UserFeatureAccess updatedAccess) {
         // Update all fields EXCEPT adminPanel (which is role-based, not editable)
         if (updatedAccess.getIncomePage() != null) existing.setIncomePage(updatedAccess.getIncomePage());
         if (updatedAccess.getInvestmentPage() != null) existing.setInvestmentPage(updatedAccess.getInvestmentPage());
@@ -262,8 +356,12 @@ public class FeatureAccessService {
         if (updatedAccess.getInsurancePage() != null) existing.setInsurancePage(updatedAccess.getInsurancePage());
         if (updatedAccess.getExpensePage() != null) existing.setExpensePage(updatedAccess.getExpensePage());
         if (updatedAccess.getGoalsPage() != null) existing.setGoalsPage(updatedAccess.getGoalsPage());
+        if (updatedAccess.getFamilyPage() != null) existing.setFamilyPage(updatedAccess.getFamilyPage());
         if (updatedAccess.getCalendarPage() != null) existing.setCalendarPage(updatedAccess.getCalendarPage());
         if (updatedAccess.getRetirementPage() != null) existing.setRetirementPage(updatedAccess.getRetirementPage());
+        if (updatedAccess.getInsuranceRecommendationsPage() != null) {
+            existing.setInsuranceRecommendationsPage(updatedAccess.getInsuranceRecommendationsPage());
+        }
         if (updatedAccess.getReportsPage() != null) existing.setReportsPage(updatedAccess.getReportsPage());
         if (updatedAccess.getSimulationPage() != null) existing.setSimulationPage(updatedAccess.getSimulationPage());
         if (updatedAccess.getCanRunSimulation() != null) existing.setCanRunSimulation(updatedAccess.getCanRunSimulation());
@@ -293,8 +391,8 @@ public class FeatureAccessService {
         if (updatedAccess.getCanExportExcel() != null) existing.setCanExportExcel(updatedAccess.getCanExportExcel());
         if (updatedAccess.getCanExportJson() != null) existing.setCanExportJson(updatedAccess.getCanExportJson());
         if (updatedAccess.getCanImportData() != null) existing.setCanImportData(updatedAccess.getCanImportData());
+    }
 
-        existing.setUpdatedAt(LocalDateTime.now());
-        return featureAccessRepository.save(existing);
+    private record ResolvedAccess(User.UserRole tier, UserFeatureAccess access) {
     }
 }
@@ -0,0 +1,257 @@
+package com.retyrment.service;
+
+import com.retyrment.model.Investment;
+import com.retyrment.model.RetirementScenario;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Finds the smallest change to each of four levers that closes the corpus gap under the full
+ * projection engine: an extra monthly SIP, a higher SIP step-up, a higher yearly lumpsum, or
+ * retiring later.
+ *
+ * The gap is the engine's required corpus for the scenario's income strategy less the net
+ * corpus at retirement, as in the matrix's canRetireByStrategy. Final corpus rises with each
+ * investment lever, so each is solved by secant steps from a warm start and then false position
+ * once the root is bracketed. The SIP and lumpsum levers are linear in the corpus, so their
+ * first secant step is already the answer. Step-up and lumpsum edits only touch accumulation, so
+ * their evaluations resume from the first affected row. The delay is read from one projection
+ * that retires at life expectancy.
+ */
+final class GapSolver {
+
+    static final double MAX_SIP_STEP_UP = 50.0;
+    static final int MAX_EVALUATIONS = 20;
+
+    private final ProjectionEngine engine;
+    private final UserFinancialSnapshot snapshot;
+    private final RetirementScenario base;
+    private final int currentYear;
+    private int evaluations;
+
+    /**
+     * @param base a scenario with its age and inflation fields resolved
+     */
+    GapSolver(ProjectionEngine engine, UserFinancialSnapshot snapshot, RetirementScenario base, int currentYear) {
+        this.engine = engine;
+        this.snapshot = snapshot;
+        this.base = base;
+        this.currentYear = currentYear;
+    }
+
+    /**
+     * Smallest {@code x} found in {@code [x0, upper]} with {@code gap(x) <= 0}, for a gap that
+     * does not increase with {@code x}, or NaN if even {@code upper} leaves a gap.
+     *
+     * @param g0 gap at {@code x0}, which must be positive
+     * @param x1 warm start, the first point evaluated
+     * @param xTolerance stop once the bracket is this narrow
+     */
+    static Root solve(DoubleUnaryOperator gap, double x0, double g0, double x1, double upper,
+                      double xTolerance, int maxEvaluations) {
+        double lo = x0;
+        double gLo = g0;
+        double x = Math.min(Math.max(x1, x0 + xTolerance), upper);
+        int evaluations = 0;
+
+        // Secant steps until a point closes the gap
+        double hi;
+        double gHi;
+        while (true) {
+            double g = gap.applyAsDouble(x);
+            evaluations++;
+            if (g <= 0) {
+                hi = x;
+                gHi = g;
+                break;
+            }
+            if (x >= upper || evaluations >= maxEvaluations) {
+                return new Root(Double.NaN, g, evaluations);
+            }
+            double next = g < gLo ? x - g * (x - lo) / (g - gLo) : x + 2 * (x - lo);
+            // Overshoot slightly so a linear gap lands just past zero rather than a rounding error short
+            next += xTolerance / 2;
+            lo = x;
+            gLo = g;
+            x = Math.min(Math.max(next, x + xTolerance), upper);
+        }
+
+        // Illinois false position inside [lo, hi]. The first probe is just below hi: when the
+        // secant landed on the root, that one evaluation settles it
+        int lastMoved = 0;
+        boolean probe = true;
+        while (gHi < 0 && hi - lo > xTolerance && evaluations < maxEvaluations) {
+            double next = probe ? hi - xTolerance : hi - gHi * (hi - lo) / (gHi - gLo);
+            probe = false;
+            if (!(next > lo && next < hi)) {
+                next = (lo + hi) / 2;
+            }
+            double g = gap.applyAsDouble(next);
+            evaluations++;
+            if (g <= 0) {
+                hi = next;
+                gHi = g;
+                if (lastMoved == 1) {
+                    gLo /= 2;
+                }
+                lastMoved = 1;
+            } else {
+                lo = next;
+                gLo = g;
+                if (lastMoved == -1) {
+                    gHi /= 2;
+                }
+                lastMoved = -1;
+            }
+        }
+        return new Root(hi, gHi, evaluations);
+    }
+
+    record Root(double x, double gap, int evaluations) {
+        boolean found() {
+            return !Double.isNaN(x);
+        }
+    }
+
+    Map<String, Object> solve() {
+        evaluations = 0;
+        RetirementProjection projection = project(snapshot, base);
+        int strategy = RequiredCorpusSolver.strategyIndex(projection.incomeStrategy);
+        int row = projection.yearsToRetirement;
+        double required = projection.requiredCorpus[strategy][row];
+        double gap = required - projection.netCorpus[row];
+
+        Map<String, Object> levers = new LinkedHashMap<>();
+        if (gap > 0) {
+            levers.put("additionalMonthlySip", additionalSip(projection, required, gap));
+            levers.put("sipStepUp", sipStepUp(projection, required, gap));
+            levers.put("yearlyLumpsum", yearlyLumpsum(projection, required, gap));
+        }
+        levers.put("retirementDelay", retirementDelay(projection, strategy));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("incomeStrategy", RequiredCorpusSolver.STRATEGIES[strategy]);
+        result.put("retirementAge", projection.retirementAge);
+        result.put("finalCorpus", Math.round(projection.netCorpus[row]));
+        result.put("requiredCorpus", Math.round(required));
+        result.put("gap", Math.round(gap));
+        result.put("onTrack", gap <= 0);
+        result.put("levers", levers);
+        result.put("evaluations", evaluations);
+        return result;
+    }
+
+    /**
+     * A new SIP into mutual funds, stepped up with the existing ones.
+     */
+    private Map<String, Object> additionalSip(RetirementProjection projection, double required, double gap) {
+        int years = projection.yearsToRetirement;
+        if (years == 0) {
+            return lever(null, null, null, 0);
+        }
+        // Warm start from the flat-rate annuity formula
+        double monthlyRate = projection.mfReturn / 12 / 100;
+        int months = years * 12;
+        double warmStart = monthlyRate > 0 ? gap * monthlyRate / (Math.pow(1 + monthlyRate, months) - 1) : gap / months;
+
+        int before = evaluations;
+        Root root = solve(extra -> required - project(withExtraSip(extra), base).netCorpus[years],
+                0, gap, warmStart, gap / 12, 1.0, MAX_EVALUATIONS);
+        Double value = root.found() ? Math.ceil(root.x()) : null;
+        return lever(value, value, root.found() ? Math.round(required - root.gap()) : null, evaluations - before);
+    }
+
+    private Map<String, Object> sipStepUp(RetirementProjection projection, double required, double gap) {
+        double current = projection.sipStepUp;
+        RetirementProjection work = project(snapshot, base);
+        int before = evaluations;
+        Root root = current >= MAX_SIP_STEP_UP ? new Root(Double.NaN, gap, 0)
+                : solve(stepUp -> required - reproject(work, base.toBuilder()
+                        .sipStepup(stepUp).sipStepUpPercent(stepUp).build()),
+                current, gap, current + 5, MAX_SIP_STEP_UP, 0.01, MAX_EVALUATIONS);
+        Double value = root.found() ? Math.ceil(root.x() * 10) / 10 : null;
+        return lever(value, value != null ? Math.round((value - current) * 10) / 10.0 : null,
+                root.found() ? Math.round(required - root.gap()) : null, evaluations - before);
+    }
+
+    private Map<String, Object> yearlyLumpsum(RetirementProjection projection, double required, double gap) {
+        int years = projection.yearsToRetirement;
+        if (years == 0) {
+            return lever(null, null, null, 0);
+        }
+        double current = projection.lumpsumYearly;
+        double rate = projection.mfReturn / 100;
+        double warmStart = current + (rate > 0 ? gap * rate / (Math.pow(1 + rate, years) - 1) : gap / years);
+
+        RetirementProjection work = project(snapshot, base);
+        int before = evaluations;
+        Root root = solve(lumpsum -> required - reproject(work, base.toBuilder().lumpsumAmount(lumpsum).build()),
+                current, gap, warmStart, current + gap, 1.0, MAX_EVALUATIONS);
+        Double value = root.found() ? Math.ceil(root.x()) : null;
+        return lever(value, value != null ? value - current : null,
+                root.found() ? Math.round(required - root.gap()) : null, evaluations - before);
+    }
+
+    /**
+     * Years past the planned age until the corpus first covers the requirement, before life
+     * expectancy. Rows before retirement do not depend on the retirement age, so one projection
+     * to life expectancy serves every candidate age.
+     */
+    private Map<String, Object> retirementDelay(RetirementProjection projection, int strategy) {
+        RetirementProjection longest = projection.retirementAge >= projection.lifeExpectancy ? projection
+                : project(snapshot, base.toBuilder().retirementAge(projection.lifeExpectancy).build());
+        int row = longest.firstAffordableRows(projection.yearsToRetirement)[strategy];
+        Map<String, Object> delay = new LinkedHashMap<>();
+        delay.put("years", row >= 0 ? row - projection.yearsToRetirement : null);
+        delay.put("retirementAge", row >= 0 ? longest.age(row) : null);
+        if (row >= 0) {
+            delay.put("finalCorpus", Math.round(longest.netCorpus[row]));
+            delay.put("requiredCorpus", Math.round(longest.requiredCorpus[strategy][row]));
+        }
+        return delay;
+    }
+
+    private static Map<String, Object> lever(Double value, Double increase, Long finalCorpus, int evaluations) {
+        Map<String, Object> lever = new LinkedHashMap<>();
+        lever.put("value", value);
+        lever.put("increase", increase);
+        lever.put("achievable", value != null);
+        lever.put("finalCorpus", finalCorpus);
+        lever.put("evaluations", evaluations);
+        return lever;
+    }
+
+    private RetirementProjection project(UserFinancialSnapshot data, RetirementScenario scenario) {
+        evaluations++;
+        return engine.project(data, scenario, currentYear);
+    }
+
+    /**
+     * Net corpus at retirement after re-running {@code work} from the first row the candidate
+     * changes. Every candidate differs from the base in the same field, so rows before that are
+     * the base's whichever candidate ran last.
+     */
+    private double reproject(RetirementProjection work, RetirementScenario candidate) {
+        evaluations++;
+        int fromRow = ProjectionEngine.firstAffectedRow(base, candidate, work.rows());
+        engine.reproject(work, snapshot, candidate, Math.max(fromRow, 0));
+        return work.netCorpus[work.yearsToRetirement];
+    }
+
+    private UserFinancialSnapshot withExtraSip(double monthlySip) {
+        List<Investment> investments = new ArrayList<>(snapshot.getInvestments());
+        investments.add(Investment.builder()
+                .name("Additional SIP")
+                .type(Investment.InvestmentType.MUTUAL_FUND)
+                .currentValue(0.0)
+                .monthlySip(monthlySip)
+                .build());
+        return UserFinancialSnapshot.of(snapshot.getUserId(), investments, snapshot.getInsurance(),
+                snapshot.getGoals(), snapshot.getExpenses(), snapshot.getIncomes(), snapshot.getLoans());
+    }
+
+}
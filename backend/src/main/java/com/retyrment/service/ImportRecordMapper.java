@@ -0,0 +1,97 @@
+package com.retyrment.service;
+
+import com.retyrment.model.Expense;
+import com.retyrment.model.Goal;
+import com.retyrment.model.Income;
+import com.retyrment.model.Insurance;
+import com.retyrment.model.Investment;
+import com.retyrment.model.Loan;
+
+import java.util.Map;
+
+/**
+ * Maps records of a JSON data export back to model objects. Only the fields a user
+ * enters are copied; ids and user ids are left for the importer to set.
+ */
+final class ImportRecordMapper {
+
+    private ImportRecordMapper() {
+    }
+
+    static Income toIncome(Map<String, Object> item) {
+        return Income.builder()
+                .source((String) item.get("source"))
+                .monthlyAmount(getDouble(item, "monthlyAmount"))
+                .annualIncrement(getDouble(item, "annualIncrement"))
+                .isActive((Boolean) item.getOrDefault("isActive", true))
+                .build();
+    }
+
+    static Investment toInvestment(Map<String, Object> item) {
+        return Investment.builder()
+                .type(item.get("type") != null ? Investment.InvestmentType.valueOf((String) item.get("type")) : null)
+                .name((String) item.get("name"))
+                .investedAmount(getDouble(item, "investedAmount"))
+                .currentValue(getDouble(item, "currentValue"))
+                .monthlySip(getDouble(item, "monthlySip"))
+                .expectedReturn(getDouble(item, "expectedReturn"))
+                .build();
+    }
+
+    static Loan toLoan(Map<String, Object> item) {
+        return Loan.builder()
+                .type(item.get("type") != null ? Loan.LoanType.valueOf((String) item.get("type")) : null)
+                .name((String) item.get("name"))
+                .outstandingAmount(getDouble(item, "outstandingAmount"))
+                .emi(getDouble(item, "emi"))
+                .interestRate(getDouble(item, "interestRate"))
+                .remainingMonths(getInt(item, "remainingMonths"))
+                .build();
+    }
+
+    static Insurance toInsurance(Map<String, Object> item) {
+        return Insurance.builder()
+                .type(item.get("type") != null ? Insurance.InsuranceType.valueOf((String) item.get("type")) : null)
+                .company((String) item.get("company"))
+                .policyName((String) item.get("policyName"))
+                .sumAssured(getDouble(item, "sumAssured"))
+                .annualPremium(getDouble(item, "annualPremium"))
+                .renewalMonth(getInt(item, "renewalMonth"))
+                .fundValue(getDouble(item, "fundValue"))
+                .build();
+    }
+
+    static Expense toExpense(Map<String, Object> item) {
+        return Expense.builder()
+                .category(item.get("category") != null ? Expense.ExpenseCategory.valueOf((String) item.get("category")) : null)
+                .name((String) item.get("name"))
+                .monthlyAmount(getDouble(item, "monthlyAmount"))
+                .isFixed((Boolean) item.getOrDefault("isFixed", true))
+                .build();
+    }
+
+    static Goal toGoal(Map<String, Object> item) {
+        return Goal.builder()
+                .icon((String) item.get("icon"))
+                .name((String) item.get("name"))
+                .targetAmount(getDouble(item, "targetAmount"))
+                .targetYear(getInt(item, "targetYear"))
+                .priority(item.get("priority") != null ? Goal.Priority.valueOf((String) item.get("priority")) : Goal.Priority.MEDIUM)
+                .isRecurring((Boolean) item.getOrDefault("isRecurring", false))
+                .build();
+    }
+
+    private static Double getDouble(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        if (value == null) return null;
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        return Double.parseDouble(value.toString());
+    }
+
+    private static Integer getInt(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        if (value == null) return null;
+        if (value instanceof Number) return ((Number) value).intValue();
+        return Integer.parseInt(value.toString());
+    }
+}
@@ -0,0 +1,88 @@
+package com.retyrment.service;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk import: per collection, how many records were read, written and
+ * rejected, with the first few error messages.
+ */
+@Getter
+public class ImportReport {
+
+    static final int MAX_ERRORS_PER_COLLECTION = 50;
+
+    private final boolean atomic;
+    private boolean rolledBack;
+    private final Map<String, CollectionResult> collections = new LinkedHashMap<>();
+
+    ImportReport(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    CollectionResult collection(String name) {
+        return collections.computeIfAbsent(name, k -> new CollectionResult());
+    }
+
+    void markRolledBack() {
+        rolledBack = true;
+    }
+
+    public boolean hasErrors() {
+        return collections.values().stream().anyMatch(c -> c.failed > 0);
+    }
+
+    /**
+     * The first error reported for any collection, or null when there were none.
+     */
+    String firstError() {
+        return collections.values().stream()
+                .flatMap(c -> c.errors.stream())
+                .findFirst()
+                .orElse(null);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", rolledBack ? "rolled_back" : hasErrors() ? "partial" : "success");
+        result.put("atomic", atomic);
+        Map<String, Object> perCollection = new LinkedHashMap<>();
+        collections.forEach((name, c) -> {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("received", c.received);
+            counts.put("imported", rolledBack ? 0 : c.imported);
+            counts.put("failed", c.failed);
+            if (!c.errors.isEmpty()) counts.put("errors", c.errors);
+            perCollection.put(name, counts);
+        });
+        result.put("collections", perCollection);
+        return result;
+    }
+
+    @Getter
+    public static class CollectionResult {
+        private int received;
+        private int imported;
+        private int failed;
+        private final List<String> errors = new ArrayList<>();
+
+        void received() {
+            received++;
+        }
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void failed(int count, String message) {
+            failed += count;
+            if (errors.size() < MAX_ERRORS_PER_COLLECTION) {
+                errors.add(message);
+            }
+        }
+    }
+}
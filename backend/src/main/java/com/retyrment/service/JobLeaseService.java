@@ -0,0 +1,176 @@
+package com.retyrment.service;
+
+import com.retyrment.model.JobLease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs background jobs on one instance of the cluster at a time.
+ *
+ * A job takes a lease by atomically claiming its document in {@code job_leases} when it is
+ * missing or expired; a live lease makes the upsert collide on {@code _id}, so exactly one
+ * instance wins. Every acquisition increments the lease token. Jobs should call
+ * {@link #isHeld(Lease)} before each write phase and stop once a newer token has taken over,
+ * which fences off an instance that stalled past its lease. Scheduled runs start after a random
+ * delay so that instances firing on the same cron tick do not all race for the lease at once,
+ * and keep the lease until it expires: releasing it on completion would let an instance still in
+ * its delay take it and run the same tick again. The TTL of a scheduled job must therefore be
+ * longer than the jitter and shorter than its schedule interval.
+ *
+ * Lease documents are never deleted, so a job's token keeps growing across idle periods.
+ *
+ * Jobs that clean up instance-local state, such as in-memory caches, must not use a lease.
+ */
+@Slf4j
+@Service
+public class JobLeaseService {
+
+    private final MongoTemplate mongoTemplate;
+    private final long maxJitterMillis;
+    private final String owner;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+
+    public JobLeaseService(MongoTemplate mongoTemplate,
+                           @Value("${app.scheduling.max-jitter-ms:5000}") long maxJitterMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxJitterMillis = Math.max(maxJitterMillis, 0);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * A held lease. {@code token} is larger than that of every earlier holder of the same job.
+     */
+    public record Lease(String job, String owner, long token, Instant expiresAt) {
+    }
+
+    /**
+     * Wait a random delay, then run the job if this instance gets the lease. The lease is kept
+     * until it expires, so the other instances firing on the same tick skip the run.
+     *
+     * @return the job's result, or empty if another instance holds the lease
+     */
+    public <T> Optional<T> runScheduled(String job, Duration ttl, Function<Lease, T> work) {
+        if (maxJitterMillis > 0) {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(maxJitterMillis + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+        return run(job, ttl, work, false);
+    }
+
+    /**
+     * Run the job now if this instance gets the lease, and release the lease afterwards.
+     *
+     * @return the job's result, or empty if another instance holds the lease
+     */
+    public <T> Optional<T> runExclusively(String job, Duration ttl, Function<Lease, T> work) {
+        return run(job, ttl, work, true);
+    }
+
+    private <T> Optional<T> run(String job, Duration ttl, Function<Lease, T> work, boolean release) {
+        Optional<Lease> lease = tryAcquire(job, ttl);
+        if (lease.isEmpty()) {
+            skipped.incrementAndGet();
+            log.debug("Skipping {}: the lease is held by another instance", job);
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(work.apply(lease.get()));
+        } finally {
+            if (release) {
+                release(lease.get());
+            }
+        }
+    }
+
+    /**
+     * Take the lease if it is free or expired.
+     */
+    public Optional<Lease> tryAcquire(String job, Duration ttl) {
+        Instant now = Instant.now();
+        Query free = Query.query(Criteria.where("_id").is(job).and("expiresAt").lte(now));
+        Update claim = new Update()
+                .set("owner", owner)
+                .set("acquiredAt", now)
+                .set("expiresAt", now.plus(ttl))
+                .inc("token", 1);
+        try {
+            JobLease lease = mongoTemplate.findAndModify(free, claim,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class);
+            if (lease == null) {
+                return Optional.empty();
+            }
+            acquired.incrementAndGet();
+            log.debug("Acquired lease {} with token {}", job, lease.getToken());
+            return Optional.of(new Lease(job, owner, lease.getToken(), lease.getExpiresAt()));
+        } catch (DuplicateKeyException e) {
+            // The lease exists and has not expired
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the lease is still unexpired and has not been taken over by a newer token.
+     */
+    public boolean isHeld(Lease lease) {
+        boolean held = mongoTemplate.exists(heldBy(lease).addCriteria(Criteria.where("expiresAt").gt(Instant.now())),
+                JobLease.class);
+        if (!held) {
+            lost.incrementAndGet();
+            log.warn("Lost lease {} (token {})", lease.job(), lease.token());
+        }
+        return held;
+    }
+
+    /**
+     * Expire the lease now, so the next run on any instance can take it. The token is kept.
+     */
+    public void release(Lease lease) {
+        try {
+            mongoTemplate.updateFirst(heldBy(lease), Update.update("expiresAt", Instant.now()), JobLease.class);
+        } catch (DataAccessException e) {
+            // The lease runs out on its own
+            log.warn("Could not release lease {}: {}", lease.job(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("owner", owner);
+        stats.put("acquired", acquired.get());
+        stats.put("skipped", skipped.get());
+        stats.put("lost", lost.get());
+        return stats;
+    }
+
+    private static Query heldBy(Lease lease) {
+        return Query.query(Criteria.where("_id").is(lease.job())
+                .and("owner").is(lease.owner())
+                .and("token").is(lease.token()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.retyrment.service;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel Monte Carlo over a single portfolio value with normally distributed yearly returns.
+ *
+ * Simulations are split into fixed-size chunks, and each chunk draws from its own
+ * {@link SplittableRandom} split off the seeded root in chunk order before any work starts.
+ * The output is therefore identical for a given seed no matter how the common
+ * ForkJoinPool schedules the chunks. Results go straight into a primitive array.
+ */
+final class MonteCarloEngine {
+
+    static final int CHUNK_SIZE = 1024;
+
+    private MonteCarloEngine() {
+    }
+
+    /**
+     * Final portfolio value of each simulation.
+     *
+     * @param startValue  value today
+     * @param yearlySip   contribution added every year
+     * @param meanReturn  mean yearly return, in percent
+     * @param stdDev      standard deviation of the yearly return, in percent
+     */
+    static double[] simulateFinalValues(double startValue, double yearlySip, double meanReturn, double stdDev,
+                                        int years, int simulations, long seed) {
+        double[] finalValues = new double[simulations];
+        int chunks = (simulations + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = root.split();
+        }
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom random = streams[c];
+            int end = Math.min(simulations, (c + 1) * CHUNK_SIZE);
+            for (int sim = c * CHUNK_SIZE; sim < end; sim++) {
+                double value = startValue;
+                for (int year = 0; year < years; year++) {
+                    double yearReturn = meanReturn + random.nextGaussian() * stdDev;
+                    value = value * (1 + yearReturn / 100);
+                    value += yearlySip * (1 + yearReturn / 200); // Simplified SIP addition
+                }
+                finalValues[sim] = value;
+            }
+        });
+        return finalValues;
+    }
+
+    /**
+     * Values at the given fractions of the sorted order (index {@code (int) (n * fraction)}),
+     * found by selection instead of a full sort. Reorders {@code values} in place.
+     *
+     * @param fractions ascending fractions in [0, 1)
+     */
+    static double[] percentiles(double[] values, double... fractions) {
+        double[] result = new double[fractions.length];
+        int from = 0;
+        for (int i = 0; i < fractions.length; i++) {
+            int k = Math.min(values.length - 1, (int) (values.length * fractions[i]));
+            // Everything left of an earlier k is no larger, so later searches can start past it
+            result[i] = select(values, Math.min(from, k), values.length - 1, k);
+            from = k;
+        }
+        return result;
+    }
+
+    /**
+     * Quickselect: place the k-th smallest element of values[left..right] at index k and return it.
+     */
+    static double select(double[] values, int left, int right, int k) {
+        while (right > left) {
+            int pivotIndex = medianOfThree(values, left, left + (right - left) / 2, right);
+            double pivot = values[pivotIndex];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+
+    private static int medianOfThree(double[] values, int a, int b, int c) {
+        double va = values[a];
+        double vb = values[b];
+        double vc = values[c];
+        if (va < vb) {
+            return vb < vc ? b : (va < vc ? c : a);
+        }
+        return va < vc ? a : (vb < vc ? c : b);
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,177 @@
+package com.retyrment.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A user's recurring payments, materialized month by month over one or more calendar years.
+ *
+ * Month {@code i} of the calendar is {@code start.plusMonths(i)}. Every line keeps its amounts
+ * in a {@code double[]} indexed the same way; the calendar adds per-month totals, running totals
+ * for range sums and, for each month, the indexes of the lines with a payment in it. Instances
+ * are immutable once built and are shared between requests.
+ */
+final class PaymentCalendar {
+
+    /**
+     * One source of payments, such as a SIP, a loan EMI or a manual calendar entry.
+     *
+     * @param dayKey  field that carries {@code day} in the year view, or null to leave it out
+     * @param day     day of the month the payment is due, or null if not known
+     * @param amounts amount due in each month of the calendar
+     */
+    record Line(String id, String description, String category, boolean autoLinked,
+                String dayKey, Integer day, double[] amounts) {
+    }
+
+    /**
+     * A line's payment in one month. Payments without a known day are due on the 1st.
+     */
+    record Payment(Line line, YearMonth month, double amount) {
+        LocalDate dueDate() {
+            int day = line.day() != null ? line.day() : 1;
+            return month.atDay(Math.min(Math.max(day, 1), month.lengthOfMonth()));
+        }
+    }
+
+    private final YearMonth start;
+    private final List<Line> lines;
+    private final double[] totals;
+    private final double[] runningTotals;
+    private final int[][] dueLines;
+
+    PaymentCalendar(YearMonth start, int months, List<Line> lines) {
+        this.start = start;
+        this.lines = List.copyOf(lines);
+        this.totals = new double[months];
+        this.runningTotals = new double[months + 1];
+        this.dueLines = new int[months][];
+
+        int[] dueCounts = new int[months];
+        for (Line line : this.lines) {
+            double[] amounts = line.amounts();
+            for (int m = 0; m < months; m++) {
+                totals[m] += amounts[m];
+                if (amounts[m] > 0) {
+                    dueCounts[m]++;
+                }
+            }
+        }
+        for (int m = 0; m < months; m++) {
+            runningTotals[m + 1] = runningTotals[m] + totals[m];
+            dueLines[m] = new int[dueCounts[m]];
+        }
+        int[] filled = new int[months];
+        for (int l = 0; l < this.lines.size(); l++) {
+            double[] amounts = this.lines.get(l).amounts();
+            for (int m = 0; m < months; m++) {
+                if (amounts[m] > 0) {
+                    dueLines[m][filled[m]++] = l;
+                }
+            }
+        }
+    }
+
+    YearMonth start() {
+        return start;
+    }
+
+    YearMonth end() {
+        return start.plusMonths(totals.length - 1L);
+    }
+
+    List<Line> lines() {
+        return lines;
+    }
+
+    boolean covers(YearMonth month) {
+        return indexOf(month) >= 0;
+    }
+
+    /**
+     * Position of the month in this calendar, or -1 if the calendar does not cover it.
+     */
+    int indexOf(YearMonth month) {
+        long index = start.until(month, ChronoUnit.MONTHS);
+        return index >= 0 && index < totals.length ? (int) index : -1;
+    }
+
+    double total(YearMonth month) {
+        int index = indexOf(month);
+        return index < 0 ? 0 : totals[index];
+    }
+
+    /**
+     * Sum of all payments from {@code from} to {@code to}, both inclusive, within the calendar.
+     */
+    double total(YearMonth from, YearMonth to) {
+        int first = clip(start.until(from, ChronoUnit.MONTHS));
+        int last = clip(start.until(to, ChronoUnit.MONTHS) + 1);
+        return last > first ? runningTotals[last] - runningTotals[first] : 0;
+    }
+
+    /**
+     * The twelve monthly amounts of a line in one calendar year, zero for months outside the calendar.
+     */
+    double[] year(Line line, int year) {
+        return slice(line.amounts(), year);
+    }
+
+    double[] yearTotals(int year) {
+        return slice(totals, year);
+    }
+
+    /**
+     * Payments due in the month, in line order.
+     */
+    List<Payment> payments(YearMonth month) {
+        int index = indexOf(month);
+        if (index < 0) {
+            return List.of();
+        }
+        List<Payment> payments = new ArrayList<>(dueLines[index].length);
+        for (int l : dueLines[index]) {
+            Line line = lines.get(l);
+            payments.add(new Payment(line, month, line.amounts()[index]));
+        }
+        return payments;
+    }
+
+    /**
+     * Payments due from {@code from} to {@code to}, both inclusive and clipped to the calendar,
+     * ordered by due date.
+     */
+    List<Payment> dueBetween(LocalDate from, LocalDate to) {
+        List<Payment> due = new ArrayList<>();
+        YearMonth last = YearMonth.from(to).isAfter(end()) ? end() : YearMonth.from(to);
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(last); month = month.plusMonths(1)) {
+            for (Payment payment : payments(month)) {
+                LocalDate dueDate = payment.dueDate();
+                if (!dueDate.isBefore(from) && !dueDate.isAfter(to)) {
+                    due.add(payment);
+                }
+            }
+        }
+        due.sort(Comparator.comparing(Payment::dueDate));
+        return due;
+    }
+
+    private double[] slice(double[] series, int year) {
+        double[] months = new double[12];
+        for (int m = 0; m < 12; m++) {
+            int index = indexOf(YearMonth.of(year, m + 1));
+            if (index >= 0) {
+                months[m] = series[index];
+            }
+        }
+        return months;
+    }
+
+    private int clip(long index) {
+        return (int) Math.min(Math.max(index, 0), totals.length);
+    }
+}
@@ -0,0 +1,87 @@
+package com.retyrment.service;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.properties.TextAlignment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Fonts, colours and paragraph styles shared by every PDF report.
+ *
+ * Built once per JVM. iText binds a {@code PdfFont} to a single document, so only the
+ * parsed font program is shared and each document wraps it in its own font.
+ * The styles hold no font and are never modified, so concurrent reports can share them.
+ */
+final class PdfReportStyles {
+
+    static final DeviceRgb PRIMARY = new DeviceRgb(79, 70, 229);       // Indigo
+    static final DeviceRgb SUCCESS = new DeviceRgb(16, 185, 129);      // Green
+    static final DeviceRgb DANGER = new DeviceRgb(239, 68, 68);        // Red
+    static final DeviceRgb AMBER = new DeviceRgb(245, 158, 11);        // Amber
+    static final DeviceRgb HEADER_BACKGROUND = new DeviceRgb(241, 245, 249);
+    static final DeviceRgb NEUTRAL = new DeviceRgb(100, 116, 139);
+
+    static final Style TITLE = new Style()
+            .setFontSize(20)
+            .setBold()
+            .setFontColor(PRIMARY)
+            .setTextAlignment(TextAlignment.CENTER)
+            .setMarginBottom(5);
+
+    static final Style GENERATED_ON = new Style()
+            .setFontSize(9)
+            .setFontColor(ColorConstants.GRAY)
+            .setTextAlignment(TextAlignment.CENTER)
+            .setMarginBottom(20);
+
+    static final Style SECTION_HEADING = new Style()
+            .setFontSize(14)
+            .setBold()
+            .setFontColor(PRIMARY)
+            .setMarginBottom(10);
+
+    static final Style FOOTER = new Style()
+            .setFontSize(8)
+            .setFontColor(ColorConstants.GRAY)
+            .setTextAlignment(TextAlignment.CENTER);
+
+    // Table rows added between flushes of a large table
+    static final int ROWS_PER_FLUSH = 20;
+
+    private static final FontProgram REGULAR_FONT = loadFont(StandardFonts.HELVETICA);
+
+    private PdfReportStyles() {
+    }
+
+    /**
+     * Open a document that writes pages to the stream as they are completed.
+     * Closing the document does not close the stream.
+     */
+    static Document openDocument(OutputStream outputStream) {
+        PdfWriter writer = new PdfWriter(outputStream);
+        writer.setCloseStream(false);
+        Document document = new Document(new PdfDocument(writer));
+        document.setFont(PdfFontFactory.createFont(REGULAR_FONT, PdfEncodings.WINANSI));
+        return document;
+    }
+
+    private static FontProgram loadFont(String name) {
+        try {
+            return FontProgramFactory.createFont(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load PDF font " + name, e);
+        }
+    }
+}
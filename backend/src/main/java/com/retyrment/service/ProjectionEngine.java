@@ -0,0 +1,627 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes the retirement trajectory for a snapshot and scenario into a column-oriented
+ * {@link RetirementProjection}: the accumulation phase up to retirement, the required
+ * corpus per strategy for every year, and the drawdown phase for the selected strategy.
+ *
+ * No per-row objects are created here; the engine holds no per-user state and is cheap
+ * to build, so callers create one per request with the current defaults.
+ */
+class ProjectionEngine {
+
+    static final double RENT_GROWTH_RATE = 5.0;
+    static final int MAX_DRAWDOWN_YEARS = 30;
+
+    private static final List<Insurance.InsuranceType> MATURING_POLICY_TYPES = List.of(
+            Insurance.InsuranceType.ULIP, Insurance.InsuranceType.ENDOWMENT, Insurance.InsuranceType.MONEY_BACK);
+
+    private final CalculationService calculationService;
+    private final double defaultPpfReturn;
+    private final double defaultEpfReturn;
+    private final double defaultMfReturn;
+    private final double defaultInflation;
+
+    ProjectionEngine(CalculationService calculationService, double defaultPpfReturn, double defaultEpfReturn,
+                     double defaultMfReturn, double defaultInflation) {
+        this.calculationService = calculationService;
+        this.defaultPpfReturn = defaultPpfReturn;
+        this.defaultEpfReturn = defaultEpfReturn;
+        this.defaultMfReturn = defaultMfReturn;
+        this.defaultInflation = defaultInflation;
+    }
+
+    RetirementProjection project(UserFinancialSnapshot snapshot, RetirementScenario scenario) {
+        return project(snapshot, scenario, LocalDate.now().getYear());
+    }
+
+    RetirementProjection project(UserFinancialSnapshot snapshot, RetirementScenario scenario, int currentYear) {
+        RetirementProjection p = new RetirementProjection(
+                currentYear,
+                scenario.getCurrentAge() != null ? scenario.getCurrentAge() : 35,
+                scenario.getRetirementAge() != null ? scenario.getRetirementAge() : 60,
+                scenario.getLifeExpectancy() != null ? scenario.getLifeExpectancy() : 85,
+                MAX_DRAWDOWN_YEARS);
+        resolveAssumptions(p, scenario);
+        loadStartingPosition(p, snapshot);
+
+        // Annuity, rent and goals are expanded once over the whole plan; accumulation,
+        // required-corpus and drawdown all read from the same arrays
+        int horizonYears = p.horizon();
+        List<Insurance> allInsurance = snapshot.getInsurance();
+        double[] annuityMonthly = p.annuityMonthly;
+        double[] rentMonthly = p.rentMonthly;
+        double[] goalByYear = p.goalByYear;
+        double rent = p.currentMonthlyRental;
+        for (int offset = 0; offset < horizonYears; offset++) {
+            annuityMonthly[offset] = annuityMonthlyIncomeForYear(allInsurance, currentYear + offset);
+            rentMonthly[offset] = rent;
+            rent *= 1 + (RENT_GROWTH_RATE / 100);
+        }
+        for (Goal goal : snapshot.getGoals()) {
+            for (Goal.GoalOccurrence occurrence : goal.expandOccurrences(currentYear + horizonYears - 1, p.inflation)) {
+                int offset = occurrence.getYear() - currentYear;
+                if (offset >= 0 && offset < horizonYears) {
+                    goalByYear[offset] += occurrence.getAmount();
+                    if (offset <= p.yearsToRetirement) {
+                        addLabel(p.goalsThisYear, offset, occurrence.getDescription());
+                    }
+                }
+            }
+        }
+        System.arraycopy(goalByYear, 0, p.goalOutflow, 0, p.rows());
+        RequiredCorpusSolver solver = new RequiredCorpusSolver(annuityMonthly, rentMonthly, goalByYear,
+                p.inflation, p.withdrawalRate, p.corpusReturnRate);
+
+        fillInflows(p, snapshot);
+        accumulate(p, snapshot, scenario, 0);
+        fillRequiredCorpus(p, snapshot, solver);
+
+        p.annuityMonthlyAtRetirement = annuityMonthly[p.yearsToRetirement];
+        drawdown(p, annuityMonthly, goalByYear);
+        return p;
+    }
+
+    /**
+     * Re-run accumulation from {@code fromRow} on a projection whose earlier rows still hold,
+     * then the drawdown, which depends on the final corpus. Only valid for an edit that
+     * {@link #firstAffectedRow} accepted: inflows, goals and required corpus are kept as they are.
+     */
+    void reproject(RetirementProjection p, UserFinancialSnapshot snapshot, RetirementScenario scenario, int fromRow) {
+        resolveAssumptions(p, scenario);
+        accumulate(p, snapshot, scenario, fromRow);
+        drawdown(p, p.annuityMonthly, p.goalByYear);
+    }
+
+    /**
+     * First accumulation row an edit from {@code before} to {@code after} can change, or -1 when
+     * the edit touches anything other than accumulation inputs (ages, inflation, income strategy,
+     * corpus return) and needs a full projection. Returns {@code rows} when nothing changed.
+     *
+     * Return and step-up assumptions only apply from effectiveFromYear, so rows before the earlier
+     * of the two effective years are unchanged. Lumpsum, NPS and rate-reduction inputs only enter
+     * through growth, which starts in year 1.
+     */
+    static int firstAffectedRow(RetirementScenario before, RetirementScenario after, int rows) {
+        RetirementScenario masked = after.toBuilder()
+                .mfReturn(before.getMfReturn())
+                .ppfReturn(before.getPpfReturn())
+                .epfReturn(before.getEpfReturn())
+                .sipStepup(before.getSipStepup())
+                .sipStepUpPercent(before.getSipStepUpPercent())
+                .effectiveFromYear(before.getEffectiveFromYear())
+                .npsReturn(before.getNpsReturn())
+                .mfReturns(before.getMfReturns())
+                .lumpsumAmount(before.getLumpsumAmount())
+                .lumpsumFrequency(before.getLumpsumFrequency())
+                .enableRateReduction(before.getEnableRateReduction())
+                .rateReductionPercent(before.getRateReductionPercent())
+                .rateReductionYears(before.getRateReductionYears())
+                .build();
+        if (!masked.equals(before)) {
+            return -1;
+        }
+
+        int fromRow = rows;
+        if (!Objects.equals(before.getMfReturn(), after.getMfReturn())
+                || !Objects.equals(before.getPpfReturn(), after.getPpfReturn())
+                || !Objects.equals(before.getEpfReturn(), after.getEpfReturn())
+                || !Objects.equals(before.getSipStepup(), after.getSipStepup())
+                || !Objects.equals(before.getSipStepUpPercent(), after.getSipStepUpPercent())
+                || !Objects.equals(before.getEffectiveFromYear(), after.getEffectiveFromYear())) {
+            int effectiveBefore = before.getEffectiveFromYear() != null ? before.getEffectiveFromYear() : 1;
+            int effectiveAfter = after.getEffectiveFromYear() != null ? after.getEffectiveFromYear() : 1;
+            fromRow = Math.max(0, Math.min(effectiveBefore, effectiveAfter));
+        }
+        if (!Objects.equals(before.getNpsReturn(), after.getNpsReturn())
+                || !Objects.equals(before.getMfReturns(), after.getMfReturns())
+                || !Objects.equals(before.getLumpsumAmount(), after.getLumpsumAmount())
+                || !Objects.equals(before.getEnableRateReduction(), after.getEnableRateReduction())
+                || !Objects.equals(before.getRateReductionPercent(), after.getRateReductionPercent())
+                || !Objects.equals(before.getRateReductionYears(), after.getRateReductionYears())) {
+            fromRow = Math.min(fromRow, 1);
+        }
+        return Math.min(fromRow, rows);
+    }
+
+    private void resolveAssumptions(RetirementProjection p, RetirementScenario scenario) {
+        // Use simple scalar values if provided, otherwise fall back to defaults
+        p.epfReturn = scenario.getEpfReturn() != null ? scenario.getEpfReturn() : defaultEpfReturn;
+        p.ppfReturn = scenario.getPpfReturn() != null ? scenario.getPpfReturn() : defaultPpfReturn;
+        p.mfReturn = scenario.getMfReturn() != null ? scenario.getMfReturn() : defaultMfReturn;
+        p.inflation = scenario.getInflation() != null ? scenario.getInflation() :
+                (scenario.getInflationRate() != null ? scenario.getInflationRate() : defaultInflation);
+        p.sipStepUp = scenario.getSipStepup() != null ? scenario.getSipStepup() :
+                (scenario.getSipStepUpPercent() != null ? scenario.getSipStepUpPercent() : 10);
+        p.lumpsumYearly = scenario.getLumpsumAmount() != null ? scenario.getLumpsumAmount() : 0;
+        // Year from which user adjustments take effect (default: 1 = next year)
+        p.effectiveFromYear = scenario.getEffectiveFromYear() != null ? scenario.getEffectiveFromYear() : 1;
+        p.incomeStrategy = scenario.getIncomeStrategy() != null ? scenario.getIncomeStrategy() : RequiredCorpusSolver.SUSTAINABLE;
+        p.corpusReturnRate = scenario.getCorpusReturnRate() != null ? scenario.getCorpusReturnRate() : 10.0;
+        p.withdrawalRate = scenario.getWithdrawalRate() != null ? scenario.getWithdrawalRate() : 8.0;
+    }
+
+    private void loadStartingPosition(RetirementProjection p, UserFinancialSnapshot snapshot) {
+        p.ppfStart = investmentBalance(snapshot, Investment.InvestmentType.PPF);
+        p.epfStart = investmentBalance(snapshot, Investment.InvestmentType.EPF);
+        p.mfStart = investmentBalance(snapshot, Investment.InvestmentType.MUTUAL_FUND);
+        p.npsStart = investmentBalance(snapshot, Investment.InvestmentType.NPS);
+        // "Other Liquid" = FD + RD + STOCK + CASH (FD/RD exclude emergency fund)
+        p.fdStart = investmentBalanceExcludingEmergencyFund(snapshot, Investment.InvestmentType.FD);
+        p.rdStart = investmentBalanceExcludingEmergencyFund(snapshot, Investment.InvestmentType.RD);
+        p.stockStart = investmentBalance(snapshot, Investment.InvestmentType.STOCK);
+        p.cashStart = investmentBalance(snapshot, Investment.InvestmentType.CASH);
+        p.emergencyFund = emergencyFundBalance(snapshot);
+        p.mfSipStart = monthlySip(snapshot, Investment.InvestmentType.MUTUAL_FUND);
+        p.currentMonthlyRental = netMonthlyRentalIncome(snapshot);
+        p.monthlyRentalAtRetirement = p.currentMonthlyRental * Math.pow(1 + (RENT_GROWTH_RATE / 100), p.yearsToRetirement);
+    }
+
+    /**
+     * Insurance maturities, investment maturities and money-back payouts per accumulation year.
+     */
+    private void fillInflows(RetirementProjection p, UserFinancialSnapshot snapshot) {
+        for (Insurance policy : snapshot.getInsurance(MATURING_POLICY_TYPES)) {
+            if (policy.getMaturityDate() != null) {
+                int offset = policy.getMaturityDate().getYear() - p.currentYear;
+                if (offset >= 0 && offset < p.rows()) {
+                    p.insuranceMaturity[offset] += policy.getMaturityBenefit() != null ?
+                            policy.getMaturityBenefit() : (policy.getFundValue() != null ? policy.getFundValue() : 0);
+                    addLabel(p.maturingPolicies, offset, policy.getPolicyName());
+                }
+            }
+            if (policy.getType() == Insurance.InsuranceType.MONEY_BACK) {
+                for (Insurance.PayoutSchedule payout : policy.getPayoutSchedule()) {
+                    int offset = payout.getCalendarYear() - p.currentYear;
+                    if (offset >= 0 && offset < p.rows()) {
+                        p.moneyBack[offset] += payout.getAmount();
+                        addLabel(p.moneyBackDetails, offset, String.format("%s: ₹%.0f (%.0f%%)",
+                                policy.getPolicyName(), payout.getAmount(),
+                                payout.getPercentage() != null ? payout.getPercentage() : 0));
+                    }
+                }
+            }
+        }
+
+        for (Investment inv : snapshot.getInvestments()) {
+            if (inv.getMaturityDate() != null) {
+                int offset = inv.getMaturityDate().getYear() - p.currentYear;
+                if (offset >= 0 && offset < p.rows()) {
+                    p.investmentMaturity[offset] += expectedMaturityValue(inv);
+                    addLabel(p.maturingInvestments, offset, inv.getName() + " (" + inv.getType() + ")");
+                }
+            }
+        }
+
+        for (int year = 0; year < p.rows(); year++) {
+            p.inflow[year] = p.insuranceMaturity[year] + p.investmentMaturity[year] + p.moneyBack[year];
+        }
+    }
+
+    /**
+     * Fill accumulation rows from {@code fromRow}; rows before it are taken as already computed
+     * and the balances resume from the row just before.
+     */
+    private void accumulate(RetirementProjection p, UserFinancialSnapshot snapshot, RetirementScenario scenario,
+                            int fromRow) {
+        double ppfYearly = yearlyContribution(snapshot, Investment.InvestmentType.PPF);
+        double epfMonthly = monthlyContribution(snapshot, Investment.InvestmentType.EPF);
+        double npsMonthly = monthlyContribution(snapshot, Investment.InvestmentType.NPS);
+        p.ppfYearlyContribution = ppfYearly;
+        p.epfMonthlyContribution = epfMonthly;
+        p.npsMonthlyContribution = npsMonthly;
+        double fdReturn = averageReturn(snapshot, Investment.InvestmentType.FD, 7.0);
+        double rdReturn = averageReturn(snapshot, Investment.InvestmentType.RD, 6.5);
+
+        // Rate reduction settings (PPF/EPF/FD rates decrease over time)
+        boolean enableRateReduction = scenario.getEnableRateReduction() != null ? scenario.getEnableRateReduction() : true;
+        double rateReductionPercent = scenario.getRateReductionPercent() != null ? scenario.getRateReductionPercent() : 0.5;
+        int rateReductionYears = scenario.getRateReductionYears() != null ? scenario.getRateReductionYears() : 5;
+
+        double ppf = p.ppfStart;
+        double epf = p.epfStart;
+        double mf = p.mfStart;
+        double nps = p.npsStart;
+        double otherLiquid = p.startingOtherLiquid();
+        double currentSip = p.mfSipStart;
+        double currentRdSip = monthlySip(snapshot, Investment.InvestmentType.RD);
+        p.rdMonthlySip = currentRdSip;
+        if (fromRow > 0) {
+            ppf = p.ppf[fromRow - 1];
+            epf = p.epf[fromRow - 1];
+            mf = p.mf[fromRow - 1];
+            nps = p.nps[fromRow - 1];
+            otherLiquid = p.otherLiquid[fromRow - 1];
+            currentSip = p.mfSip[fromRow - 1];
+        }
+
+        for (int year = fromRow; year < p.rows(); year++) {
+            // User adjustments only apply from effectiveFromYear onwards
+            double ppfRate = year < p.effectiveFromYear ? defaultPpfReturn : p.ppfReturn;
+            double epfRate = year < p.effectiveFromYear ? defaultEpfReturn : p.epfReturn;
+            double mfRate = year < p.effectiveFromYear ? defaultMfReturn : p.mfReturn;
+
+            // Apply rate reduction over time (PPF/EPF rates typically decrease, never below 4%)
+            if (enableRateReduction && year > 0 && rateReductionYears > 0) {
+                double totalReduction = (year / rateReductionYears) * rateReductionPercent;
+                ppfRate = Math.max(4.0, ppfRate - totalReduction);
+                epfRate = Math.max(4.0, epfRate - totalReduction);
+                // Note: MF rates are market-linked, not reduced
+            }
+
+            if (year > 0) {
+                ppf = ppf * (1 + ppfRate / 100) + ppfYearly;
+                epf = epf * (1 + epfRate / 100) + (epfMonthly * 12);
+
+                // MF with step-up SIP (step-up only from effectiveFromYear onwards)
+                mf = mf * (1 + mfRate / 100) + calculationService.calculateSIPFutureValue(currentSip, mfRate, 1) + p.lumpsumYearly;
+                if (year >= p.effectiveFromYear) {
+                    currentSip = currentSip * (1 + p.sipStepUp / 100);
+                }
+
+                // NPS: explicit NPS return if provided, else MF period returns, else MF rate
+                double npsRate;
+                if (scenario.getNpsReturn() != null) {
+                    npsRate = scenario.getNpsReturn();
+                } else if (scenario.getMfReturns() != null && !scenario.getMfReturns().isEmpty()) {
+                    npsRate = rateForPeriod(scenario.getMfReturns(), year, mfRate);
+                } else {
+                    npsRate = mfRate;
+                }
+                nps = nps * (1 + npsRate / 100) + (npsMonthly * 12);
+                p.npsRate[year] = npsRate;
+
+                // Other liquid assets grow at the average of the (reduced) FD/RD rates, plus RD contributions
+                double reductionFactor = (enableRateReduction && rateReductionYears > 0)
+                        ? ((double) year / (double) rateReductionYears) * rateReductionPercent : 0.0;
+                double currentFdRate = enableRateReduction ? Math.max(4.0, fdReturn - reductionFactor) : fdReturn;
+                double currentRdRate = enableRateReduction ? Math.max(4.0, rdReturn - reductionFactor) : rdReturn;
+                double otherLiquidRate = (currentFdRate + currentRdRate) / 2;
+                otherLiquid = otherLiquid * (1 + otherLiquidRate / 100)
+                        + calculationService.calculateSIPFutureValue(currentRdSip, currentRdRate, 1);
+                p.otherLiquidRate[year] = otherLiquidRate;
+                p.rdRate[year] = currentRdRate;
+            }
+
+            p.ppf[year] = ppf;
+            p.ppfRate[year] = ppfRate;
+            p.epf[year] = epf;
+            p.epfRate[year] = epfRate;
+            p.mf[year] = mf;
+            p.mfRate[year] = mfRate;
+            p.mfSip[year] = currentSip;
+            p.nps[year] = nps;
+            p.otherLiquid[year] = otherLiquid;
+            p.totalCorpus[year] = ppf + epf + mf + nps + otherLiquid + p.inflow[year];
+            p.netCorpus[year] = p.totalCorpus[year] - p.goalOutflow[year];
+        }
+    }
+
+    /**
+     * Corpus needed to retire in each accumulation year, per income strategy.
+     */
+    private void fillRequiredCorpus(RetirementProjection p, UserFinancialSnapshot snapshot, RequiredCorpusSolver solver) {
+        double monthlyPremiums = 0;
+        for (Insurance policy : snapshot.getInsurance()) {
+            if (shouldContinueAfterRetirement(policy) && policy.getAnnualPremium() != null) {
+                monthlyPremiums += policy.getAnnualPremium() / 12;
+            }
+        }
+
+        List<Expense> expenses = snapshot.getExpenses();
+        for (int year = 0; year < p.rows(); year++) {
+            int calendarYear = p.calendarYear(year);
+            double continuingExpenses = 0;
+            for (Expense expense : expenses) {
+                if (expense.willContinueAfterRetirement(calendarYear)) {
+                    continuingExpenses += expense.getMonthlyEquivalent();
+                }
+            }
+            double monthlyExpenses = continuingExpenses + monthlyPremiums;
+            double yearlyExpenseAtRetirement = monthlyExpenses * Math.pow(1 + p.inflation / 100, year) * 12;
+            p.yearlyExpense[year] = yearlyExpenseAtRetirement;
+            int retirementYearsAtYear = Math.max(0, p.lifeExpectancy - p.age(year));
+            solver.solveAll(year, yearlyExpenseAtRetirement, retirementYearsAtYear, p.requiredCorpus, year);
+        }
+    }
+
+    /**
+     * Corpus and income over retirement for the selected strategy, starting from the final corpus.
+     */
+    private void drawdown(RetirementProjection p, double[] annuityMonthly, double[] goalByYear) {
+        double finalCorpus = p.finalCorpus();
+        double corpusReturn = p.corpusReturnRate / 100;
+        double withdrawal = p.withdrawalRate / 100;
+        double projectedCorpus = finalCorpus;
+
+        for (int year = 0; year < p.drawdownRows(); year++) {
+            int offset = p.yearsToRetirement + year;
+            double annuity = annuityMonthly[offset];
+            double monthlyRent = p.currentMonthlyRental * Math.pow(1 + (RENT_GROWTH_RATE / 100), offset);
+            double goal = goalByYear[offset];
+
+            double yearlyFromCorpus;
+            switch (p.incomeStrategy) {
+                case RequiredCorpusSolver.SIMPLE_DEPLETION:
+                    // Divide remaining corpus by remaining years
+                    int remainingYears = p.retirementYears - year;
+                    yearlyFromCorpus = remainingYears > 0 ? projectedCorpus / remainingYears : 0;
+                    projectedCorpus = projectedCorpus - yearlyFromCorpus;
+                    break;
+                case RequiredCorpusSolver.SAFE_4_PERCENT:
+                    // Fixed percentage of the initial corpus, grown with inflation
+                    yearlyFromCorpus = projectedCorpus > 0
+                            ? finalCorpus * 0.04 * Math.pow(1 + p.inflation / 100, year)
+                            : 0;
+                    projectedCorpus = projectedCorpus * (1 + corpusReturn) - yearlyFromCorpus;
+                    break;
+                case RequiredCorpusSolver.SUSTAINABLE:
+                default:
+                    yearlyFromCorpus = projectedCorpus * withdrawal;
+                    projectedCorpus = projectedCorpus * (1 + corpusReturn) - yearlyFromCorpus;
+                    break;
+            }
+            if (projectedCorpus < 0) {
+                projectedCorpus = 0;
+            }
+
+            p.drawdownCorpus[year] = projectedCorpus;
+            p.drawdownMonthlyIncome[year] = (yearlyFromCorpus / 12) + annuity + monthlyRent;
+            p.drawdownAnnuity[year] = annuity;
+            p.drawdownRent[year] = monthlyRent;
+            p.drawdownGoal[year] = goal;
+        }
+    }
+
+    private static void addLabel(Map<Integer, List<String>> labelsByYear, int year, String label) {
+        labelsByYear.computeIfAbsent(year, k -> new ArrayList<>()).add(label);
+    }
+
+    static double rateForPeriod(List<RetirementScenario.PeriodReturn> periodReturns, int year, double defaultRate) {
+        if (periodReturns == null || periodReturns.isEmpty()) {
+            return defaultRate;
+        }
+        for (RetirementScenario.PeriodReturn pr : periodReturns) {
+            if (year >= pr.getFromYear() && year <= pr.getToYear()) {
+                return pr.getRate();
+            }
+        }
+        return defaultRate;
+    }
+
+    static double investmentBalance(UserFinancialSnapshot snapshot, Investment.InvestmentType type) {
+        double total = 0;
+        for (Investment inv : snapshot.getInvestments(type)) {
+            total += valueOf(inv);
+        }
+        return total;
+    }
+
+    static double investmentBalanceExcludingEmergencyFund(UserFinancialSnapshot snapshot, Investment.InvestmentType type) {
+        double total = 0;
+        for (Investment inv : snapshot.getInvestments(type)) {
+            if (!Boolean.TRUE.equals(inv.getIsEmergencyFund())) {
+                total += valueOf(inv);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * FD and RD balances tagged as emergency fund.
+     */
+    static double emergencyFundBalance(UserFinancialSnapshot snapshot) {
+        return emergencyFundBalance(snapshot, Investment.InvestmentType.FD)
+                + emergencyFundBalance(snapshot, Investment.InvestmentType.RD);
+    }
+
+    private static double emergencyFundBalance(UserFinancialSnapshot snapshot, Investment.InvestmentType type) {
+        double total = 0;
+        for (Investment inv : snapshot.getInvestments(type)) {
+            if (Boolean.TRUE.equals(inv.getIsEmergencyFund())) {
+                total += valueOf(inv);
+            }
+        }
+        return total;
+    }
+
+    static double yearlyContribution(UserFinancialSnapshot snapshot, Investment.InvestmentType type) {
+        double total = 0;
+        for (Investment inv : snapshot.getInvestments(type)) {
+            total += inv.getYearlyContribution() != null ? inv.getYearlyContribution() : 0;
+        }
+        return total;
+    }
+
+    static double monthlyContribution(UserFinancialSnapshot snapshot, Investment.InvestmentType type) {
+        return monthlySip(snapshot, type);
+    }
+
+    static double monthlySip(UserFinancialSnapshot snapshot, Investment.InvestmentType type) {
+        double total = 0;
+        for (Investment inv : snapshot.getInvestments(type)) {
+            total += inv.getMonthlySip() != null ? inv.getMonthlySip() : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Net monthly rent (after vacancy, default 10%) from rental real estate.
+     */
+    static double netMonthlyRentalIncome(UserFinancialSnapshot snapshot) {
+        double total = 0;
+        for (Investment inv : snapshot.getInvestments(Investment.InvestmentType.REAL_ESTATE)) {
+            if ("RENTAL".equals(inv.getRealEstateType()) && inv.getMonthlyRentalIncome() != null) {
+                double vacancyRate = inv.getVacancyRate() != null ? inv.getVacancyRate() : 10.0;
+                total += inv.getMonthlyRentalIncome() * (1 - vacancyRate / 100);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Value-weighted expected return for a type of investment.
+     * Uses interestRate for FD/RD, expectedReturn for others; emergency-fund FDs are ignored.
+     */
+    static double averageReturn(UserFinancialSnapshot snapshot, Investment.InvestmentType type, double defaultRate) {
+        double totalValue = 0;
+        double weightedReturn = 0;
+        boolean any = false;
+        for (Investment inv : snapshot.getInvestments(type)) {
+            if (type == Investment.InvestmentType.FD && Boolean.TRUE.equals(inv.getIsEmergencyFund())) {
+                continue;
+            }
+            any = true;
+            double value = valueOf(inv);
+            double rate = inv.getInterestRate() != null ? inv.getInterestRate() :
+                    (inv.getExpectedReturn() != null ? inv.getExpectedReturn() : defaultRate);
+            totalValue += value;
+            weightedReturn += value * rate;
+        }
+        if (!any) {
+            return defaultRate;
+        }
+        return totalValue > 0 ? weightedReturn / totalValue : defaultRate;
+    }
+
+    static double annuityMonthlyIncomeForYear(List<Insurance> policies, int calendarYear) {
+        if (policies == null || policies.isEmpty()) return 0;
+        double total = 0;
+        for (Insurance policy : policies) {
+            boolean isAnnuity = policy.getType() == Insurance.InsuranceType.ANNUITY || Boolean.TRUE.equals(policy.getIsAnnuityPolicy());
+            if (!isAnnuity || policy.getMonthlyAnnuityAmount() == null || policy.getMonthlyAnnuityAmount() <= 0) {
+                continue;
+            }
+            if (policy.getStartDate() == null) continue;
+            int startYear = policy.getStartDate().getYear() + (policy.getAnnuityStartYear() != null ? policy.getAnnuityStartYear() : 0);
+            if (calendarYear < startYear) continue;
+            double growthRate = policy.getAnnuityGrowthRate() != null ? policy.getAnnuityGrowthRate() : 0;
+            int yearsElapsed = Math.max(0, calendarYear - startYear);
+            total += policy.getMonthlyAnnuityAmount() * Math.pow(1 + (growthRate / 100), yearsElapsed);
+        }
+        return total;
+    }
+
+    /**
+     * Determine if an insurance policy's premium continues after retirement.
+     *
+     * Rules:
+     * - TERM_LIFE: Continues if explicitly marked or until premiumEndAge/coverageEndAge
+     * - HEALTH (PERSONAL, FAMILY_FLOATER): Continues after retirement
+     * - HEALTH (GROUP): Does NOT continue (employer-provided, ends at retirement)
+     * - ULIP, ENDOWMENT, MONEY_BACK: Does NOT continue (has maturity)
+     * - VEHICLE: Does NOT continue (not a life-long expense)
+     * - If continuesAfterRetirement is explicitly set, use that value
+     */
+    static boolean shouldContinueAfterRetirement(Insurance policy) {
+        if (policy.getContinuesAfterRetirement() != null) {
+            return policy.getContinuesAfterRetirement();
+        }
+
+        Insurance.InsuranceType type = policy.getType();
+        if (type == null) {
+            return false;
+        }
+
+        switch (type) {
+            case TERM_LIFE:
+                // Assume term cover continues unless explicitly marked otherwise
+                return true;
+            case HEALTH:
+                // GROUP is employer-provided and ends at retirement; PERSONAL/FAMILY_FLOATER continue
+                return policy.getHealthType() != Insurance.HealthInsuranceType.GROUP;
+            case ULIP:
+            case ENDOWMENT:
+            case MONEY_BACK:
+                // Investment-linked policies have maturity dates, don't continue
+                return false;
+            case VEHICLE:
+            case OTHER:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Expected maturity value for an investment based on its type.
+     */
+    double expectedMaturityValue(Investment inv) {
+        LocalDate today = LocalDate.now();
+
+        if (inv.getMaturityDate() == null) {
+            return inv.getCurrentValue() != null ? inv.getCurrentValue() : 0;
+        }
+
+        long yearsToMaturity = java.time.temporal.ChronoUnit.YEARS.between(today, inv.getMaturityDate());
+        if (yearsToMaturity <= 0) {
+            return inv.getCurrentValue() != null ? inv.getCurrentValue() : 0;
+        }
+
+        double currentValue = valueOf(inv);
+        Investment.InvestmentType type = inv.getType();
+
+        if (type == Investment.InvestmentType.FD) {
+            // FD: compound at interest rate
+            double rate = inv.getInterestRate() != null ? inv.getInterestRate() : 7.0;
+            return calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
+
+        } else if (type == Investment.InvestmentType.RD) {
+            // RD: current value + future SIP contributions
+            double rate = inv.getInterestRate() != null ? inv.getInterestRate() : 6.5;
+            double currentGrowth = calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
+            double sipGrowth = 0;
+            if (inv.getMonthlySip() != null && inv.getMonthlySip() > 0) {
+                sipGrowth = calculationService.calculateSIPFutureValue(inv.getMonthlySip(), rate, (int) yearsToMaturity);
+            }
+            return currentGrowth + sipGrowth;
+
+        } else if (type == Investment.InvestmentType.PPF) {
+            // PPF: current value + yearly contributions (as a monthly SIP)
+            double rate = inv.getExpectedReturn() != null ? inv.getExpectedReturn() : defaultPpfReturn;
+            double currentGrowth = calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
+            double yearlyGrowth = 0;
+            if (inv.getYearlyContribution() != null && inv.getYearlyContribution() > 0) {
+                double monthlyEquivalent = inv.getYearlyContribution() / 12;
+                yearlyGrowth = calculationService.calculateSIPFutureValue(monthlyEquivalent, rate, (int) yearsToMaturity);
+            }
+            return currentGrowth + yearlyGrowth;
+        }
+
+        // Default: assume current value grows at expected return
+        double rate = inv.getExpectedReturn() != null ? inv.getExpectedReturn() : 7.0;
+        return calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
+    }
+
+    private static double valueOf(Investment inv) {
+        return inv.getCurrentValue() != null ? inv.getCurrentValue() :
+                (inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.retyrment.service;
+
+/**
+ * Year-by-year growth of lumpsum and SIP holdings without a {@code Math.pow} per holding per year.
+ *
+ * Each holding grows by fixed factors, so every year is one multiply-add:
+ * <ul>
+ *   <li>lumpsum: {@code V(y) = V(y-1) · (1 + r)}, as {@link CalculationService#calculateFutureValue}</li>
+ *   <li>SIP: {@code S(y) = S(y-1) · (1 + m)^12 + PMT · A}, where {@code A} is one year of monthly
+ *       payments at the start of each month, as {@link CalculationService#calculateSIPFutureValue}</li>
+ * </ul>
+ * The factors are computed once per holding and the holdings are stored as parallel
+ * {@code double[]} columns, so the inner loop over holdings is a straight pass over arrays.
+ *
+ * A step-up SIP is a geometric series over years and has a closed form. The monthly loop it
+ * replaces is kept as {@link #stepUpSipFutureValueByMonth} for equivalence tests.
+ */
+final class ProjectionKernel {
+
+    private ProjectionKernel() {
+    }
+
+    /**
+     * Total value of all holdings at the end of each year {@code 0..years}; year 0 is the principals.
+     *
+     * @param principals  current value of each holding
+     * @param annualRates expected return of each holding, in percent a year
+     * @param monthlySips monthly SIP of each holding; zero or negative for none
+     */
+    static double[] portfolioTotals(double[] principals, double[] annualRates, double[] monthlySips, int years) {
+        int holdings = principals.length;
+        if (annualRates.length != holdings || monthlySips.length != holdings) {
+            throw new IllegalArgumentException("Principals, rates and SIPs must have the same length");
+        }
+        if (years < 0) {
+            throw new IllegalArgumentException("Years must not be negative");
+        }
+
+        double[] lumpsum = principals.clone();
+        double[] lumpsumGrowth = new double[holdings];
+        double[] sip = new double[holdings];
+        double[] sipGrowth = new double[holdings];
+        double[] sipPerYear = new double[holdings];
+        double[] totals = new double[years + 1];
+
+        double total = 0;
+        for (int i = 0; i < holdings; i++) {
+            lumpsumGrowth[i] = 1 + annualRates[i] / 100;
+            if (monthlySips[i] > 0) {
+                double monthlyRate = annualRates[i] / 100 / 12;
+                sipGrowth[i] = Math.pow(1 + monthlyRate, 12);
+                sipPerYear[i] = monthlySips[i] * sipYearFactor(monthlyRate);
+            }
+            total += lumpsum[i];
+        }
+        totals[0] = total;
+
+        for (int year = 1; year <= years; year++) {
+            total = 0;
+            for (int i = 0; i < holdings; i++) {
+                lumpsum[i] *= lumpsumGrowth[i];
+                sip[i] = sip[i] * sipGrowth[i] + sipPerYear[i];
+                total += lumpsum[i] + sip[i];
+            }
+            totals[year] = total;
+        }
+        return totals;
+    }
+
+    /**
+     * Future value after {@code years} of a monthly SIP that grows by {@code stepUpPercent} every year.
+     *
+     * Year y's payments are worth {@code PMT · s^(y-1) · A} at the end of that year and then grow
+     * by {@code G = (1 + m)^12} a year, so the total is {@code PMT · A · G^(n-1) · Σ q^k} for
+     * {@code k < n} with {@code q = s / G}. The geometric sum uses {@code expm1}/{@code log1p},
+     * which stays accurate when the step-up is close to the return.
+     */
+    static double stepUpSipFutureValue(double initialMonthly, double annualRate, double stepUpPercent, int years) {
+        if (years <= 0) return 0;
+        double stepUp = 1 + stepUpPercent / 100;
+        if (stepUp < 0) return stepUpSipFutureValueByMonth(initialMonthly, annualRate, stepUpPercent, years);
+
+        double monthlyRate = annualRate / 100 / 12;
+        double yearGrowth = Math.pow(1 + monthlyRate, 12);
+        double ratioMinusOne = (stepUp - yearGrowth) / yearGrowth;
+        double geometricSum = ratioMinusOne == 0
+                ? years
+                : Math.expm1(years * Math.log1p(ratioMinusOne)) / ratioMinusOne;
+        return initialMonthly * sipYearFactor(monthlyRate) * Math.pow(yearGrowth, years - 1) * geometricSum;
+    }
+
+    /**
+     * The month-by-month step-up SIP future value that {@link #stepUpSipFutureValue} replaced.
+     */
+    static double stepUpSipFutureValueByMonth(double initialMonthly, double annualRate,
+                                              double stepUpPercent, int years) {
+        double total = 0;
+        double currentSIP = initialMonthly;
+        double monthlyRate = annualRate / 100 / 12;
+
+        for (int year = 1; year <= years; year++) {
+            // Calculate FV of this year's SIP at the end of total period
+            int monthsRemaining = (years - year + 1) * 12;
+            for (int month = 1; month <= 12; month++) {
+                int monthsToGrow = monthsRemaining - month + 1;
+                total += currentSIP * Math.pow(1 + monthlyRate, monthsToGrow);
+            }
+            // Step up SIP for next year
+            currentSIP *= (1 + stepUpPercent / 100);
+        }
+
+        return total;
+    }
+
+    /**
+     * Value at the end of a year of 1 paid at the start of each of its months.
+     */
+    private static double sipYearFactor(double monthlyRate) {
+        if (monthlyRate == 0) return 12;
+        return ((Math.pow(1 + monthlyRate, 12) - 1) / monthlyRate) * (1 + monthlyRate);
+    }
+}
@@ -0,0 +1,115 @@
+package com.retyrment.service;
+
+import lombok.Getter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A report rendered in the background by {@link ReportJobService}.
+ *
+ * Jobs are stored in {@code report_jobs} and their files in GridFS, so any instance can report
+ * a job's status and serve its file. Status fields are written by the worker thread of the
+ * instance rendering it and read by request threads there, so they are volatile; the file is
+ * only read once the status is DONE.
+ */
+@Getter
+@Document(collection = "report_jobs")
+public class ReportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    public enum Kind {
+        SUMMARY_PDF("Retyrment_Financial_Summary.pdf", "application/pdf"),
+        RETIREMENT_PDF("Retyrment_Retirement_Report.pdf", "application/pdf"),
+        CALENDAR_PDF("Retyrment_Calendar_Report.pdf", "application/pdf"),
+        EXCEL("Retyrment_Financial_Report.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String filename;
+        private final String contentType;
+
+        Kind(String filename, String contentType) {
+            this.filename = filename;
+            this.contentType = contentType;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Map the {@code type} request parameter of the export endpoints to a report.
+         * Unknown types fall back to the financial summary, as {@code /export/pdf} does.
+         */
+        public static Kind fromType(String type) {
+            if ("excel".equals(type)) return EXCEL;
+            if ("retirement".equals(type)) return RETIREMENT_PDF;
+            if ("calendar".equals(type)) return CALENDAR_PDF;
+            return SUMMARY_PDF;
+        }
+    }
+
+    @Id
+    private String id;
+    private String userId;
+    private Kind kind;
+    private Instant createdAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile String fileId;     // GridFS id of the rendered report, once DONE
+
+    ReportJob() {
+        // For mapping
+    }
+
+    ReportJob(String id, String userId, Kind kind, Instant createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.kind = kind;
+        this.createdAt = createdAt;
+    }
+
+    void markRunning(Instant now) {
+        startedAt = now;
+        status = Status.RUNNING;
+    }
+
+    void markDone(Instant now, String fileId) {
+        this.fileId = fileId;
+        finishedAt = now;
+        status = Status.DONE;
+    }
+
+    void markFailed(Instant now, String message) {
+        finishedAt = now;
+        error = message;
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("type", kind.name());
+        map.put("status", status.name());
+        map.put("filename", kind.getFilename());
+        map.put("createdAt", createdAt.toString());
+        if (startedAt != null) map.put("startedAt", startedAt.toString());
+        if (finishedAt != null) map.put("finishedAt", finishedAt.toString());
+        if (error != null) map.put("error", error);
+        return map;
+    }
+}
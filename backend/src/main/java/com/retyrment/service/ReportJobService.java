@@ -0,0 +1,234 @@
+package com.retyrment.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.retyrment.exception.BusinessException;
+import com.retyrment.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders PDF and Excel reports on a small, bounded worker pool instead of on request threads.
+ *
+ * A submitted job is queued on the instance that accepted it, rendered by {@link ExportService}
+ * straight into GridFS and kept until its TTL runs out after it finishes. Jobs are stored in
+ * {@code report_jobs}, so status polls and downloads can reach any instance. Each user may have
+ * only a few jobs queued or running across the cluster, and a full queue rejects new jobs
+ * rather than growing, so a burst of exports cannot take threads or memory away from
+ * interactive requests.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    static final String BUCKET = "reports";
+
+    private final ExportService exportService;
+    private final MongoTemplate mongoTemplate;
+    private final GridFSBucket files;
+    private final int maxJobsPerUser;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder totalRenderNanos = new LongAdder();
+    private final AtomicLong maxRenderNanos = new AtomicLong();
+
+    @Autowired
+    public ReportJobService(ExportService exportService, MongoTemplate mongoTemplate, WorkerPools workerPools,
+                            @Value("${app.export.jobs.workers:2}") int workers,
+                            @Value("${app.export.jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${app.export.jobs.max-per-user:2}") int maxJobsPerUser,
+                            @Value("${app.export.jobs.ttl-minutes:30}") long ttlMinutes) {
+        // Interactive requests win when the CPU is contended
+        this(exportService, mongoTemplate, GridFSBuckets.create(mongoTemplate.getDb(), BUCKET),
+                workerPools.rejecting("report-worker", workers, queueCapacity, Thread.NORM_PRIORITY - 1),
+                maxJobsPerUser, ttlMinutes);
+    }
+
+    ReportJobService(ExportService exportService, MongoTemplate mongoTemplate, GridFSBucket files,
+                     ThreadPoolExecutor executor, int maxJobsPerUser, long ttlMinutes) {
+        this.exportService = exportService;
+        this.mongoTemplate = mongoTemplate;
+        this.files = files;
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.executor = executor;
+    }
+
+    /**
+     * Queue a report for the user.
+     *
+     * @throws BusinessException if the user already has the maximum number of jobs in flight
+     *                           or the queue is full
+     */
+    public ReportJob submit(String userId, ReportJob.Kind kind) {
+        // Checked across the cluster; two submits racing on different instances may both pass
+        long active = mongoTemplate.count(Query.query(Criteria.where("userId").is(userId)
+                .and("status").in(ReportJob.Status.QUEUED, ReportJob.Status.RUNNING)), ReportJob.class);
+        if (active >= maxJobsPerUser) {
+            rejected.increment();
+            throw new BusinessException("You already have " + active + " reports in progress");
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), userId, kind, Instant.now());
+        mongoTemplate.insert(job);
+        try {
+            executor.execute(() -> render(job));
+        } catch (RejectedExecutionException e) {
+            mongoTemplate.remove(job);
+            rejected.increment();
+            throw new BusinessException("Report queue is full, please try again shortly");
+        }
+        submitted.increment();
+        return job;
+    }
+
+    /**
+     * The user's job with this id.
+     *
+     * @throws ResourceNotFoundException if there is no such job or it belongs to another user
+     */
+    public ReportJob getJob(String userId, String jobId) {
+        ReportJob job = jobId != null ? mongoTemplate.findById(jobId, ReportJob.class) : null;
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Report job", jobId);
+        }
+        return job;
+    }
+
+    /**
+     * The rendered report of a DONE job. The caller closes the stream.
+     */
+    public InputStream openFile(ReportJob job) {
+        if (job.getStatus() != ReportJob.Status.DONE || job.getFileId() == null) {
+            throw new IllegalStateException("Report job " + job.getId() + " has no file");
+        }
+        return files.openDownloadStream(new ObjectId(job.getFileId()));
+    }
+
+    /**
+     * Delete finished jobs, and their files, once they are older than the TTL. Jobs left
+     * unfinished for twice the TTL were abandoned by an instance that stopped, and go as well.
+     * Every instance runs this; a job removed by another one in between is simply skipped.
+     */
+    @Scheduled(fixedDelayString = "${app.export.jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(ttl);
+        Query expiredJobs = Query.query(new Criteria().orOperator(
+                Criteria.where("finishedAt").lte(cutoff),
+                Criteria.where("finishedAt").is(null).and("createdAt").lte(cutoff.minus(ttl))));
+        List<ReportJob> removed = mongoTemplate.findAllAndRemove(expiredJobs, ReportJob.class);
+        removed.forEach(this::deleteFile);
+        if (!removed.isEmpty()) {
+            expired.add(removed.size());
+            log.debug("Removed {} expired report jobs", removed.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long finished = completed.sum() + failed.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("queueDepth", executor.getQueue().size());
+        result.put("activeWorkers", executor.getActiveCount());
+        result.put("retainedJobs", mongoTemplate.count(new Query(), ReportJob.class));
+        result.put("submitted", submitted.sum());
+        result.put("completed", completed.sum());
+        result.put("failed", failed.sum());
+        result.put("rejected", rejected.sum());
+        result.put("expired", expired.sum());
+        result.put("averageRenderMillis", finished > 0 ? totalRenderNanos.sum() / finished / 1_000_000.0 : 0.0);
+        result.put("maxRenderMillis", maxRenderNanos.get() / 1_000_000.0);
+        return result;
+    }
+
+    private void render(ReportJob job) {
+        job.markRunning(Instant.now());
+        saveQuietly(job);
+        long start = System.nanoTime();
+        String fileId = null;
+        GridFSUploadStream out = null;
+        try {
+            out = files.openUploadStream(job.getId() + "-" + job.getKind().getFilename());
+            switch (job.getKind()) {
+                case RETIREMENT_PDF -> exportService.writeRetirementPdfReport(job.getUserId(), out);
+                case CALENDAR_PDF -> exportService.writeCalendarPdfReport(job.getUserId(), out);
+                case EXCEL -> exportService.writeExcelReport(job.getUserId(), out);
+                default -> exportService.writeFinancialSummaryPdfReport(job.getUserId(), out);
+            }
+            // Close the upload before marking the job done, so a download never sees a partial report
+            out.close();
+            fileId = out.getObjectId().toHexString();
+        } catch (RuntimeException e) {
+            log.error("Report job {} ({}) failed: {}", job.getId(), job.getKind(), e.getMessage(), e);
+            if (out != null) {
+                abortQuietly(out);
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            totalRenderNanos.add(elapsed);
+            maxRenderNanos.accumulateAndGet(elapsed, Math::max);
+            if (fileId != null) {
+                completed.increment();
+                job.markDone(Instant.now(), fileId);
+            } else {
+                failed.increment();
+                job.markFailed(Instant.now(), "Report generation failed");
+            }
+            saveQuietly(job);
+        }
+    }
+
+    private void saveQuietly(ReportJob job) {
+        try {
+            mongoTemplate.save(job);
+        } catch (DataAccessException e) {
+            log.warn("Could not save report job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void deleteFile(ReportJob job) {
+        if (job.getFileId() == null) {
+            return;
+        }
+        try {
+            files.delete(new ObjectId(job.getFileId()));
+        } catch (MongoException e) {
+            log.warn("Could not delete report file of job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private static void abortQuietly(GridFSUploadStream out) {
+        try {
+            out.abort();
+        } catch (MongoException e) {
+            log.warn("Could not discard a partial report: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.retyrment.service;
+
+import java.util.Arrays;
+
+/**
+ * Solves "how much corpus is needed to retire in a given year" for each income strategy.
+ *
+ * Annuity income, rental income and goal outflows are expanded once per request into
+ * arrays indexed by calendar year offset, and every matrix row reuses them. For each
+ * strategy the withdrawal in year y is a fixed multiple of the starting corpus, so the
+ * minimum feasible corpus is the largest per-year requirement and needs no search:
+ * <ul>
+ *   <li>SUSTAINABLE: corpus in year y is C·(1 + r − w)^y, withdrawal is w times that</li>
+ *   <li>SAFE_4_PERCENT: withdrawal is 4% of C grown with inflation</li>
+ *   <li>SIMPLE_DEPLETION: corpus shrinks linearly, so withdrawal is C / years every year</li>
+ * </ul>
+ * The bisection this replaces is kept as {@link #solveByBisection} for equivalence tests.
+ */
+class RequiredCorpusSolver {
+
+    static final String SUSTAINABLE = "SUSTAINABLE";
+    static final String SAFE_4_PERCENT = "SAFE_4_PERCENT";
+    static final String SIMPLE_DEPLETION = "SIMPLE_DEPLETION";
+
+    // Order in which the matrix reports strategies
+    static final String[] STRATEGIES = {SUSTAINABLE, SAFE_4_PERCENT, SIMPLE_DEPLETION};
+
+    /**
+     * Position of a strategy in {@link #STRATEGIES}. The drawdown treats an unknown strategy as
+     * SUSTAINABLE, so it maps to 0.
+     */
+    static int strategyIndex(String incomeStrategy) {
+        int index = Arrays.asList(STRATEGIES).indexOf(incomeStrategy);
+        return index >= 0 ? index : 0;
+    }
+
+    // Same tolerance the year-by-year feasibility check uses
+    private static final double TOLERANCE = 0.01;
+    private static final int MAX_DOUBLINGS = 30;
+    private static final int BISECTION_STEPS = 32;
+
+    private final double[] annuityMonthly;
+    private final double[] rentMonthly;
+    private final double[] goalOutflow;
+    private final double inflationRate;
+    private final double withdrawalRate;
+    private final double corpusReturnRate;
+
+    /**
+     * @param annuityMonthly monthly annuity income, indexed by years from the base calendar year
+     * @param rentMonthly    monthly net rental income, same indexing
+     * @param goalOutflow    goal outflow in that year, same indexing
+     */
+    RequiredCorpusSolver(double[] annuityMonthly, double[] rentMonthly, double[] goalOutflow,
+                         double inflationRate, double withdrawalRate, double corpusReturnRate) {
+        this.annuityMonthly = annuityMonthly.clone();
+        this.rentMonthly = rentMonthly.clone();
+        this.goalOutflow = goalOutflow.clone();
+        this.inflationRate = inflationRate;
+        this.withdrawalRate = withdrawalRate;
+        this.corpusReturnRate = corpusReturnRate;
+    }
+
+    /**
+     * Required corpus for every strategy, written to {@code out[strategy][column]} in {@link #STRATEGIES} order.
+     *
+     * @param startOffset               years from the base calendar year at which retirement starts
+     * @param yearlyExpenseAtRetirement yearly expenses in the first retirement year
+     * @param retirementYears           number of years the corpus must last
+     */
+    void solveAll(int startOffset, double yearlyExpenseAtRetirement, int retirementYears, double[][] out, int column) {
+        for (int s = 0; s < STRATEGIES.length; s++) {
+            out[s][column] = solve(STRATEGIES[s], startOffset, yearlyExpenseAtRetirement, retirementYears);
+        }
+    }
+
+    double solve(String incomeStrategy, int startOffset, double yearlyExpenseAtRetirement, int retirementYears) {
+        int years = Math.max(0, retirementYears);
+        double inflationFactor = 1 + inflationRate / 100;
+        double w = withdrawalRate / 100;
+        double growth = 1 + corpusReturnRate / 100 - w;
+
+        double required = 0;
+        double expense = yearlyExpenseAtRetirement;
+        double inflation = 1;      // (1 + inflation)^y
+        double corpusFactor = 1;   // corpus in year y as a multiple of the starting corpus
+        for (int year = 0; year < years; year++) {
+            double shortfall = expense + goalAt(startOffset + year) - incomeAt(startOffset + year) - TOLERANCE;
+            if (shortfall > 0) {
+                // Withdrawal in this year as a multiple of the starting corpus
+                double withdrawalPerUnit;
+                switch (incomeStrategy) {
+                    case SIMPLE_DEPLETION:
+                        withdrawalPerUnit = 1.0 / years;
+                        break;
+                    case SAFE_4_PERCENT:
+                        withdrawalPerUnit = 0.04 * inflation;
+                        break;
+                    case SUSTAINABLE:
+                    default:
+                        withdrawalPerUnit = w * corpusFactor;
+                        break;
+                }
+                if (withdrawalPerUnit <= 0) {
+                    return searchCeiling(yearlyExpenseAtRetirement);
+                }
+                required = Math.max(required, shortfall / withdrawalPerUnit);
+            }
+            expense *= inflationFactor;
+            inflation *= inflationFactor;
+            corpusFactor = Math.max(0, corpusFactor * growth);
+        }
+        // The bisection never searched beyond this ceiling; keep the same cap for unaffordable plans
+        return Math.min(required, searchCeiling(yearlyExpenseAtRetirement));
+    }
+
+    /**
+     * Reference implementation: doubling then bisection over a year-by-year simulation.
+     */
+    double solveByBisection(String incomeStrategy, int startOffset, double yearlyExpenseAtRetirement, int retirementYears) {
+        double low = 0;
+        double high = Math.max(1, yearlyExpenseAtRetirement * 100);
+        int safeIterations = 0;
+        while (!isFeasible(high, incomeStrategy, startOffset, yearlyExpenseAtRetirement, retirementYears)
+                && safeIterations < MAX_DOUBLINGS) {
+            high *= 2;
+            safeIterations += 1;
+        }
+        for (int i = 0; i < BISECTION_STEPS; i++) {
+            double mid = (low + high) / 2;
+            if (isFeasible(mid, incomeStrategy, startOffset, yearlyExpenseAtRetirement, retirementYears)) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        return high;
+    }
+
+    boolean isFeasible(double startingCorpus, String incomeStrategy, int startOffset,
+                       double yearlyExpenseAtRetirement, int retirementYears) {
+        double corpus = startingCorpus;
+        double actualWithdrawalRate = withdrawalRate / 100;
+        double actualCorpusReturn = corpusReturnRate / 100;
+
+        for (int year = 0; year < Math.max(0, retirementYears); year++) {
+            double yearlyExpense = yearlyExpenseAtRetirement * Math.pow(1 + inflationRate / 100, year);
+            double goal = goalAt(startOffset + year);
+
+            double yearlyIncomeFromCorpus;
+            switch (incomeStrategy) {
+                case SIMPLE_DEPLETION:
+                    int remainingYears = Math.max(1, retirementYears - year);
+                    yearlyIncomeFromCorpus = corpus / remainingYears;
+                    break;
+                case SAFE_4_PERCENT:
+                    yearlyIncomeFromCorpus = startingCorpus * 0.04 * Math.pow(1 + inflationRate / 100, year);
+                    break;
+                case SUSTAINABLE:
+                default:
+                    yearlyIncomeFromCorpus = corpus * actualWithdrawalRate;
+                    break;
+            }
+
+            double yearlyIncome = yearlyIncomeFromCorpus + incomeAt(startOffset + year);
+            if (yearlyIncome + TOLERANCE < (yearlyExpense + goal)) {
+                return false;
+            }
+
+            if (SIMPLE_DEPLETION.equals(incomeStrategy)) {
+                corpus = Math.max(0, corpus - yearlyIncomeFromCorpus);
+            } else {
+                corpus = Math.max(0, corpus * (1 + actualCorpusReturn) - yearlyIncomeFromCorpus);
+            }
+        }
+        return true;
+    }
+
+    double annuityMonthlyAt(int offset) {
+        return offset >= 0 && offset < annuityMonthly.length ? annuityMonthly[offset] : 0;
+    }
+
+    double rentMonthlyAt(int offset) {
+        return offset >= 0 && offset < rentMonthly.length ? rentMonthly[offset] : 0;
+    }
+
+    double goalAt(int offset) {
+        return offset >= 0 && offset < goalOutflow.length ? goalOutflow[offset] : 0;
+    }
+
+    /**
+     * Yearly annuity plus rental income in the given year.
+     */
+    private double incomeAt(int offset) {
+        return (annuityMonthlyAt(offset) * 12) + (rentMonthlyAt(offset) * 12);
+    }
+
+    private static double searchCeiling(double yearlyExpenseAtRetirement) {
+        return Math.max(1, yearlyExpenseAtRetirement * 100) * Math.pow(2, MAX_DOUBLINGS);
+    }
+}
@@ -0,0 +1,115 @@
+package com.retyrment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.retyrment.model.RetirementScenario;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of retirement matrix responses.
+ *
+ * Entries are keyed by user, the user's data version from {@link UserDataVersionService}
+ * and a SHA-256 of the scenario's fields, so a write to any financial collection or any
+ * change to the assumptions misses the cache. The version usually comes from the version
+ * service's local copy, so a hit does not touch the database. Cached responses are shared
+ * between requests and must be treated as read-only.
+ */
+@Slf4j
+@Component
+public class RetirementMatrixCache {
+
+    private static final String DEFAULT_SCENARIO = "default";
+
+    // Sorted properties and map keys so the same scenario always serializes to the same bytes
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .build();
+
+    private final UserDataVersionService dataVersionService;
+    private final Cache<Key, Map<String, Object>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RetirementMatrixCache(UserDataVersionService dataVersionService,
+                                 @Value("${app.cache.retirement-matrix.max-entries:2000}") long maxEntries,
+                                 @Value("${app.cache.retirement-matrix.ttl-minutes:10}") long ttlMinutes) {
+        this.dataVersionService = dataVersionService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        dataVersionService.addListener(this::invalidateUser);
+    }
+
+    /**
+     * Return the cached matrix for this user, data version and scenario, computing it on a miss.
+     * A null scenario stands for the user's default scenario.
+     */
+    public Map<String, Object> get(String userId, RetirementScenario scenario, Supplier<Map<String, Object>> loader) {
+        // Read the version before computing, so a write racing with the load leaves the result under the old version
+        Key key = new Key(userId, dataVersionService.currentVersion(userId), scenarioHash(scenario));
+        return cache.get(key, k -> loader.get());
+    }
+
+    /**
+     * Drop every cached matrix for the user.
+     */
+    public void invalidateUser(String userId) {
+        cache.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        invalidations.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        invalidations.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("invalidations", invalidations.get());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    static String scenarioHash(RetirementScenario scenario) {
+        if (scenario == null) {
+            return DEFAULT_SCENARIO;
+        }
+        try {
+            byte[] canonical = CANONICAL_MAPPER.writeValueAsString(scenario).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint retirement scenario", e);
+        }
+    }
+
+    private record Key(String userId, long dataVersion, String scenarioHash) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.retyrment.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retirement trajectory produced by {@link ProjectionEngine}, stored column-wise.
+ *
+ * Accumulation columns are indexed by years from today (0..yearsToRetirement), drawdown
+ * columns by years after retirement (0..min(retirementYears, 30)). Values are unrounded;
+ * rounding and row objects belong to whoever renders the projection (the matrix JSON,
+ * exports, analysis). Fields are package-private and filled in by the engine.
+ */
+final class RetirementProjection {
+
+    // Resolved assumptions
+    final int currentYear;
+    final int currentAge;
+    final int retirementAge;
+    final int lifeExpectancy;
+    final int yearsToRetirement;
+    final int retirementYears;
+    int effectiveFromYear;
+    double inflation;
+    double ppfReturn;
+    double epfReturn;
+    double mfReturn;
+    double sipStepUp;
+    double lumpsumYearly;
+    double corpusReturnRate;
+    double withdrawalRate;
+    String incomeStrategy;
+
+    // Starting position
+    double ppfStart;
+    double epfStart;
+    double mfStart;
+    double npsStart;
+    double fdStart;
+    double rdStart;
+    double stockStart;
+    double cashStart;
+    double emergencyFund;
+    double mfSipStart;
+    double currentMonthlyRental;
+    double monthlyRentalAtRetirement;
+    double annuityMonthlyAtRetirement;
+
+    // Contributions that do not change year to year
+    double ppfYearlyContribution;
+    double epfMonthlyContribution;
+    double npsMonthlyContribution;
+    double rdMonthlySip;
+
+    // Accumulation columns
+    final double[] ppf;
+    final double[] ppfRate;
+    final double[] epf;
+    final double[] epfRate;
+    final double[] mf;
+    final double[] mfRate;
+    final double[] mfSip;
+    final double[] nps;
+    final double[] npsRate;
+    final double[] otherLiquid;          // FD + RD + STOCK + CASH
+    final double[] otherLiquidRate;
+    final double[] rdRate;
+    final double[] insuranceMaturity;
+    final double[] investmentMaturity;
+    final double[] moneyBack;
+    final double[] inflow;
+    final double[] goalOutflow;
+    final double[] totalCorpus;
+    final double[] netCorpus;
+    final double[] yearlyExpense;        // yearly expenses in the first retirement year, if retiring this year
+    final double[][] requiredCorpus;     // [strategy index in RequiredCorpusSolver.STRATEGIES][year]
+
+    // Monthly annuity, monthly rent and goal outflows over the whole plan, indexed by years from today
+    final double[] annuityMonthly;
+    final double[] rentMonthly;
+    final double[] goalByYear;
+
+    // Sparse per-year labels, keyed by accumulation year index
+    final Map<Integer, List<String>> maturingPolicies = new HashMap<>();
+    final Map<Integer, List<String>> maturingInvestments = new HashMap<>();
+    final Map<Integer, List<String>> moneyBackDetails = new HashMap<>();
+    final Map<Integer, List<String>> goalsThisYear = new HashMap<>();
+
+    // Drawdown columns for the selected income strategy
+    final double[] drawdownCorpus;
+    final double[] drawdownMonthlyIncome;
+    final double[] drawdownAnnuity;
+    final double[] drawdownRent;
+    final double[] drawdownGoal;
+
+    RetirementProjection(int currentYear, int currentAge, int retirementAge, int lifeExpectancy, int maxDrawdownYears) {
+        if (retirementAge < currentAge) {
+            throw new IllegalArgumentException("Retirement age cannot be less than current age");
+        }
+        this.currentYear = currentYear;
+        this.currentAge = currentAge;
+        this.retirementAge = retirementAge;
+        this.lifeExpectancy = lifeExpectancy;
+        this.yearsToRetirement = retirementAge - currentAge;
+        this.retirementYears = lifeExpectancy - retirementAge;
+
+        int rows = yearsToRetirement + 1;
+        ppf = new double[rows];
+        ppfRate = new double[rows];
+        epf = new double[rows];
+        epfRate = new double[rows];
+        mf = new double[rows];
+        mfRate = new double[rows];
+        mfSip = new double[rows];
+        nps = new double[rows];
+        npsRate = new double[rows];
+        otherLiquid = new double[rows];
+        otherLiquidRate = new double[rows];
+        rdRate = new double[rows];
+        insuranceMaturity = new double[rows];
+        investmentMaturity = new double[rows];
+        moneyBack = new double[rows];
+        inflow = new double[rows];
+        goalOutflow = new double[rows];
+        totalCorpus = new double[rows];
+        netCorpus = new double[rows];
+        yearlyExpense = new double[rows];
+        requiredCorpus = new double[RequiredCorpusSolver.STRATEGIES.length][rows];
+
+        int horizon = Math.max(yearsToRetirement, lifeExpectancy - currentAge) + 1;
+        annuityMonthly = new double[horizon];
+        rentMonthly = new double[horizon];
+        goalByYear = new double[horizon];
+
+        int drawdownRows = retirementYears >= 0 ? Math.min(retirementYears, maxDrawdownYears) + 1 : 0;
+        drawdownCorpus = new double[drawdownRows];
+        drawdownMonthlyIncome = new double[drawdownRows];
+        drawdownAnnuity = new double[drawdownRows];
+        drawdownRent = new double[drawdownRows];
+        drawdownGoal = new double[drawdownRows];
+    }
+
+    int rows() {
+        return ppf.length;
+    }
+
+    int drawdownRows() {
+        return drawdownCorpus.length;
+    }
+
+    int horizon() {
+        return annuityMonthly.length;
+    }
+
+    int calendarYear(int year) {
+        return currentYear + year;
+    }
+
+    int age(int year) {
+        return currentAge + year;
+    }
+
+    /**
+     * Corpus at retirement as the matrix reports it (net of goals, rounded to the rupee).
+     */
+    double finalCorpus() {
+        return Math.round(netCorpus[yearsToRetirement]);
+    }
+
+    /**
+     * First row in which the net corpus covers each strategy's required corpus, or -1 if none
+     * does. The scan stops as soon as every strategy has been placed.
+     */
+    int[] firstAffordableRows() {
+        return firstAffordableRows(0);
+    }
+
+    /**
+     * {@link #firstAffordableRows()} starting at {@code fromRow}. Rows at or past life expectancy
+     * are skipped: with no retirement years left their required corpus is zero.
+     */
+    int[] firstAffordableRows(int fromRow) {
+        int[] first = new int[requiredCorpus.length];
+        Arrays.fill(first, -1);
+        int remaining = first.length;
+        int end = Math.min(rows(), lifeExpectancy - currentAge);
+        for (int year = Math.max(fromRow, 0); year < end && remaining > 0; year++) {
+            for (int s = 0; s < first.length; s++) {
+                if (first[s] < 0 && netCorpus[year] >= requiredCorpus[s][year]) {
+                    first[s] = year;
+                    remaining--;
+                }
+            }
+        }
+        return first;
+    }
+
+    double startingOtherLiquid() {
+        return fdStart + rdStart + stockStart + cashStart;
+    }
+
+    static List<String> labels(Map<Integer, List<String>> labelsByYear, int year) {
+        List<String> labels = labelsByYear.get(year);
+        return labels != null ? labels : Collections.emptyList();
+    }
+}
@@ -24,6 +24,8 @@ public class RetirementService {
     private final RetirementScenarioRepository scenarioRepository;
     private final CalculationService calculationService;
 
+    private static final int MAX_SIMULATION_PATHS = 20_000;
+
     @Value("${app.defaults.inflation-rate}")
     private double defaultInflation;
 
@@ -36,7 +38,30 @@ public class RetirementService {
     @Value("${app.defaults.mf-equity-return}")
     private double defaultMfReturn;
 
+    /**
+     * Load every collection the retirement projection needs in one pass (one query per collection).
+     */
+    public UserFinancialSnapshot loadSnapshot(String userId) {
+        return UserFinancialSnapshot.of(
+                userId,
+                investmentRepository.findByUserId(userId),
+                insuranceRepository.findByUserId(userId),
+                goalRepository.findByUserIdOrderByTargetYearAsc(userId),
+                expenseRepository.findByUserId(userId),
+                incomeRepository.findByUserId(userId),
+                loanRepository.findByUserId(userId)
+        );
+    }
+
     public Map<String, Object> generateRetirementMatrix(String userId, RetirementScenario scenario) {
+        RetirementScenario resolved = resolveScenario(userId, scenario);
+        return generateRetirementMatrix(loadSnapshot(userId), resolved);
+    }
+
+    /**
+     * Fall back to the user's default scenario and fill in missing age and inflation fields.
+     */
+    RetirementScenario resolveScenario(String userId, RetirementScenario scenario) {
         // Use provided scenario or get default
         if (scenario == null) {
             try {
@@ -53,334 +78,42 @@ public class RetirementService {
         if (scenario.getRetirementAge() == null) scenario.setRetirementAge(60);
         if (scenario.getLifeExpectancy() == null) scenario.setLifeExpectancy(85);
         if (scenario.getInflationRate() == null) scenario.setInflationRate(defaultInflation);
+        return scenario;
+    }
 
-        Map<String, Object> result = new LinkedHashMap<>();
-        List<Map<String, Object>> matrix = new ArrayList<>();
-
-        int currentYear = LocalDate.now().getYear();
-        int currentAge = scenario.getCurrentAge() != null ? scenario.getCurrentAge() : 35;
-        int retirementAge = scenario.getRetirementAge() != null ? scenario.getRetirementAge() : 60;
-        int yearsToRetirement = retirementAge - currentAge;
-
-        // Get current balances - includes all liquid/investable assets - filter by userId
-        double ppfBalance = getInvestmentBalance(userId, Investment.InvestmentType.PPF);
-        double epfBalance = getInvestmentBalance(userId, Investment.InvestmentType.EPF);
-        double mfBalance = getInvestmentBalance(userId, Investment.InvestmentType.MUTUAL_FUND);
-        double npsBalance = getInvestmentBalance(userId, Investment.InvestmentType.NPS);
-        
-        // Additional liquid assets that contribute to retirement corpus
-        double fdBalance = getInvestmentBalanceExcludingEmergencyFund(userId, Investment.InvestmentType.FD);
-        double rdBalance = getInvestmentBalanceExcludingEmergencyFund(userId, Investment.InvestmentType.RD);
-        double stockBalance = getInvestmentBalance(userId, Investment.InvestmentType.STOCK);
-        double cashBalance = getInvestmentBalance(userId, Investment.InvestmentType.CASH);
-        double emergencyFundBalance = getEmergencyFundBalance(userId);
-        
-        // Combine into categories for cleaner matrix display
-        // "Other Liquid" = FD + RD + STOCK + CASH (FD/RD exclude emergency fund)
-        double otherLiquidBalance = fdBalance + rdBalance + stockBalance + cashBalance;
-
-        // Get monthly contributions - filter by userId
-        double ppfYearly = getYearlyContribution(userId, Investment.InvestmentType.PPF);
-        double epfMonthly = getMonthlyContribution(userId, Investment.InvestmentType.EPF);
-        double mfSipMonthly = getMonthlySIP(userId, Investment.InvestmentType.MUTUAL_FUND);
-        double npsMonthly = getMonthlyContribution(userId, Investment.InvestmentType.NPS);
-        
-        // RD monthly contribution (similar to SIP)
-        double rdMonthly = getMonthlySIP(userId, Investment.InvestmentType.RD);
-        
-        // Get average return rates for FD/RD - filter by userId
-        double fdReturn = getAverageReturn(userId, Investment.InvestmentType.FD, 7.0); // Default 7%
-        double rdReturn = getAverageReturn(userId, Investment.InvestmentType.RD, 6.5); // Default 6.5%
-
-        // Get goals for outflow - filter by userId
-        List<Goal> goals = goalRepository.findByUserIdOrderByTargetYearAsc(userId);
-
-        // Get insurance maturities - filter by userId
-        List<Insurance> investmentPolicies = insuranceRepository.findByUserIdAndTypeIn(userId,
-                Arrays.asList(Insurance.InsuranceType.ULIP, Insurance.InsuranceType.ENDOWMENT, 
-                              Insurance.InsuranceType.MONEY_BACK));
-        List<Insurance> allInsurance = insuranceRepository.findByUserId(userId);
-
-        // Load expenses once for early retirement corpus checks
-        List<Expense> allExpenses = expenseRepository.findByUserId(userId);
-
-        double currentMonthlyRental = investmentRepository.findByUserIdAndType(userId, Investment.InvestmentType.REAL_ESTATE).stream()
-                .filter(i -> Investment.InvestmentType.REAL_ESTATE.equals(i.getType())
-                        && "RENTAL".equals(i.getRealEstateType())
-                        && i.getMonthlyRentalIncome() != null)
-                .mapToDouble(i -> {
-                    double rentalIncome = i.getMonthlyRentalIncome();
-                    Double vacancyRate = i.getVacancyRate();
-                    if (vacancyRate == null) vacancyRate = 10.0;
-                    return rentalIncome * (1 - vacancyRate / 100);
-                })
-                .sum();
-        double monthlyRentalIncomeAtRetirement = investmentRepository.findByUserIdAndType(userId, Investment.InvestmentType.REAL_ESTATE).stream()
-                .filter(i -> Investment.InvestmentType.REAL_ESTATE.equals(i.getType())
-                        && "RENTAL".equals(i.getRealEstateType())
-                        && i.getMonthlyRentalIncome() != null)
-                .mapToDouble(i -> {
-                    double rentalIncome = i.getMonthlyRentalIncome();
-                    Double vacancyRate = i.getVacancyRate();
-                    if (vacancyRate == null) vacancyRate = 10.0;
-                    return rentalIncome * (1 - vacancyRate / 100) * Math.pow(1 + (5.0 / 100), retirementAge - currentAge);
-                })
-                .sum();
-        
-        // Pre-calculate money-back payout schedules for all money-back policies
-        Map<Integer, Double> moneyBackPayoutsByYear = new HashMap<>();
-        Map<Integer, List<String>> moneyBackDescriptionsByYear = new HashMap<>();
-        for (Insurance policy : investmentPolicies) {
-            if (policy.getType() == Insurance.InsuranceType.MONEY_BACK) {
-                for (Insurance.PayoutSchedule payout : policy.getPayoutSchedule()) {
-                    int year = payout.getCalendarYear();
-                    moneyBackPayoutsByYear.merge(year, payout.getAmount(), Double::sum);
-                    moneyBackDescriptionsByYear.computeIfAbsent(year, k -> new ArrayList<>())
-                            .add(String.format("%s: ₹%.0f (%.0f%%)", 
-                                    policy.getPolicyName(), payout.getAmount(), 
-                                    payout.getPercentage() != null ? payout.getPercentage() : 0));
-                }
-            }
-        }
-
-        // Use simple scalar values if provided, otherwise fall back to complex period returns or defaults
-        double simpleEpfReturn = scenario.getEpfReturn() != null ? scenario.getEpfReturn() : defaultEpfReturn;
-        double simplePpfReturn = scenario.getPpfReturn() != null ? scenario.getPpfReturn() : defaultPpfReturn;
-        double simpleMfReturn = scenario.getMfReturn() != null ? scenario.getMfReturn() : defaultMfReturn;
-        double simpleInflation = scenario.getInflation() != null ? scenario.getInflation() : 
-                                 (scenario.getInflationRate() != null ? scenario.getInflationRate() : defaultInflation);
-        
-        double sipStepUp = scenario.getSipStepup() != null ? scenario.getSipStepup() : 
-                          (scenario.getSipStepUpPercent() != null ? scenario.getSipStepUpPercent() : 10);
-        double lumpsumYearly = scenario.getLumpsumAmount() != null ? scenario.getLumpsumAmount() : 0;
-        
-        // Year from which user adjustments take effect (default: 1 = next year)
-        int effectiveFromYear = scenario.getEffectiveFromYear() != null ? scenario.getEffectiveFromYear() : 1;
-        
-        // Debug logging for SIP step-up configuration
-        log.info("Retirement Calculation START - sipStepUp from scenario: {}%, effectiveFromYear: {}, mfSipMonthly: {}", 
-                sipStepUp, effectiveFromYear, mfSipMonthly);
-        
-        // Income strategy and corpus return settings
-        String incomeStrategy = scenario.getIncomeStrategy() != null ? scenario.getIncomeStrategy() : "SUSTAINABLE";
-        double corpusReturnRate = scenario.getCorpusReturnRate() != null ? scenario.getCorpusReturnRate() : 10.0;
-        double withdrawalRate = scenario.getWithdrawalRate() != null ? scenario.getWithdrawalRate() : 8.0;
-        
-        // Rate reduction settings (PPF/EPF/FD rates decrease over time)
-        boolean enableRateReduction = scenario.getEnableRateReduction() != null ? scenario.getEnableRateReduction() : true;
-        double rateReductionPercent = scenario.getRateReductionPercent() != null ? scenario.getRateReductionPercent() : 0.5;
-        int rateReductionYears = scenario.getRateReductionYears() != null ? scenario.getRateReductionYears() : 5;
-
-        // Expand recurring goals to all their occurrence years
-        List<Goal.GoalOccurrence> expandedGoals = new ArrayList<>();
-        for (Goal goal : goals) {
-            expandedGoals.addAll(goal.expandOccurrences(currentYear + yearsToRetirement, simpleInflation));
-        }
-        
-        double cumulativePpf = ppfBalance;
-        double cumulativeEpf = epfBalance;
-        double cumulativeMf = mfBalance;
-        double cumulativeNps = npsBalance;
-        double cumulativeOtherLiquid = otherLiquidBalance; // FD + RD + STOCK + CASH
-        double currentSip = mfSipMonthly;
-        double currentRdSip = rdMonthly;
-
-        for (int year = 0; year <= yearsToRetirement; year++) {
-            Map<String, Object> row = new LinkedHashMap<>();
-            int calendarYear = currentYear + year;
-            int age = currentAge + year;
-
-            // User adjustments only apply from effectiveFromYear onwards
-            double ppfRate, epfRate, mfRate;
-            if (year < effectiveFromYear) {
-                // Before effective year - use defaults from application.yml
-                ppfRate = defaultPpfReturn;
-                epfRate = defaultEpfReturn;
-                mfRate = defaultMfReturn;
-            } else {
-                // From effective year onwards - use user-adjusted rates
-                ppfRate = simplePpfReturn;
-                epfRate = simpleEpfReturn;
-                mfRate = simpleMfReturn;
-            }
-            
-            // Apply rate reduction over time (PPF/EPF rates typically decrease)
-            if (enableRateReduction && year > 0 && rateReductionYears > 0) {
-                int reductionPeriods = year / rateReductionYears;
-                double totalReduction = reductionPeriods * rateReductionPercent;
-                // Apply reduction but ensure rate doesn't go below 4%
-                ppfRate = Math.max(4.0, ppfRate - totalReduction);
-                epfRate = Math.max(4.0, epfRate - totalReduction);
-                // Note: MF rates are market-linked, not reduced
-            }
-
-            // Calculate year-end balances
-            if (year > 0) {
-                // PPF
-                cumulativePpf = cumulativePpf * (1 + ppfRate / 100) + ppfYearly;
-                
-                // EPF
-                cumulativeEpf = cumulativeEpf * (1 + epfRate / 100) + (epfMonthly * 12);
-                
-                // MF (with step-up SIP - only applies from effectiveFromYear onwards)
-                double mfGrowth = cumulativeMf * (1 + mfRate / 100);
-                double sipValue = calculationService.calculateSIPFutureValue(currentSip, mfRate, 1);
-                cumulativeMf = mfGrowth + sipValue + lumpsumYearly;
-                
-                // Apply SIP step-up only from effectiveFromYear onwards
-                if (year >= effectiveFromYear) {
-                    currentSip = currentSip * (1 + sipStepUp / 100);
-                }
-                
-                // NPS: use explicit NPS return if provided, else fall back to MF returns
-                double npsRate;
-                if (scenario.getNpsReturn() != null) {
-                    npsRate = scenario.getNpsReturn();
-                } else if (scenario.getMfReturns() != null && !scenario.getMfReturns().isEmpty()) {
-                    npsRate = getRateForPeriod(scenario.getMfReturns(), year, mfRate);
-                } else {
-                    npsRate = mfRate;
-                }
-                cumulativeNps = cumulativeNps * (1 + npsRate / 100) + (npsMonthly * 12);
-                
-                // Other Liquid Assets (FD, RD, STOCK, CASH)
-                // Apply rate reduction to FD/RD rates as well
-                double reductionFactor = (enableRateReduction && rateReductionYears > 0) ? ((double) year / (double) rateReductionYears) * rateReductionPercent : 0.0;
-                double currentFdRate = enableRateReduction ? Math.max(4.0, fdReturn - reductionFactor) : fdReturn;
-                double currentRdRate = enableRateReduction ? Math.max(4.0, rdReturn - reductionFactor) : rdReturn;
-                
-                // Growth: FD/RD at their rates, STOCK at MF rate, CASH at inflation (to preserve value)
-                // Simplified: use weighted average of FD/RD rates for the "other liquid" bucket
-                double otherLiquidRate = (currentFdRate + currentRdRate) / 2;
-                double otherLiquidGrowth = cumulativeOtherLiquid * (1 + otherLiquidRate / 100);
-                
-                // RD contributions (like SIP)
-                double rdSipValue = calculationService.calculateSIPFutureValue(currentRdSip, currentRdRate, 1);
-                cumulativeOtherLiquid = otherLiquidGrowth + rdSipValue;
-            }
-
-            // Check for insurance maturities (ULIP, Endowment, Money Back)
-            double insuranceMaturityInflow = 0;
-            List<String> maturingPolicies = new ArrayList<>();
-            for (Insurance policy : investmentPolicies) {
-                if (policy.getMaturityDate() != null && 
-                    policy.getMaturityDate().getYear() == calendarYear) {
-                    double maturity = policy.getMaturityBenefit() != null ? 
-                            policy.getMaturityBenefit() : (policy.getFundValue() != null ? policy.getFundValue() : 0);
-                    insuranceMaturityInflow += maturity;
-                    maturingPolicies.add(policy.getPolicyName());
-                }
-            }
-            
-            // Check for investment maturities (FD, RD, PPF)
-            double investmentMaturityInflow = 0;
-            List<String> maturingInvestments = new ArrayList<>();
-            for (Investment inv : investmentRepository.findByUserId(userId)) {
-                if (inv.getMaturityDate() != null && 
-                    inv.getMaturityDate().getYear() == calendarYear) {
-                    double maturityValue = calculateExpectedMaturityValue(inv);
-                    investmentMaturityInflow += maturityValue;
-                    maturingInvestments.add(inv.getName() + " (" + inv.getType() + ")");
-                }
-            }
-            
-            // Check for money-back payouts (intermediate payouts before maturity)
-            double moneyBackInflow = moneyBackPayoutsByYear.getOrDefault(calendarYear, 0.0);
-            List<String> moneyBackDetails = moneyBackDescriptionsByYear.getOrDefault(calendarYear, new ArrayList<>());
-            
-            // Total inflows for this year (including money-back payouts)
-            double totalInflow = insuranceMaturityInflow + investmentMaturityInflow + moneyBackInflow;
-
-            // Check for goal outflows (using expanded recurring goals)
-            double goalOutflow = 0;
-            List<String> goalsThisYear = new ArrayList<>();
-            for (Goal.GoalOccurrence occurrence : expandedGoals) {
-                if (occurrence.getYear() == calendarYear) {
-                    // The amount is already inflated in expandOccurrences for recurring goals
-                    // For one-time goals, we still need to inflate from today's value
-                    goalOutflow += occurrence.getAmount();
-                    goalsThisYear.add(occurrence.getDescription());
-                }
-            }
-
-            // Include all liquid assets in total corpus (PPF, EPF, MF, NPS + FD, RD, STOCK, CASH + Inflows)
-            double totalCorpus = cumulativePpf + cumulativeEpf + cumulativeMf + cumulativeNps + cumulativeOtherLiquid + totalInflow;
-            double netCorpus = totalCorpus - goalOutflow;
-
-            int yearsToRetirementAtYear = year;
-            int retirementYearsAtYear = Math.max(0, (scenario.getLifeExpectancy() != null ? scenario.getLifeExpectancy() : 85) - age);
-            Map<String, Double> requiredCorpusByStrategy = calculateRequiredCorpusByStrategyAtYear(
-                    allExpenses,
-                    allInsurance,
-                    goals,
-                    calendarYear,
-                    simpleInflation,
-                    yearsToRetirementAtYear,
-                    retirementYearsAtYear,
-                    withdrawalRate,
-                    corpusReturnRate,
-                    currentMonthlyRental
-            );
-            Map<String, Boolean> canRetireByStrategy = new LinkedHashMap<>();
-            for (Map.Entry<String, Double> entry : requiredCorpusByStrategy.entrySet()) {
-                canRetireByStrategy.put(entry.getKey(), netCorpus >= entry.getValue());
-            }
+    /**
+     * Build the retirement matrix from an already-loaded snapshot.
+     * The scenario must already have its age and inflation fields resolved.
+     */
+    public Map<String, Object> generateRetirementMatrix(UserFinancialSnapshot snapshot, RetirementScenario scenario) {
+        RetirementProjection projection = projectRetirement(snapshot, scenario);
 
-            row.put("sno", year + 1);
-            row.put("year", calendarYear);
-            row.put("age", age);
-            row.put("ppfBalance", Math.round(cumulativePpf));
-            row.put("ppfRate", ppfRate);
-            row.put("epfBalance", Math.round(cumulativeEpf));
-            row.put("epfRate", epfRate);
-            row.put("mfBalance", Math.round(cumulativeMf));
-            row.put("mfRate", mfRate);
-            row.put("mfSip", Math.round(currentSip));
-            row.put("npsBalance", Math.round(cumulativeNps));
-            row.put("otherLiquidBalance", Math.round(cumulativeOtherLiquid)); // FD + RD + STOCK + CASH
-            row.put("totalCorpus", Math.round(totalCorpus));
-            row.put("insuranceMaturity", Math.round(insuranceMaturityInflow));
-            row.put("investmentMaturity", Math.round(investmentMaturityInflow));
-            row.put("moneyBackPayout", Math.round(moneyBackInflow));
-            row.put("moneyBackDetails", moneyBackDetails);
-            row.put("totalInflow", Math.round(totalInflow));
-            row.put("maturingPolicies", maturingPolicies);
-            row.put("maturingInvestments", maturingInvestments);
-            row.put("goalOutflow", Math.round(goalOutflow));
-            row.put("goalsThisYear", goalsThisYear);
-            row.put("netCorpus", Math.round(netCorpus));
-            row.put("requiredCorpusByStrategy", requiredCorpusByStrategy);
-            row.put("canRetireByStrategy", canRetireByStrategy);
+        int currentYear = projection.currentYear;
+        int yearsToRetirement = projection.yearsToRetirement;
+        int retirementYears = projection.retirementYears;
+        int effectiveFromYear = projection.effectiveFromYear;
+        String incomeStrategy = projection.incomeStrategy;
+        double corpusReturnRate = projection.corpusReturnRate;
+        double withdrawalRate = projection.withdrawalRate;
 
-            matrix.add(row);
-        }
+        log.info("Retirement Calculation START - sipStepUp from scenario: {}%, effectiveFromYear: {}, mfSipMonthly: {}",
+                projection.sipStepUp, effectiveFromYear, projection.mfSipStart);
 
         // Calculate retirement income
-        Map<String, Object> lastRow = matrix.get(matrix.size() - 1);
-        double finalCorpus = ((Number) lastRow.get("netCorpus")).doubleValue();
-        int lifeExpectancy = scenario.getLifeExpectancy() != null ? scenario.getLifeExpectancy() : 85;
-        int retirementYears = lifeExpectancy - retirementAge;
-        int retirementYearCalendar = currentYear + yearsToRetirement;
-        
-        // Use user-specified or default rates for corpus returns
-        double actualCorpusReturn = corpusReturnRate / 100;  // Convert from % to decimal
-        double actualWithdrawalRate = withdrawalRate / 100;
-        
-        double annuityMonthlyIncomeAtRetirement = getAnnuityMonthlyIncomeForYear(allInsurance, retirementYearCalendar);
-        
-        // Calculate rental income that continues in retirement
-        // currentMonthlyRental and monthlyRentalIncomeAtRetirement are computed earlier
-        
+        double finalCorpus = projection.finalCorpus();
+        double annuityMonthlyIncomeAtRetirement = projection.annuityMonthlyAtRetirement;
+        double monthlyRentalIncomeAtRetirement = projection.monthlyRentalAtRetirement;
+
         // Method 1: Simple depletion (divide corpus by years)
         double monthlyRetirementIncome = finalCorpus / retirementYears / 12 + annuityMonthlyIncomeAtRetirement + monthlyRentalIncomeAtRetirement;
-        
+
         // Method 2: 4% Safe Withdrawal Rule
         double monthlyIncome4Percent = (finalCorpus * 0.04) / 12 + annuityMonthlyIncomeAtRetirement + monthlyRentalIncomeAtRetirement;
-        
+
         // Method 3: Sustainable income (user-configurable return and withdrawal rates)
-        double yearlyIncomeFromCorpus = finalCorpus * actualWithdrawalRate;
+        double yearlyIncomeFromCorpus = finalCorpus * (withdrawalRate / 100);
         double monthlyIncomeFromCorpus = yearlyIncomeFromCorpus / 12 + annuityMonthlyIncomeAtRetirement + monthlyRentalIncomeAtRetirement;
-        
+
         // Determine selected income based on strategy
         double selectedMonthlyIncome;
         String selectedStrategyName;
@@ -396,95 +129,40 @@ public class RetirementService {
             case "SUSTAINABLE":
             default:
                 selectedMonthlyIncome = monthlyIncomeFromCorpus;
-                selectedStrategyName = String.format("Sustainable (%d%% return, %d%% withdrawal)", 
+                selectedStrategyName = String.format("Sustainable (%d%% return, %d%% withdrawal)",
                         Math.round(corpusReturnRate), Math.round(withdrawalRate));
                 break;
         }
-        
-        int goalsEndYear = retirementYearCalendar + Math.max(0, retirementYears);
-        Map<Integer, Double> goalsByYear = new HashMap<>();
-        for (Goal goal : goals) {
-            goal.expandOccurrences(goalsEndYear, simpleInflation).forEach(occurrence -> {
-                goalsByYear.merge(occurrence.getYear(), occurrence.getAmount(), Double::sum);
-            });
-        }
-
-        // Project corpus sustainability over retirement years - based on selected strategy
-        List<Map<String, Object>> retirementIncomeProjection = new ArrayList<>();
-        double projectedCorpus = finalCorpus;
-
-        // Calculate income based on strategy (yearly), but store rows at 5-year marks and goal years
-        for (int year = 0; year <= retirementYears && year <= 30; year++) {
-            double annuityMonthlyIncome = getAnnuityMonthlyIncomeForYear(allInsurance, retirementYearCalendar + year);
-            double monthlyRent = currentMonthlyRental * Math.pow(1 + (5.0 / 100), retirementAge - currentAge + year);
-            double goalOutflow = goalsByYear.getOrDefault(retirementYearCalendar + year, 0.0);
-
-            double yearlyIncomeFromCorpusAtYear;
-            double monthlyIncome;
-            switch (incomeStrategy) {
-                case "SIMPLE_DEPLETION":
-                    // Simple depletion: divide remaining corpus by remaining years
-                    int remainingYears = retirementYears - year;
-                    yearlyIncomeFromCorpusAtYear = remainingYears > 0 ? projectedCorpus / remainingYears : 0;
-                    monthlyIncome = (yearlyIncomeFromCorpusAtYear / 12) + annuityMonthlyIncome + monthlyRent;
-                    projectedCorpus = projectedCorpus - yearlyIncomeFromCorpusAtYear;
-                    break;
-                case "SAFE_4_PERCENT":
-                    // 4% withdrawal rule - fixed percentage of initial corpus
-                    double annual4PercentWithdrawal = finalCorpus * 0.04;
-                    yearlyIncomeFromCorpusAtYear = projectedCorpus > 0
-                            ? annual4PercentWithdrawal * Math.pow(1 + simpleInflation / 100, year)
-                            : 0;
-                    monthlyIncome = (yearlyIncomeFromCorpusAtYear / 12) + annuityMonthlyIncome + monthlyRent;
-                    projectedCorpus = projectedCorpus * (1 + actualCorpusReturn) - yearlyIncomeFromCorpusAtYear;
-                    break;
-                case "SUSTAINABLE":
-                default:
-                    // Sustainable: withdrawal based on configured rate
-                    yearlyIncomeFromCorpusAtYear = projectedCorpus * actualWithdrawalRate;
-                    monthlyIncome = (yearlyIncomeFromCorpusAtYear / 12) + annuityMonthlyIncome + monthlyRent;
-                    projectedCorpus = projectedCorpus * (1 + actualCorpusReturn) - yearlyIncomeFromCorpusAtYear;
-                    break;
-            }
-
-            if (projectedCorpus < 0) {
-                projectedCorpus = 0;
-            }
-
-            if (year % 5 == 0 || goalOutflow > 0) {
-                Map<String, Object> projection = new LinkedHashMap<>();
-                projection.put("year", year);
-                projection.put("age", retirementAge + year);
-                projection.put("corpus", Math.round(projectedCorpus));
-                projection.put("monthlyIncome", Math.round(monthlyIncome));
-                projection.put("annuityMonthlyIncome", Math.round(annuityMonthlyIncome));
-                projection.put("rentalMonthlyIncome", Math.round(monthlyRent));
-                projection.put("goalOutflow", Math.round(goalOutflow));
-                retirementIncomeProjection.add(projection);
-            }
-        }
 
         // Calculate GAP Analysis using selected income strategy
         Map<String, Object> gapAnalysis = calculateGapAnalysis(
-                userId,
-                finalCorpus, 
-                simpleInflation, 
-                yearsToRetirement, 
+                snapshot,
+                finalCorpus,
+                projection.inflation,
+                yearsToRetirement,
                 retirementYears,
-                goals,
+                snapshot.getGoals(),
                 incomeStrategy,
                 corpusReturnRate,
                 withdrawalRate
         );
 
-        result.put("matrix", matrix);
-        
+        // Calculate SIP Step-Up Optimization: Find when step-up can stop
+        double requiredCorpus = gapAnalysis.get("requiredCorpus") != null ?
+                ((Number) gapAnalysis.get("requiredCorpus")).doubleValue() : finalCorpus;
+        Map<String, Object> sipStepUpOptimization = calculateSipStepUpOptimization(
+                projection.mfStart, projection.mfSipStart, projection.mfReturn, projection.sipStepUp,
+                yearsToRetirement, requiredCorpus, finalCorpus, effectiveFromYear
+        );
+        Integer optimalStopYear = sipStepUpOptimization.get("optimalStopYear") != null ?
+                ((Number) sipStepUpOptimization.get("optimalStopYear")).intValue() : null;
+
         Map<String, Object> summary = new LinkedHashMap<>();
-        summary.put("currentAge", currentAge);
-        summary.put("retirementAge", retirementAge);
+        summary.put("currentAge", projection.currentAge);
+        summary.put("retirementAge", projection.retirementAge);
         summary.put("yearsToRetirement", yearsToRetirement);
         summary.put("finalCorpus", Math.round(finalCorpus));
-        summary.put("lifeExpectancy", lifeExpectancy);
+        summary.put("lifeExpectancy", projection.lifeExpectancy);
         summary.put("retirementYears", retirementYears);
         summary.put("monthlyRetirementIncome", Math.round(monthlyRetirementIncome));
         summary.put("monthlyIncome4Percent", Math.round(monthlyIncome4Percent));
@@ -497,60 +175,340 @@ public class RetirementService {
         summary.put("selectedMonthlyIncome", Math.round(selectedMonthlyIncome));
         summary.put("selectedStrategyName", selectedStrategyName);
         summary.put("effectiveFromYear", effectiveFromYear);
-        summary.put("retirementIncomeProjection", retirementIncomeProjection);
+        summary.put("retirementIncomeProjection", toRetirementIncomeRows(projection));
         summary.put("monthlyRentalIncomeAtRetirement", monthlyRentalIncomeAtRetirement);
         summary.put("scenario", scenario.getName() != null ? scenario.getName() : "Default");
-        
+
         // Starting balances breakdown (for transparency)
+        double otherLiquidBalance = projection.startingOtherLiquid();
         Map<String, Object> startingBalances = new LinkedHashMap<>();
-        startingBalances.put("ppf", Math.round(ppfBalance));
-        startingBalances.put("epf", Math.round(epfBalance));
-        startingBalances.put("mutualFunds", Math.round(mfBalance));
-        startingBalances.put("nps", Math.round(npsBalance));
-        startingBalances.put("fd", Math.round(fdBalance));
-        startingBalances.put("rd", Math.round(rdBalance));
-        startingBalances.put("stocks", Math.round(stockBalance));
-        startingBalances.put("cash", Math.round(cashBalance));
-        startingBalances.put("emergencyFund", Math.round(emergencyFundBalance));
+        startingBalances.put("ppf", Math.round(projection.ppfStart));
+        startingBalances.put("epf", Math.round(projection.epfStart));
+        startingBalances.put("mutualFunds", Math.round(projection.mfStart));
+        startingBalances.put("nps", Math.round(projection.npsStart));
+        startingBalances.put("fd", Math.round(projection.fdStart));
+        startingBalances.put("rd", Math.round(projection.rdStart));
+        startingBalances.put("stocks", Math.round(projection.stockStart));
+        startingBalances.put("cash", Math.round(projection.cashStart));
+        startingBalances.put("emergencyFund", Math.round(projection.emergencyFund));
         startingBalances.put("otherLiquidTotal", Math.round(otherLiquidBalance));
-        startingBalances.put("totalStarting", Math.round(ppfBalance + epfBalance + mfBalance + npsBalance + otherLiquidBalance));
+        startingBalances.put("totalStarting", Math.round(projection.ppfStart + projection.epfStart
+                + projection.mfStart + projection.npsStart + otherLiquidBalance));
         summary.put("startingBalances", startingBalances);
-        
+
         // Note about excluded assets
         summary.put("excludedFromCorpus", "Gold, Real Estate, Crypto (illiquid assets), Emergency Fund FDs/RDs");
-        
-        // Calculate SIP Step-Up Optimization: Find when step-up can stop
-        Map<String, Object> gapData = gapAnalysis;
-        double requiredCorpus = gapData.get("requiredCorpus") != null ? 
-                ((Number) gapData.get("requiredCorpus")).doubleValue() : finalCorpus;
-        
-        Map<String, Object> sipStepUpOptimization = calculateSipStepUpOptimization(
-                mfBalance, mfSipMonthly, simpleMfReturn, sipStepUp, 
-                yearsToRetirement, requiredCorpus, finalCorpus, effectiveFromYear
-        );
         summary.put("sipStepUpOptimization", sipStepUpOptimization);
-        
-        // Add step-up info to each matrix row
-        Integer optimalStopYear = sipStepUpOptimization.get("optimalStopYear") != null ?
-                ((Number) sipStepUpOptimization.get("optimalStopYear")).intValue() : null;
-        for (int i = 0; i < matrix.size(); i++) {
-            Map<String, Object> row = matrix.get(i);
-            int year = i;
-            boolean isStepUpActive = (optimalStopYear == null || year < optimalStopYear) && year >= effectiveFromYear;
-            row.put("sipStepUpActive", isStepUpActive);
-            row.put("sipStepUpStopYear", optimalStopYear != null ? currentYear + optimalStopYear : null);
-        }
-        
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("matrix", toMatrixRows(projection, optimalStopYear));
         result.put("summary", summary);
-        
         result.put("gapAnalysis", gapAnalysis);
-        
+
         // Add maturing investments before retirement
-        result.put("maturingBeforeRetirement", calculateMaturingBeforeRetirement(userId, currentAge, retirementAge));
+        result.put("maturingBeforeRetirement", calculateMaturingBeforeRetirement(
+                snapshot.getInvestments(), snapshot.getInsurance(), projection.currentAge, projection.retirementAge));
 
         return result;
     }
 
+    /**
+     * Headline numbers of one scenario for side-by-side comparison, without the matrix rows:
+     * final corpus, required corpus per strategy at retirement, the gap analysis figures for the
+     * scenario's own strategy, and the first year each strategy's required corpus is reached.
+     * The scenario must already have its age and inflation fields resolved.
+     */
+    Map<String, Object> summarizeScenario(UserFinancialSnapshot snapshot, RetirementScenario scenario) {
+        return summarizeProjection(snapshot, scenario, projectRetirement(snapshot, scenario));
+    }
+
+    /**
+     * {@link #summarizeScenario} for a projection that has already been run.
+     */
+    Map<String, Object> summarizeProjection(UserFinancialSnapshot snapshot, RetirementScenario scenario,
+                                            RetirementProjection projection) {
+        double finalCorpus = projection.finalCorpus();
+        Map<String, Object> gapAnalysis = calculateGapAnalysis(snapshot, finalCorpus, projection.inflation,
+                projection.yearsToRetirement, projection.retirementYears, snapshot.getGoals(),
+                projection.incomeStrategy, projection.corpusReturnRate, projection.withdrawalRate);
+
+        Map<String, Object> requiredCorpus = new LinkedHashMap<>();
+        Map<String, Object> firstCanRetireYear = new LinkedHashMap<>();
+        int[] firstRows = projection.firstAffordableRows();
+        for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+            String strategy = RequiredCorpusSolver.STRATEGIES[s];
+            requiredCorpus.put(strategy, Math.round(projection.requiredCorpus[s][projection.yearsToRetirement]));
+            firstCanRetireYear.put(strategy, firstRows[s] >= 0 ? projection.calendarYear(firstRows[s]) : null);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scenarioId", scenario.getId());
+        summary.put("scenario", scenario.getName() != null ? scenario.getName() : "Default");
+        summary.put("currentAge", projection.currentAge);
+        summary.put("retirementAge", projection.retirementAge);
+        summary.put("lifeExpectancy", projection.lifeExpectancy);
+        summary.put("yearsToRetirement", projection.yearsToRetirement);
+        summary.put("incomeStrategy", projection.incomeStrategy);
+        summary.put("finalCorpus", Math.round(finalCorpus));
+        summary.put("requiredCorpusByStrategy", requiredCorpus);
+        summary.put("requiredCorpus", gapAnalysis.get("requiredCorpus"));
+        summary.put("corpusGap", gapAnalysis.get("corpusGap"));
+        summary.put("gapPercent", gapAnalysis.get("gapPercent"));
+        summary.put("isOnTrack", gapAnalysis.get("isOnTrack"));
+        summary.put("additionalSIPRequired", gapAnalysis.get("additionalSIPRequired"));
+        summary.put("firstCanRetireYearByStrategy", firstCanRetireYear);
+        Integer selectedFirstYear = (Integer) firstCanRetireYear.get(projection.incomeStrategy);
+        summary.put("firstCanRetireYear", selectedFirstYear);
+        summary.put("firstCanRetireAge", selectedFirstYear != null
+                ? projection.currentAge + (selectedFirstYear - projection.currentYear) : null);
+        return summary;
+    }
+
+    /**
+     * Earliest age at which each income strategy's required corpus is met, searching up to life
+     * expectancy rather than only to the planned retirement age.
+     */
+    public Map<String, Object> findEarliestRetirement(String userId, RetirementScenario scenario) {
+        RetirementScenario resolved = resolveScenario(userId, scenario);
+        return findEarliestRetirement(loadSnapshot(userId), resolved);
+    }
+
+    /**
+     * Nothing before retirement depends on the retirement age, so a single projection that
+     * retires at life expectancy carries the accumulation trajectory for every candidate age;
+     * each age is checked against its row instead of re-projecting the plan per candidate.
+     * The scenario must already have its age and inflation fields resolved.
+     */
+    Map<String, Object> findEarliestRetirement(UserFinancialSnapshot snapshot, RetirementScenario scenario) {
+        if (scenario.getLifeExpectancy() < scenario.getCurrentAge()) {
+            throw new IllegalArgumentException("Life expectancy cannot be below the current age");
+        }
+        RetirementProjection projection = projectRetirement(snapshot,
+                scenario.toBuilder().retirementAge(scenario.getLifeExpectancy()).build());
+        int[] firstRows = projection.firstAffordableRows();
+        int plannedAge = scenario.getRetirementAge();
+
+        Map<String, Object> byStrategy = new LinkedHashMap<>();
+        for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+            int row = firstRows[s];
+            Map<String, Object> earliest = null;
+            if (row >= 0) {
+                earliest = new LinkedHashMap<>();
+                earliest.put("age", projection.age(row));
+                earliest.put("year", projection.calendarYear(row));
+                earliest.put("yearsFromNow", row);
+                earliest.put("yearsBeforePlanned", plannedAge - projection.age(row));
+                earliest.put("corpus", Math.round(projection.netCorpus[row]));
+                earliest.put("requiredCorpus", Math.round(projection.requiredCorpus[s][row]));
+            }
+            byStrategy.put(RequiredCorpusSolver.STRATEGIES[s], earliest);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> selected = (Map<String, Object>) byStrategy.get(projection.incomeStrategy);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("currentAge", projection.currentAge);
+        result.put("plannedRetirementAge", plannedAge);
+        result.put("lifeExpectancy", projection.lifeExpectancy);
+        result.put("incomeStrategy", projection.incomeStrategy);
+        result.put("earliestRetirementAge", selected != null ? selected.get("age") : null);
+        result.put("earliestRetirementYear", selected != null ? selected.get("year") : null);
+        result.put("canRetireByPlannedAge", selected != null && (Integer) selected.get("age") <= plannedAge);
+        result.put("earliestByStrategy", byStrategy);
+        return result;
+    }
+
+    /**
+     * Run the projection engine without building the matrix response, for callers that
+     * only need the numbers (analysis, exports, simulations).
+     */
+    RetirementProjection projectRetirement(UserFinancialSnapshot snapshot, RetirementScenario scenario) {
+        return projectionEngine().project(snapshot, scenario);
+    }
+
+    /**
+     * Recompute a projection in place from {@code fromRow}, for an edit that
+     * {@link ProjectionEngine#firstAffectedRow} accepted.
+     */
+    void reprojectRetirement(RetirementProjection projection, UserFinancialSnapshot snapshot,
+                             RetirementScenario scenario, int fromRow) {
+        projectionEngine().reproject(projection, snapshot, scenario, fromRow);
+    }
+
+    /**
+     * Monte Carlo run of the full retirement projection: correlated equity, debt and inflation
+     * shocks around the scenario's assumptions, through accumulation and every income strategy's
+     * withdrawals. Passing the same seed again (it is echoed back) reproduces the result.
+     */
+    public Map<String, Object> simulateRetirement(String userId, RetirementScenario scenario, int paths, Long seed) {
+        if (paths < 1 || paths > MAX_SIMULATION_PATHS) {
+            throw new IllegalArgumentException("Paths must be between 1 and " + MAX_SIMULATION_PATHS);
+        }
+        RetirementScenario resolved = resolveScenario(userId, scenario);
+        RetirementProjection projection = projectRetirement(loadSnapshot(userId), resolved);
+        long effectiveSeed = seed != null ? seed : new java.security.SecureRandom().nextLong();
+        StochasticProjectionEngine.Assumptions assumptions = StochasticProjectionEngine.Assumptions.DEFAULT;
+        StochasticProjectionEngine.Result simulation =
+                new StochasticProjectionEngine(assumptions).simulate(projection, paths, effectiveSeed);
+
+        Map<String, Object> successProbability = new LinkedHashMap<>();
+        Map<String, Object> requiredCorpus = new LinkedHashMap<>();
+        for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+            String strategy = RequiredCorpusSolver.STRATEGIES[s];
+            successProbability.put(strategy, Math.round(simulation.successProbability(s) * 1000) / 10.0);
+            requiredCorpus.put(strategy, Math.round(projection.requiredCorpus[s][projection.yearsToRetirement]));
+        }
+
+        List<Map<String, Object>> bands = new ArrayList<>(projection.rows());
+        Map<String, Object> corpusAtRetirement = null;
+        for (int year = 0; year < projection.rows(); year++) {
+            // Selection reorders the row; it is not read again afterwards
+            double[] p = MonteCarloEngine.percentiles(simulation.netCorpus[year], 0.10, 0.25, 0.50, 0.75, 0.90);
+            Map<String, Object> band = new LinkedHashMap<>();
+            band.put("year", projection.calendarYear(year));
+            band.put("age", projection.age(year));
+            band.put("p10", Math.round(p[0]));
+            band.put("p25", Math.round(p[1]));
+            band.put("p50", Math.round(p[2]));
+            band.put("p75", Math.round(p[3]));
+            band.put("p90", Math.round(p[4]));
+            band.put("deterministic", Math.round(projection.netCorpus[year]));
+            bands.add(band);
+            if (year == projection.yearsToRetirement) {
+                corpusAtRetirement = band;
+            }
+        }
+
+        Map<String, Object> volatility = new LinkedHashMap<>();
+        volatility.put("equity", assumptions.equityVolatility());
+        volatility.put("debt", assumptions.debtVolatility());
+        volatility.put("inflation", assumptions.inflationVolatility());
+        volatility.put("equityDebtCorrelation", assumptions.equityDebtCorrelation());
+        volatility.put("equityInflationCorrelation", assumptions.equityInflationCorrelation());
+        volatility.put("debtInflationCorrelation", assumptions.debtInflationCorrelation());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("paths", paths);
+        result.put("seed", effectiveSeed);
+        result.put("yearsToRetirement", projection.yearsToRetirement);
+        result.put("retirementYears", projection.retirementYears);
+        result.put("incomeStrategy", projection.incomeStrategy);
+        result.put("successProbability", successProbability);
+        result.put("requiredCorpus", requiredCorpus);
+        result.put("corpusAtRetirement", corpusAtRetirement);
+        result.put("corpusBands", bands);
+        result.put("volatility", volatility);
+        return result;
+    }
+
+    /**
+     * Sensitivity grid over retirement age, MF return, inflation and SIP step-up around a
+     * scenario, with a tornado of one-at-a-time swings in the gap. See {@link SensitivityGrid}.
+     */
+    public Map<String, Object> analyzeSensitivity(String userId, RetirementScenario scenario,
+                                                  List<Integer> retirementAges, List<Double> mfReturns,
+                                                  List<Double> inflationRates, List<Double> sipStepUps) {
+        RetirementScenario resolved = resolveScenario(userId, scenario);
+        return new SensitivityGrid(projectionEngine(), loadSnapshot(userId), resolved, LocalDate.now().getYear())
+                .evaluate(retirementAges, mfReturns, inflationRates, sipStepUps);
+    }
+
+    /**
+     * Smallest extra monthly SIP, SIP step-up, yearly lumpsum or retirement delay that closes the
+     * corpus gap under the full projection engine. See {@link GapSolver}.
+     */
+    public Map<String, Object> closeGap(String userId, RetirementScenario scenario) {
+        RetirementScenario resolved = resolveScenario(userId, scenario);
+        return new GapSolver(projectionEngine(), loadSnapshot(userId), resolved, LocalDate.now().getYear()).solve();
+    }
+
+    private ProjectionEngine projectionEngine() {
+        return new ProjectionEngine(calculationService, defaultPpfReturn, defaultEpfReturn, defaultMfReturn, defaultInflation);
+    }
+
+    /**
+     * Materialize the accumulation columns as matrix rows for the JSON response.
+     */
+    private List<Map<String, Object>> toMatrixRows(RetirementProjection projection, Integer optimalStopYear) {
+        return toMatrixRows(projection, optimalStopYear, 0);
+    }
+
+    /**
+     * Matrix rows from {@code fromRow} onwards, without a SIP step-up stop year.
+     */
+    List<Map<String, Object>> matrixRows(RetirementProjection projection, int fromRow) {
+        return toMatrixRows(projection, null, fromRow);
+    }
+
+    private List<Map<String, Object>> toMatrixRows(RetirementProjection projection, Integer optimalStopYear,
+                                                   int fromRow) {
+        List<Map<String, Object>> matrix = new ArrayList<>(Math.max(0, projection.rows() - fromRow));
+        Integer stepUpStopCalendarYear = optimalStopYear != null ? projection.calendarYear(optimalStopYear) : null;
+        for (int year = fromRow; year < projection.rows(); year++) {
+            double netCorpus = projection.netCorpus[year];
+            Map<String, Double> requiredCorpusByStrategy = new LinkedHashMap<>();
+            Map<String, Boolean> canRetireByStrategy = new LinkedHashMap<>();
+            for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+                double required = projection.requiredCorpus[s][year];
+                requiredCorpusByStrategy.put(RequiredCorpusSolver.STRATEGIES[s], required);
+                canRetireByStrategy.put(RequiredCorpusSolver.STRATEGIES[s], netCorpus >= required);
+            }
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("sno", year + 1);
+            row.put("year", projection.calendarYear(year));
+            row.put("age", projection.age(year));
+            row.put("ppfBalance", Math.round(projection.ppf[year]));
+            row.put("ppfRate", projection.ppfRate[year]);
+            row.put("epfBalance", Math.round(projection.epf[year]));
+            row.put("epfRate", projection.epfRate[year]);
+            row.put("mfBalance", Math.round(projection.mf[year]));
+            row.put("mfRate", projection.mfRate[year]);
+            row.put("mfSip", Math.round(projection.mfSip[year]));
+            row.put("npsBalance", Math.round(projection.nps[year]));
+            row.put("otherLiquidBalance", Math.round(projection.otherLiquid[year])); // FD + RD + STOCK + CASH
+            row.put("totalCorpus", Math.round(projection.totalCorpus[year]));
+            row.put("insuranceMaturity", Math.round(projection.insuranceMaturity[year]));
+            row.put("investmentMaturity", Math.round(projection.investmentMaturity[year]));
+            row.put("moneyBackPayout", Math.round(projection.moneyBack[year]));
+            row.put("moneyBackDetails", RetirementProjection.labels(projection.moneyBackDetails, year));
+            row.put("totalInflow", Math.round(projection.inflow[year]));
+            row.put("maturingPolicies", RetirementProjection.labels(projection.maturingPolicies, year));
+            row.put("maturingInvestments", RetirementProjection.labels(projection.maturingInvestments, year));
+            row.put("goalOutflow", Math.round(projection.goalOutflow[year]));
+            row.put("goalsThisYear", RetirementProjection.labels(projection.goalsThisYear, year));
+            row.put("netCorpus", Math.round(netCorpus));
+            row.put("requiredCorpusByStrategy", requiredCorpusByStrategy);
+            row.put("canRetireByStrategy", canRetireByStrategy);
+            row.put("sipStepUpActive", (optimalStopYear == null || year < optimalStopYear) && year >= projection.effectiveFromYear);
+            row.put("sipStepUpStopYear", stepUpStopCalendarYear);
+            matrix.add(row);
+        }
+        return matrix;
+    }
+
+    /**
+     * Drawdown rows at 5-year marks and in years with goal outflows.
+     */
+    private List<Map<String, Object>> toRetirementIncomeRows(RetirementProjection projection) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int year = 0; year < projection.drawdownRows(); year++) {
+            double goalOutflow = projection.drawdownGoal[year];
+            if (year % 5 == 0 || goalOutflow > 0) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("year", year);
+                row.put("age", projection.retirementAge + year);
+                row.put("corpus", Math.round(projection.drawdownCorpus[year]));
+                row.put("monthlyIncome", Math.round(projection.drawdownMonthlyIncome[year]));
+                row.put("annuityMonthlyIncome", Math.round(projection.drawdownAnnuity[year]));
+                row.put("rentalMonthlyIncome", Math.round(projection.drawdownRent[year]));
+                row.put("goalOutflow", Math.round(goalOutflow));
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
     public double calculateRequiredCorpusForUser(
             String userId,
             double inflationRate,
@@ -559,14 +517,14 @@ public class RetirementService {
             String incomeStrategy,
             double corpusReturnRate,
             double withdrawalRate) {
-        List<Goal> goals = goalRepository.findByUserIdOrderByTargetYearAsc(userId);
+        UserFinancialSnapshot snapshot = loadSnapshot(userId);
         Map<String, Object> gap = calculateGapAnalysis(
-                userId,
+                snapshot,
                 0,
                 inflationRate,
                 Math.max(0, yearsToRetirement),
                 Math.max(0, retirementYears),
-                goals,
+                snapshot.getGoals(),
                 incomeStrategy,
                 corpusReturnRate,
                 withdrawalRate
@@ -591,100 +549,6 @@ public class RetirementService {
         return scenarioRepository.save(scenario);
     }
 
-    private double getRateForPeriod(List<RetirementScenario.PeriodReturn> periodReturns, 
-                                     int year, double defaultRate) {
-        if (periodReturns == null || periodReturns.isEmpty()) {
-            return defaultRate;
-        }
-        for (RetirementScenario.PeriodReturn pr : periodReturns) {
-            if (year >= pr.getFromYear() && year <= pr.getToYear()) {
-                return pr.getRate();
-            }
-        }
-        return defaultRate;
-    }
-
-    private double getInvestmentBalance(String userId, Investment.InvestmentType type) {
-        return investmentRepository.findByUserIdAndType(userId, type).stream()
-                .mapToDouble(i -> i.getCurrentValue() != null ? i.getCurrentValue() : 
-                                  (i.getInvestedAmount() != null ? i.getInvestedAmount() : 0))
-                .sum();
-    }
-
-    private double getInvestmentBalanceExcludingEmergencyFund(String userId, Investment.InvestmentType type) {
-        return investmentRepository.findByUserIdAndType(userId, type).stream()
-                .filter(i -> !Boolean.TRUE.equals(i.getIsEmergencyFund()))
-                .mapToDouble(i -> i.getCurrentValue() != null ? i.getCurrentValue() :
-                                  (i.getInvestedAmount() != null ? i.getInvestedAmount() : 0))
-                .sum();
-    }
-
-    private double getEmergencyFundBalance(String userId) {
-        // Sum both FD and RD tagged as emergency fund
-        double fdEmergency = investmentRepository.findByUserIdAndType(userId, Investment.InvestmentType.FD).stream()
-                .filter(i -> Boolean.TRUE.equals(i.getIsEmergencyFund()))
-                .mapToDouble(i -> i.getCurrentValue() != null ? i.getCurrentValue() :
-                                  (i.getInvestedAmount() != null ? i.getInvestedAmount() : 0))
-                .sum();
-        
-        double rdEmergency = investmentRepository.findByUserIdAndType(userId, Investment.InvestmentType.RD).stream()
-                .filter(i -> Boolean.TRUE.equals(i.getIsEmergencyFund()))
-                .mapToDouble(i -> i.getCurrentValue() != null ? i.getCurrentValue() :
-                                  (i.getInvestedAmount() != null ? i.getInvestedAmount() : 0))
-                .sum();
-        
-        return fdEmergency + rdEmergency;
-    }
-
-    private double getYearlyContribution(String userId, Investment.InvestmentType type) {
-        return investmentRepository.findByUserIdAndType(userId, type).stream()
-                .mapToDouble(i -> i.getYearlyContribution() != null ? i.getYearlyContribution() : 0)
-                .sum();
-    }
-
-    private double getMonthlyContribution(String userId, Investment.InvestmentType type) {
-        return investmentRepository.findByUserIdAndType(userId, type).stream()
-                .mapToDouble(i -> i.getMonthlySip() != null ? i.getMonthlySip() : 0)
-                .sum();
-    }
-
-    private double getMonthlySIP(String userId, Investment.InvestmentType type) {
-        return investmentRepository.findByUserIdAndType(userId, type).stream()
-                .mapToDouble(i -> i.getMonthlySip() != null ? i.getMonthlySip() : 0)
-                .sum();
-    }
-
-    /**
-     * Get average expected return rate for a type of investment.
-     * Uses interestRate for FD/RD, expectedReturn for others.
-     */
-    private double getAverageReturn(String userId, Investment.InvestmentType type, double defaultRate) {
-        List<Investment> investments = investmentRepository.findByUserIdAndType(userId, type);
-        if (type == Investment.InvestmentType.FD) {
-            investments = investments.stream()
-                    .filter(inv -> !Boolean.TRUE.equals(inv.getIsEmergencyFund()))
-                    .toList();
-        }
-        if (investments.isEmpty()) {
-            return defaultRate;
-        }
-        
-        double totalValue = 0;
-        double weightedReturn = 0;
-        
-        for (Investment inv : investments) {
-            double value = inv.getCurrentValue() != null ? inv.getCurrentValue() : 
-                          (inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0);
-            double rate = inv.getInterestRate() != null ? inv.getInterestRate() : 
-                         (inv.getExpectedReturn() != null ? inv.getExpectedReturn() : defaultRate);
-            
-            totalValue += value;
-            weightedReturn += value * rate;
-        }
-        
-        return totalValue > 0 ? weightedReturn / totalValue : defaultRate;
-    }
-
     /**
      * Calculate optimal year to stop SIP step-up while still achieving target corpus.
      * Simulates different stop years and finds the earliest one that meets the required corpus.
@@ -852,7 +716,7 @@ public class RetirementService {
      * 4. The selected income strategy affects how much corpus is required
      */
     private Map<String, Object> calculateGapAnalysis(
-            String userId,
+            UserFinancialSnapshot snapshot,
             double projectedCorpus,
             double inflationRate,
             int yearsToRetirement,
@@ -868,7 +732,7 @@ public class RetirementService {
         int retirementYear = currentYear + yearsToRetirement;
         
         // Get all expenses and separate into time-bound and recurring
-        List<Expense> allExpenses = expenseRepository.findByUserId(userId);
+        List<Expense> allExpenses = snapshot.getExpenses();
         
         // Calculate current monthly expenses (using new getMonthlyEquivalent method)
         double currentMonthlyExpenses = allExpenses.stream()
@@ -916,14 +780,14 @@ public class RetirementService {
             }
         }
         
-        // Calculate insurance premiums that continue after retirement - filter by userId
-        List<Insurance> allInsurance = insuranceRepository.findByUserId(userId);
+        // Calculate insurance premiums that continue after retirement
+        List<Insurance> allInsurance = snapshot.getInsurance();
         double monthlyInsurancePremiumsAfterRetirement = 0;
         List<Map<String, Object>> continuingInsurance = new ArrayList<>();
         
         for (Insurance policy : allInsurance) {
             // Check if this insurance continues after retirement
-            boolean continuesAfterRetirement = shouldContinueAfterRetirement(policy);
+            boolean continuesAfterRetirement = ProjectionEngine.shouldContinueAfterRetirement(policy);
             
             if (continuesAfterRetirement && policy.getAnnualPremium() != null) {
                 double monthlyPremium = policy.getAnnualPremium() / 12;
@@ -1110,36 +974,25 @@ public class RetirementService {
         retirementProj.put("insurancePremium", Math.round(inflatedInsuranceAtRetirement));
         expenseProjection.add(retirementProj);
         
-        // Calculate total monthly income from income sources - filter by userId
-        double totalMonthlyIncome = incomeRepository.findByUserId(userId).stream()
+        // Calculate total monthly income from income sources
+        double totalMonthlyIncome = snapshot.getIncomes().stream()
                 .mapToDouble(i -> i.getMonthlyAmount() != null ? i.getMonthlyAmount() : 0)
                 .sum();
         
         // Calculate total monthly rental income from real estate investments
-        double totalMonthlyRentalIncome = investmentRepository.findByUserId(userId).stream()
-                .filter(i -> Investment.InvestmentType.REAL_ESTATE.equals(i.getType()) 
-                    && "RENTAL".equals(i.getRealEstateType()) 
-                    && i.getMonthlyRentalIncome() != null)
-                .mapToDouble(i -> {
-                    double rentalIncome = i.getMonthlyRentalIncome();
-                    // Apply vacancy rate if available (default 10%)
-                    Double vacancyRate = i.getVacancyRate();
-                    if (vacancyRate == null) vacancyRate = 10.0;
-                    return rentalIncome * (1 - vacancyRate / 100);
-                })
-                .sum();
+        double totalMonthlyRentalIncome = ProjectionEngine.netMonthlyRentalIncome(snapshot);
         
         // Add rental income to total monthly income
         totalMonthlyIncome += totalMonthlyRentalIncome;
         
-        // Calculate monthly EMIs from active loans - filter by userId
-        double totalMonthlyEMI = loanRepository.findByUserId(userId).stream()
+        // Calculate monthly EMIs from active loans
+        double totalMonthlyEMI = snapshot.getLoans().stream()
                 .filter(l -> l.getOutstandingAmount() != null && l.getOutstandingAmount() > 0)
                 .mapToDouble(l -> l.getEmi() != null ? l.getEmi() : 0)
                 .sum();
         
-        // Calculate current monthly SIP/investments - filter by userId
-        double totalMonthlySIP = investmentRepository.findByUserId(userId).stream()
+        // Calculate current monthly SIP/investments
+        double totalMonthlySIP = snapshot.getInvestments().stream()
                 .mapToDouble(i -> i.getMonthlySip() != null ? i.getMonthlySip() : 0)
                 .sum();
         
@@ -1192,259 +1045,19 @@ public class RetirementService {
         return gap;
     }
 
-    private Map<String, Double> calculateRequiredCorpusByStrategyAtYear(
-            List<Expense> allExpenses,
-            List<Insurance> allInsurance,
-            List<Goal> goals,
-            int retirementYearCalendar,
-            double inflationRate,
-            int yearsToRetirement,
-            int retirementYears,
-            double withdrawalRate,
-            double corpusReturnRate,
-            double currentMonthlyRental) {
-
-        Map<String, Double> requiredByStrategy = new LinkedHashMap<>();
-
-        double expensesContinuingAfterRetirement = allExpenses.stream()
-                .filter(e -> e.willContinueAfterRetirement(retirementYearCalendar))
-                .mapToDouble(Expense::getMonthlyEquivalent)
-                .sum();
-
-        double monthlyInsurancePremiumsAfterRetirement = 0;
-        for (Insurance policy : allInsurance) {
-            if (shouldContinueAfterRetirement(policy) && policy.getAnnualPremium() != null) {
-                monthlyInsurancePremiumsAfterRetirement += policy.getAnnualPremium() / 12;
-            }
-        }
-
-        double monthlyExpensesContinuingAfterRetirement = expensesContinuingAfterRetirement + monthlyInsurancePremiumsAfterRetirement;
-        double inflatedMonthlyExpense = monthlyExpensesContinuingAfterRetirement *
-                Math.pow(1 + inflationRate / 100, Math.max(0, yearsToRetirement));
-        double yearlyExpenseAtRetirement = inflatedMonthlyExpense * 12;
-
-        int goalsEndYear = retirementYearCalendar + Math.max(0, retirementYears);
-        Map<Integer, Double> goalsByYear = new HashMap<>();
-        for (Goal goal : goals) {
-            goal.expandOccurrences(goalsEndYear, inflationRate).forEach(occurrence -> {
-                goalsByYear.merge(occurrence.getYear(), occurrence.getAmount(), Double::sum);
-            });
-        }
-
-        double baseRetirementMonthlyRent = currentMonthlyRental * Math.pow(1 + (5.0 / 100), Math.max(0, yearsToRetirement));
-
-        requiredByStrategy.put("SUSTAINABLE", findRequiredCorpusForStrategy(
-                yearlyExpenseAtRetirement,
-                inflationRate,
-                retirementYears,
-                retirementYearCalendar,
-                goalsByYear,
-                "SUSTAINABLE",
-                withdrawalRate,
-                corpusReturnRate,
-                baseRetirementMonthlyRent,
-                allInsurance
-        ));
-        requiredByStrategy.put("SAFE_4_PERCENT", findRequiredCorpusForStrategy(
-                yearlyExpenseAtRetirement,
-                inflationRate,
-                retirementYears,
-                retirementYearCalendar,
-                goalsByYear,
-                "SAFE_4_PERCENT",
-                withdrawalRate,
-                corpusReturnRate,
-                baseRetirementMonthlyRent,
-                allInsurance
-        ));
-        requiredByStrategy.put("SIMPLE_DEPLETION", findRequiredCorpusForStrategy(
-                yearlyExpenseAtRetirement,
-                inflationRate,
-                retirementYears,
-                retirementYearCalendar,
-                goalsByYear,
-                "SIMPLE_DEPLETION",
-                withdrawalRate,
-                corpusReturnRate,
-                baseRetirementMonthlyRent,
-                allInsurance
-        ));
-
-        return requiredByStrategy;
-    }
-
-    private double findRequiredCorpusForStrategy(
-            double yearlyExpenseAtRetirement,
-            double inflationRate,
-            int retirementYears,
-            int retirementYearCalendar,
-            Map<Integer, Double> goalsByYear,
-            String incomeStrategy,
-            double withdrawalRate,
-            double corpusReturnRate,
-            double baseRetirementMonthlyRent,
-            List<Insurance> allInsurance) {
-
-        double low = 0;
-        double high = Math.max(1, yearlyExpenseAtRetirement * 100);
-        int safeIterations = 0;
-        while (!simulateRetirementFeasibility(
-                high,
-                yearlyExpenseAtRetirement,
-                inflationRate,
-                retirementYears,
-                retirementYearCalendar,
-                goalsByYear,
-                incomeStrategy,
-                withdrawalRate,
-                corpusReturnRate,
-                baseRetirementMonthlyRent,
-                allInsurance
-        ) && safeIterations < 30) {
-            high *= 2;
-            safeIterations += 1;
-        }
-
-        for (int i = 0; i < 32; i++) {
-            double mid = (low + high) / 2;
-            boolean ok = simulateRetirementFeasibility(
-                    mid,
-                    yearlyExpenseAtRetirement,
-                    inflationRate,
-                    retirementYears,
-                    retirementYearCalendar,
-                    goalsByYear,
-                    incomeStrategy,
-                    withdrawalRate,
-                    corpusReturnRate,
-                    baseRetirementMonthlyRent,
-                    allInsurance
-            );
-            if (ok) {
-                high = mid;
-            } else {
-                low = mid;
-            }
-        }
-
-        return high;
-    }
-
-    private boolean simulateRetirementFeasibility(
-            double startingCorpus,
-            double yearlyExpenseAtRetirement,
-            double inflationRate,
-            int retirementYears,
-            int retirementYearCalendar,
-            Map<Integer, Double> goalsByYear,
-            String incomeStrategy,
-            double withdrawalRate,
-            double corpusReturnRate,
-            double baseRetirementMonthlyRent,
-            List<Insurance> allInsurance) {
-
-        double corpus = startingCorpus;
-        double actualWithdrawalRate = withdrawalRate / 100;
-        double actualCorpusReturn = corpusReturnRate / 100;
-
-        for (int year = 0; year < Math.max(0, retirementYears); year++) {
-            double yearlyExpense = yearlyExpenseAtRetirement * Math.pow(1 + inflationRate / 100, year);
-            double goalOutflow = goalsByYear.getOrDefault(retirementYearCalendar + year, 0.0);
-            double annuityMonthlyIncome = getAnnuityMonthlyIncomeForYear(allInsurance, retirementYearCalendar + year);
-            double monthlyRent = baseRetirementMonthlyRent * Math.pow(1 + (5.0 / 100), year);
-
-            double yearlyIncomeFromCorpus;
-            switch (incomeStrategy) {
-                case "SIMPLE_DEPLETION":
-                    int remainingYears = Math.max(1, retirementYears - year);
-                    yearlyIncomeFromCorpus = corpus / remainingYears;
-                    break;
-                case "SAFE_4_PERCENT":
-                    yearlyIncomeFromCorpus = startingCorpus * 0.04 * Math.pow(1 + inflationRate / 100, year);
-                    break;
-                case "SUSTAINABLE":
-                default:
-                    yearlyIncomeFromCorpus = corpus * actualWithdrawalRate;
-                    break;
-            }
-
-            double yearlyIncome = yearlyIncomeFromCorpus + (annuityMonthlyIncome * 12) + (monthlyRent * 12);
-            if (yearlyIncome + 0.01 < (yearlyExpense + goalOutflow)) {
-                return false;
-            }
-
-            switch (incomeStrategy) {
-                case "SIMPLE_DEPLETION":
-                    corpus = Math.max(0, corpus - yearlyIncomeFromCorpus);
-                    break;
-                case "SAFE_4_PERCENT":
-                    corpus = Math.max(0, corpus * (1 + actualCorpusReturn) - yearlyIncomeFromCorpus);
-                    break;
-                case "SUSTAINABLE":
-                default:
-                    corpus = Math.max(0, corpus * (1 + actualCorpusReturn) - yearlyIncomeFromCorpus);
-                    break;
-            }
-        }
-
-        return true;
-    }
-    
-    /**
-     * Determine if an insurance policy's premium continues after retirement.
-     * 
-     * Rules:
-     * - TERM_LIFE: Continues if explicitly marked or until premiumEndAge/coverageEndAge
-     * - HEALTH (PERSONAL, FAMILY_FLOATER): Continues after retirement
-     * - HEALTH (GROUP): Does NOT continue (employer-provided, ends at retirement)
-     * - ULIP, ENDOWMENT, MONEY_BACK: Does NOT continue (has maturity)
-     * - VEHICLE: Does NOT continue (not a life-long expense)
-     * - If continuesAfterRetirement is explicitly set, use that value
-     */
-    private boolean shouldContinueAfterRetirement(Insurance policy) {
-        // If explicitly set, use that value
-        if (policy.getContinuesAfterRetirement() != null) {
-            return policy.getContinuesAfterRetirement();
-        }
-        
-        Insurance.InsuranceType type = policy.getType();
-        if (type == null) {
-            return false;
-        }
-        
-        switch (type) {
-            case TERM_LIFE:
-                // Term life insurance typically continues until coverage end age (e.g., 65-85)
-                // Assume it continues unless maturity date is set and passed
-                return true;
-                
-            case HEALTH:
-                // Health insurance: GROUP ends at retirement, PERSONAL/FAMILY_FLOATER continues
-                Insurance.HealthInsuranceType healthType = policy.getHealthType();
-                if (healthType == Insurance.HealthInsuranceType.GROUP) {
-                    return false; // Employer-provided, ends at retirement
-                }
-                // PERSONAL and FAMILY_FLOATER continue after retirement
-                return true;
-                
-            case ULIP:
-            case ENDOWMENT:
-            case MONEY_BACK:
-                // Investment-linked policies have maturity dates, don't continue
-                return false;
-                
-            case VEHICLE:
-            case OTHER:
-            default:
-                return false;
-        }
-    }
-
     /**
      * Calculate investments and insurance policies maturing before retirement.
      * These become available for reinvestment and should be tracked separately.
      */
     public Map<String, Object> calculateMaturingBeforeRetirement(String userId, int currentAge, int retirementAge) {
+        return calculateMaturingBeforeRetirement(
+                investmentRepository.findByUserId(userId),
+                insuranceRepository.findByUserId(userId),
+                currentAge, retirementAge);
+    }
+
+    private Map<String, Object> calculateMaturingBeforeRetirement(
+            List<Investment> investments, List<Insurance> insurances, int currentAge, int retirementAge) {
         Map<String, Object> result = new LinkedHashMap<>();
         List<Map<String, Object>> maturingInvestments = new ArrayList<>();
         List<Map<String, Object>> maturingInsurance = new ArrayList<>();
@@ -1457,7 +1070,6 @@ public class RetirementService {
         double totalMaturingAmount = 0;
         
         // Check investments with maturity dates (FD, RD, PPF)
-        List<Investment> investments = investmentRepository.findByUserId(userId);
         for (Investment inv : investments) {
             if (inv.getType() == Investment.InvestmentType.FD && Boolean.TRUE.equals(inv.getIsEmergencyFund())) {
                 continue;
@@ -1474,7 +1086,7 @@ public class RetirementService {
                 item.put("yearsToMaturity", java.time.temporal.ChronoUnit.YEARS.between(today, inv.getMaturityDate()));
                 
                 // Calculate expected maturity value
-                double maturityValue = calculateExpectedMaturityValue(inv);
+                double maturityValue = projectionEngine().expectedMaturityValue(inv);
                 item.put("expectedMaturityValue", Math.round(maturityValue));
                 item.put("currentValue", inv.getCurrentValue() != null ? Math.round(inv.getCurrentValue()) : 0);
                 
@@ -1484,7 +1096,6 @@ public class RetirementService {
         }
         
         // Check insurance policies with maturity (ULIP, Endowment, Money Back)
-        List<Insurance> insurances = insuranceRepository.findByUserId(userId);
         for (Insurance ins : insurances) {
             Insurance.InsuranceType type = ins.getType();
             boolean hasMaturity = type == Insurance.InsuranceType.ULIP || 
@@ -1565,78 +1176,6 @@ public class RetirementService {
         return monthlySIP * ((Math.pow(1 + monthlyRate, months) - 1) / monthlyRate) * (1 + monthlyRate);
     }
 
-    private double getAnnuityMonthlyIncomeForYear(List<Insurance> policies, int calendarYear) {
-        if (policies == null || policies.isEmpty()) return 0;
-        double total = 0;
-        for (Insurance policy : policies) {
-            boolean isAnnuity = policy.getType() == Insurance.InsuranceType.ANNUITY || Boolean.TRUE.equals(policy.getIsAnnuityPolicy());
-            if (!isAnnuity || policy.getMonthlyAnnuityAmount() == null || policy.getMonthlyAnnuityAmount() <= 0) {
-                continue;
-            }
-            if (policy.getStartDate() == null) continue;
-            int startYear = policy.getStartDate().getYear() + (policy.getAnnuityStartYear() != null ? policy.getAnnuityStartYear() : 0);
-            if (calendarYear < startYear) continue;
-            double growthRate = policy.getAnnuityGrowthRate() != null ? policy.getAnnuityGrowthRate() : 0;
-            int yearsElapsed = Math.max(0, calendarYear - startYear);
-            double amount = policy.getMonthlyAnnuityAmount() * Math.pow(1 + (growthRate / 100), yearsElapsed);
-            total += amount;
-        }
-        return total;
-    }
-    
-    /**
-     * Calculate expected maturity value for an investment based on its type.
-     */
-    private double calculateExpectedMaturityValue(Investment inv) {
-        LocalDate today = LocalDate.now();
-        
-        if (inv.getMaturityDate() == null) {
-            return inv.getCurrentValue() != null ? inv.getCurrentValue() : 0;
-        }
-        
-        long yearsToMaturity = java.time.temporal.ChronoUnit.YEARS.between(today, inv.getMaturityDate());
-        if (yearsToMaturity <= 0) {
-            return inv.getCurrentValue() != null ? inv.getCurrentValue() : 0;
-        }
-        
-        double currentValue = inv.getCurrentValue() != null ? inv.getCurrentValue() : 
-                             (inv.getInvestedAmount() != null ? inv.getInvestedAmount() : 0);
-        
-        Investment.InvestmentType type = inv.getType();
-        
-        if (type == Investment.InvestmentType.FD) {
-            // FD: compound at interest rate
-            double rate = inv.getInterestRate() != null ? inv.getInterestRate() : 7.0;
-            return calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
-            
-        } else if (type == Investment.InvestmentType.RD) {
-            // RD: current value + future SIP contributions
-            double rate = inv.getInterestRate() != null ? inv.getInterestRate() : 6.5;
-            double currentGrowth = calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
-            double sipGrowth = 0;
-            if (inv.getMonthlySip() != null && inv.getMonthlySip() > 0) {
-                sipGrowth = calculationService.calculateSIPFutureValue(inv.getMonthlySip(), rate, (int) yearsToMaturity);
-            }
-            return currentGrowth + sipGrowth;
-            
-        } else if (type == Investment.InvestmentType.PPF) {
-            // PPF: current value + yearly contributions
-            double rate = inv.getExpectedReturn() != null ? inv.getExpectedReturn() : defaultPpfReturn;
-            double currentGrowth = calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
-            double yearlyGrowth = 0;
-            if (inv.getYearlyContribution() != null && inv.getYearlyContribution() > 0) {
-                // Convert yearly to monthly for SIP calculation, then multiply
-                double monthlyEquivalent = inv.getYearlyContribution() / 12;
-                yearlyGrowth = calculationService.calculateSIPFutureValue(monthlyEquivalent, rate, (int) yearsToMaturity);
-            }
-            return currentGrowth + yearlyGrowth;
-        }
-        
-        // Default: assume current value grows at expected return
-        double rate = inv.getExpectedReturn() != null ? inv.getExpectedReturn() : 7.0;
-        return calculationService.calculateFutureValue(currentValue, rate, (int) yearsToMaturity);
-    }
-
     /**
      * Generate withdrawal strategy recommendations for retirement.
      * Provides optimal order of fund withdrawal to maximize tax efficiency and corpus longevity.
@@ -1,25 +1,72 @@
 package com.retyrment.service;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.retyrment.model.User;
-import com.retyrment.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.retyrment.security.UserPrincipalCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Service to handle automatic role expiry and reversion.
  * Runs periodically to check for expired temporary roles and revert them to original roles.
+ *
+ * Candidates come from a range query on the roleExpiryDate index, streamed through a cursor,
+ * so a run costs in proportion to the number of expired roles rather than the number of users.
+ * Reverts are applied in unordered bulk updates. Each update only matches while the user still
+ * has the role and expiry date that were read, so a concurrent admin change wins and the user
+ * is counted as a conflict instead of being overwritten.
+ *
+ * Runs hold the {@value #JOB} lease from JobLeaseService, so one instance of the cluster does
+ * the work per tick, and a run that loses its lease stops before its next batch.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RoleExpiryService {
 
-    private final UserRepository userRepository;
+    static final String JOB = "role-expiry";
+    static final String REVERT_REASON = "Auto-reverted: Previous role expired";
+    private static final Duration LEASE_TTL = Duration.ofMinutes(15);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserPrincipalCache userPrincipalCache;
+    private final JobLeaseService jobLeaseService;
+    private final int batchSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunMillis;
+
+    public RoleExpiryService(MongoTemplate mongoTemplate,
+                             UserPrincipalCache userPrincipalCache,
+                             JobLeaseService jobLeaseService,
+                             @Value("${app.roles.expiry.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.userPrincipalCache = userPrincipalCache;
+        this.jobLeaseService = jobLeaseService;
+        this.batchSize = Math.max(batchSize, 1);
+    }
 
     /**
      * Check for expired roles every hour and revert them to original roles.
@@ -27,21 +74,13 @@ public class RoleExpiryService {
      */
     @Scheduled(cron = "0 0 * * * *") // Every hour at minute 0
     public void checkAndRevertExpiredRoles() {
-        log.info("Checking for expired user roles...");
-        
-        LocalDateTime now = LocalDateTime.now();
-        List<User> usersWithExpiredRoles = findUsersWithExpiredRoles(now);
-        
-        int revertedCount = 0;
-        for (User user : usersWithExpiredRoles) {
-            try {
-                revertUserRole(user, now);
-                revertedCount++;
-            } catch (RuntimeException e) {
-                log.error("Failed to revert role for user {}: {}", user.getEmail(), e.getMessage());
-            }
+        Optional<Integer> result = jobLeaseService.runScheduled(JOB, LEASE_TTL, this::revertExpiredRoles);
+        if (result.isEmpty()) {
+            log.debug("Role expiry check is running on another instance");
+            return;
         }
-        
+
+        int revertedCount = result.get();
         if (revertedCount > 0) {
             log.info("Reverted {} expired user roles", revertedCount);
         } else {
@@ -50,77 +89,126 @@ public class RoleExpiryService {
     }
 
     /**
-     * Find all users whose temporary role has expired.
-     *
-     * @param now Current date and time for comparison
-     * @return List of users with expired roles
+     * Manually trigger role expiry check (for admin use).
+     * Returns the number of roles reverted, or 0 if the lease is held: a run is in progress
+     * elsewhere, or the hourly run finished less than the lease TTL ago.
      */
-    private List<User> findUsersWithExpiredRoles(final LocalDateTime now) {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getRoleExpiryDate() != null)
-                .filter(user -> user.getRoleExpiryDate().isBefore(now))
-                .filter(user -> user.getOriginalRole() != null)
-                .toList();
+    public int forceCheckExpiredRoles() {
+        log.info("Force checking expired roles...");
+        return jobLeaseService.runExclusively(JOB, LEASE_TTL, this::revertExpiredRoles).orElse(0);
     }
 
     /**
-     * Revert a user's role to their original role after expiry.
+     * Get count of users with expiring roles in the next N days.
      *
-     * @param user User whose role should be reverted
-     * @param now Current date and time for timestamp
+     * @param withinDays Number of days to look ahead
+     * @return Count of users with roles expiring within the specified days
      */
-    private void revertUserRole(final User user, final LocalDateTime now) {
-        User.UserRole expiredRole = user.getRole();
-        User.UserRole originalRole = user.getOriginalRole();
-        
-        log.info("Reverting user {} from {} to {} (role expired)", 
-                user.getEmail(), expiredRole, originalRole);
-        
-        user.setRole(originalRole);
-        user.setOriginalRole(null);
-        user.setRoleExpiryDate(null);
-        user.setRoleChangeReason("Auto-reverted: Previous role expired");
-        user.setRoleChangedAt(now);
-        user.setRoleChangedBy("SYSTEM");
-        
-        userRepository.save(user);
+    public long countExpiringRoles(final int withinDays) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("roleExpiryDate").gt(now).lt(now.plusDays(withinDays)));
+        return mongoTemplate.count(query, User.class);
     }
 
     /**
-     * Manually trigger role expiry check (for admin use).
-     * Returns the number of roles reverted.
+     * Totals since startup and timing of the last run.
      */
-    public int forceCheckExpiredRoles() {
-        log.info("Force checking expired roles...");
-        
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("runs", runs.get());
+        stats.put("processed", processed.get());
+        stats.put("conflicts", conflicts.get());
+        stats.put("failed", failed.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("batchSize", batchSize);
+        return stats;
+    }
+
+    /**
+     * Users whose temporary role has expired and who have a role to go back to.
+     */
+    static Query expiredRolesQuery(final LocalDateTime now) {
+        return Query.query(Criteria.where("roleExpiryDate").lt(now).and("originalRole").ne(null));
+    }
+
+    private int revertExpiredRoles(final JobLeaseService.Lease lease) {
+        log.info("Checking for expired user roles...");
+        long started = System.nanoTime();
         LocalDateTime now = LocalDateTime.now();
-        List<User> usersWithExpiredRoles = findUsersWithExpiredRoles(now);
-        
-        int revertedCount = 0;
-        for (User user : usersWithExpiredRoles) {
-            try {
-                revertUserRole(user, now);
-                revertedCount++;
-            } catch (RuntimeException e) {
-                log.error("Failed to revert role for user {}: {}", user.getEmail(), e.getMessage());
+        int reverted = 0;
+
+        Query query = expiredRolesQuery(now);
+        query.fields().include("email", "role", "originalRole", "roleExpiryDate");
+        query.cursorBatchSize(batchSize);
+
+        try (Stream<User> candidates = mongoTemplate.stream(query, User.class)) {
+            List<User> batch = new ArrayList<>(batchSize);
+            for (User user : (Iterable<User>) candidates::iterator) {
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    if (!jobLeaseService.isHeld(lease)) {
+                        return reverted;
+                    }
+                    reverted += revertBatch(batch, now);
+                    batch.clear();
+                }
             }
+            if (!batch.isEmpty() && jobLeaseService.isHeld(lease)) {
+                reverted += revertBatch(batch, now);
+            }
+        } catch (DataAccessException e) {
+            log.error("Role expiry run stopped early: {}", e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = now;
+            lastRunMillis = (System.nanoTime() - started) / 1_000_000;
         }
-        
-        return revertedCount;
+        return reverted;
     }
 
     /**
-     * Get count of users with expiring roles in the next N days.
+     * Revert one batch of users in a single bulk write.
      *
-     * @param withinDays Number of days to look ahead
-     * @return Count of users with roles expiring within the specified days
+     * @return the number of users whose role was reverted
      */
-    public long countExpiringRoles(final int withinDays) {
-        LocalDateTime deadline = LocalDateTime.now().plusDays(withinDays);
-        return userRepository.findAll().stream()
-                .filter(user -> user.getRoleExpiryDate() != null)
-                .filter(user -> user.getRoleExpiryDate().isBefore(deadline))
-                .filter(user -> user.getRoleExpiryDate().isAfter(LocalDateTime.now()))
-                .count();
+    private int revertBatch(final List<User> users, final LocalDateTime now) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (User user : users) {
+            log.info("Reverting user {} from {} to {} (role expired)",
+                    user.getEmail(), user.getRole(), user.getOriginalRole());
+            Query unchanged = Query.query(Criteria.where("_id").is(user.getId())
+                    .and("role").is(user.getRole())
+                    .and("roleExpiryDate").is(user.getRoleExpiryDate()));
+            Update revert = new Update()
+                    .set("role", user.getOriginalRole())
+                    .unset("originalRole")
+                    .unset("roleExpiryDate")
+                    .set("roleChangeReason", REVERT_REASON)
+                    .set("roleChangedAt", now)
+                    .set("roleChangedBy", "SYSTEM");
+            bulk.updateOne(unchanged, revert);
+        }
+
+        int reverted;
+        int batchFailures = 0;
+        try {
+            reverted = bulk.execute().getModifiedCount();
+        } catch (BulkOperationException e) {
+            BulkWriteResult partial = e.getResult();
+            reverted = partial == null ? 0 : partial.getModifiedCount();
+            batchFailures = e.getErrors().size();
+            log.error("Failed to revert {} of {} expired roles: {}", batchFailures, users.size(), e.getMessage());
+        } catch (DataAccessException e) {
+            reverted = 0;
+            batchFailures = users.size();
+            log.error("Failed to revert a batch of {} expired roles: {}", users.size(), e.getMessage());
+        }
+
+        users.forEach(userPrincipalCache::evict);
+        processed.addAndGet(reverted);
+        failed.addAndGet(batchFailures);
+        conflicts.addAndGet(users.size() - reverted - batchFailures);
+        return reverted;
     }
 }
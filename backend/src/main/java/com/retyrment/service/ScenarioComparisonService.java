@@ -0,0 +1,122 @@
+package com.retyrment.service;
+
+import com.retyrment.exception.ResourceNotFoundException;
+import com.retyrment.model.RetirementScenario;
+import com.retyrment.repository.RetirementScenarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Evaluates several retirement scenarios side by side for one user.
+ *
+ * The user's data is loaded once into a {@link UserFinancialSnapshot}, which is read-only and
+ * shared by all scenarios, and the projections then run concurrently on a bounded worker pool.
+ * Comparing a handful of scenarios therefore costs about one load plus the slowest projection.
+ * When the pool and its queue are full, the request thread runs the projection itself.
+ */
+@Slf4j
+@Service
+public class ScenarioComparisonService {
+
+    private final RetirementService retirementService;
+    private final RetirementScenarioRepository scenarioRepository;
+    private final ExecutorService executor;
+    private final int maxScenarios;
+
+    @Autowired
+    public ScenarioComparisonService(RetirementService retirementService,
+                                     RetirementScenarioRepository scenarioRepository,
+                                     WorkerPools workerPools,
+                                     @Value("${app.retirement.compare.workers:4}") int workers,
+                                     @Value("${app.retirement.compare.queue-capacity:100}") int queueCapacity,
+                                     @Value("${app.retirement.compare.max-scenarios:10}") int maxScenarios) {
+        this(retirementService, scenarioRepository,
+                workerPools.callerRuns("scenario-worker", workers, queueCapacity), maxScenarios);
+    }
+
+    ScenarioComparisonService(RetirementService retirementService, RetirementScenarioRepository scenarioRepository,
+                              ExecutorService executor, int maxScenarios) {
+        this.retirementService = retirementService;
+        this.scenarioRepository = scenarioRepository;
+        this.executor = executor;
+        this.maxScenarios = maxScenarios;
+    }
+
+    /**
+     * Compare saved scenarios, by ID, followed by unsaved ones, in that order.
+     *
+     * @return {@code scenarios}, one summary per scenario in request order (a scenario whose
+     *         projection fails has only its name and an {@code error}), and {@code count}
+     */
+    public Map<String, Object> compare(String userId, List<String> scenarioIds, List<RetirementScenario> scenarios) {
+        List<String> ids = scenarioIds != null ? scenarioIds : List.of();
+        List<RetirementScenario> unsaved = scenarios != null
+                ? scenarios.stream().filter(Objects::nonNull).toList() : List.of();
+        int count = ids.size() + unsaved.size();
+        if (count == 0 || count > maxScenarios) {
+            throw new IllegalArgumentException("Between 1 and " + maxScenarios + " scenarios can be compared");
+        }
+
+        List<RetirementScenario> requested = new ArrayList<>(count);
+        if (!ids.isEmpty()) {
+            requested.addAll(loadOwnScenarios(userId, ids));
+        }
+        requested.addAll(unsaved);
+
+        UserFinancialSnapshot snapshot = retirementService.loadSnapshot(userId);
+        List<CompletableFuture<Map<String, Object>>> summaries = new ArrayList<>(requested.size());
+        for (RetirementScenario scenario : requested) {
+            RetirementScenario resolved = retirementService.resolveScenario(userId, scenario);
+            summaries.add(CompletableFuture.supplyAsync(
+                    () -> retirementService.summarizeScenario(snapshot, resolved), executor));
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(requested.size());
+        for (int i = 0; i < summaries.size(); i++) {
+            try {
+                results.add(summaries.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                RetirementScenario scenario = requested.get(i);
+                log.error("Scenario comparison failed for user {} scenario {}: {}",
+                        userId, scenario.getName(), cause.getMessage(), cause);
+                Map<String, Object> failed = new LinkedHashMap<>();
+                failed.put("scenarioId", scenario.getId());
+                failed.put("scenario", scenario.getName() != null ? scenario.getName() : "Default");
+                failed.put("error", cause.getMessage());
+                results.add(failed);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scenarios", results);
+        result.put("count", results.size());
+        return result;
+    }
+
+    /**
+     * The scenarios in ID order. Scenarios saved without an owner are shared and may be compared
+     * by anyone; another user's scenario is reported as not found.
+     */
+    private List<RetirementScenario> loadOwnScenarios(String userId, List<String> scenarioIds) {
+        Map<String, RetirementScenario> byId = new HashMap<>();
+        scenarioRepository.findAllById(new LinkedHashSet<>(scenarioIds)).forEach(s -> byId.put(s.getId(), s));
+
+        List<RetirementScenario> scenarios = new ArrayList<>(scenarioIds.size());
+        for (String id : scenarioIds) {
+            RetirementScenario scenario = byId.get(id);
+            if (scenario == null || (scenario.getUserId() != null && !scenario.getUserId().equals(userId))) {
+                throw new ResourceNotFoundException("Retirement scenario", id);
+            }
+            scenarios.add(scenario);
+        }
+        return scenarios;
+    }
+}
@@ -0,0 +1,248 @@
+package com.retyrment.service;
+
+import com.retyrment.model.RetirementScenario;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Sweeps retirement age × MF return × inflation × SIP step-up around a scenario and reports
+ * final corpus, required corpus and gap for every cell, plus a tornado of one-at-a-time swings.
+ *
+ * Nothing before retirement depends on the retirement age: row y of a projection is exactly
+ * what a projection for retiring y years from now reports at retirement. So each combination
+ * of the three market assumptions is projected once, to the oldest retirement age on the grid,
+ * and every retirement age is read from its row. A 10×10×5×5 grid is 250 projections rather
+ * than 2,500. The combinations are independent and run in parallel over one shared snapshot.
+ *
+ * The required corpus is the matrix's value for the scenario's income strategy, and the gap
+ * is required minus final corpus, so a positive gap is a shortfall.
+ */
+final class SensitivityGrid {
+
+    static final String RETIREMENT_AGE = "retirementAge";
+    static final String MF_RETURN = "mfReturn";
+    static final String INFLATION = "inflation";
+    static final String SIP_STEP_UP = "sipStepUp";
+
+    static final int MAX_AXIS_VALUES = 50;
+    static final int MAX_CELLS = 10_000;
+
+    private final ProjectionEngine engine;
+    private final UserFinancialSnapshot snapshot;
+    private final RetirementScenario base;
+    private final int currentYear;
+
+    /**
+     * @param base a scenario with its age and inflation fields resolved
+     */
+    SensitivityGrid(ProjectionEngine engine, UserFinancialSnapshot snapshot, RetirementScenario base, int currentYear) {
+        this.engine = engine;
+        this.snapshot = snapshot;
+        this.base = base;
+        this.currentYear = currentYear;
+    }
+
+    /**
+     * Evaluate the grid. An axis left null or empty defaults to values around the scenario's own:
+     * retirement age −4 to +5 years, MF return −5 to +4 points, inflation ±2 points and SIP
+     * step-up ±10 points in steps of 5, never below zero.
+     */
+    Map<String, Object> evaluate(List<Integer> retirementAges, List<Double> mfReturns,
+                                 List<Double> inflationRates, List<Double> sipStepUps) {
+        int baseAge = base.getRetirementAge();
+        int[] ages = retirementAges(retirementAges, base.getCurrentAge(), baseAge, base.getLifeExpectancy());
+        int oldestAge = ages[ages.length - 1];
+
+        RetirementProjection baseline = engine.project(snapshot, withAssumptions(
+                Math.max(baseAge, oldestAge), null, null, null), currentYear);
+        int strategy = RequiredCorpusSolver.strategyIndex(baseline.incomeStrategy);
+        double baseMf = baseline.mfReturn;
+        double baseInflation = baseline.inflation;
+        double baseStepUp = baseline.sipStepUp;
+
+        double[] mf = axis(MF_RETURN, mfReturns, around(baseMf, -5, 4, 1));
+        double[] inflation = axis(INFLATION, inflationRates, around(baseInflation, -2, 2, 1));
+        double[] stepUp = axis(SIP_STEP_UP, sipStepUps, around(baseStepUp, -2, 2, 5));
+        long cellCount = (long) ages.length * mf.length * inflation.length * stepUp.length;
+        if (cellCount > MAX_CELLS) {
+            throw new IllegalArgumentException("A sensitivity grid can have at most " + MAX_CELLS + " cells");
+        }
+
+        // One projection per market combination; each retirement age is a row of it
+        int combinations = mf.length * inflation.length * stepUp.length;
+        double[][] finalCorpus = new double[combinations][];
+        double[][] requiredCorpus = new double[combinations][];
+        IntStream.range(0, combinations).parallel().forEach(c -> {
+            int m = c / (inflation.length * stepUp.length);
+            int i = (c / stepUp.length) % inflation.length;
+            int s = c % stepUp.length;
+            RetirementProjection p = engine.project(snapshot,
+                    withAssumptions(oldestAge, mf[m], inflation[i], stepUp[s]), currentYear);
+            finalCorpus[c] = new double[ages.length];
+            requiredCorpus[c] = new double[ages.length];
+            for (int a = 0; a < ages.length; a++) {
+                int row = ages[a] - p.currentAge;
+                finalCorpus[c][a] = Math.round(p.netCorpus[row]);
+                requiredCorpus[c][a] = p.requiredCorpus[strategy][row];
+            }
+        });
+
+        List<Map<String, Object>> cells = new ArrayList<>((int) cellCount);
+        for (int c = 0; c < combinations; c++) {
+            int m = c / (inflation.length * stepUp.length);
+            int i = (c / stepUp.length) % inflation.length;
+            int s = c % stepUp.length;
+            for (int a = 0; a < ages.length; a++) {
+                Map<String, Object> cell = new LinkedHashMap<>();
+                cell.put(RETIREMENT_AGE, ages[a]);
+                cell.put(MF_RETURN, mf[m]);
+                cell.put(INFLATION, inflation[i]);
+                cell.put(SIP_STEP_UP, stepUp[s]);
+                putOutcome(cell, finalCorpus[c][a], requiredCorpus[c][a]);
+                cells.add(cell);
+            }
+        }
+
+        int baseRow = baseAge - baseline.currentAge;
+        double baseFinal = Math.round(baseline.netCorpus[baseRow]);
+        double baseRequired = baseline.requiredCorpus[strategy][baseRow];
+        Map<String, Object> baselineCell = new LinkedHashMap<>();
+        baselineCell.put(RETIREMENT_AGE, baseAge);
+        baselineCell.put(MF_RETURN, baseMf);
+        baselineCell.put(INFLATION, baseInflation);
+        baselineCell.put(SIP_STEP_UP, baseStepUp);
+        putOutcome(baselineCell, baseFinal, baseRequired);
+
+        int lowRow = ages[0] - baseline.currentAge;
+        int highRow = oldestAge - baseline.currentAge;
+        List<Map<String, Object>> tornado = new ArrayList<>(4);
+        tornado.add(bar(RETIREMENT_AGE, ages[0], oldestAge, baseFinal, baseRequired,
+                new double[]{Math.round(baseline.netCorpus[lowRow]), baseline.requiredCorpus[strategy][lowRow]},
+                new double[]{Math.round(baseline.netCorpus[highRow]), baseline.requiredCorpus[strategy][highRow]}));
+        tornado.add(bar(MF_RETURN, mf[0], mf[mf.length - 1], baseFinal, baseRequired,
+                atBaseAge(baseAge, mf[0], baseInflation, baseStepUp, strategy),
+                atBaseAge(baseAge, mf[mf.length - 1], baseInflation, baseStepUp, strategy)));
+        tornado.add(bar(INFLATION, inflation[0], inflation[inflation.length - 1], baseFinal, baseRequired,
+                atBaseAge(baseAge, baseMf, inflation[0], baseStepUp, strategy),
+                atBaseAge(baseAge, baseMf, inflation[inflation.length - 1], baseStepUp, strategy)));
+        tornado.add(bar(SIP_STEP_UP, stepUp[0], stepUp[stepUp.length - 1], baseFinal, baseRequired,
+                atBaseAge(baseAge, baseMf, baseInflation, stepUp[0], strategy),
+                atBaseAge(baseAge, baseMf, baseInflation, stepUp[stepUp.length - 1], strategy)));
+        tornado.sort(Comparator.comparingLong((Map<String, Object> b) -> (Long) b.get("swing")).reversed());
+
+        Map<String, Object> axes = new LinkedHashMap<>();
+        axes.put(RETIREMENT_AGE, ages);
+        axes.put(MF_RETURN, mf);
+        axes.put(INFLATION, inflation);
+        axes.put(SIP_STEP_UP, stepUp);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("incomeStrategy", RequiredCorpusSolver.STRATEGIES[strategy]);
+        result.put("baseline", baselineCell);
+        result.put("axes", axes);
+        result.put("cells", cells);
+        result.put("tornado", tornado);
+        result.put("projectionsRun", combinations + 7);
+        return result;
+    }
+
+    /**
+     * Final and required corpus at the base retirement age with one assumption moved.
+     */
+    private double[] atBaseAge(int baseAge, double mfReturn, double inflation, double sipStepUp, int strategy) {
+        RetirementProjection p = engine.project(snapshot, withAssumptions(baseAge, mfReturn, inflation, sipStepUp),
+                currentYear);
+        int row = p.yearsToRetirement;
+        return new double[]{Math.round(p.netCorpus[row]), p.requiredCorpus[strategy][row]};
+    }
+
+    private RetirementScenario withAssumptions(int retirementAge, Double mfReturn, Double inflation, Double sipStepUp) {
+        RetirementScenario.RetirementScenarioBuilder scenario = base.toBuilder().retirementAge(retirementAge);
+        if (mfReturn != null) {
+            scenario.mfReturn(mfReturn);
+        }
+        if (inflation != null) {
+            // The engine reads the alias first
+            scenario.inflation(inflation).inflationRate(inflation);
+        }
+        if (sipStepUp != null) {
+            scenario.sipStepup(sipStepUp).sipStepUpPercent(sipStepUp);
+        }
+        return scenario.build();
+    }
+
+    private static Map<String, Object> bar(String variable, double low, double high, double baseFinal,
+                                           double baseRequired, double[] atLow, double[] atHigh) {
+        long gapAtLow = Math.round(atLow[1] - atLow[0]);
+        long gapAtHigh = Math.round(atHigh[1] - atHigh[0]);
+        Map<String, Object> bar = new LinkedHashMap<>();
+        bar.put("variable", variable);
+        bar.put("low", low);
+        bar.put("high", high);
+        bar.put("finalCorpusAtLow", Math.round(atLow[0]));
+        bar.put("finalCorpusAtHigh", Math.round(atHigh[0]));
+        bar.put("gapAtLow", gapAtLow);
+        bar.put("gapAtHigh", gapAtHigh);
+        bar.put("gapDeltaAtLow", gapAtLow - Math.round(baseRequired - baseFinal));
+        bar.put("gapDeltaAtHigh", gapAtHigh - Math.round(baseRequired - baseFinal));
+        bar.put("swing", Math.abs(gapAtHigh - gapAtLow));
+        return bar;
+    }
+
+    private static void putOutcome(Map<String, Object> cell, double finalCorpus, double requiredCorpus) {
+        cell.put("finalCorpus", Math.round(finalCorpus));
+        cell.put("requiredCorpus", Math.round(requiredCorpus));
+        cell.put("gap", Math.round(requiredCorpus - finalCorpus));
+    }
+
+
+    private static int[] retirementAges(List<Integer> requested, int currentAge, int baseAge, int lifeExpectancy) {
+        int[] ages;
+        if (requested == null || requested.isEmpty()) {
+            ages = IntStream.rangeClosed(Math.max(currentAge, baseAge - 4), Math.min(lifeExpectancy, baseAge + 5))
+                    .toArray();
+            if (ages.length == 0) {
+                ages = new int[]{baseAge};
+            }
+        } else {
+            ages = requested.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).sorted().distinct().toArray();
+            for (int age : ages) {
+                if (age < currentAge || age > lifeExpectancy) {
+                    throw new IllegalArgumentException(
+                            "Retirement ages must be between " + currentAge + " and " + lifeExpectancy);
+                }
+            }
+        }
+        if (ages.length == 0 || ages.length > MAX_AXIS_VALUES) {
+            throw new IllegalArgumentException("Each axis must have between 1 and " + MAX_AXIS_VALUES + " values");
+        }
+        return ages;
+    }
+
+    private static double[] axis(String name, List<Double> requested, double[] defaults) {
+        if (requested == null || requested.isEmpty()) {
+            return defaults;
+        }
+        double[] values = requested.stream().filter(Objects::nonNull).mapToDouble(Double::doubleValue)
+                .sorted().distinct().toArray();
+        if (values.length == 0 || values.length > MAX_AXIS_VALUES) {
+            throw new IllegalArgumentException("Each axis must have between 1 and " + MAX_AXIS_VALUES + " values");
+        }
+        for (double value : values) {
+            if (!Double.isFinite(value) || value < -100) {
+                throw new IllegalArgumentException("Invalid " + name + " value: " + value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * {@code base + k·step} for k from {@code from} to {@code to}, dropping negative values.
+     */
+    private static double[] around(double base, int from, int to, double step) {
+        double[] values = IntStream.rangeClosed(from, to).mapToDouble(k -> base + k * step)
+                .filter(v -> v >= 0).toArray();
+        return values.length > 0 ? values : new double[]{base};
+    }
+}
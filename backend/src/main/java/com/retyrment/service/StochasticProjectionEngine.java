@@ -0,0 +1,298 @@
+package com.retyrment.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo version of the retirement projection. It replays the accumulation and
+ * withdrawal logic of {@link ProjectionEngine} with random yearly returns and inflation.
+ *
+ * The deterministic {@link RetirementProjection} supplies the mean path: per-year rates,
+ * the SIP schedule, maturities, goals, annuities, rent and the expense at retirement.
+ * Each year draws three correlated shocks:
+ * <ul>
+ *   <li>equity, added to the MF, NPS and stock rates</li>
+ *   <li>debt, added to the PPF, EPF and FD/RD/cash rates</li>
+ *   <li>inflation, which scales retirement expenses and the 4% withdrawal</li>
+ * </ul>
+ * With all volatilities at zero every path reproduces the deterministic projection.
+ *
+ * State is held as {@code double[]} per bucket over a block of paths and stepped one year
+ * at a time, so the inner loops run over contiguous path columns. Blocks run in parallel.
+ * Each block has its own {@link SplittableRandom}, split from the seed in block order, so
+ * a seed always gives the same result.
+ */
+final class StochasticProjectionEngine {
+
+    static final int BLOCK_SIZE = 256;
+
+    // Same tolerance RequiredCorpusSolver uses for the year-by-year feasibility check
+    private static final double TOLERANCE = 0.01;
+
+    /**
+     * Volatilities in percentage points of yearly return, and the pairwise correlations of the shocks.
+     */
+    record Assumptions(double equityVolatility, double debtVolatility, double inflationVolatility,
+                       double equityDebtCorrelation, double equityInflationCorrelation,
+                       double debtInflationCorrelation) {
+
+        static final Assumptions DEFAULT = new Assumptions(15.0, 1.5, 1.5, -0.2, -0.1, 0.5);
+    }
+
+    /**
+     * Net corpus per accumulation year and path, and how many paths each income strategy carried to life expectancy.
+     */
+    static final class Result {
+        final int paths;
+        final double[][] netCorpus;      // [year][path]
+        final int[] successfulPaths;     // [strategy index in RequiredCorpusSolver.STRATEGIES]
+
+        private Result(int paths, double[][] netCorpus, int[] successfulPaths) {
+            this.paths = paths;
+            this.netCorpus = netCorpus;
+            this.successfulPaths = successfulPaths;
+        }
+
+        double successProbability(int strategy) {
+            return (double) successfulPaths[strategy] / paths;
+        }
+    }
+
+    private final Assumptions assumptions;
+    // Lower-triangular Cholesky factor of the shock correlation matrix
+    private final double l21;
+    private final double l22;
+    private final double l31;
+    private final double l32;
+    private final double l33;
+
+    StochasticProjectionEngine(Assumptions assumptions) {
+        this.assumptions = assumptions;
+        double rhoEd = assumptions.equityDebtCorrelation();
+        double rhoEi = assumptions.equityInflationCorrelation();
+        double rhoDi = assumptions.debtInflationCorrelation();
+        l21 = rhoEd;
+        l22 = Math.sqrt(1 - rhoEd * rhoEd);
+        l31 = rhoEi;
+        l32 = l22 > 0 ? (rhoDi - rhoEd * rhoEi) / l22 : 0;
+        double l33Squared = 1 - l31 * l31 - l32 * l32;
+        if (!(l22 > 0) || l33Squared < 0) {
+            throw new IllegalArgumentException("Return correlations must form a positive definite matrix");
+        }
+        l33 = Math.sqrt(l33Squared);
+    }
+
+    Result simulate(RetirementProjection p, int paths, long seed) {
+        double[][] netCorpus = new double[p.rows()][paths];
+        int strategies = RequiredCorpusSolver.STRATEGIES.length;
+        int blocks = (paths + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[][] successByBlock = new int[blocks][strategies];
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            streams[b] = root.split();
+        }
+
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int from = b * BLOCK_SIZE;
+            int to = Math.min(paths, from + BLOCK_SIZE);
+            new Block(p, from, to, streams[b]).run(netCorpus, successByBlock[b]);
+        });
+
+        int[] successfulPaths = new int[strategies];
+        for (int[] blockSuccess : successByBlock) {
+            for (int s = 0; s < strategies; s++) {
+                successfulPaths[s] += blockSuccess[s];
+            }
+        }
+        return new Result(paths, netCorpus, successfulPaths);
+    }
+
+    /**
+     * Simulation state for one block of paths; one slot per path in every array.
+     */
+    private final class Block {
+        private final RetirementProjection p;
+        private final int from;
+        private final int size;
+        private final SplittableRandom random;
+
+        // Shocks for the current year, in percentage points
+        private final double[] equityShock;
+        private final double[] debtShock;
+        private final double[] inflation;
+
+        Block(RetirementProjection p, int from, int to, SplittableRandom random) {
+            this.p = p;
+            this.from = from;
+            this.size = to - from;
+            this.random = random;
+            this.equityShock = new double[size];
+            this.debtShock = new double[size];
+            this.inflation = new double[size];
+        }
+
+        void run(double[][] netCorpus, int[] successfulPaths) {
+            double[] ppf = filled(p.ppfStart);
+            double[] epf = filled(p.epfStart);
+            double[] mf = filled(p.mfStart);
+            double[] nps = filled(p.npsStart);
+            double[] stock = filled(p.stockStart);
+            double[] debt = filled(p.fdStart + p.rdStart + p.cashStart);
+            // Realized price level relative to the deterministic inflation assumption
+            double[] priceRatio = filled(1);
+            double assumedGrowth = 1 + p.inflation / 100;
+
+            double start = p.inflow[0] - p.goalOutflow[0];
+            for (int j = 0; j < size; j++) {
+                netCorpus[0][from + j] = ppf[j] + epf[j] + mf[j] + nps[j] + stock[j] + debt[j] + start;
+            }
+
+            for (int year = 1; year < p.rows(); year++) {
+                drawShocks();
+                double ppfRate = p.ppfRate[year];
+                double epfRate = p.epfRate[year];
+                double mfRate = p.mfRate[year];
+                double npsRate = p.npsRate[year];
+                double liquidRate = p.otherLiquidRate[year];
+                double rdRate = p.rdRate[year];
+                double sip = p.mfSip[year - 1];
+                double epfYearly = p.epfMonthlyContribution * 12;
+                double npsYearly = p.npsMonthlyContribution * 12;
+                double net = p.inflow[year] - p.goalOutflow[year];
+                double[] row = netCorpus[year];
+
+                for (int j = 0; j < size; j++) {
+                    double e = equityShock[j];
+                    double d = debtShock[j];
+                    ppf[j] = ppf[j] * (1 + (ppfRate + d) / 100) + p.ppfYearlyContribution;
+                    epf[j] = epf[j] * (1 + (epfRate + d) / 100) + epfYearly;
+                    mf[j] = mf[j] * (1 + (mfRate + e) / 100) + sipFutureValue(sip, mfRate + e) + p.lumpsumYearly;
+                    nps[j] = nps[j] * (1 + (npsRate + e) / 100) + npsYearly;
+                    stock[j] = stock[j] * (1 + (liquidRate + e) / 100);
+                    debt[j] = debt[j] * (1 + (liquidRate + d) / 100) + sipFutureValue(p.rdMonthlySip, rdRate + d);
+                    priceRatio[j] *= (1 + inflation[j] / 100) / assumedGrowth;
+                    row[from + j] = ppf[j] + epf[j] + mf[j] + nps[j] + stock[j] + debt[j] + net;
+                }
+            }
+
+            double[] equityShare = new double[size];
+            double[] corpusAtRetirement = new double[size];
+            double[] expense = new double[size];
+            double[] retirementRow = netCorpus[p.yearsToRetirement];
+            for (int j = 0; j < size; j++) {
+                double invested = ppf[j] + epf[j] + mf[j] + nps[j] + stock[j] + debt[j];
+                equityShare[j] = invested > 0 ? (mf[j] + nps[j] + stock[j]) / invested : 0;
+                corpusAtRetirement[j] = retirementRow[from + j];
+                expense[j] = p.yearlyExpense[p.yearsToRetirement] * priceRatio[j];
+            }
+            withdraw(corpusAtRetirement, equityShare, expense, successfulPaths);
+        }
+
+        /**
+         * Run every income strategy over the retirement years, counting paths that never fall short.
+         * Mirrors {@link RequiredCorpusSolver#isFeasible} with realized returns and inflation.
+         */
+        private void withdraw(double[] startingCorpus, double[] equityShare, double[] expense, int[] successfulPaths) {
+            int strategies = RequiredCorpusSolver.STRATEGIES.length;
+            double[][] corpus = new double[strategies][];
+            boolean[][] failed = new boolean[strategies][size];
+            for (int s = 0; s < strategies; s++) {
+                corpus[s] = startingCorpus.clone();
+            }
+            double[] inflationIndex = filled(1);
+            double withdrawalRate = p.withdrawalRate / 100;
+            int retirementYears = Math.max(0, p.retirementYears);
+
+            for (int year = 0; year < retirementYears; year++) {
+                drawShocks();
+                int offset = p.yearsToRetirement + year;
+                double goal = valueAt(p.goalByYear, offset);
+                double income = (valueAt(p.annuityMonthly, offset) + valueAt(p.rentMonthly, offset)) * 12;
+                int remainingYears = Math.max(1, retirementYears - year);
+
+                for (int j = 0; j < size; j++) {
+                    double need = expense[j] + goal - income;
+                    double corpusReturn = (p.corpusReturnRate
+                            + equityShare[j] * equityShock[j] + (1 - equityShare[j]) * debtShock[j]) / 100;
+
+                    for (int s = 0; s < strategies; s++) {
+                        if (failed[s][j]) {
+                            continue;
+                        }
+                        double c = corpus[s][j];
+                        double withdrawal;
+                        switch (RequiredCorpusSolver.STRATEGIES[s]) {
+                            case RequiredCorpusSolver.SIMPLE_DEPLETION:
+                                withdrawal = c / remainingYears;
+                                corpus[s][j] = Math.max(0, c - withdrawal);
+                                break;
+                            case RequiredCorpusSolver.SAFE_4_PERCENT:
+                                withdrawal = startingCorpus[j] * 0.04 * inflationIndex[j];
+                                corpus[s][j] = Math.max(0, c * (1 + corpusReturn) - withdrawal);
+                                break;
+                            case RequiredCorpusSolver.SUSTAINABLE:
+                            default:
+                                withdrawal = c * withdrawalRate;
+                                corpus[s][j] = Math.max(0, c * (1 + corpusReturn) - withdrawal);
+                                break;
+                        }
+                        if (withdrawal + TOLERANCE < need) {
+                            failed[s][j] = true;
+                        }
+                    }
+
+                    double growth = 1 + inflation[j] / 100;
+                    expense[j] *= growth;
+                    inflationIndex[j] *= growth;
+                }
+            }
+
+            for (int s = 0; s < strategies; s++) {
+                int ok = 0;
+                for (int j = 0; j < size; j++) {
+                    if (!failed[s][j]) {
+                        ok++;
+                    }
+                }
+                successfulPaths[s] = ok;
+            }
+        }
+
+        private void drawShocks() {
+            double equityVol = assumptions.equityVolatility();
+            double debtVol = assumptions.debtVolatility();
+            double inflationVol = assumptions.inflationVolatility();
+            for (int j = 0; j < size; j++) {
+                double z1 = random.nextGaussian();
+                double z2 = random.nextGaussian();
+                double z3 = random.nextGaussian();
+                equityShock[j] = equityVol * z1;
+                debtShock[j] = debtVol * (l21 * z1 + l22 * z2);
+                inflation[j] = p.inflation + inflationVol * (l31 * z1 + l32 * z2 + l33 * z3);
+            }
+        }
+
+        private double[] filled(double value) {
+            double[] values = new double[size];
+            Arrays.fill(values, value);
+            return values;
+        }
+    }
+
+    /**
+     * One year of a monthly SIP, as {@link CalculationService#calculateSIPFutureValue} computes it.
+     */
+    static double sipFutureValue(double monthlyAmount, double annualRate) {
+        if (monthlyAmount <= 0) return 0;
+        double monthlyRate = annualRate / 100 / 12;
+        if (monthlyRate == 0) return monthlyAmount * 12;
+        return monthlyAmount * ((Math.pow(1 + monthlyRate, 12) - 1) / monthlyRate) * (1 + monthlyRate);
+    }
+
+    private static double valueAt(double[] values, int offset) {
+        return offset >= 0 && offset < values.length ? values[offset] : 0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.retyrment.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progress of one run of {@link UserDataDeletionService#startDeletion(String)}.
+ *
+ * Stored in {@code user_data_deletions}, one document per user holding their latest run, so a
+ * status poll can reach any instance. Per-collection counts are recorded by worker threads as
+ * each deleteMany returns and read by request threads polling the status, so they live in a
+ * concurrent map and the status fields are volatile. Only the instance running a deletion can
+ * wait for it to complete.
+ */
+@Getter
+@Document(collection = "user_data_deletions")
+public class UserDataDeletion {
+
+    public enum Status { RUNNING, DONE, FAILED }
+
+    @Id
+    private String userId;
+    private String runId;
+    private boolean transactional;
+    private List<String> collections;
+    private Instant startedAt;
+    @Getter(AccessLevel.NONE)
+    private Map<String, Long> deleted = new ConcurrentHashMap<>();
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private CompletableFuture<UserDataDeletion> completion;
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean rolledBack;
+
+    UserDataDeletion() {
+        // For mapping
+    }
+
+    UserDataDeletion(String runId, String userId, boolean transactional, List<String> collections, Instant startedAt) {
+        this.runId = runId;
+        this.userId = userId;
+        this.transactional = transactional;
+        this.collections = List.copyOf(collections);
+        this.startedAt = startedAt;
+        this.completion = new CompletableFuture<>();
+    }
+
+    /**
+     * Completes once the run has finished and its final status is stored, or null for a run
+     * read back from Mongo.
+     */
+    CompletableFuture<UserDataDeletion> completion() {
+        return completion;
+    }
+
+    void recordDeleted(String collection, long count) {
+        deleted.put(collection, count);
+    }
+
+    void markDone(Instant now) {
+        finishedAt = now;
+        status = Status.DONE;
+    }
+
+    /**
+     * @param rolledBack whether the deletes that did succeed were undone by a transaction rollback
+     */
+    void markFailed(Instant now, String message, boolean rolledBack) {
+        this.rolledBack = rolledBack;
+        if (rolledBack) {
+            deleted.clear();
+        }
+        finishedAt = now;
+        error = message;
+        status = Status.FAILED;
+    }
+
+    void complete() {
+        completion.complete(this);
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public long getTotalDeleted() {
+        return deleted.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Counts per collection in a fixed order, followed by the total. Collections that have not
+     * finished yet are left out.
+     */
+    public Map<String, Object> countsByCollection() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        for (String collection : collections) {
+            Long count = deleted.get(collection);
+            if (count != null) {
+                counts.put(collection, count);
+            }
+        }
+        counts.put("total", getTotalDeleted());
+        return counts;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", runId);
+        map.put("status", status.name());
+        map.put("transactional", transactional);
+        map.put("collectionsDone", deleted.size());
+        map.put("collectionsTotal", collections.size());
+        map.put("deleted", countsByCollection());
+        map.put("startedAt", startedAt.toString());
+        if (finishedAt != null) map.put("finishedAt", finishedAt.toString());
+        if (error != null) map.put("error", error);
+        if (rolledBack) map.put("rolledBack", true);
+        return map;
+    }
+}
@@ -1,35 +1,105 @@
 package com.retyrment.service;
 
-import com.retyrment.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.mongodb.client.result.DeleteResult;
+import com.retyrment.model.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
+/**
+ * Counts and deletes a user's financial data across every per-user collection.
+ *
+ * Each collection costs one count or one deleteMany on its userId index, and the collections
+ * are handled concurrently on a small worker pool, so even a very large account takes a handful
+ * of round trips and no documents are loaded. Deleted counts come from each DeleteResult.
+ * With {@code app.user-data.deletion.transactional} the deletes run one after another in a
+ * Mongo transaction instead and are rolled back together on failure; this needs a replica set.
+ *
+ * Background runs are tracked in {@code user_data_deletions}, one document per user, so a
+ * status poll can reach any instance, and a user has at most one deletion running across the
+ * cluster: starting one claims the user's document unless it holds a run still in progress.
+ *
+ * Keeps: User account, email, role, subscription status, feature access.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserDataDeletionService {
 
-    private final IncomeRepository incomeRepository;
-    private final InvestmentRepository investmentRepository;
-    private final LoanRepository loanRepository;
-    private final InsuranceRepository insuranceRepository;
-    private final ExpenseRepository expenseRepository;
-    private final GoalRepository goalRepository;
-    private final FamilyMemberRepository familyMemberRepository;
-    private final UserPreferenceRepository userPreferenceRepository;
-    private final SettingsRepository settingsRepository;
-    private final UserSettingsRepository userSettingsRepository;
-    private final UserStrategyRepository userStrategyRepository;
-    private final RetirementScenarioRepository retirementScenarioRepository;
-    private final CalendarEntryRepository calendarEntryRepository;
-
-    private static <T> java.util.Optional<T> safeOptional(java.util.Optional<T> optional) {
-        return optional == null ? java.util.Optional.empty() : optional;
+    // Finished deletions stay visible to status polls for this long, and a run still RUNNING this
+    // long after it started was abandoned by an instance that stopped
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    // Response key and entity of every per-user collection, in response order
+    static final Map<String, Class<?>> COLLECTIONS;
+
+    static {
+        Map<String, Class<?>> collections = new LinkedHashMap<>();
+        collections.put("income", Income.class);
+        collections.put("investments", Investment.class);
+        collections.put("loans", Loan.class);
+        collections.put("insurance", Insurance.class);
+        collections.put("expenses", Expense.class);
+        collections.put("goals", Goal.class);
+        collections.put("familyMembers", FamilyMember.class);
+        collections.put("preferences", UserPreference.class);
+        collections.put("settings", Settings.class);
+        collections.put("userSettings", UserSettings.class);
+        collections.put("strategies", UserStrategy.class);
+        collections.put("scenarios", RetirementScenario.class);
+        collections.put("calendarEntries", CalendarEntry.class);
+        COLLECTIONS = Collections.unmodifiableMap(collections);
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final UserDataVersionService dataVersionService;
+    private final TransactionOperations transactions;
+    private final boolean transactional;
+    private final ExecutorService executor;
+
+    // Runs started by this instance that have not finished yet
+    private final Map<String, UserDataDeletion> running = new ConcurrentHashMap<>();
+    private final Object startLock = new Object();
+
+    /**
+     * The transaction manager is private to this service, as in {@link BulkImportService}.
+     */
+    @Autowired
+    public UserDataDeletionService(MongoTemplate mongoTemplate,
+                                   UserDataVersionService dataVersionService,
+                                   WorkerPools workerPools,
+                                   @Value("${app.user-data.workers:4}") int workers,
+                                   @Value("${app.user-data.deletion.transactional:false}") boolean transactional) {
+        this(mongoTemplate, dataVersionService,
+                new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory())),
+                transactional, workerPools.fixed("user-data-worker", workers));
+    }
+
+    UserDataDeletionService(MongoTemplate mongoTemplate, UserDataVersionService dataVersionService,
+                            TransactionOperations transactions, boolean transactional, ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.dataVersionService = dataVersionService;
+        this.transactions = transactions;
+        this.transactional = transactional;
+        this.executor = executor;
     }
 
     /**
@@ -37,178 +107,159 @@ public class UserDataDeletionService {
      */
     public Map<String, Object> getUserDataSummary(String userId) {
         log.info("Getting data summary for user: {}", userId);
-        
-        Map<String, Object> summary = new HashMap<>();
-        
+
+        Map<String, CompletableFuture<Long>> counts = new LinkedHashMap<>();
+        COLLECTIONS.forEach((name, type) -> counts.put(name,
+                CompletableFuture.supplyAsync(() -> mongoTemplate.count(ownedBy(userId), type), executor)));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long total = 0;
         try {
-            // Count records in each category with null safety
-            var incomeList = incomeRepository.findByUserId(userId);
-            summary.put("income", incomeList != null ? incomeList.size() : 0);
-            
-            var investmentList = investmentRepository.findByUserId(userId);
-            summary.put("investments", investmentList != null ? investmentList.size() : 0);
-            
-            var loanList = loanRepository.findByUserId(userId);
-            summary.put("loans", loanList != null ? loanList.size() : 0);
-            
-            var insuranceList = insuranceRepository.findByUserId(userId);
-            summary.put("insurance", insuranceList != null ? insuranceList.size() : 0);
-            
-            var expenseList = expenseRepository.findByUserId(userId);
-            summary.put("expenses", expenseList != null ? expenseList.size() : 0);
-            
-            var goalList = goalRepository.findByUserId(userId);
-            summary.put("goals", goalList != null ? goalList.size() : 0);
-            
-            var familyList = familyMemberRepository.findByUserId(userId);
-            summary.put("familyMembers", familyList != null ? familyList.size() : 0);
-            
-            summary.put("preferences", safeOptional(userPreferenceRepository.findByUserId(userId)).isPresent() ? 1 : 0);
-            summary.put("settings", safeOptional(settingsRepository.findByUserId(userId)).isPresent() ? 1 : 0);
-            summary.put("strategies", safeOptional(userStrategyRepository.findByUserId(userId)).isPresent() ? 1 : 0);
-            
-            var scenarioList = retirementScenarioRepository.findByUserId(userId);
-            summary.put("scenarios", scenarioList != null ? scenarioList.size() : 0);
-            
-            var calendarList = calendarEntryRepository.findByUserId(userId);
-            summary.put("calendarEntries", calendarList != null ? calendarList.size() : 0);
-            
-            // Calculate total
-            int total = summary.values().stream()
-                    .mapToInt(v -> v instanceof Integer ? (Integer) v : 0)
-                    .sum();
-            summary.put("total", total);
-            
-            log.info("Data summary for user {}: {} total records", userId, total);
-            
-        } catch (Exception e) {
-            log.error("Error calculating data summary for user {}: {}", userId, e.getMessage(), e);
-            throw e;
+            for (Map.Entry<String, CompletableFuture<Long>> count : counts.entrySet()) {
+                long value = count.getValue().join();
+                summary.put(count.getKey(), value);
+                total += value;
+            }
+        } catch (CompletionException e) {
+            log.error("Error calculating data summary for user {}: {}", userId, e.getCause().getMessage(), e.getCause());
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
         }
-        
+        summary.put("total", total);
+
+        log.info("Data summary for user {}: {} total records", userId, total);
         return summary;
     }
 
     /**
-     * Delete ALL user financial data
-     * Keeps: User account, email, role, subscription status, feature access
-     * Deletes: All financial data (income, investments, loans, insurance, expenses, goals, family, preferences, settings)
+     * Delete ALL user financial data and wait for the result.
+     *
+     * @return the deleted count per collection and in total, with {@code success}, and
+     *         {@code message} or {@code error}
      */
-    @Transactional
     public Map<String, Object> deleteAllUserData(String userId) {
+        UserDataDeletion deletion = startDeletion(userId);
+        if (deletion.completion() == null) {
+            // Running on another instance, which is the only one that can wait for it
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("success", false);
+            result.put("error", "A data deletion is already running for this account");
+            return result;
+        }
+        deletion = deletion.completion().join();
+
+        Map<String, Object> result = new LinkedHashMap<>(deletion.countsByCollection());
+        if (deletion.getStatus() == UserDataDeletion.Status.DONE) {
+            result.put("success", true);
+            result.put("message", "All user data deleted successfully. Your account remains active.");
+        } else {
+            result.put("success", false);
+            result.put("error", deletion.getError());
+        }
+        return result;
+    }
+
+    /**
+     * Start deleting ALL user financial data in the background. While a deletion for the user
+     * is still running, on this instance or another, it is returned instead of starting another one.
+     */
+    public UserDataDeletion startDeletion(String userId) {
+        UserDataDeletion started;
+        synchronized (startLock) {
+            UserDataDeletion current = running.get(userId);
+            if (current != null) {
+                return current;
+            }
+            Instant now = Instant.now();
+            started = new UserDataDeletion(UUID.randomUUID().toString(), userId, transactional,
+                    List.copyOf(COLLECTIONS.keySet()), now);
+            // Replace the user's previous run unless another instance is still working on it
+            Query claimable = Query.query(Criteria.where("_id").is(userId).orOperator(
+                    Criteria.where("status").ne(UserDataDeletion.Status.RUNNING),
+                    Criteria.where("startedAt").lt(now.minus(RETENTION))));
+            try {
+                mongoTemplate.findAndReplace(claimable, started, FindAndReplaceOptions.options().upsert());
+            } catch (DuplicateKeyException e) {
+                UserDataDeletion elsewhere = mongoTemplate.findById(userId, UserDataDeletion.class);
+                if (elsewhere != null) {
+                    return elsewhere;
+                }
+                throw e;
+            }
+            running.put(userId, started);
+        }
         log.warn("DELETING ALL DATA for user: {}", userId);
-        
-        Map<String, Object> deletionSummary = new HashMap<>();
-        
+        run(started);
+        return started;
+    }
+
+    /**
+     * The user's running deletion, or the last one if it finished recently.
+     */
+    public Optional<UserDataDeletion> getDeletion(String userId) {
+        UserDataDeletion local = running.get(userId);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        Instant cutoff = Instant.now().minus(RETENTION);
+        return Optional.ofNullable(mongoTemplate.findById(userId, UserDataDeletion.class))
+                .filter(d -> !d.isFinished() || d.getFinishedAt().isAfter(cutoff));
+    }
+
+    private void run(UserDataDeletion deletion) {
+        CompletableFuture<Void> work;
+        if (transactional) {
+            // A transaction is bound to one thread, so its deletes run in sequence
+            work = CompletableFuture.runAsync(() -> transactions.executeWithoutResult(status ->
+                    COLLECTIONS.forEach((name, type) -> deleteCollection(deletion, name, type))), executor);
+        } else {
+            work = CompletableFuture.allOf(COLLECTIONS.entrySet().stream()
+                    .map(collection -> CompletableFuture.runAsync(
+                            () -> deleteCollection(deletion, collection.getKey(), collection.getValue()), executor))
+                    .toArray(CompletableFuture[]::new));
+        }
+        work.whenComplete((ignored, failure) -> finish(deletion, failure));
+    }
+
+    private void deleteCollection(UserDataDeletion deletion, String name, Class<?> type) {
+        DeleteResult result = mongoTemplate.remove(ownedBy(deletion.getUserId()), type);
+        deletion.recordDeleted(name, result.getDeletedCount());
+        // Progress for status polls on other instances; $set per collection, so concurrent workers never clash
         try {
-            // Delete Income
-            int incomeDeleted = incomeRepository.findByUserId(userId).size();
-            incomeRepository.deleteByUserId(userId);
-            deletionSummary.put("income", incomeDeleted);
-            log.info("Deleted {} income records for user {}", incomeDeleted, userId);
-            
-            // Delete Investments
-            int investmentsDeleted = investmentRepository.findByUserId(userId).size();
-            investmentRepository.deleteByUserId(userId);
-            deletionSummary.put("investments", investmentsDeleted);
-            log.info("Deleted {} investment records for user {}", investmentsDeleted, userId);
-            
-            // Delete Loans
-            int loansDeleted = loanRepository.findByUserId(userId).size();
-            loanRepository.deleteByUserId(userId);
-            deletionSummary.put("loans", loansDeleted);
-            log.info("Deleted {} loan records for user {}", loansDeleted, userId);
-            
-            // Delete Insurance
-            int insuranceDeleted = insuranceRepository.findByUserId(userId).size();
-            insuranceRepository.deleteByUserId(userId);
-            deletionSummary.put("insurance", insuranceDeleted);
-            log.info("Deleted {} insurance records for user {}", insuranceDeleted, userId);
-            
-            // Delete Expenses
-            int expensesDeleted = expenseRepository.findByUserId(userId).size();
-            expenseRepository.deleteByUserId(userId);
-            deletionSummary.put("expenses", expensesDeleted);
-            log.info("Deleted {} expense records for user {}", expensesDeleted, userId);
-            
-            // Delete Goals
-            int goalsDeleted = goalRepository.findByUserId(userId).size();
-            goalRepository.deleteByUserId(userId);
-            deletionSummary.put("goals", goalsDeleted);
-            log.info("Deleted {} goal records for user {}", goalsDeleted, userId);
-            
-            // Delete Family Members
-            int familyDeleted = familyMemberRepository.findByUserId(userId).size();
-            familyMemberRepository.findByUserId(userId).forEach(member -> 
-                familyMemberRepository.deleteById(member.getId())
-            );
-            deletionSummary.put("familyMembers", familyDeleted);
-            log.info("Deleted {} family member records for user {}", familyDeleted, userId);
-            
-            // Delete User Preferences
-            safeOptional(userPreferenceRepository.findByUserId(userId)).ifPresent(pref -> {
-                userPreferenceRepository.delete(pref);
-                deletionSummary.put("preferences", 1);
-                log.info("Deleted user preferences for user {}", userId);
-            });
-            if (!deletionSummary.containsKey("preferences")) {
-                deletionSummary.put("preferences", 0);
-            }
-            
-            // Delete Settings
-            safeOptional(settingsRepository.findByUserId(userId)).ifPresent(settings -> {
-                settingsRepository.delete(settings);
-                deletionSummary.put("settings", 1);
-                log.info("Deleted settings for user {}", userId);
-            });
-            if (!deletionSummary.containsKey("settings")) {
-                deletionSummary.put("settings", 0);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(deletion.getUserId())
+                            .and("runId").is(deletion.getRunId())),
+                    new Update().set("deleted." + name, result.getDeletedCount()), UserDataDeletion.class);
+        } catch (DataAccessException e) {
+            log.warn("Could not save data deletion progress for user {}: {}", deletion.getUserId(), e.getMessage());
+        }
+        log.info("Deleted {} {} records for user {}", result.getDeletedCount(), name, deletion.getUserId());
+    }
+
+    private void finish(UserDataDeletion deletion, Throwable failure) {
+        String userId = deletion.getUserId();
+        try {
+            // Cached results are stale even after a partial failure
+            dataVersionService.markChanged(userId);
+        } finally {
+            if (failure == null) {
+                deletion.markDone(Instant.now());
+                log.warn("Successfully deleted {} total records for user {}", deletion.getTotalDeleted(), userId);
+            } else {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                log.error("Error deleting user data for user {}: {}", userId, cause.getMessage(), cause);
+                deletion.markFailed(Instant.now(), "Failed to delete user data: " + cause.getMessage(), transactional);
             }
-            
-            // Delete User Settings (new user settings model)
-            safeOptional(userSettingsRepository.findByUserId(userId)).ifPresent(userSettings -> {
-                userSettingsRepository.delete(userSettings);
-                log.info("Deleted user settings for user {}", userId);
-            });
-            
-            // Delete User Strategy
-            safeOptional(userStrategyRepository.findByUserId(userId)).ifPresent(strategy -> {
-                userStrategyRepository.delete(strategy);
-                deletionSummary.put("strategies", 1);
-                log.info("Deleted strategy for user {}", userId);
-            });
-            if (!deletionSummary.containsKey("strategies")) {
-                deletionSummary.put("strategies", 0);
+            try {
+                mongoTemplate.save(deletion);
+            } catch (DataAccessException e) {
+                log.warn("Could not save data deletion status for user {}: {}", userId, e.getMessage());
             }
-            
-            // Delete Retirement Scenarios
-            int scenariosDeleted = retirementScenarioRepository.findByUserId(userId).size();
-            retirementScenarioRepository.deleteByUserId(userId);
-            deletionSummary.put("scenarios", scenariosDeleted);
-            log.info("Deleted {} retirement scenario records for user {}", scenariosDeleted, userId);
-            
-            // Delete Calendar Entries (derived data)
-            int calendarDeleted = calendarEntryRepository.findByUserId(userId).size();
-            calendarEntryRepository.deleteByUserId(userId);
-            deletionSummary.put("calendarEntries", calendarDeleted);
-            log.info("Deleted {} calendar entry records for user {}", calendarDeleted, userId);
-            
-            // Calculate total deleted
-            int totalDeleted = deletionSummary.values().stream()
-                    .mapToInt(v -> (Integer) v)
-                    .sum();
-            deletionSummary.put("total", totalDeleted);
-            deletionSummary.put("success", true);
-            deletionSummary.put("message", "All user data deleted successfully. Your account remains active.");
-            
-            log.warn("Successfully deleted {} total records for user {}", totalDeleted, userId);
-            
-        } catch (Exception e) {
-            log.error("Error deleting user data for user {}: {}", userId, e.getMessage(), e);
-            deletionSummary.put("success", false);
-            deletionSummary.put("error", "Failed to delete user data: " + e.getMessage());
+            running.remove(userId, deletion);
+            deletion.complete();
         }
-        
-        return deletionSummary;
+    }
+
+    private static Query ownedBy(String userId) {
+        return Query.query(Criteria.where("userId").is(userId));
     }
 }
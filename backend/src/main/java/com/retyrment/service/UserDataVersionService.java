@@ -0,0 +1,116 @@
+package com.retyrment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.retyrment.model.UserDataVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Tracks a per-user version number for financial data (investments, insurance, goals,
+ * expenses, income, loans). Controllers that write this data mark the user as changed,
+ * which bumps the version and notifies listeners such as result caches.
+ *
+ * Versions are stored in {@code user_data_versions}, so every instance reads the same number
+ * and a write served by one instance makes the caches of all of them miss on their next
+ * lookup. Listeners only run on the instance that took the write; they free memory early but
+ * are not needed for correctness.
+ *
+ * So that a cache hit does not cost a Mongo round trip, each instance keeps the versions it
+ * read for a short TTL. A write updates this instance's copy at once, so its own reads see the
+ * write straight away; other instances see it once their copy expires, so a read routed to
+ * another instance within the TTL of a write can still be answered from the previous version.
+ * A TTL of 0 reads Mongo on every lookup.
+ */
+@Service
+public class UserDataVersionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, AtomicLong> localVersions = new ConcurrentHashMap<>();
+    // Versions read from Mongo, or null when every lookup goes to Mongo
+    private final Cache<String, Long> cachedVersions;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public UserDataVersionService(MongoTemplate mongoTemplate,
+                                  @Value("${app.cache.data-version.max-entries:10000}") long maxEntries,
+                                  @Value("${app.cache.data-version.ttl-millis:1000}") long ttlMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.cachedVersions = mongoTemplate != null && ttlMillis > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxEntries)
+                        .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                        .build()
+                : null;
+    }
+
+    /**
+     * Versions held by this instance only, for a single-instance deployment and tests.
+     */
+    public UserDataVersionService() {
+        this(null, 0, 0);
+    }
+
+    public long currentVersion(String userId) {
+        if (mongoTemplate == null) {
+            AtomicLong version = localVersions.get(userId);
+            return version != null ? version.get() : 0L;
+        }
+        return cachedVersions != null ? cachedVersions.get(userId, this::readVersion) : readVersion(userId);
+    }
+
+    /**
+     * Record that the user's financial data changed.
+     *
+     * @return the new version
+     */
+    public long markChanged(String userId) {
+        long version = mongoTemplate != null
+                ? increment(userId)
+                : localVersions.computeIfAbsent(userId, k -> new AtomicLong()).incrementAndGet();
+        if (cachedVersions != null) {
+            // Never step back past a later write's version stored by a concurrent call
+            cachedVersions.asMap().merge(userId, version, Math::max);
+        }
+        for (Consumer<String> listener : listeners) {
+            listener.accept(userId);
+        }
+        return version;
+    }
+
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private long readVersion(String userId) {
+        UserDataVersion version = mongoTemplate.findById(userId, UserDataVersion.class);
+        return version != null ? version.getVersion() : 0L;
+    }
+
+    private long increment(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        Update update = new Update().inc("version", 1);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(query, update, options, UserDataVersion.class).getVersion();
+        } catch (DuplicateKeyException e) {
+            // Two first writes raced to insert the document; the other one exists now
+            return mongoTemplate.findAndModify(query, update, options, UserDataVersion.class).getVersion();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Per-request, read-only view of a user's financial records.
+ * Each collection is loaded once and indexed by type in memory, so projection code
+ * can look up balances and policies repeatedly without further Mongo round trips.
+ */
+@Getter
+public class UserFinancialSnapshot {
+
+    private final String userId;
+    private final List<Investment> investments;
+    private final List<Insurance> insurance;
+    private final List<Goal> goals;             // Ordered by target year
+    private final List<Expense> expenses;
+    private final List<Income> incomes;
+    private final List<Loan> loans;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Investment.InvestmentType, List<Investment>> investmentsByType;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Insurance.InsuranceType, List<Insurance>> insuranceByType;
+
+    private UserFinancialSnapshot(String userId,
+                                  List<Investment> investments,
+                                  List<Insurance> insurance,
+                                  List<Goal> goals,
+                                  List<Expense> expenses,
+                                  List<Income> incomes,
+                                  List<Loan> loans) {
+        this.userId = userId;
+        this.investments = immutableCopy(investments);
+        this.insurance = immutableCopy(insurance);
+        this.goals = immutableCopy(goals);
+        this.expenses = immutableCopy(expenses);
+        this.incomes = immutableCopy(incomes);
+        this.loans = immutableCopy(loans);
+
+        this.investmentsByType = new EnumMap<>(Investment.InvestmentType.class);
+        for (Investment inv : this.investments) {
+            if (inv.getType() != null) {
+                investmentsByType.computeIfAbsent(inv.getType(), k -> new ArrayList<>()).add(inv);
+            }
+        }
+        this.insuranceByType = new EnumMap<>(Insurance.InsuranceType.class);
+        for (Insurance policy : this.insurance) {
+            if (policy.getType() != null) {
+                insuranceByType.computeIfAbsent(policy.getType(), k -> new ArrayList<>()).add(policy);
+            }
+        }
+    }
+
+    public static UserFinancialSnapshot of(String userId,
+                                           List<Investment> investments,
+                                           List<Insurance> insurance,
+                                           List<Goal> goals,
+                                           List<Expense> expenses,
+                                           List<Income> incomes,
+                                           List<Loan> loans) {
+        return new UserFinancialSnapshot(userId, investments, insurance, goals, expenses, incomes, loans);
+    }
+
+    /**
+     * Investments of the given type, in the order they were loaded.
+     */
+    public List<Investment> getInvestments(Investment.InvestmentType type) {
+        List<Investment> list = investmentsByType.get(type);
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Insurance policies whose type is in the given set, in the order they were loaded.
+     */
+    public List<Insurance> getInsurance(Collection<Insurance.InsuranceType> types) {
+        List<Insurance> result = new ArrayList<>();
+        for (Insurance policy : insurance) {
+            if (policy.getType() != null && types.contains(policy.getType())) {
+                result.add(policy);
+            }
+        }
+        return result;
+    }
+
+    public List<Insurance> getInsurance(Insurance.InsuranceType type) {
+        List<Insurance> list = insuranceByType.get(type);
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    private static <T> List<T> immutableCopy(List<T> source) {
+        return source == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(source));
+    }
+}
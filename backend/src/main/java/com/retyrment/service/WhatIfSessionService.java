@@ -0,0 +1,245 @@
+package com.retyrment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.retyrment.exception.ResourceNotFoundException;
+import com.retyrment.model.RetirementScenario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * What-if sessions for dragging assumption sliders over the retirement matrix.
+ *
+ * A session keeps the user's snapshot, the current scenario, its projection and the rows last
+ * sent to the client. An edit re-runs accumulation only from the first row it can change (see
+ * {@link ProjectionEngine#firstAffectedRow}), and the response carries just the rows and summary
+ * fields whose values changed. Edits to ages, inflation or the income strategy, or a write to
+ * the user's financial data since the last edit, fall back to a full projection.
+ *
+ * Sessions live in memory and expire after a period without edits. The cache is bounded by
+ * the number of matrix rows it holds, since a session's snapshot, projection and rendered rows
+ * grow with its horizon, and each user keeps only their most recently used sessions, so one
+ * user opening sessions in a loop cannot evict everyone else's.
+ *
+ * Sessions are not shared between instances: a scaled-out deployment must route a user's
+ * what-if requests to the instance that started the session (sticky sessions on the load
+ * balancer), or an edit that lands elsewhere is answered 404.
+ */
+@Service
+public class WhatIfSessionService {
+
+    private final RetirementService retirementService;
+    private final UserDataVersionService dataVersionService;
+    private final int maxSessionsPerUser;
+    private final Cache<String, Session> sessions;
+    private final Object startLock = new Object();
+
+    public WhatIfSessionService(RetirementService retirementService,
+                                UserDataVersionService dataVersionService,
+                                @Value("${app.retirement.what-if.max-rows:20000}") long maxRows,
+                                @Value("${app.retirement.what-if.max-per-user:3}") int maxSessionsPerUser,
+                                @Value("${app.retirement.what-if.ttl-minutes:15}") long ttlMinutes) {
+        this.retirementService = retirementService;
+        this.dataVersionService = dataVersionService;
+        this.maxSessionsPerUser = Math.max(maxSessionsPerUser, 1);
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((String id, Session session) -> Math.max(session.rows.size(), 1))
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    private static final class Session {
+        final String userId;
+        long dataVersion;
+        UserFinancialSnapshot snapshot;
+        RetirementScenario scenario;
+        RetirementProjection projection;
+        List<Map<String, Object>> rows;
+        Map<String, Object> summary;
+        int revision;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        Session(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * Open a session on a scenario, or the user's default scenario when null.
+     *
+     * @return {@code sessionId}, {@code revision} 0, every matrix row and the full summary
+     */
+    public Map<String, Object> start(String userId, RetirementScenario scenario) {
+        // Read the version before loading, so a write racing with the load is picked up on the next edit
+        long version = dataVersionService.currentVersion(userId);
+        // A copy, so edits never touch the caller's or a saved scenario, with its aliased fields
+        // aligned so later edits compare field by field
+        RetirementScenario base = retirementService.resolveScenario(userId, scenario);
+        RetirementScenario resolved = applyEdits(base, base);
+        UserFinancialSnapshot snapshot = retirementService.loadSnapshot(userId);
+        RetirementProjection projection = retirementService.projectRetirement(snapshot, resolved);
+
+        Session session = new Session(userId);
+        session.dataVersion = version;
+        session.snapshot = snapshot;
+        session.scenario = resolved;
+        session.projection = projection;
+        session.rows = retirementService.matrixRows(projection, 0);
+        session.summary = retirementService.summarizeProjection(snapshot, resolved, projection);
+        String sessionId = UUID.randomUUID().toString();
+        synchronized (startLock) {
+            // Make room by closing the user's least recently used sessions
+            List<Map.Entry<String, Session>> own = sessions.asMap().entrySet().stream()
+                    .filter(entry -> entry.getValue().userId.equals(userId))
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsedNanos))
+                    .toList();
+            for (int i = 0; i <= own.size() - maxSessionsPerUser; i++) {
+                sessions.invalidate(own.get(i).getKey());
+            }
+            sessions.put(sessionId, session);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sessionId", sessionId);
+        result.put("revision", session.revision);
+        result.put("rowCount", session.rows.size());
+        result.put("rows", session.rows);
+        result.put("summary", session.summary);
+        return result;
+    }
+
+    /**
+     * Apply the non-null assumption fields of {@code edits} to the session's scenario.
+     *
+     * @return the new {@code revision}, {@code recomputedFromYear} (null when nothing changed),
+     *         {@code fullRecompute}, {@code rowCount}, {@code changedRows} (complete rows, placed
+     *         by their {@code sno}) and {@code summary} with only the fields that changed
+     */
+    public Map<String, Object> edit(String userId, String sessionId, RetirementScenario edits) {
+        Session session = session(userId, sessionId);
+        synchronized (session) {
+            RetirementScenario edited = applyEdits(session.scenario, edits);
+            long version = dataVersionService.currentVersion(userId);
+            UserFinancialSnapshot snapshot = session.snapshot;
+            int fromRow = -1;
+            if (version != session.dataVersion) {
+                snapshot = retirementService.loadSnapshot(userId);
+            } else {
+                fromRow = ProjectionEngine.firstAffectedRow(session.scenario, edited, session.projection.rows());
+            }
+
+            RetirementProjection projection = session.projection;
+            if (fromRow < 0) {
+                projection = retirementService.projectRetirement(snapshot, edited);
+            } else if (fromRow < projection.rows()) {
+                retirementService.reprojectRetirement(projection, snapshot, edited, fromRow);
+            }
+            int renderFrom = Math.max(fromRow, 0);
+
+            List<Map<String, Object>> rendered = retirementService.matrixRows(projection, renderFrom);
+            List<Map<String, Object>> rows = new ArrayList<>(session.rows.subList(0,
+                    Math.min(renderFrom, session.rows.size())));
+            List<Map<String, Object>> changedRows = new ArrayList<>();
+            for (Map<String, Object> row : rendered) {
+                int index = rows.size();
+                if (index >= session.rows.size() || !session.rows.get(index).equals(row)) {
+                    changedRows.add(row);
+                }
+                rows.add(row);
+            }
+
+            Map<String, Object> summary = renderFrom < projection.rows()
+                    ? retirementService.summarizeProjection(snapshot, edited, projection)
+                    : session.summary;
+            Map<String, Object> changedSummary = new LinkedHashMap<>();
+            summary.forEach((key, value) -> {
+                if (!session.summary.containsKey(key) || !Objects.equals(session.summary.get(key), value)) {
+                    changedSummary.put(key, value);
+                }
+            });
+
+            session.dataVersion = version;
+            session.snapshot = snapshot;
+            session.scenario = edited;
+            session.projection = projection;
+            session.rows = rows;
+            session.summary = summary;
+            session.revision++;
+            // Re-weigh the entry, since an age edit changes the number of rows
+            sessions.asMap().replace(sessionId, session, session);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("sessionId", sessionId);
+            result.put("revision", session.revision);
+            result.put("recomputedFromYear", renderFrom < projection.rows() ? projection.calendarYear(renderFrom) : null);
+            result.put("fullRecompute", fromRow < 0);
+            result.put("rowCount", rows.size());
+            result.put("changedRows", changedRows);
+            result.put("summary", changedSummary);
+            return result;
+        }
+    }
+
+    /**
+     * Close a session before it expires.
+     */
+    public void end(String userId, String sessionId) {
+        session(userId, sessionId);
+        sessions.invalidate(sessionId);
+    }
+
+    /**
+     * The scenario with the edit's non-null assumption fields applied. Aliased fields (inflation
+     * and inflationRate, sipStepup and sipStepUpPercent) are set together so the edit wins
+     * whichever one the engine reads first.
+     */
+    static RetirementScenario applyEdits(RetirementScenario current, RetirementScenario edits) {
+        RetirementScenario.RetirementScenarioBuilder scenario = current.toBuilder();
+        if (edits == null) {
+            return scenario.build();
+        }
+        if (edits.getCurrentAge() != null) scenario.currentAge(edits.getCurrentAge());
+        if (edits.getRetirementAge() != null) scenario.retirementAge(edits.getRetirementAge());
+        if (edits.getLifeExpectancy() != null) scenario.lifeExpectancy(edits.getLifeExpectancy());
+        if (edits.getEpfReturn() != null) scenario.epfReturn(edits.getEpfReturn());
+        if (edits.getPpfReturn() != null) scenario.ppfReturn(edits.getPpfReturn());
+        if (edits.getMfReturn() != null) scenario.mfReturn(edits.getMfReturn());
+        if (edits.getNpsReturn() != null) scenario.npsReturn(edits.getNpsReturn());
+        if (edits.getMfReturns() != null) scenario.mfReturns(edits.getMfReturns());
+        if (edits.getLumpsumAmount() != null) scenario.lumpsumAmount(edits.getLumpsumAmount());
+        if (edits.getLumpsumFrequency() != null) scenario.lumpsumFrequency(edits.getLumpsumFrequency());
+        if (edits.getEffectiveFromYear() != null) scenario.effectiveFromYear(edits.getEffectiveFromYear());
+        if (edits.getIncomeStrategy() != null) scenario.incomeStrategy(edits.getIncomeStrategy());
+        if (edits.getCorpusReturnRate() != null) scenario.corpusReturnRate(edits.getCorpusReturnRate());
+        if (edits.getWithdrawalRate() != null) scenario.withdrawalRate(edits.getWithdrawalRate());
+        if (edits.getEnableRateReduction() != null) scenario.enableRateReduction(edits.getEnableRateReduction());
+        if (edits.getRateReductionPercent() != null) scenario.rateReductionPercent(edits.getRateReductionPercent());
+        if (edits.getRateReductionYears() != null) scenario.rateReductionYears(edits.getRateReductionYears());
+
+        Double inflation = edits.getInflation() != null ? edits.getInflation() : edits.getInflationRate();
+        if (inflation != null) {
+            scenario.inflation(inflation).inflationRate(inflation);
+        }
+        Double sipStepUp = edits.getSipStepup() != null ? edits.getSipStepup() : edits.getSipStepUpPercent();
+        if (sipStepUp != null) {
+            scenario.sipStepup(sipStepUp).sipStepUpPercent(sipStepUp);
+        }
+        return scenario.build();
+    }
+
+    /**
+     * The user's session; an expired session or another user's is reported as not found.
+     */
+    private Session session(String userId, String sessionId) {
+        Session session = sessionId != null ? sessions.getIfPresent(sessionId) : null;
+        if (session == null || !session.userId.equals(userId)) {
+            throw new ResourceNotFoundException("What-if session", sessionId);
+        }
+        session.lastUsedNanos = System.nanoTime();
+        return session;
+    }
+}
@@ -0,0 +1,78 @@
+package com.retyrment.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named worker pools for services that move work off request threads. Workers are daemon
+ * threads named {@code <name>-<n>}, and every pool created here is shut down with the
+ * application context, so its owner needs no shutdown hook.
+ */
+@Component
+public class WorkerPools {
+
+    private final List<ExecutorService> pools = new CopyOnWriteArrayList<>();
+
+    /**
+     * A bounded pool in which the submitting thread runs a task itself once the queue is full,
+     * so an overload slows callers down instead of failing them.
+     */
+    public ThreadPoolExecutor callerRuns(String name, int workers, int queueCapacity) {
+        return bounded(name, workers, queueCapacity, Thread.NORM_PRIORITY, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * A bounded pool that rejects tasks once the queue is full.
+     */
+    public ThreadPoolExecutor rejecting(String name, int workers, int queueCapacity, int priority) {
+        return bounded(name, workers, queueCapacity, priority, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * A pool with a fixed number of workers and an unbounded queue, for work whose volume is
+     * already bounded by the caller.
+     */
+    public ThreadPoolExecutor fixed(String name, int workers) {
+        int size = Math.max(workers, 1);
+        return register(new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads(name, Thread.NORM_PRIORITY)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.forEach(ExecutorService::shutdownNow);
+    }
+
+    static ThreadFactory daemonThreads(String name, int priority) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+
+    private ThreadPoolExecutor bounded(String name, int workers, int queueCapacity, int priority,
+                                       RejectedExecutionHandler rejection) {
+        int size = Math.max(workers, 1);
+        return register(new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), daemonThreads(name, priority), rejection));
+    }
+
+    private ThreadPoolExecutor register(ThreadPoolExecutor pool) {
+        pools.add(pool);
+        return pool;
+    }
+}
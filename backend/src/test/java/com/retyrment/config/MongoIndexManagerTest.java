@@ -0,0 +1,117 @@
+package com.retyrment.config;
+
+import com.retyrment.model.Expense;
+import com.retyrment.model.Goal;
+import com.retyrment.model.JobLease;
+import com.retyrment.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoIndexManagerTest {
+
+    @Nested
+    @DisplayName("Index creation")
+    class IndexCreation {
+
+        @Test
+        @DisplayName("should ensure every declared index and keep going past one that fails")
+        void ensuresAllIndexes() {
+            MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+            IndexOperations indexOps = mock(IndexOperations.class);
+            when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOps);
+            when(indexOps.ensureIndex(any(IndexDefinition.class)))
+                    .thenThrow(new DuplicateKeyException("duplicate emails"))
+                    .thenReturn("ok");
+            MongoIndexManager manager = new MongoIndexManager(mongoTemplate, mock(ApplicationContext.class),
+                    true, false, false);
+
+            int ensured = manager.ensureIndexes();
+
+            assertThat(ensured).isEqualTo(MongoIndexManager.INDEXES.size() - 1);
+            verify(indexOps, times(MongoIndexManager.INDEXES.size())).ensureIndex(any(IndexDefinition.class));
+        }
+
+        @Test
+        @DisplayName("should declare compound user indexes in key order")
+        void declaresCompoundIndexes() {
+            MongoIndexManager.IndexSpec spec = MongoIndexManager.INDEXES.stream()
+                    .filter(s -> s.type() == Expense.class && s.fields().length == 3)
+                    .findFirst()
+                    .orElseThrow();
+
+            Document keys = spec.toIndex().getIndexKeys();
+
+            assertThat(List.copyOf(keys.keySet())).containsExactly("userId", "isTimeBound", "endYear");
+            assertThat(spec.toIndex().getIndexOptions()).containsEntry("name", "userId_isTimeBound_endYear");
+        }
+
+        @Test
+        @DisplayName("should index role expiry for the expiry sweep")
+        void indexesRoleExpiry() {
+            assertThat(MongoIndexManager.INDEXES)
+                    .anyMatch(s -> s.type() == User.class && s.name().equals("roleExpiryDate"));
+        }
+
+        @Test
+        @DisplayName("should keep job lease documents so their fencing tokens only grow")
+        void keepsJobLeases() {
+            assertThat(MongoIndexManager.INDEXES).noneMatch(s -> s.type() == JobLease.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Finder verification")
+    class FinderVerification {
+
+        @Test
+        @DisplayName("should turn a derived finder into a filter on the same fields")
+        void buildsProbeFilter() {
+            Document filter = MongoIndexManager.probeFilter(new PartTree("findByUserIdAndIsRecurringTrue", Goal.class));
+
+            assertThat(filter).containsOnlyKeys("userId", "isRecurring").containsEntry("isRecurring", true);
+        }
+
+        @Test
+        @DisplayName("should map id to _id and ranges to operators")
+        void mapsIdAndRanges() {
+            Document byId = MongoIndexManager.probeFilter(new PartTree("findByIdAndUserId", Expense.class));
+            Document byYear = MongoIndexManager.probeFilter(new PartTree("findByTargetYearLessThanEqual", Goal.class));
+
+            assertThat(byId).containsOnlyKeys("_id", "userId");
+            assertThat(byYear.get("targetYear", Document.class)).containsKey("$lte");
+        }
+
+        @Test
+        @DisplayName("should leave finders without criteria unchecked")
+        void skipsUnfilteredFinders() {
+            assertThat(MongoIndexManager.probeFilter(new PartTree("findAllByOrderByTargetYearAsc", Goal.class)))
+                    .isEmpty();
+        }
+
+        @Test
+        @DisplayName("should find a collection scan anywhere in the winning plan")
+        void detectsCollectionScan() {
+            Document scan = Document.parse("{winningPlan: {stage: 'SORT', inputStage: {stage: 'COLLSCAN'}}}");
+            Document indexed = Document.parse("{winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}}}");
+            Document branched = Document.parse("{winningPlan: {stage: 'OR', inputStages: [{stage: 'IXSCAN'}, {stage: 'COLLSCAN'}]}}");
+
+            assertThat(MongoIndexManager.containsStage(scan, "COLLSCAN")).isTrue();
+            assertThat(MongoIndexManager.containsStage(indexed, "COLLSCAN")).isFalse();
+            assertThat(MongoIndexManager.containsStage(branched, "COLLSCAN")).isTrue();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.retyrment.config;
+
+import com.retyrment.controller.ModifiesUserData;
+import com.retyrment.model.User;
+import com.retyrment.service.RetirementMatrixCache;
+import com.retyrment.service.UserDataVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserDataChangeInterceptor Tests")
+class UserDataChangeInterceptorTest {
+
+    private static final String USER_ID = "user-1";
+
+    private UserDataVersionService dataVersionService;
+    private UserDataChangeInterceptor interceptor;
+
+    @ModifiesUserData
+    static class WritingController {
+        public void save() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataVersionService = new UserDataVersionService();
+        interceptor = new UserDataChangeInterceptor(dataVersionService);
+        User user = User.builder().id(USER_ID).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(new WritingController(), WritingController.class.getMethod("save"));
+    }
+
+    @Test
+    @DisplayName("should miss the matrix cache on a read made as soon as the write's response is sent")
+    void readAfterWriteMisses() throws Exception {
+        RetirementMatrixCache cache = new RetirementMatrixCache(dataVersionService, 100, 10);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(USER_ID, null, () -> Map.of("load", loads.incrementAndGet()));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/expenses");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, handler())).isTrue();
+        // The handler has written and flushed its response; afterCompletion has not run yet
+        Map<String, Object> read = cache.get(USER_ID, null, () -> Map.of("load", loads.incrementAndGet()));
+
+        assertThat(read).containsEntry("load", 2);
+        interceptor.afterCompletion(request, response, handler(), null);
+        assertThat(dataVersionService.currentVersion(USER_ID)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should leave the version alone for reads and after a failed write")
+    void ignoresReadsAndFailures() throws Exception {
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(400);
+
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/expenses"), new MockHttpServletResponse(), handler());
+        interceptor.afterCompletion(new MockHttpServletRequest("POST", "/expenses"), failed, handler(), null);
+
+        assertThat(dataVersionService.currentVersion(USER_ID)).isZero();
+    }
+}
@@ -2,14 +2,9 @@ package com.retyrment.controller;
 
 import com.retyrment.model.User;
 import com.retyrment.model.UserFeatureAccess;
-import com.retyrment.repository.ExpenseRepository;
-import com.retyrment.repository.FamilyMemberRepository;
-import com.retyrment.repository.GoalRepository;
-import com.retyrment.repository.IncomeRepository;
-import com.retyrment.repository.InsuranceRepository;
-import com.retyrment.repository.InvestmentRepository;
-import com.retyrment.repository.LoanRepository;
 import com.retyrment.repository.UserRepository;
+import com.retyrment.security.UserPrincipalCache;
+import com.retyrment.service.AdminUserService;
 import com.retyrment.service.FeatureAccessService;
 import com.retyrment.service.RoleExpiryService;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,28 +39,13 @@ class AdminControllerUnitTest {
     private RoleExpiryService roleExpiryService;
 
     @Mock
-    private FeatureAccessService featureAccessService;
-
-    @Mock
-    private IncomeRepository incomeRepository;
-
-    @Mock
-    private InvestmentRepository investmentRepository;
-
-    @Mock
-    private ExpenseRepository expenseRepository;
-
-    @Mock
-    private InsuranceRepository insuranceRepository;
-
-    @Mock
-    private LoanRepository loanRepository;
+    private UserPrincipalCache userPrincipalCache;
 
     @Mock
-    private GoalRepository goalRepository;
+    private FeatureAccessService featureAccessService;
 
     @Mock
-    private FamilyMemberRepository familyMemberRepository;
+    private AdminUserService adminUserService;
 
     @Mock
     private SecurityContext securityContext;
@@ -83,14 +63,6 @@ class AdminControllerUnitTest {
     void setUp() {
         SecurityContextHolder.setContext(securityContext);
 
-        lenient().when(incomeRepository.countByUserId(anyString())).thenReturn(0L);
-        lenient().when(investmentRepository.countByUserId(anyString())).thenReturn(0L);
-        lenient().when(expenseRepository.countByUserId(anyString())).thenReturn(0L);
-        lenient().when(insuranceRepository.countByUserId(anyString())).thenReturn(0L);
-        lenient().when(loanRepository.countByUserId(anyString())).thenReturn(0L);
-        lenient().when(goalRepository.countByUserId(anyString())).thenReturn(0L);
-        lenient().when(familyMemberRepository.countByUserId(anyString())).thenReturn(0L);
-        
         adminUser = User.builder()
                 .id("admin123")
                 .email("admin@example.com")
@@ -111,22 +83,18 @@ class AdminControllerUnitTest {
     @DisplayName("getAllUsers")
     class GetAllUsers {
         @Test
-        @DisplayName("should return all users when admin")
-        void shouldReturnAllUsersWhenAdmin() {
+        @DisplayName("should return a page of users when admin")
+        void shouldReturnPageOfUsersWhenAdmin() {
             when(securityContext.getAuthentication()).thenReturn(authentication);
             when(authentication.getPrincipal()).thenReturn(adminUser);
-            when(userRepository.findAll()).thenReturn(Arrays.asList(testUser, adminUser));
-            when(roleExpiryService.countExpiringRoles(7)).thenReturn(0L);
+            Map<String, Object> page = Map.of("total", 2L, "users", List.of(), "stats", Map.of());
+            when(adminUserService.listUsers(0, 50, "createdAt", false)).thenReturn(page);
 
-            ResponseEntity<?> response = adminController.getAllUsers();
+            ResponseEntity<?> response = adminController.getAllUsers(0, 50, "createdAt", "desc");
 
             assertThat(response.getStatusCodeValue()).isEqualTo(200);
-            assertThat(response.getBody()).isInstanceOf(Map.class);
-            @SuppressWarnings("unchecked")
-            Map<String, Object> body = (Map<String, Object>) response.getBody();
-            assertThat(body.get("total")).isEqualTo(2);
-            assertThat(body).containsKey("users");
-            assertThat(body).containsKey("stats");
+            assertThat(response.getBody()).isEqualTo(page);
+            verify(userRepository, never()).findAll();
         }
 
         @Test
@@ -135,32 +103,22 @@ class AdminControllerUnitTest {
             when(securityContext.getAuthentication()).thenReturn(authentication);
             when(authentication.getPrincipal()).thenReturn(testUser);
 
-            ResponseEntity<?> response = adminController.getAllUsers();
+            ResponseEntity<?> response = adminController.getAllUsers(0, 50, "createdAt", "desc");
 
             assertThat(response.getStatusCode().value()).isEqualTo(403);
+            verifyNoInteractions(adminUserService);
         }
 
         @Test
-        @DisplayName("should calculate stats correctly")
-        void shouldCalculateStatsCorrectly() {
-            User freeUser = User.builder().id("free1").role(User.UserRole.FREE).build();
-            User proUser = User.builder().id("pro1").role(User.UserRole.PRO).build();
-            User adminUser2 = User.builder().id("admin2").role(User.UserRole.ADMIN).build();
-
+        @DisplayName("should reject sorting by an unknown field")
+        void shouldRejectUnknownSortField() {
             when(securityContext.getAuthentication()).thenReturn(authentication);
             when(authentication.getPrincipal()).thenReturn(adminUser);
-            when(userRepository.findAll()).thenReturn(Arrays.asList(freeUser, proUser, adminUser2));
-            when(roleExpiryService.countExpiringRoles(7)).thenReturn(0L);
 
-            ResponseEntity<?> response = adminController.getAllUsers();
+            ResponseEntity<?> response = adminController.getAllUsers(0, 50, "password", "asc");
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> body = (Map<String, Object>) response.getBody();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> stats = (Map<String, Object>) body.get("stats");
-            assertThat(stats.get("free")).isEqualTo(1L);
-            assertThat(stats.get("pro")).isEqualTo(1L);
-            assertThat(stats.get("admin")).isEqualTo(1L);
+            assertThat(response.getStatusCode().value()).isEqualTo(400);
+            verifyNoInteractions(adminUserService);
         }
     }
 
@@ -184,6 +142,7 @@ class AdminControllerUnitTest {
 
             assertThat(response.getStatusCodeValue()).isEqualTo(200);
             verify(userRepository).save(any(User.class));
+            verify(userPrincipalCache).evict(testUser);
         }
 
         @Test
@@ -441,11 +400,12 @@ class AdminControllerUnitTest {
     @DisplayName("searchUsers")
     class SearchUsers {
         @Test
-        @DisplayName("should search users by email when admin")
+        @DisplayName("should search users by email prefix when admin")
         void shouldSearchUsersByEmailWhenAdmin() {
             when(securityContext.getAuthentication()).thenReturn(authentication);
             when(authentication.getPrincipal()).thenReturn(adminUser);
-            when(userRepository.findAll()).thenReturn(Arrays.asList(testUser));
+            when(adminUserService.searchByEmailPrefix("test", AdminUserService.MAX_PAGE_SIZE))
+                    .thenReturn(List.of(Map.of("email", "test@example.com")));
 
             ResponseEntity<?> response = adminController.searchUsers("test");
 
@@ -453,6 +413,7 @@ class AdminControllerUnitTest {
             @SuppressWarnings("unchecked")
             Map<String, Object> body = (Map<String, Object>) response.getBody();
             assertThat(body).containsKey("users");
+            verify(userRepository, never()).findAll();
         }
 
         @Test
@@ -482,6 +443,7 @@ class AdminControllerUnitTest {
 
             assertThat(response.getStatusCodeValue()).isEqualTo(200);
             verify(userRepository).deleteById("user123");
+            verify(featureAccessService).evict("user123");
         }
 
         @Test
@@ -2,6 +2,7 @@ package com.retyrment.controller;
 
 import com.retyrment.model.User;
 import com.retyrment.service.AnalysisService;
+import com.retyrment.service.DashboardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -27,6 +28,9 @@ class AnalysisControllerUnitTest {
     @Mock
     private AnalysisService analysisService;
 
+    @Mock
+    private DashboardService dashboardService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -147,12 +151,12 @@ class AnalysisControllerUnitTest {
             Map<String, Object> mockSimulation = new HashMap<>();
             mockSimulation.put("simulations", 1000);
             mockSimulation.put("successRate", 0.85);
-            when(analysisService.runMonteCarloSimulation("user-1", 1000, 10)).thenReturn(mockSimulation);
+            when(analysisService.runMonteCarloSimulation("user-1", 1000, 10, null)).thenReturn(mockSimulation);
 
-            Map<String, Object> result = analysisController.runMonteCarloSimulation(1000, 10);
+            Map<String, Object> result = analysisController.runMonteCarloSimulation(1000, 10, null);
 
             assertThat(result).containsKey("successRate");
-            verify(analysisService).runMonteCarloSimulation("user-1", 1000, 10);
+            verify(analysisService).runMonteCarloSimulation("user-1", 1000, 10, null);
         }
 
         @Test
@@ -160,12 +164,12 @@ class AnalysisControllerUnitTest {
         void shouldRunSimulationCustom() {
             Map<String, Object> mockSimulation = new HashMap<>();
             mockSimulation.put("simulations", 5000);
-            when(analysisService.runMonteCarloSimulation("user-1", 5000, 15)).thenReturn(mockSimulation);
+            when(analysisService.runMonteCarloSimulation("user-1", 5000, 15, 42L)).thenReturn(mockSimulation);
 
-            Map<String, Object> result = analysisController.runMonteCarloSimulation(5000, 15);
+            Map<String, Object> result = analysisController.runMonteCarloSimulation(5000, 15, 42L);
 
             assertThat(result).containsKey("simulations");
-            verify(analysisService).runMonteCarloSimulation("user-1", 5000, 15);
+            verify(analysisService).runMonteCarloSimulation("user-1", 5000, 15, 42L);
         }
     }
 
@@ -173,18 +177,20 @@ class AnalysisControllerUnitTest {
     @DisplayName("getFullSummary")
     class GetFullSummary {
         @Test
-        @DisplayName("should return full summary")
+        @DisplayName("should return the concurrently built dashboard")
         void shouldReturnFullSummary() {
             Map<String, Object> mockSummary = new HashMap<>();
             mockSummary.put("netWorth", 4000000.0);
             mockSummary.put("projections", new HashMap<>());
             mockSummary.put("goals", new HashMap<>());
-            when(analysisService.getFullSummary("user-1")).thenReturn(mockSummary);
+            mockSummary.put("complete", true);
+            when(dashboardService.getDashboard("user-1")).thenReturn(mockSummary);
 
             Map<String, Object> result = analysisController.getFullSummary();
 
-            assertThat(result).containsKeys("netWorth", "projections", "goals");
-            verify(analysisService).getFullSummary("user-1");
+            assertThat(result).containsKeys("netWorth", "projections", "goals", "complete");
+            verify(dashboardService).getDashboard("user-1");
+            verifyNoInteractions(analysisService);
         }
     }
 }
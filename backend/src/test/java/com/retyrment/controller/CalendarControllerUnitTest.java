@@ -80,11 +80,21 @@ class CalendarControllerUnitTest {
             mockCalendar.put("months", new ArrayList<>());
             when(calendarService.generateYearCalendar("user-1")).thenReturn(mockCalendar);
 
-            Map<String, Object> result = calendarController.getFullYearCalendar();
+            Map<String, Object> result = calendarController.getFullYearCalendar(null);
 
             assertThat(result).containsKey("year");
             verify(calendarService).generateYearCalendar("user-1");
         }
+
+        @Test
+        @DisplayName("should return the requested year")
+        void shouldReturnRequestedYear() {
+            when(calendarService.generateYearCalendar("user-1", 2027)).thenReturn(Map.of("year", 2027));
+
+            Map<String, Object> result = calendarController.getFullYearCalendar(2027);
+
+            assertThat(result).containsEntry("year", 2027);
+        }
     }
 
     @Nested
@@ -125,6 +135,21 @@ class CalendarControllerUnitTest {
         }
     }
 
+    @Nested
+    @DisplayName("getPaymentsDue")
+    class GetPaymentsDue {
+        @Test
+        @DisplayName("should return payments due in the requested number of days")
+        void shouldReturnPaymentsDue() {
+            when(calendarService.getPaymentsDue("user-1", 7)).thenReturn(List.of(Map.of("amount", 5000.0)));
+
+            List<Map<String, Object>> result = calendarController.getPaymentsDue(7);
+
+            assertThat(result).hasSize(1);
+            verify(calendarService).getPaymentsDue("user-1", 7);
+        }
+    }
+
     @Nested
     @DisplayName("getManualEntries")
     class GetManualEntries {
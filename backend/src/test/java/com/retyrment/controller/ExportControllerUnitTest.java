@@ -1,7 +1,9 @@
 package com.retyrment.controller;
 
 import com.retyrment.model.User;
+import com.retyrment.service.BulkImportService;
 import com.retyrment.service.ExportService;
+import com.retyrment.service.ImportReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,17 +12,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
 
@@ -31,6 +40,9 @@ class ExportControllerUnitTest {
     @Mock
     private ExportService exportService;
 
+    @Mock
+    private BulkImportService bulkImportService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -101,6 +113,21 @@ class ExportControllerUnitTest {
             assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
             assertThat(result.getBody().get("status")).isEqualTo("error");
         }
+
+        @Test
+        @DisplayName("should stream the bulk import body and report 422 when an atomic import rolls back")
+        void shouldReportRolledBackBulkImport() {
+            InputStream body = new ByteArrayInputStream("{}".getBytes());
+            ImportReport report = mock(ImportReport.class);
+            when(report.isRolledBack()).thenReturn(true);
+            when(report.toMap()).thenReturn(Map.of("status", "rolled_back"));
+            when(bulkImportService.importData("user-1", body, true, 100)).thenReturn(report);
+
+            ResponseEntity<Map<String, Object>> result = exportController.bulkImportDataFromJson(body, true, 100);
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+            assertThat(result.getBody()).containsEntry("status", "rolled_back");
+        }
     }
 
     @Nested
@@ -127,6 +154,25 @@ class ExportControllerUnitTest {
 
             assertThat(result.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        @Test
+        @DisplayName("should stream the requested report type for the user resolved on the request thread")
+        void shouldStreamPdf() throws Exception {
+            doAnswer(invocation -> {
+                invocation.<OutputStream>getArgument(1).write("PDF Content".getBytes());
+                return null;
+            }).when(exportService).writeRetirementPdfReport(eq("user-1"), any(OutputStream.class));
+
+            ResponseEntity<StreamingResponseBody> result = exportController.streamPdfReport("retirement");
+            SecurityContextHolder.clearContext();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            result.getBody().writeTo(out);
+
+            assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                    .contains("Retyrment_Retirement_Report.pdf");
+            assertThat(out.toString()).isEqualTo("PDF Content");
+            verify(exportService, never()).writeFinancialSummaryPdfReport(any(), any());
+        }
     }
 
     @Nested
@@ -153,5 +199,23 @@ class ExportControllerUnitTest {
 
             assertThat(result.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        @Test
+        @DisplayName("should stream the workbook for the user resolved on the request thread")
+        void shouldStreamExcel() throws Exception {
+            doAnswer(invocation -> {
+                invocation.<OutputStream>getArgument(1).write("Excel Content".getBytes());
+                return null;
+            }).when(exportService).writeExcelReport(eq("user-1"), any(OutputStream.class));
+
+            ResponseEntity<StreamingResponseBody> result = exportController.streamExcelReport();
+            SecurityContextHolder.clearContext();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            result.getBody().writeTo(out);
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(out.toString()).isEqualTo("Excel Content");
+            verify(exportService, never()).generateExcelReport(any());
+        }
     }
 }
@@ -0,0 +1,116 @@
+package com.retyrment.controller;
+
+import com.retyrment.exception.BusinessException;
+import com.retyrment.model.User;
+import com.retyrment.service.ReportJob;
+import com.retyrment.service.ReportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReportJobController Unit Tests")
+class ReportJobControllerUnitTest {
+
+    @Mock
+    private ReportJobService reportJobService;
+
+    @Mock
+    private ReportJob job;
+
+    @Mock
+    private SecurityContext securityContext;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private ReportJobController reportJobController;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.setContext(securityContext);
+        User testUser = User.builder()
+                .id("user-1")
+                .email("user1@example.com")
+                .role(User.UserRole.FREE)
+                .build();
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.getPrincipal()).thenReturn(testUser);
+    }
+
+    @Nested
+    @DisplayName("submitJob")
+    class SubmitJob {
+        @Test
+        @DisplayName("should accept the job for the requested report type")
+        void shouldAcceptJob() {
+            when(reportJobService.submit("user-1", ReportJob.Kind.EXCEL)).thenReturn(job);
+            when(job.toMap()).thenReturn(Map.of("id", "job-1", "status", "QUEUED"));
+
+            ResponseEntity<Map<String, Object>> result = reportJobController.submitJob("excel");
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(result.getBody()).containsEntry("id", "job-1");
+        }
+
+        @Test
+        @DisplayName("should return 429 when the user or queue is at capacity")
+        void shouldRejectWhenAtCapacity() {
+            when(reportJobService.submit("user-1", ReportJob.Kind.SUMMARY_PDF))
+                    .thenThrow(new BusinessException("Report queue is full, please try again shortly"));
+
+            ResponseEntity<Map<String, Object>> result = reportJobController.submitJob("summary");
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+            assertThat(result.getBody()).containsKey("error");
+        }
+    }
+
+    @Nested
+    @DisplayName("downloadJob")
+    class DownloadJob {
+        @Test
+        @DisplayName("should return 409 while the report is still rendering")
+        void shouldConflictWhileRunning() {
+            when(reportJobService.getJob("user-1", "job-1")).thenReturn(job);
+            when(job.getStatus()).thenReturn(ReportJob.Status.RUNNING);
+
+            ResponseEntity<?> result = reportJobController.downloadJob("job-1");
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        }
+
+        @Test
+        @DisplayName("should serve the finished file as an attachment")
+        void shouldServeFinishedFile() {
+            when(reportJobService.getJob("user-1", "job-1")).thenReturn(job);
+            when(job.getStatus()).thenReturn(ReportJob.Status.DONE);
+            when(job.getKind()).thenReturn(ReportJob.Kind.RETIREMENT_PDF);
+            when(reportJobService.openFile(job)).thenReturn(new ByteArrayInputStream("PDF".getBytes()));
+
+            ResponseEntity<?> result = reportJobController.downloadJob("job-1");
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                    .contains("Retyrment_Retirement_Report.pdf");
+        }
+    }
+}
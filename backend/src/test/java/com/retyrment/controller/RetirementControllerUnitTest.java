@@ -5,7 +5,11 @@ import com.retyrment.model.User;
 import com.retyrment.model.UserStrategy;
 import com.retyrment.repository.RetirementScenarioRepository;
 import com.retyrment.repository.UserStrategyRepository;
+import com.retyrment.service.RetirementMatrixCache;
 import com.retyrment.service.RetirementService;
+import com.retyrment.service.ScenarioComparisonService;
+import com.retyrment.service.UserDataVersionService;
+import com.retyrment.service.WhatIfSessionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -41,6 +46,17 @@ class RetirementControllerUnitTest {
     @Mock
     private RetirementService retirementService;
 
+    @Mock
+    private ScenarioComparisonService scenarioComparisonService;
+
+    @Mock
+    private WhatIfSessionService whatIfSessionService;
+
+    private final UserDataVersionService dataVersionService = new UserDataVersionService();
+
+    @Spy
+    private RetirementMatrixCache retirementMatrixCache = new RetirementMatrixCache(dataVersionService, 100, 10);
+
     @Mock
     private SecurityContext securityContext;
 
@@ -119,6 +135,146 @@ class RetirementControllerUnitTest {
             assertThat(result).containsKey("matrix");
             verify(retirementService).generateRetirementMatrix(eq("user123"), any(RetirementScenario.class));
         }
+
+        @Test
+        @DisplayName("should serve a repeated calculation from cache until the user's data changes")
+        void shouldCacheUntilDataChanges() {
+            Map<String, Object> mockMatrix = new HashMap<>();
+            mockMatrix.put("matrix", Collections.emptyList());
+            when(retirementService.generateRetirementMatrix(eq("user123"), any(RetirementScenario.class))).thenReturn(mockMatrix);
+
+            retirementController.calculateWithAssumptions(testScenario);
+            Map<String, Object> cached = retirementController.calculateWithAssumptions(testScenario);
+            dataVersionService.markChanged("user123");
+            retirementController.calculateWithAssumptions(testScenario);
+
+            assertThat(cached).isSameAs(mockMatrix);
+            verify(retirementService, times(2)).generateRetirementMatrix(eq("user123"), any(RetirementScenario.class));
+            assertThat(retirementMatrixCache.getStats()).containsEntry("hits", 1L).containsEntry("misses", 2L);
+        }
+
+        @Test
+        @DisplayName("should recalculate when any scenario field changes")
+        void shouldMissOnDifferentScenario() {
+            when(retirementService.generateRetirementMatrix(eq("user123"), any(RetirementScenario.class))).thenReturn(new HashMap<>());
+            RetirementScenario moreAggressive = RetirementScenario.builder()
+                    .id("scenario1").name("Test Scenario").currentAge(35).retirementAge(60).isDefault(false)
+                    .mfReturn(14.0)
+                    .build();
+
+            retirementController.calculateWithAssumptions(testScenario);
+            retirementController.calculateWithAssumptions(moreAggressive);
+
+            verify(retirementService, times(2)).generateRetirementMatrix(eq("user123"), any(RetirementScenario.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("simulateRetirement")
+    class SimulateRetirement {
+        @Test
+        @DisplayName("should run the simulation for the current user without caching")
+        void shouldDelegateToService() {
+            Map<String, Object> simulation = new HashMap<>();
+            simulation.put("successProbability", Map.of("SUSTAINABLE", 82.5));
+            when(retirementService.simulateRetirement("user123", testScenario, 2000, 42L)).thenReturn(simulation);
+
+            Map<String, Object> result = retirementController.simulateRetirement(testScenario, 2000, 42L);
+
+            assertThat(result).containsKey("successProbability");
+            verify(retirementService).simulateRetirement("user123", testScenario, 2000, 42L);
+            verifyNoInteractions(retirementMatrixCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("compareScenarios")
+    class CompareScenarios {
+        @Test
+        @DisplayName("should compare saved and unsaved scenarios for the current user")
+        void shouldDelegateToService() {
+            Map<String, Object> comparison = Map.of("scenarios", List.of(), "count", 2);
+            when(scenarioComparisonService.compare("user123", List.of("scenario1"), List.of(testScenario)))
+                    .thenReturn(comparison);
+
+            Map<String, Object> result = retirementController.compareScenarios(
+                    new RetirementController.ScenarioComparisonRequest(List.of("scenario1"), List.of(testScenario)));
+
+            assertThat(result).isSameAs(comparison);
+            verifyNoInteractions(retirementService, retirementMatrixCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("findEarliestRetirement")
+    class FindEarliestRetirement {
+        @Test
+        @DisplayName("should search for the current user's earliest retirement age")
+        void shouldDelegateToService() {
+            Map<String, Object> earliest = Map.of("earliestRetirementAge", 52);
+            when(retirementService.findEarliestRetirement("user123", testScenario)).thenReturn(earliest);
+
+            Map<String, Object> result = retirementController.findEarliestRetirement(testScenario);
+
+            assertThat(result).isSameAs(earliest);
+            verifyNoInteractions(retirementMatrixCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("closeGap")
+    class CloseGap {
+        @Test
+        @DisplayName("should solve the current user's gap levers")
+        void shouldDelegateToService() {
+            Map<String, Object> levers = Map.of("gap", 1_000_000L);
+            when(retirementService.closeGap("user123", testScenario)).thenReturn(levers);
+
+            Map<String, Object> result = retirementController.closeGap(testScenario);
+
+            assertThat(result).isSameAs(levers);
+            verifyNoInteractions(retirementMatrixCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("analyzeSensitivity")
+    class AnalyzeSensitivity {
+        @Test
+        @DisplayName("should sweep the requested axes for the current user")
+        void shouldDelegateToService() {
+            Map<String, Object> grid = Map.of("cells", List.of());
+            when(retirementService.analyzeSensitivity("user123", testScenario, List.of(55, 60), List.of(10.0, 12.0),
+                    null, null)).thenReturn(grid);
+
+            Map<String, Object> result = retirementController.analyzeSensitivity(new RetirementController.SensitivityRequest(
+                    testScenario, List.of(55, 60), List.of(10.0, 12.0), null, null));
+
+            assertThat(result).isSameAs(grid);
+            verifyNoInteractions(retirementMatrixCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("what-if sessions")
+    class WhatIfSessions {
+        @Test
+        @DisplayName("should start, edit and end the current user's session")
+        void shouldDelegateToService() {
+            Map<String, Object> started = Map.of("sessionId", "session1");
+            Map<String, Object> delta = Map.of("revision", 1);
+            RetirementScenario edits = RetirementScenario.builder().mfReturn(10.0).build();
+            when(whatIfSessionService.start("user123", testScenario)).thenReturn(started);
+            when(whatIfSessionService.edit("user123", "session1", edits)).thenReturn(delta);
+
+            assertThat(retirementController.startWhatIf(testScenario)).isSameAs(started);
+            assertThat(retirementController.editWhatIf("session1", edits)).isSameAs(delta);
+            ResponseEntity<Void> ended = retirementController.endWhatIf("session1");
+
+            assertThat(ended.getStatusCode().value()).isEqualTo(204);
+            verify(whatIfSessionService).end("user123", "session1");
+            verifyNoInteractions(retirementService);
+        }
     }
 
     @Nested
@@ -1,6 +1,7 @@
 package com.retyrment.controller;
 
 import com.retyrment.model.User;
+import com.retyrment.service.UserDataDeletion;
 import com.retyrment.service.UserDataDeletionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +18,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -112,7 +114,7 @@ class UserDataControllerTest {
         when(userDataDeletionService.deleteAllUserData(TEST_USER_ID)).thenReturn(expectedResult);
 
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA");
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA", false);
 
         // Assert
         assertNotNull(response);
@@ -128,7 +130,7 @@ class UserDataControllerTest {
     @DisplayName("Should reject deletion with invalid confirmation")
     void testDeleteAllData_InvalidConfirmation() {
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("INVALID_TOKEN");
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("INVALID_TOKEN", false);
 
         // Assert
         assertNotNull(response);
@@ -145,7 +147,7 @@ class UserDataControllerTest {
     @DisplayName("Should reject deletion with empty confirmation")
     void testDeleteAllData_EmptyConfirmation() {
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("");
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("", false);
 
         // Assert
         assertNotNull(response);
@@ -160,7 +162,7 @@ class UserDataControllerTest {
     @DisplayName("Should reject deletion with null confirmation")
     void testDeleteAllData_NullConfirmation() {
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData(null);
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData(null, false);
 
         // Assert
         assertNotNull(response);
@@ -183,7 +185,7 @@ class UserDataControllerTest {
         when(userDataDeletionService.deleteAllUserData(TEST_USER_ID)).thenReturn(failureResult);
 
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA");
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA", false);
 
         // Assert
         assertNotNull(response);
@@ -203,7 +205,7 @@ class UserDataControllerTest {
                 .thenThrow(new RuntimeException("Unexpected database error"));
 
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA");
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA", false);
 
         // Assert
         assertNotNull(response);
@@ -251,7 +253,7 @@ class UserDataControllerTest {
         when(userDataDeletionService.deleteAllUserData(TEST_USER_ID)).thenReturn(successResult);
 
         // Act
-        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA");
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA", false);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -265,15 +267,15 @@ class UserDataControllerTest {
     @DisplayName("Should handle case-sensitive confirmation token")
     void testDeleteAllData_CaseSensitiveToken() {
         // Test lowercase
-        ResponseEntity<Map<String, Object>> response1 = userDataController.deleteAllData("delete_all_data");
+        ResponseEntity<Map<String, Object>> response1 = userDataController.deleteAllData("delete_all_data", false);
         assertEquals(HttpStatus.BAD_REQUEST, response1.getStatusCode());
 
         // Test mixed case
-        ResponseEntity<Map<String, Object>> response2 = userDataController.deleteAllData("Delete_All_Data");
+        ResponseEntity<Map<String, Object>> response2 = userDataController.deleteAllData("Delete_All_Data", false);
         assertEquals(HttpStatus.BAD_REQUEST, response2.getStatusCode());
 
         // Test with spaces
-        ResponseEntity<Map<String, Object>> response3 = userDataController.deleteAllData("DELETE ALL DATA");
+        ResponseEntity<Map<String, Object>> response3 = userDataController.deleteAllData("DELETE ALL DATA", false);
         assertEquals(HttpStatus.BAD_REQUEST, response3.getStatusCode());
 
         // Verify service was never called for invalid tokens
@@ -302,4 +304,29 @@ class UserDataControllerTest {
         assertTrue(body.containsKey("error"));
         assertTrue(body.containsKey("message"));
     }
+
+    @Test
+    @DisplayName("Should start an async deletion and return its status")
+    void testDeleteAllData_Async() {
+        UserDataDeletion deletion = mock(UserDataDeletion.class);
+        when(deletion.toMap()).thenReturn(Map.of("status", "RUNNING"));
+        when(userDataDeletionService.startDeletion(TEST_USER_ID)).thenReturn(deletion);
+
+        ResponseEntity<Map<String, Object>> response = userDataController.deleteAllData("DELETE_ALL_DATA", true);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("RUNNING", response.getBody().get("status"));
+        verify(userDataDeletionService, never()).deleteAllUserData(anyString());
+    }
+
+    @Test
+    @DisplayName("Should return 404 when the user has no deletion")
+    void testGetDeletionStatus_NotFound() {
+        when(userDataDeletionService.getDeletion(TEST_USER_ID)).thenReturn(Optional.empty());
+
+        ResponseEntity<Map<String, Object>> response = userDataController.getDeletionStatus();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("No data deletion found", response.getBody().get("error"));
+    }
 }
@@ -0,0 +1,125 @@
+package com.retyrment.security;
+
+import com.retyrment.model.User;
+import com.retyrment.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtUtils jwtUtils;
+    private UserRepository userRepository;
+    private UserPrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "test-secret-key-for-jwt-tokens-must-be-at-least-256-bits-long");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 3_600_000L);
+        jwtUtils.init();
+
+        userRepository = mock(UserRepository.class);
+        principalCache = new UserPrincipalCache(userRepository, 100, 30);
+        filter = new JwtAuthenticationFilter(jwtUtils, principalCache);
+        user = User.builder().id("user-1").email("user1@example.com").role(User.UserRole.PRO).build();
+        when(userRepository.findByEmail("user1@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Nested
+    @DisplayName("Authentication")
+    class PrincipalResolution {
+
+        @Test
+        @DisplayName("should look the user up once and serve later requests from the cache")
+        void cachesPrincipal() throws Exception {
+            String token = jwtUtils.generateToken("user1@example.com", "User One", "PRO");
+
+            Authentication first = authenticate(token);
+            Authentication second = authenticate(token);
+
+            assertThat(first.getPrincipal()).isSameAs(user);
+            assertThat(second.getPrincipal()).isSameAs(user);
+            verify(userRepository, times(1)).findByEmail("user1@example.com");
+        }
+
+        @Test
+        @DisplayName("should reload the user after eviction")
+        void reloadsAfterEviction() throws Exception {
+            String token = jwtUtils.generateToken("user1@example.com", "User One", "PRO");
+            authenticate(token);
+
+            principalCache.evict(user);
+            authenticate(token);
+
+            verify(userRepository, times(2)).findByEmail("user1@example.com");
+        }
+
+        @Test
+        @DisplayName("should evict by user id when only the id is known")
+        void evictsById() throws Exception {
+            String token = jwtUtils.generateToken("user1@example.com", "User One", "PRO");
+            authenticate(token);
+
+            principalCache.evictById("user-1");
+
+            assertThat(principalCache.getStats()).containsEntry("size", 0L);
+        }
+
+        @Test
+        @DisplayName("should leave the request anonymous for a tampered token without a lookup")
+        void rejectsTamperedToken() throws Exception {
+            String token = jwtUtils.generateToken("user1@example.com", "User One", "PRO");
+
+            assertThat(authenticate(token + "x")).isNull();
+            assertThat(authenticate(null)).isNull();
+            verifyNoInteractions(userRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("JwtUtils")
+    class Tokens {
+
+        @Test
+        @DisplayName("should return subject and role from a single parse")
+        void parsesClaims() {
+            String token = jwtUtils.generateToken("user1@example.com", "User One", "PRO");
+
+            assertThat(jwtUtils.parseValidClaims(token).getSubject()).isEqualTo("user1@example.com");
+            assertThat(jwtUtils.getRoleFromToken(token)).isEqualTo("PRO");
+            assertThat(jwtUtils.validateToken("not-a-token")).isFalse();
+            assertThat(jwtUtils.parseValidClaims("not-a-token")).isNull();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.retyrment.service;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.retyrment.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AdminUserServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private AggregateIterable<Document> aggregation;
+    private AdminUserService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        mongoTemplate = mock(MongoTemplate.class);
+        MongoCollection<Document> users = mock(MongoCollection.class);
+        aggregation = mock(AggregateIterable.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(any())).thenAnswer(invocation ->
+                ((Class<?>) invocation.getArgument(0)).getSimpleName().toLowerCase());
+        when(mongoTemplate.getCollection("user")).thenReturn(users);
+        when(users.aggregate(anyList())).thenReturn(aggregation);
+        when(aggregation.allowDiskUse(anyBoolean())).thenReturn(aggregation);
+        service = new AdminUserService(mongoTemplate);
+    }
+
+    @Nested
+    @DisplayName("listUsers")
+    class ListUsers {
+
+        @Test
+        @DisplayName("should map the page, record counts and stats from one aggregation")
+        void mapsFacetResult() {
+            Document user = new Document("_id", "user-1")
+                    .append("email", "a@example.com")
+                    .append("role", "PRO")
+                    .append("recordSummary", new Document("income", 3).append("goals", 1));
+            when(aggregation.first()).thenReturn(new Document("users", List.of(user))
+                    .append("total", List.of(new Document("n", 120)))
+                    .append("roles", List.of(new Document("_id", "PRO").append("n", 20),
+                            new Document("_id", "FREE").append("n", 99),
+                            new Document("_id", null).append("n", 1)))
+                    .append("activeTrials", List.of())
+                    .append("temporaryRoles", List.of(new Document("n", 4)))
+                    .append("expiringIn7Days", List.of(new Document("n", 2))));
+
+            Map<String, Object> result = service.listUsers(1, 50, "createdAt", false);
+
+            assertThat(result).containsEntry("total", 120L).containsEntry("page", 1).containsEntry("totalPages", 3L);
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> users = (List<Map<String, Object>>) result.get("users");
+            assertThat(users).singleElement().satisfies(u -> {
+                assertThat(u).containsEntry("email", "a@example.com").containsEntry("role", "PRO");
+                assertThat((Map<String, Object>) u.get("recordSummary"))
+                        .containsEntry("income", 3L)
+                        .containsEntry("goals", 1L)
+                        .containsEntry("family", 0L);
+            });
+            assertThat((Map<String, Object>) result.get("stats"))
+                    .containsEntry("free", 100L)
+                    .containsEntry("pro", 20L)
+                    .containsEntry("admin", 0L)
+                    .containsEntry("activeTrials", 0L)
+                    .containsEntry("temporaryRoles", 4L)
+                    .containsEntry("expiringIn7Days", 2L);
+            verify(mongoTemplate, never()).findAll(any());
+        }
+
+        @Test
+        @DisplayName("should clamp the page size")
+        void clampsPageSize() {
+            when(aggregation.first()).thenReturn(new Document());
+
+            Map<String, Object> result = service.listUsers(-1, 10_000, "email", true);
+
+            assertThat(result).containsEntry("page", 0).containsEntry("size", AdminUserService.MAX_PAGE_SIZE)
+                    .containsEntry("total", 0L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Pipeline")
+    class Pipeline {
+
+        @Test
+        @DisplayName("should page, then count each collection through the userId index")
+        void buildsFacetPipeline() {
+            List<Document> pipeline = AdminUserService.listPipeline(Map.of("income", "income"), 2, 25,
+                    "email", true, new Date(), new Date());
+
+            Document facet = pipeline.get(0).get("$facet", Document.class);
+            assertThat(facet).containsOnlyKeys("users", "total", "roles", "activeTrials", "temporaryRoles", "expiringIn7Days");
+            List<Document> page = facet.getList("users", Document.class);
+            assertThat(page.get(0).get("$sort", Document.class)).containsEntry("email", 1).containsEntry("_id", 1);
+            assertThat(page.get(1)).containsEntry("$skip", 50L);
+            assertThat(page.get(2)).containsEntry("$limit", 25);
+            Document lookup = page.get(4).get("$lookup", Document.class);
+            assertThat(lookup).containsEntry("from", "income").containsEntry("foreignField", "userId");
+        }
+
+        @Test
+        @DisplayName("should anchor and escape the email prefix")
+        void escapesPrefix() {
+            assertThat(AdminUserService.prefixRegex(" John.Doe+1 ")).isEqualTo("^john\\.doe\\+1");
+        }
+    }
+}
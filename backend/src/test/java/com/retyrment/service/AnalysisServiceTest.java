@@ -19,6 +19,8 @@ import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -182,15 +184,6 @@ class AnalysisServiceTest {
                     .build();
 
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
-            when(calculationService.calculateFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenAnswer(inv -> {
-                        double pv = inv.getArgument(0);
-                        double rate = inv.getArgument(1);
-                        int years = inv.getArgument(2);
-                        return pv * Math.pow(1 + rate / 100, years);
-                    });
-            when(calculationService.calculateSIPFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenReturn(500000.0);
 
             Map<String, Object> result = analysisService.calculateProjections("test-user", 5);
 
@@ -200,6 +193,11 @@ class AnalysisServiceTest {
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> projections = (List<Map<String, Object>>) result.get("projections");
             assertThat(projections).hasSize(6); // 0 to 5 years
+            CalculationService formulas = new CalculationService();
+            assertThat(projections.get(0).get("projectedValue")).isEqualTo(100000L);
+            assertThat(((Number) result.get("finalValue")).doubleValue()).isCloseTo(
+                    formulas.calculateFutureValue(100000, 12.0, 5) + formulas.calculateSIPFutureValue(10000, 12.0, 5),
+                    within(1.0));
         }
 
         @Test
@@ -212,13 +210,6 @@ class AnalysisServiceTest {
                     .build();
 
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(fd));
-            when(calculationService.calculateFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenAnswer(inv -> {
-                        double pv = inv.getArgument(0);
-                        double rate = inv.getArgument(1);
-                        int years = inv.getArgument(2);
-                        return pv * Math.pow(1 + rate / 100, years);
-                    });
 
             Map<String, Object> result = analysisService.calculateProjections("test-user", 3);
 
@@ -252,13 +243,6 @@ class AnalysisServiceTest {
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
             when(calculationService.calculateInflatedValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(6000000.0); // Inflated amount
-            when(calculationService.calculateFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenAnswer(inv -> {
-                        double pv = inv.getArgument(0);
-                        double rate = inv.getArgument(1);
-                        int years = inv.getArgument(2);
-                        return pv * Math.pow(1 + rate / 100, years);
-                    });
 
             Map<String, Object> result = analysisService.analyzeGoals("test-user");
 
@@ -290,14 +274,6 @@ class AnalysisServiceTest {
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
             when(calculationService.calculateInflatedValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(12000000.0); // Larger inflated amount to ensure partial funding
-            when(calculationService.calculateFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenAnswer(inv -> {
-                        double pv = inv.getArgument(0);
-                        double rate = inv.getArgument(1);
-                        int years = inv.getArgument(2);
-                        // Return a value that will result in ~60-70% funding
-                        return pv * Math.pow(1 + rate / 100, years) * 1.2; // Slight growth
-                    });
 
             Map<String, Object> result = analysisService.analyzeGoals("test-user");
 
@@ -328,13 +304,6 @@ class AnalysisServiceTest {
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
             when(calculationService.calculateInflatedValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(10000000.0);
-            when(calculationService.calculateFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenAnswer(inv -> {
-                        double pv = inv.getArgument(0);
-                        double rate = inv.getArgument(1);
-                        int years = inv.getArgument(2);
-                        return pv * Math.pow(1 + rate / 100, years);
-                    });
 
             Map<String, Object> result = analysisService.analyzeGoals("test-user");
 
@@ -358,7 +327,6 @@ class AnalysisServiceTest {
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
             when(calculationService.calculateInflatedValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(0.0);
-            // calculateFutureValue is not called when there are no investments, so no need to stub
 
             Map<String, Object> result = analysisService.analyzeGoals("test-user");
 
@@ -386,13 +354,6 @@ class AnalysisServiceTest {
             when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
             when(calculationService.calculateInflatedValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(5000000.0);
-            when(calculationService.calculateFutureValue(anyDouble(), anyDouble(), anyInt()))
-                    .thenAnswer(inv -> {
-                        double pv = inv.getArgument(0);
-                        double rate = inv.getArgument(1);
-                        int years = inv.getArgument(2);
-                        return pv * Math.pow(1 + rate / 100, years);
-                    });
 
             Map<String, Object> result = analysisService.analyzeGoals("test-user");
 
@@ -1108,6 +1069,33 @@ class AnalysisServiceTest {
             assertThat((Integer) result.get("simulations")).isEqualTo(10000);
             assertThat(result).containsKey("percentiles");
         }
+
+        @Test
+        @DisplayName("should reproduce the same result for the same seed")
+        void shouldReproduceWithSeed() {
+            Investment mf = Investment.builder().currentValue(1000000.0).monthlySip(20000.0).build();
+            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
+            when(userSettingsRepository.findByUserId("test-user")).thenReturn(java.util.Optional.empty());
+            when(userStrategyRepository.findByUserId("test-user")).thenReturn(java.util.Optional.empty());
+            when(retirementService.calculateRequiredCorpusForUser(
+                    eq("test-user"), anyDouble(), anyInt(), anyInt(), anyString(), anyDouble(), anyDouble()
+            )).thenReturn(2000000.0);
+
+            Map<String, Object> first = analysisService.runMonteCarloSimulation("test-user", 5000, 20, 42L);
+            Map<String, Object> second = analysisService.runMonteCarloSimulation("test-user", 5000, 20, 42L);
+            Map<String, Object> other = analysisService.runMonteCarloSimulation("test-user", 5000, 20, 7L);
+
+            assertThat(second).isEqualTo(first);
+            assertThat(first).containsEntry("seed", 42L);
+            assertThat(other.get("percentiles")).isNotEqualTo(first.get("percentiles"));
+        }
+
+        @Test
+        @DisplayName("should reject a non-positive simulation count")
+        void shouldRejectZeroSimulations() {
+            assertThatThrownBy(() -> analysisService.runMonteCarloSimulation("test-user", 0, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
     }
 
     @Nested
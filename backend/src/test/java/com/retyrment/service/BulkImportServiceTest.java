@@ -0,0 +1,199 @@
+package com.retyrment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.retyrment.exception.BusinessException;
+import com.retyrment.model.Goal;
+import com.retyrment.model.Income;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BulkImportServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOps;
+    private List<List<?>> insertedBatches;
+    private TransactionStatus lastStatus;
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOps = mock(BulkOperations.class);
+        insertedBatches = new ArrayList<>();
+        when(mongoTemplate.bulkOps(any(BulkMode.class), any(Class.class))).thenReturn(bulkOps);
+        when(bulkOps.insert(anyList())).thenAnswer(invocation -> {
+            insertedBatches.add(new ArrayList<>(invocation.<List<?>>getArgument(0)));
+            return bulkOps;
+        });
+        when(bulkOps.execute()).thenAnswer(invocation -> {
+            BulkWriteResult result = mock(BulkWriteResult.class);
+            when(result.getInsertedCount()).thenReturn(insertedBatches.get(insertedBatches.size() - 1).size());
+            return result;
+        });
+
+        TransactionOperations transactions = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                lastStatus = new SimpleTransactionStatus();
+                try {
+                    return action.doInTransaction(lastStatus);
+                } catch (RuntimeException e) {
+                    // As TransactionTemplate does, roll back on an exception from the callback
+                    lastStatus.setRollbackOnly();
+                    throw e;
+                }
+            }
+        };
+        service = new BulkImportService(mongoTemplate, new ObjectMapper(), transactions, 2);
+    }
+
+    private ImportReport importJson(String json, boolean atomic, Integer batchSize) {
+        return service.importData("user-1",
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), atomic, batchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> counts(ImportReport report, String collection) {
+        return (Map<String, Object>) ((Map<String, Object>) report.toMap().get("collections")).get(collection);
+    }
+
+    @Nested
+    @DisplayName("Batching")
+    class Batching {
+
+        @Test
+        @DisplayName("should insert each collection in batches of the requested size, owned by the importing user")
+        void insertsInBatches() {
+            ImportReport report = importJson("""
+                    {"exportDate": "2026-01-01", "version": "1.0",
+                     "income": [{"source": "A", "monthlyAmount": 1}, {"source": "B"}, {"source": "C"}],
+                     "calendarEntries": [{"description": "skipped"}],
+                     "goals": [{"name": "House", "targetAmount": 100, "targetYear": 2030}]}
+                    """, false, null);
+
+            assertThat(insertedBatches).hasSize(3);
+            assertThat(insertedBatches.get(0)).hasSize(2);
+            assertThat(insertedBatches.get(1)).hasSize(1);
+            assertThat(insertedBatches.get(0))
+                    .allSatisfy(record -> assertThat(((Income) record).getUserId()).isEqualTo("user-1"));
+            assertThat(((Goal) insertedBatches.get(2).get(0)).getPriority()).isEqualTo(Goal.Priority.MEDIUM);
+            verify(mongoTemplate, times(2)).bulkOps(BulkMode.UNORDERED, Income.class);
+            assertThat(counts(report, "income")).containsEntry("imported", 3).containsEntry("failed", 0);
+            assertThat(report.toMap()).containsEntry("status", "success");
+            assertThat(report.getCollections()).doesNotContainKey("calendarEntries");
+        }
+
+        @Test
+        @DisplayName("should clamp the batch size to the supported range")
+        void clampsBatchSize() {
+            importJson("{\"income\": [{\"source\": \"A\"}, {\"source\": \"B\"}]}", false, 0);
+
+            assertThat(insertedBatches).hasSize(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class Validation {
+
+        @Test
+        @DisplayName("should skip and report records that do not map, keeping the rest")
+        void reportsInvalidRecords() {
+            ImportReport report = importJson("""
+                    {"investments": [{"type": "NOT_A_TYPE"}, {"type": "MUTUAL_FUND", "name": "Index"}, 42]}
+                    """, false, null);
+
+            assertThat(insertedBatches).hasSize(1);
+            assertThat(counts(report, "investments"))
+                    .containsEntry("received", 3)
+                    .containsEntry("imported", 1)
+                    .containsEntry("failed", 2);
+            assertThat(report.toMap()).containsEntry("status", "partial");
+        }
+
+        @Test
+        @DisplayName("should reject a payload that is not a JSON object")
+        void rejectsNonObjectPayload() {
+            assertThatThrownBy(() -> importJson("[1, 2]", false, null))
+                    .isInstanceOf(BusinessException.class);
+            assertThatThrownBy(() -> importJson("{\"income\": [", false, null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageStartingWith("Malformed import payload");
+        }
+    }
+
+    @Nested
+    @DisplayName("Atomic mode")
+    class AtomicMode {
+
+        @Test
+        @DisplayName("should commit an ordered import when every record is valid")
+        void commitsWhenValid() {
+            ImportReport report = importJson("{\"loans\": [{\"name\": \"Home\", \"emi\": 100}]}", true, null);
+
+            verify(mongoTemplate).bulkOps(eq(BulkMode.ORDERED), any(Class.class));
+            assertThat(lastStatus.isRollbackOnly()).isFalse();
+            assertThat(report.isRolledBack()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should roll back the transaction when any record fails")
+        void rollsBackOnError() {
+            ImportReport report = importJson("""
+                    {"loans": [{"name": "Home"}], "expenses": [{"category": "BOGUS"}]}
+                    """, true, null);
+
+            assertThat(lastStatus.isRollbackOnly()).isTrue();
+            assertThat(report.toMap()).containsEntry("status", "rolled_back");
+            assertThat(counts(report, "loans")).containsEntry("imported", 0);
+        }
+
+        @Test
+        @DisplayName("should roll back and stop importing when a bulk insert fails")
+        void rollsBackOnWriteError() {
+            BulkOperationException failure = mock(BulkOperationException.class);
+            BulkWriteResult partial = mock(BulkWriteResult.class);
+            when(partial.getInsertedCount()).thenReturn(0);
+            when(failure.getResult()).thenReturn(partial);
+            when(failure.getErrors()).thenReturn(List.of(
+                    new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)));
+            when(bulkOps.execute()).thenThrow(failure);
+
+            ImportReport report = importJson("""
+                    {"loans": [{"name": "Home"}], "expenses": [{"name": "Rent", "amount": 100}]}
+                    """, true, null);
+
+            assertThat(lastStatus.isRollbackOnly()).isTrue();
+            assertThat(report.toMap()).containsEntry("status", "rolled_back");
+            assertThat(counts(report, "loans")).containsEntry("failed", 1).containsEntry("imported", 0);
+            assertThat(report.getCollections()).doesNotContainKey("expenses");
+            verify(bulkOps, times(1)).execute();
+        }
+    }
+}
@@ -252,7 +252,27 @@ class CalculationServiceTest {
             assertThat(fv).isGreaterThan(regularSipFV);
         }
     }
-    
+
+    @Nested
+    @DisplayName("Portfolio Projection")
+    class PortfolioProjection {
+
+        @Test
+        @DisplayName("should project every year of all holdings at once")
+        void shouldProjectPortfolio() {
+            // ₹1 lakh FD at 7%, plus ₹2 lakh MF at 12% with a ₹10,000 SIP
+            double[] totals = calculationService.projectPortfolio(
+                    new double[]{100000, 200000}, new double[]{7.0, 12.0}, new double[]{0, 10000}, 10);
+
+            assertThat(totals).hasSize(11);
+            assertThat(totals[0]).isEqualTo(300000);
+            double expected = calculationService.calculateFutureValue(100000, 7.0, 10)
+                    + calculationService.calculateFutureValue(200000, 12.0, 10)
+                    + calculationService.calculateSIPFutureValue(10000, 12.0, 10);
+            assertThat(totals[10]).isCloseTo(expected, within(0.01));
+        }
+    }
+
     @Nested
     @DisplayName("PPF Maturity Calculation")
     class PpfMaturity {
@@ -7,18 +7,20 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,11 +39,14 @@ class CalendarServiceTest {
     @Mock
     private CalendarEntryRepository calendarEntryRepository;
 
-    @InjectMocks
+    private UserDataVersionService dataVersionService;
     private CalendarService calendarService;
 
     @BeforeEach
     void setUp() {
+        dataVersionService = new UserDataVersionService();
+        calendarService = new CalendarService(investmentRepository, loanRepository, insuranceRepository,
+                calendarEntryRepository, dataVersionService, 3, 100, 10);
         when(calendarEntryRepository.findByIsActiveTrue()).thenReturn(Collections.emptyList());
         when(investmentRepository.findByUserIdAndMonthlySipGreaterThan("test-user", 0.0)).thenReturn(Collections.emptyList());
         when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
@@ -516,4 +521,81 @@ class CalendarServiceTest {
             assertThat(entries.get(0).get("sipDay")).isEqualTo(1);
         }
     }
+
+    @Nested
+    @DisplayName("Materialized calendar")
+    class MaterializedCalendar {
+
+        private final int thisYear = LocalDate.now().getYear();
+
+        @Test
+        @DisplayName("should query each source once per data version")
+        void shouldBuildOncePerDataVersion() {
+            calendarService.generateYearCalendar("test-user");
+            calendarService.getMonthCalendar("test-user", 3);
+            calendarService.getUpcomingPayments("test-user", 30);
+
+            verify(investmentRepository, times(1)).findByUserIdAndMonthlySipGreaterThan("test-user", 0.0);
+            verify(investmentRepository, times(1)).findByUserId("test-user");
+            verify(loanRepository, times(1)).findByUserIdAndRemainingMonthsGreaterThan("test-user", 0);
+            verify(insuranceRepository, times(1)).findByUserId("test-user");
+            verify(calendarEntryRepository, times(1)).findByUserIdAndIsActiveTrue("test-user");
+
+            dataVersionService.markChanged("test-user");
+            calendarService.getMonthCalendar("test-user", 3);
+
+            verify(loanRepository, times(2)).findByUserIdAndRemainingMonthsGreaterThan("test-user", 0);
+        }
+
+        @Test
+        @DisplayName("should carry loan EMIs into the following years")
+        void shouldSpanYears() {
+            Loan loan = Loan.builder().id("loan1").name("Car").emi(20000.0).remainingMonths(18).build();
+            when(loanRepository.findByUserIdAndRemainingMonthsGreaterThan("test-user", 0)).thenReturn(List.of(loan));
+
+            Map<String, Object> nextYear = calendarService.generateYearCalendar("test-user", thisYear + 1);
+
+            assertThat(((Number) nextYear.get("yearlyGrandTotal")).doubleValue()).isEqualTo(120000.0);
+            Map<String, Object> range = calendarService.getRange("test-user",
+                    YearMonth.of(thisYear, 1), YearMonth.of(thisYear + 1, 12));
+            assertThat(((Number) range.get("total")).doubleValue()).isEqualTo(360000.0);
+            assertThat((List<?>) range.get("months")).hasSize(24);
+        }
+
+        @Test
+        @DisplayName("should keep one-time entries in the first year")
+        void shouldNotRepeatOneTimeEntries() {
+            CalendarEntry fee = CalendarEntry.builder().id("e1").description("School fee")
+                    .category(CalendarEntry.CalendarCategory.EDUCATION).amount(50000.0)
+                    .frequency(CalendarEntry.Frequency.ONE_TIME).dueMonths(List.of(6)).build();
+            when(calendarEntryRepository.findByUserIdAndIsActiveTrue("test-user")).thenReturn(List.of(fee));
+
+            assertThat(((Number) calendarService.generateYearCalendar("test-user").get("yearlyGrandTotal")).doubleValue())
+                    .isEqualTo(50000.0);
+            assertThat(((Number) calendarService.generateYearCalendar("test-user", thisYear + 1).get("yearlyGrandTotal")).doubleValue())
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("should reject years outside the calendar")
+        void shouldRejectYearOutsideHorizon() {
+            assertThatThrownBy(() -> calendarService.generateYearCalendar("test-user", thisYear + 3))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should list payments due within the window by due date")
+        void shouldListPaymentsDue() {
+            Investment mf = Investment.builder().id("mf1").name("MF").monthlySip(10000.0).sipDay(25).build();
+            Loan loan = Loan.builder().id("loan1").name("Home").emi(30000.0).emiDay(5).remainingMonths(36).build();
+            when(investmentRepository.findByUserIdAndMonthlySipGreaterThan("test-user", 0.0)).thenReturn(List.of(mf));
+            when(loanRepository.findByUserIdAndRemainingMonthsGreaterThan("test-user", 0)).thenReturn(List.of(loan));
+
+            List<Map<String, Object>> due = calendarService.getPaymentsDue("test-user", LocalDate.of(thisYear, 12, 20), 20);
+
+            assertThat(due).extracting(e -> e.get("dueDate"))
+                    .containsExactly(LocalDate.of(thisYear, 12, 25), LocalDate.of(thisYear + 1, 1, 5));
+            assertThat(due).extracting(e -> e.get("amount")).containsExactly(10000.0, 30000.0);
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import com.retyrment.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DashboardService Tests")
+class DashboardServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    private InvestmentRepository investmentRepository;
+    private InsuranceRepository insuranceRepository;
+    private LoanRepository loanRepository;
+    private ExpenseRepository expenseRepository;
+    private IncomeRepository incomeRepository;
+    private GoalRepository goalRepository;
+    private AnalysisService analysisService;
+    private ExecutorService executor;
+
+    private final List<Investment> investments = List.of(Investment.builder().currentValue(100000.0).build());
+    private final List<Goal> goals = List.of(Goal.builder().name("House").targetYear(2035).build());
+
+    @BeforeEach
+    void setUp() {
+        investmentRepository = mock(InvestmentRepository.class);
+        insuranceRepository = mock(InsuranceRepository.class);
+        loanRepository = mock(LoanRepository.class);
+        expenseRepository = mock(ExpenseRepository.class);
+        incomeRepository = mock(IncomeRepository.class);
+        goalRepository = mock(GoalRepository.class);
+        analysisService = mock(AnalysisService.class);
+        executor = Executors.newFixedThreadPool(4);
+
+        when(investmentRepository.findByUserId(USER_ID)).thenReturn(investments);
+        when(goalRepository.findByUserIdOrderByTargetYearAsc(USER_ID)).thenReturn(goals);
+        when(analysisService.netWorth(anyList(), anyList(), anyList())).thenReturn(Map.of("netWorth", 100000L));
+        when(analysisService.projections(anyList(), anyInt())).thenReturn(Map.of("finalValue", 300000L));
+        when(analysisService.goalAnalysis(anyList(), anyList())).thenReturn(Map.of("goals", List.of()));
+        when(analysisService.recommendations(anyList(), anyList(), anyList(), anyList()))
+                .thenReturn(Map.of("recommendations", List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private DashboardService service(long timeoutMillis) {
+        return new DashboardService(investmentRepository, insuranceRepository, loanRepository, expenseRepository,
+                incomeRepository, goalRepository, analysisService, executor, timeoutMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Map<String, Object> dashboard, String name) {
+        return (Map<String, Object>) ((Map<String, Object>) dashboard.get("sections")).get(name);
+    }
+
+    @Test
+    @DisplayName("should load each collection once and compute every section from it")
+    void computesAllSections() {
+        Map<String, Object> dashboard = service(5000).getDashboard(USER_ID);
+
+        assertThat(dashboard).containsEntry("netWorth", Map.of("netWorth", 100000L))
+                .containsEntry("projections", Map.of("finalValue", 300000L))
+                .containsEntry("goals", Map.of("goals", List.of()))
+                .containsEntry("recommendations", Map.of("recommendations", List.of()))
+                .containsEntry("complete", true)
+                .containsKey("elapsedMillis");
+        assertThat(section(dashboard, "netWorth")).containsEntry("status", "OK").containsKey("millis");
+        verify(investmentRepository, times(1)).findByUserId(USER_ID);
+        verify(insuranceRepository, times(1)).findByUserId(USER_ID);
+        verify(loanRepository, times(1)).findByUserId(USER_ID);
+        verify(expenseRepository, times(1)).findByUserId(USER_ID);
+        verify(incomeRepository, times(1)).findByUserIdAndIsActiveTrue(USER_ID);
+        verify(analysisService).projections(investments, AnalysisService.SUMMARY_PROJECTION_YEARS);
+        verify(analysisService).goalAnalysis(goals, investments);
+    }
+
+    @Test
+    @DisplayName("should return the other sections when one fails")
+    void reportsFailedSection() {
+        when(analysisService.recommendations(anyList(), anyList(), anyList(), anyList()))
+                .thenThrow(new IllegalStateException("Boom"));
+
+        Map<String, Object> dashboard = service(5000).getDashboard(USER_ID);
+
+        assertThat(dashboard).containsEntry("recommendations", null)
+                .containsEntry("netWorth", Map.of("netWorth", 100000L))
+                .containsEntry("complete", false);
+        assertThat(section(dashboard, "recommendations")).containsEntry("status", "FAILED").containsEntry("error", "Boom");
+        assertThat(section(dashboard, "goals")).containsEntry("status", "OK");
+    }
+
+    @Test
+    @DisplayName("should fail only the sections that need a collection whose query failed")
+    void reportsFailedQuery() {
+        when(loanRepository.findByUserId(USER_ID)).thenThrow(new DataAccessResourceFailureException("Database error"));
+
+        Map<String, Object> dashboard = service(5000).getDashboard(USER_ID);
+
+        assertThat(section(dashboard, "netWorth")).containsEntry("status", "FAILED").containsEntry("error", "Database error");
+        assertThat(section(dashboard, "projections")).containsEntry("status", "OK");
+        assertThat(section(dashboard, "recommendations")).containsEntry("status", "OK");
+        verify(analysisService, never()).netWorth(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should report a section still running at the deadline as TIMEOUT")
+    void reportsTimedOutSection() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(analysisService.projections(anyList(), anyInt())).thenAnswer(invocation -> {
+            release.await();
+            return Map.of();
+        });
+
+        try {
+            Map<String, Object> dashboard = service(200).getDashboard(USER_ID);
+
+            assertThat(dashboard).containsEntry("projections", null).containsEntry("complete", false);
+            assertThat(section(dashboard, "projections")).containsEntry("status", "TIMEOUT");
+            assertThat(section(dashboard, "netWorth")).containsEntry("status", "OK");
+            assertThat((Long) dashboard.get("elapsedMillis")).isLessThan(5000L);
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -43,9 +43,13 @@ class ExportServiceBranchCoverageTest {
     @Mock
     private AnalysisService analysisService;
     @Mock
+    private CalendarService calendarService;
+    @Mock
     private RetirementService retirementService;
     @Mock
     private CalendarEntryRepository calendarEntryRepository;
+    @Mock
+    private BulkImportService bulkImportService;
 
     @InjectMocks
     private ExportService exportService;
@@ -343,6 +347,8 @@ class ExportServiceBranchCoverageTest {
         data.put("expenses", Collections.emptyList());
         data.put("goals", Collections.emptyList());
 
+        when(bulkImportService.importData("user1", data)).thenReturn(new ImportReport(false));
+
         // Just verify it doesn't throw an exception
         exportService.importAllData("user1", data);
     }
@@ -1,7 +1,11 @@
 package com.retyrment.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
 import com.retyrment.model.*;
 import com.retyrment.repository.*;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,12 +13,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +55,13 @@ class ExportServiceTest {
     private RetirementService retirementService;
     @Mock
     private AnalysisService analysisService;
+    @Mock
+    private CalendarService calendarService;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @Spy
+    private BulkImportService bulkImportService = new BulkImportService(mongoTemplate, new ObjectMapper(),
+            TransactionOperations.withoutTransaction(), 500);
 
     @InjectMocks
     private ExportService exportService;
@@ -73,6 +94,27 @@ class ExportServiceTest {
     @Nested
     @DisplayName("importAllData")
     class ImportAllData {
+
+        private final List<Object> inserted = new ArrayList<>();
+
+        @BeforeEach
+        void setUp() {
+            BulkOperations bulkOps = mock(BulkOperations.class);
+            lenient().when(mongoTemplate.bulkOps(any(BulkMode.class), any(Class.class))).thenReturn(bulkOps);
+            List<Integer> batchSizes = new ArrayList<>();
+            lenient().when(bulkOps.insert(anyList())).thenAnswer(invocation -> {
+                List<?> batch = invocation.getArgument(0);
+                inserted.addAll(batch);
+                batchSizes.add(batch.size());
+                return bulkOps;
+            });
+            lenient().when(bulkOps.execute()).thenAnswer(invocation -> {
+                BulkWriteResult result = mock(BulkWriteResult.class);
+                when(result.getInsertedCount()).thenReturn(batchSizes.get(batchSizes.size() - 1));
+                return result;
+            });
+        }
+
         @Test
         @DisplayName("should import income data")
         void shouldImportIncomeData() {
@@ -85,11 +127,10 @@ class ExportServiceTest {
             incomeList.add(income);
             data.put("income", incomeList);
 
-            when(incomeRepository.save(any(Income.class))).thenAnswer(inv -> inv.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(incomeRepository).save(any(Income.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Income.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
         }
 
         @Test
@@ -105,11 +146,10 @@ class ExportServiceTest {
             invList.add(inv);
             data.put("investments", invList);
 
-            when(investmentRepository.save(any(Investment.class))).thenAnswer(i -> i.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(investmentRepository).save(any(Investment.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Investment.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
         }
 
         @Test
@@ -126,11 +166,10 @@ class ExportServiceTest {
             loanList.add(loan);
             data.put("loans", loanList);
 
-            when(loanRepository.save(any(Loan.class))).thenAnswer(i -> i.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(loanRepository).save(any(Loan.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Loan.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
         }
 
         @Test
@@ -146,11 +185,10 @@ class ExportServiceTest {
             insList.add(ins);
             data.put("insurance", insList);
 
-            when(insuranceRepository.save(any(Insurance.class))).thenAnswer(i -> i.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(insuranceRepository).save(any(Insurance.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Insurance.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
         }
 
         @Test
@@ -165,11 +203,10 @@ class ExportServiceTest {
             expList.add(exp);
             data.put("expenses", expList);
 
-            when(expenseRepository.save(any(Expense.class))).thenAnswer(i -> i.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(expenseRepository).save(any(Expense.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Expense.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
         }
 
         @Test
@@ -185,11 +222,10 @@ class ExportServiceTest {
             goalList.add(goal);
             data.put("goals", goalList);
 
-            when(goalRepository.save(any(Goal.class))).thenAnswer(i -> i.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(goalRepository).save(any(Goal.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Goal.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
         }
 
         @Test
@@ -203,11 +239,26 @@ class ExportServiceTest {
             incomeList.add(income);
             data.put("income", incomeList);
 
-            when(incomeRepository.save(any(Income.class))).thenAnswer(inv -> inv.getArgument(0));
-
             exportService.importAllData("test-user", data);
 
-            verify(incomeRepository).save(any(Income.class));
+            assertThat(inserted).singleElement().isInstanceOfSatisfying(Income.class,
+                    record -> assertThat(record.getUserId()).isEqualTo("test-user"));
+        }
+
+        @Test
+        @DisplayName("should insert each collection in one bulk write and report a record that does not map")
+        void shouldInsertInBulkAndReportInvalidRecords() {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("goals", List.of(Map.of("name", "Car"), Map.of("name", "House")));
+            data.put("expenses", List.of(Map.of("category", "BOGUS")));
+
+            assertThatThrownBy(() -> exportService.importAllData("test-user", data))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("expenses[0]:");
+
+            verify(mongoTemplate, times(1)).bulkOps(BulkMode.UNORDERED, Goal.class);
+            assertThat(inserted).hasSize(2);
+            verifyNoInteractions(goalRepository, expenseRepository);
         }
     }
 
@@ -269,6 +320,39 @@ class ExportServiceTest {
             assertThat(pdf.length).isGreaterThan(0);
         }
 
+        @Test
+        @DisplayName("writeFinancialSummaryPdfReport reads each collection once and streams a complete PDF")
+        void writeFinancialSummaryPdfReport_singleReadPerCollection() {
+            Map<String, Object> netWorth = new HashMap<>();
+            netWorth.put("totalAssets", 0.0);
+            netWorth.put("totalLiabilities", 0.0);
+            netWorth.put("netWorth", 0.0);
+            when(analysisService.calculateNetWorth("test-user")).thenReturn(netWorth);
+            List<Income> incomes = new ArrayList<>();
+            List<Expense> expenses = new ArrayList<>();
+            for (int i = 0; i < 55; i++) {
+                incomes.add(Income.builder().source("Source " + i).monthlyAmount(1000.0).isActive(true).build());
+                expenses.add(Expense.builder().name("Expense " + i).amount(100.0)
+                        .frequency(Expense.ExpenseFrequency.MONTHLY).build());
+            }
+            when(incomeRepository.findByUserId("test-user")).thenReturn(incomes);
+            when(expenseRepository.findByUserId("test-user")).thenReturn(expenses);
+            when(loanRepository.findByUserId("test-user")).thenReturn(List.of(Loan.builder().name("Home").emi(500.0).build()));
+            when(insuranceRepository.findByUserId("test-user"))
+                    .thenReturn(List.of(Insurance.builder().policyName("Term").annualPremium(1200.0).build()));
+            when(investmentRepository.findByUserId("test-user")).thenReturn(List.of());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            exportService.writeFinancialSummaryPdfReport("test-user", out);
+
+            assertThat(out.toString(StandardCharsets.ISO_8859_1)).startsWith("%PDF-").contains("%%EOF");
+            verify(incomeRepository, times(1)).findByUserId("test-user");
+            verify(expenseRepository, times(1)).findByUserId("test-user");
+            verify(loanRepository, times(1)).findByUserId("test-user");
+            verify(insuranceRepository, times(1)).findByUserId("test-user");
+            verify(investmentRepository, times(1)).findByUserId("test-user");
+        }
+
         @Test
         @DisplayName("generateRetirementPdfReport creates default scenario")
         void generateRetirementPdfReport_defaultScenario() {
@@ -423,6 +507,49 @@ class ExportServiceTest {
             assertThat(result.length).isGreaterThan(0);
         }
 
+        @Test
+        @DisplayName("should write the retirement matrix and calendar sheets")
+        void shouldWriteMatrixAndCalendarSheets() throws Exception {
+            when(analysisService.calculateNetWorth("test-user")).thenReturn(new HashMap<>());
+            RetirementProjection projection = new ProjectionEngine(new CalculationService(), 7.1, 8.15, 12.0, 6.0)
+                    .project(UserFinancialSnapshot.of("test-user",
+                                    List.of(Investment.builder().type(Investment.InvestmentType.PPF).currentValue(100000.0).build()),
+                                    List.of(), List.of(), List.of(), List.of(), List.of()),
+                            RetirementScenario.builder().currentAge(50).retirementAge(60).lifeExpectancy(80).build());
+            when(retirementService.projectRetirement(any(), any())).thenReturn(projection);
+
+            Map<String, Object> months = new LinkedHashMap<>();
+            for (String month : new String[]{"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"}) {
+                months.put(month, 5000.0);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("description", "HDFC Equity SIP");
+            entry.put("category", "SIP");
+            entry.put("months", months);
+            entry.put("yearlyTotal", 60000.0);
+            Map<String, Object> calendar = new LinkedHashMap<>();
+            calendar.put("entries", List.of(entry));
+            calendar.put("monthlyTotals", months);
+            calendar.put("yearlyGrandTotal", 60000.0);
+            when(calendarService.generateYearCalendar("test-user")).thenReturn(calendar);
+
+            byte[] result = exportService.generateExcelReport("test-user");
+
+            try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
+                Sheet matrixSheet = workbook.getSheet("Retirement Matrix");
+                // Header, 11 accumulation years, blank row, drawdown header, 21 drawdown years
+                assertThat(matrixSheet.getLastRowNum()).isEqualTo(11 + 1 + 1 + 21);
+                assertThat(matrixSheet.getRow(1).getCell(0).getNumericCellValue()).isEqualTo(projection.currentYear);
+                assertThat(matrixSheet.getRow(1).getCell(2).getNumericCellValue()).isEqualTo(100000.0);
+                assertThat(matrixSheet.getRow(11).getCell(1).getNumericCellValue()).isEqualTo(60.0);
+
+                Sheet calendarSheet = workbook.getSheet("Calendar");
+                assertThat(calendarSheet.getRow(1).getCell(0).getStringCellValue()).isEqualTo("HDFC Equity SIP");
+                assertThat(calendarSheet.getRow(1).getCell(14).getNumericCellValue()).isEqualTo(60000.0);
+                assertThat(calendarSheet.getRow(2).getCell(0).getStringCellValue()).isEqualTo("TOTAL");
+            }
+        }
+
         @Test
         @DisplayName("should handle empty investments")
         void shouldHandleEmptyInvestments() throws Exception {
@@ -11,7 +11,6 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -32,7 +31,6 @@ class FeatureAccessServiceTest {
     @Mock
     private UserFeatureAccessRepository featureAccessRepository;
 
-    @InjectMocks
     private FeatureAccessService featureAccessService;
 
     private User freeUser;
@@ -41,6 +39,8 @@ class FeatureAccessServiceTest {
 
     @BeforeEach
     void setUp() {
+        featureAccessService = new FeatureAccessService(featureAccessRepository, 100, 30);
+
         // FREE user
         freeUser = User.builder()
                 .id("free-user-1")
@@ -75,8 +75,8 @@ class FeatureAccessServiceTest {
     @DisplayName("getUserFeatureAccess")
     class GetUserFeatureAccess {
         @Test
-        @DisplayName("should return existing feature access if found")
-        void shouldReturnExistingFeatureAccess() {
+        @DisplayName("should apply stored overrides on top of the role template")
+        void shouldApplyStoredOverrides() {
             UserFeatureAccess existingAccess = UserFeatureAccess.builder()
                     .id("access-1")
                     .userId(freeUser.getId())
@@ -89,123 +89,129 @@ class FeatureAccessServiceTest {
 
             UserFeatureAccess result = featureAccessService.getUserFeatureAccess(freeUser);
 
-            assertThat(result).isEqualTo(existingAccess);
+            assertThat(result.getId()).isEqualTo("access-1");
+            assertThat(result.getUserId()).isEqualTo(freeUser.getId());
             assertThat(result.getIncomePage()).isTrue();
             assertThat(result.getInvestmentPage()).isFalse();
+            // Fields without an override come from the FREE template
+            assertThat(result.getCalendarPage()).isFalse();
+            assertThat(result.getAllowedInvestmentTypes()).contains("MUTUAL_FUND", "CASH");
             verify(featureAccessRepository, times(1)).findByUserId(freeUser.getId());
             verify(featureAccessRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("should create default feature access for FREE user if not exists")
-        void shouldCreateDefaultFeatureAccessForFreeUser() {
+        @DisplayName("should resolve FREE user without overrides from the template without saving")
+        void shouldResolveFreeUserFromTemplate() {
             when(featureAccessRepository.findByUserId(freeUser.getId()))
                     .thenReturn(Optional.empty());
 
-            UserFeatureAccess createdAccess = UserFeatureAccess.builder()
-                    .id("new-access")
-                    .userId(freeUser.getId())
-                    .incomePage(true)
-                    .investmentPage(true)
-                    .loanPage(true)
-                    .expensePage(true)
-                    .settingsPage(true)
-                    .accountPage(true)
-                    .calendarPage(false)
-                    .reportsPage(false)
-                    .simulationPage(false)
-                    .preferencesPage(false)
-                    .adminPanel(false)
-                    .retirementStrategyPlannerTab(false)
-                    .canExportPdf(false)
-                    .canExportExcel(false)
-                    .canExportJson(false)
-                    .canImportData(false)
-                    .allowedInvestmentTypes(new HashSet<>(Arrays.asList(
-                            "MUTUAL_FUND", "PPF", "EPF", "FD", "RD", "REAL_ESTATE"
-                    )))
-                    .blockedInsuranceTypes(new HashSet<>(Arrays.asList(
-                            "VEHICLE", "PENSION", "LIFE_SAVINGS"
-                    )))
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-
-            when(featureAccessRepository.save(any(UserFeatureAccess.class)))
-                    .thenReturn(createdAccess);
-
             UserFeatureAccess result = featureAccessService.getUserFeatureAccess(freeUser);
 
             assertThat(result).isNotNull();
-            assertThat(result.getUserId()).isEqualTo(freeUser.getId());
             assertThat(result.getIncomePage()).isTrue();
             assertThat(result.getCalendarPage()).isFalse();
             assertThat(result.getReportsPage()).isFalse();
             assertThat(result.getAdminPanel()).isFalse();
-
-            ArgumentCaptor<UserFeatureAccess> captor = ArgumentCaptor.forClass(UserFeatureAccess.class);
-            verify(featureAccessRepository).save(captor.capture());
-            UserFeatureAccess saved = captor.getValue();
-            assertThat(saved.getUserId()).isEqualTo(freeUser.getId());
+            assertThat(result.getCanExportPdf()).isFalse();
+            verify(featureAccessRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("should create default feature access for PRO user with additional permissions")
-        void shouldCreateDefaultFeatureAccessForProUser() {
+        @DisplayName("should resolve PRO user from the PRO template with additional permissions")
+        void shouldResolveProUserFromTemplate() {
             when(featureAccessRepository.findByUserId(proUser.getId()))
                     .thenReturn(Optional.empty());
 
-            UserFeatureAccess createdAccess = UserFeatureAccess.builder()
-                    .id("new-access")
-                    .userId(proUser.getId())
-                    .reportsPage(true)
-                    .simulationPage(true)
-                    .calendarPage(true)
-                    .preferencesPage(true)
-                    .retirementStrategyPlannerTab(true)
-                    .canExportPdf(true)
-                    .canExportExcel(true)
-                    .canExportJson(true)
-                    .canImportData(true)
-                    .build();
-
-            when(featureAccessRepository.save(any(UserFeatureAccess.class)))
-                    .thenReturn(createdAccess);
-
             UserFeatureAccess result = featureAccessService.getUserFeatureAccess(proUser);
 
-            assertThat(result).isNotNull();
-            ArgumentCaptor<UserFeatureAccess> captor = ArgumentCaptor.forClass(UserFeatureAccess.class);
-            verify(featureAccessRepository).save(captor.capture());
-            UserFeatureAccess saved = captor.getValue();
-            assertThat(saved.getUserId()).isEqualTo(proUser.getId());
             // PRO users should have additional access
-            assertThat(saved.getReportsPage()).isTrue();
-            assertThat(saved.getSimulationPage()).isTrue();
+            assertThat(result.getReportsPage()).isTrue();
+            assertThat(result.getSimulationPage()).isTrue();
+            assertThat(result.getAdminPanel()).isFalse();
+            verify(featureAccessRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("should create default feature access for ADMIN user with admin panel")
-        void shouldCreateDefaultFeatureAccessForAdminUser() {
+        @DisplayName("should resolve ADMIN user from the ADMIN template with admin panel")
+        void shouldResolveAdminUserFromTemplate() {
             when(featureAccessRepository.findByUserId(adminUser.getId()))
                     .thenReturn(Optional.empty());
 
-            UserFeatureAccess createdAccess = UserFeatureAccess.builder()
-                    .id("new-access")
-                    .userId(adminUser.getId())
-                    .adminPanel(true)
-                    .build();
+            UserFeatureAccess result = featureAccessService.getUserFeatureAccess(adminUser);
+
+            assertThat(result.getAdminPanel()).isTrue();
+            assertThat(result.getCanExportPdf()).isTrue();
+            assertThat(result.getCanRunSimulation()).isTrue();
+            verify(featureAccessRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should return a copy that carries the user id, so changes to it do not reach other users")
+        void shouldReturnIndependentCopy() {
+            User otherFreeUser = User.builder().id("free-user-2").role(User.UserRole.FREE).build();
+            when(featureAccessRepository.findByUserId(any())).thenReturn(Optional.empty());
+
+            UserFeatureAccess result = featureAccessService.getUserFeatureAccess(freeUser);
+            result.setCalendarPage(true);
+            result.setAllowedInvestmentTypes(Set.of("CRYPTO"));
+
+            assertThat(result.getUserId()).isEqualTo(freeUser.getId());
+            assertThat(result.getId()).isNull();
+            assertThat(featureAccessService.canAccessPage(freeUser, "calendar")).isFalse();
+            assertThat(featureAccessService.canAccessPage(otherFreeUser, "calendar")).isFalse();
+            assertThat(featureAccessService.getUserFeatureAccess(otherFreeUser).getAllowedInvestmentTypes())
+                    .contains("MUTUAL_FUND", "CASH");
+        }
+    }
+
+    @Nested
+    @DisplayName("Cached resolution")
+    class CachedResolution {
+        @Test
+        @DisplayName("should load overrides once and answer later checks from memory")
+        void shouldLoadOverridesOnce() {
+            when(featureAccessRepository.findByUserId(freeUser.getId()))
+                    .thenReturn(Optional.empty());
+
+            featureAccessService.canAccessPage(freeUser, "income");
+            featureAccessService.canExportPdf(freeUser);
+            featureAccessService.getFeatureAccessMap(freeUser);
 
+            verify(featureAccessRepository, times(1)).findByUserId(freeUser.getId());
+            assertThat(featureAccessService.getStats()).containsEntry("hits", 2L);
+        }
+
+        @Test
+        @DisplayName("should pick up a role change on the next check")
+        void shouldResolveAgainAfterRoleChange() {
+            when(featureAccessRepository.findByUserId(freeUser.getId()))
+                    .thenReturn(Optional.empty());
+            assertThat(featureAccessService.canAccessPage(freeUser, "reports")).isFalse();
+
+            freeUser.setRole(User.UserRole.ADMIN);
+
+            assertThat(featureAccessService.canAccessPage(freeUser, "reports")).isTrue();
+            assertThat(featureAccessService.canAccessPage(freeUser, "admin")).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reload overrides after they are updated")
+        void shouldReloadAfterUpdate() {
+            UserFeatureAccess overrides = UserFeatureAccess.builder()
+                    .userId(freeUser.getId())
+                    .build();
+            when(featureAccessRepository.findByUserId(freeUser.getId()))
+                    .thenReturn(Optional.of(overrides));
             when(featureAccessRepository.save(any(UserFeatureAccess.class)))
-                    .thenReturn(createdAccess);
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+            assertThat(featureAccessService.canExportPdf(freeUser)).isFalse();
 
-            UserFeatureAccess result = featureAccessService.getUserFeatureAccess(adminUser);
+            featureAccessService.updateFeatureAccess(freeUser.getId(),
+                    UserFeatureAccess.builder().canExportPdf(true).build());
 
-            assertThat(result).isNotNull();
-            ArgumentCaptor<UserFeatureAccess> captor = ArgumentCaptor.forClass(UserFeatureAccess.class);
-            verify(featureAccessRepository).save(captor.capture());
-            UserFeatureAccess saved = captor.getValue();
-            assertThat(saved.getAdminPanel()).isTrue();
+            assertThat(featureAccessService.canExportPdf(freeUser)).isTrue();
+            verify(featureAccessRepository, times(3)).findByUserId(freeUser.getId());
         }
     }
 
@@ -0,0 +1,166 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("GapSolver Tests")
+class GapSolverTest {
+
+    private static final int CURRENT_YEAR = 2026;
+
+    @Nested
+    @DisplayName("Root finding")
+    class RootFinding {
+
+        @Test
+        @DisplayName("should settle a linear gap in a few evaluations from the warm start")
+        void linearGap() {
+            GapSolver.Root root = GapSolver.solve(x -> 1000 - 10 * x, 0, 1000, 30, 1000, 1.0, 20);
+
+            assertThat(root.x()).isBetween(100.0, 101.0);
+            assertThat(root.gap()).isLessThanOrEqualTo(0);
+            assertThat(root.evaluations()).isLessThanOrEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should bracket and narrow a nonlinear gap to the tolerance")
+        void nonlinearGap() {
+            GapSolver.Root root = GapSolver.solve(x -> 1000 - x * x, 0, 1000, 5, 100, 0.01, 20);
+
+            assertThat(root.x()).isCloseTo(Math.sqrt(1000), within(0.011));
+            assertThat(root.gap()).isLessThanOrEqualTo(0);
+            assertThat(root.evaluations()).isLessThan(20);
+        }
+
+        @Test
+        @DisplayName("should report a gap the upper bound cannot close")
+        void unreachable() {
+            GapSolver.Root root = GapSolver.solve(x -> 1000 - x, 0, 1000, 10, 50, 1.0, 20);
+
+            assertThat(root.found()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Levers under the projection engine")
+    class Levers {
+
+        private ProjectionEngine engine;
+        private UserFinancialSnapshot snapshot;
+
+        @BeforeEach
+        void setUp() {
+            engine = new ProjectionEngine(new CalculationService(), 7.1, 8.15, 12.0, 6.0);
+            Investment mf = Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(2_000_000.0).monthlySip(20_000.0).build();
+            Expense household = Expense.builder().name("Household").amount(120_000.0)
+                    .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+            snapshot = UserFinancialSnapshot.of("user-1", List.of(mf), List.of(), List.of(), List.of(household),
+                    List.of(), List.of());
+        }
+
+        private RetirementScenario scenario() {
+            return RetirementScenario.builder()
+                    .currentAge(40)
+                    .retirementAge(55)
+                    .lifeExpectancy(85)
+                    .inflation(6.0)
+                    .mfReturn(12.0)
+                    .sipStepup(10.0)
+                    .build();
+        }
+
+        private double gap(UserFinancialSnapshot data, RetirementScenario scenario) {
+            RetirementProjection p = engine.project(data, scenario, CURRENT_YEAR);
+            return p.requiredCorpus[0][p.yearsToRetirement] - p.netCorpus[p.yearsToRetirement];
+        }
+
+        private UserFinancialSnapshot withSip(double extra) {
+            List<Investment> investments = new ArrayList<>(snapshot.getInvestments());
+            investments.add(Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(0.0).monthlySip(extra).build());
+            return UserFinancialSnapshot.of("user-1", investments, List.of(), List.of(), snapshot.getExpenses(),
+                    List.of(), List.of());
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> lever(Map<String, Object> result, String name) {
+            return (Map<String, Object>) ((Map<String, Object>) result.get("levers")).get(name);
+        }
+
+        @Test
+        @DisplayName("should find the smallest value of each lever that closes the gap")
+        void leversCloseTheGap() {
+            RetirementScenario scenario = scenario();
+            assertThat(gap(snapshot, scenario)).isPositive();
+
+            Map<String, Object> result = new GapSolver(engine, snapshot, scenario, CURRENT_YEAR).solve();
+
+            assertThat(result).containsEntry("onTrack", false).containsEntry("incomeStrategy", "SUSTAINABLE");
+
+            Map<String, Object> sip = lever(result, "additionalMonthlySip");
+            double extra = (Double) sip.get("value");
+            assertThat(gap(withSip(extra), scenario)).isLessThanOrEqualTo(0);
+            assertThat(gap(withSip(extra - 2), scenario)).isPositive();
+            assertThat((Integer) sip.get("evaluations")).isLessThanOrEqualTo(6);
+
+            Map<String, Object> lumpsum = lever(result, "yearlyLumpsum");
+            double yearly = (Double) lumpsum.get("value");
+            assertThat(gap(snapshot, scenario.toBuilder().lumpsumAmount(yearly).build())).isLessThanOrEqualTo(0);
+            assertThat(gap(snapshot, scenario.toBuilder().lumpsumAmount(yearly - 2).build())).isPositive();
+
+            Map<String, Object> stepUp = lever(result, "sipStepUp");
+            if (stepUp.get("value") != null) {
+                double percent = (Double) stepUp.get("value");
+                assertThat(gap(snapshot, scenario.toBuilder().sipStepup(percent).build())).isLessThanOrEqualTo(0);
+                assertThat(gap(snapshot, scenario.toBuilder().sipStepup(percent - 0.2).build())).isPositive();
+                assertThat(stepUp.get("increase")).isEqualTo(Math.round((percent - 10.0) * 10) / 10.0);
+            }
+
+            Map<String, Object> delay = lever(result, "retirementDelay");
+            if (delay.get("years") != null) {
+                int age = (Integer) delay.get("retirementAge");
+                assertThat(age).isEqualTo(55 + (Integer) delay.get("years"));
+                assertThat(gap(snapshot, scenario.toBuilder().retirementAge(age).build())).isLessThanOrEqualTo(0);
+                assertThat(gap(snapshot, scenario.toBuilder().retirementAge(age - 1).build())).isPositive();
+            }
+        }
+
+        @Test
+        @DisplayName("should report no delay when the plan is not affordable before life expectancy")
+        void unreachableDelay() {
+            UserFinancialSnapshot noSavings = UserFinancialSnapshot.of("user-1", List.of(), List.of(), List.of(),
+                    snapshot.getExpenses(), List.of(), List.of());
+
+            Map<String, Object> result = new GapSolver(engine, noSavings, scenario(), CURRENT_YEAR).solve();
+
+            assertThat(result).containsEntry("onTrack", false);
+            assertThat(lever(result, "retirementDelay")).containsEntry("years", null)
+                    .containsEntry("retirementAge", null);
+        }
+
+        @Test
+        @DisplayName("should report only a zero delay when already on track")
+        @SuppressWarnings("unchecked")
+        void onTrack() {
+            RetirementScenario scenario = scenario();
+            UserFinancialSnapshot wealthy = withSip(2_000_000.0);
+
+            Map<String, Object> result = new GapSolver(engine, wealthy, scenario, CURRENT_YEAR).solve();
+
+            assertThat(result).containsEntry("onTrack", true);
+            assertThat((Map<String, Object>) result.get("levers")).containsOnlyKeys("retirementDelay");
+            assertThat(lever(result, "retirementDelay")).containsEntry("years", 0).containsEntry("retirementAge", 55);
+        }
+    }
+}
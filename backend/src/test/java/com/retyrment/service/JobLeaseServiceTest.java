@@ -0,0 +1,115 @@
+package com.retyrment.service;
+
+import com.retyrment.model.JobLease;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobLeaseServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private MongoTemplate mongoTemplate;
+    private JobLeaseService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new JobLeaseService(mongoTemplate, 0);
+    }
+
+    private void givenLeaseFree(long token) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(JobLease.class)))
+                .thenReturn(JobLease.builder().job("job").token(token).expiresAt(Instant.now().plus(TTL)).build());
+    }
+
+    private void givenLeaseTaken() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(JobLease.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+    }
+
+    @Test
+    @DisplayName("should claim a missing or expired lease and bump its fencing token")
+    void claimsExpiredLease() {
+        givenLeaseFree(7);
+
+        Optional<JobLeaseService.Lease> lease = service.tryAcquire("job", TTL);
+
+        assertThat(lease).get().extracting(JobLeaseService.Lease::token).isEqualTo(7L);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(JobLease.class));
+        assertThat(query.getValue().getQueryObject().get("expiresAt", Document.class)).containsKey("$lte");
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("token", 1);
+        assertThat(options.getValue().isUpsert()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should skip the job while another instance holds the lease")
+    void skipsHeldLease() {
+        givenLeaseTaken();
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Optional<Boolean> result = service.runExclusively("job", TTL, lease -> ran.getAndSet(true));
+
+        assertThat(result).isEmpty();
+        assertThat(ran).isFalse();
+        assertThat(service.getStats()).containsEntry("skipped", 1L);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(JobLease.class));
+    }
+
+    @Test
+    @DisplayName("should release the lease after the job, also when it fails")
+    void releasesAfterFailure() {
+        givenLeaseFree(1);
+
+        assertThatThrownBy(() -> service.runExclusively("job", TTL, lease -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ArgumentCaptor<Query> release = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(release.capture(), any(Update.class), eq(JobLease.class));
+        assertThat(release.getValue().getQueryObject()).containsEntry("_id", "job").containsEntry("token", 1L);
+    }
+
+    @Test
+    @DisplayName("should keep the lease after a scheduled run so instances on the same tick skip it")
+    void scheduledRunKeepsLease() {
+        givenLeaseFree(2);
+
+        Optional<Boolean> result = service.runScheduled("job", TTL, lease -> true);
+
+        assertThat(result).contains(true);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(JobLease.class));
+    }
+
+    @Test
+    @DisplayName("should report a lease taken over by a newer token as lost")
+    void detectsLostLease() {
+        givenLeaseFree(3);
+        JobLeaseService.Lease lease = service.tryAcquire("job", TTL).orElseThrow();
+        when(mongoTemplate.exists(any(Query.class), eq(JobLease.class))).thenReturn(false);
+
+        assertThat(service.isHeld(lease)).isFalse();
+        assertThat(service.getStats()).containsEntry("lost", 1L);
+    }
+}
@@ -0,0 +1,72 @@
+package com.retyrment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MonteCarloEngineTest {
+
+    @Nested
+    @DisplayName("Simulation")
+    class Simulation {
+
+        @Test
+        @DisplayName("should produce identical values for the same seed across chunks")
+        void reproducibleForSeed() {
+            int simulations = MonteCarloEngine.CHUNK_SIZE * 5 + 17;
+
+            double[] first = MonteCarloEngine.simulateFinalValues(1_000_000, 240_000, 12, 8, 20, simulations, 42L);
+            double[] second = MonteCarloEngine.simulateFinalValues(1_000_000, 240_000, 12, 8, 20, simulations, 42L);
+            double[] other = MonteCarloEngine.simulateFinalValues(1_000_000, 240_000, 12, 8, 20, simulations, 43L);
+
+            assertThat(first).hasSize(simulations).containsExactly(second);
+            assertThat(other).isNotEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("should match the deterministic projection when volatility is zero")
+        void zeroVolatility() {
+            double[] values = MonteCarloEngine.simulateFinalValues(100_000, 12_000, 10, 0, 2, 3, 1L);
+
+            double expected = 100_000;
+            for (int year = 0; year < 2; year++) {
+                expected = expected * 1.10 + 12_000 * 1.05;
+            }
+            for (double value : values) {
+                assertThat(value).isCloseTo(expected, within(1e-6));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Percentiles")
+    class Percentiles {
+
+        @Test
+        @DisplayName("should select the same values as indexing a sorted copy")
+        void matchesSortedIndex() {
+            SplittableRandom random = new SplittableRandom(7L);
+            for (int n : new int[]{1, 2, 10, 999, 10_000}) {
+                double[] values = new double[n];
+                for (int i = 0; i < n; i++) {
+                    // Coarse values so duplicates are common
+                    values[i] = Math.floor(random.nextGaussian() * 10);
+                }
+                double[] sorted = values.clone();
+                Arrays.sort(sorted);
+
+                double[] p = MonteCarloEngine.percentiles(values, 0.10, 0.25, 0.50, 0.75, 0.90);
+
+                assertThat(p).containsExactly(
+                        sorted[(int) (n * 0.10)], sorted[(int) (n * 0.25)], sorted[(int) (n * 0.50)],
+                        sorted[(int) (n * 0.75)], sorted[(int) (n * 0.90)]);
+            }
+        }
+    }
+}
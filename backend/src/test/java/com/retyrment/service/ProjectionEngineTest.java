@@ -0,0 +1,200 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ProjectionEngineTest {
+
+    private static final int CURRENT_YEAR = 2026;
+
+    private ProjectionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ProjectionEngine(new CalculationService(), 7.1, 8.15, 12.0, 6.0);
+    }
+
+    private static RetirementScenario scenario(int currentAge, int retirementAge, int lifeExpectancy) {
+        return RetirementScenario.builder()
+                .currentAge(currentAge)
+                .retirementAge(retirementAge)
+                .lifeExpectancy(lifeExpectancy)
+                .inflation(6.0)
+                .enableRateReduction(false)
+                .build();
+    }
+
+    private static UserFinancialSnapshot snapshot(List<Investment> investments, List<Goal> goals) {
+        return UserFinancialSnapshot.of("user-1", investments, List.of(), goals, List.of(), List.of(), List.of());
+    }
+
+    @Nested
+    @DisplayName("Accumulation columns")
+    class Accumulation {
+
+        @Test
+        @DisplayName("should size columns by years to retirement and start from current balances")
+        void columnsStartFromCurrentBalances() {
+            Investment ppf = Investment.builder().type(Investment.InvestmentType.PPF).currentValue(500_000.0).build();
+            Investment mf = Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(1_000_000.0).monthlySip(20_000.0).build();
+
+            RetirementProjection p = engine.project(snapshot(List.of(ppf, mf), List.of()), scenario(35, 60, 85), CURRENT_YEAR);
+
+            assertThat(p.rows()).isEqualTo(26);
+            assertThat(p.ppf[0]).isEqualTo(500_000.0);
+            assertThat(p.mf[0]).isEqualTo(1_000_000.0);
+            assertThat(p.mfSip[0]).isEqualTo(20_000.0);
+            assertThat(p.totalCorpus[0]).isEqualTo(1_500_000.0);
+            assertThat(p.calendarYear(25)).isEqualTo(CURRENT_YEAR + 25);
+            assertThat(p.age(25)).isEqualTo(60);
+        }
+
+        @Test
+        @DisplayName("should grow PPF by the default rate in year 1 and the scenario rate afterwards")
+        void ppfUsesEffectiveFromYear() {
+            Investment ppf = Investment.builder().type(Investment.InvestmentType.PPF).currentValue(100_000.0).build();
+            RetirementScenario s = scenario(35, 40, 85);
+            s.setPpfReturn(8.0);
+            s.setEffectiveFromYear(2);
+
+            RetirementProjection p = engine.project(snapshot(List.of(ppf), List.of()), s, CURRENT_YEAR);
+
+            assertThat(p.ppfRate[1]).isEqualTo(7.1);
+            assertThat(p.ppfRate[2]).isEqualTo(8.0);
+            assertThat(p.ppf[2]).isCloseTo(100_000 * 1.071 * 1.08, within(0.001));
+        }
+
+        @Test
+        @DisplayName("should place goal outflows and labels in their target year and net them from corpus")
+        void goalOutflowInTargetYear() {
+            Investment cash = Investment.builder().type(Investment.InvestmentType.CASH).currentValue(5_000_000.0).build();
+            Goal goal = Goal.builder().name("Car").targetYear(CURRENT_YEAR + 3).targetAmount(800_000.0)
+                    .adjustForInflation(false).build();
+
+            RetirementProjection p = engine.project(snapshot(List.of(cash), List.of(goal)), scenario(35, 45, 85), CURRENT_YEAR);
+
+            assertThat(p.goalOutflow[3]).isEqualTo(800_000.0);
+            assertThat(p.goalOutflow[2]).isZero();
+            assertThat(RetirementProjection.labels(p.goalsThisYear, 3)).containsExactly("Car");
+            assertThat(RetirementProjection.labels(p.goalsThisYear, 2)).isEmpty();
+            assertThat(p.netCorpus[3]).isEqualTo(p.totalCorpus[3] - 800_000.0);
+        }
+
+        @Test
+        @DisplayName("should reject a retirement age below the current age")
+        void rejectsRetirementBeforeCurrentAge() {
+            UserFinancialSnapshot empty = snapshot(List.of(), List.of());
+
+            assertThatThrownBy(() -> engine.project(empty, scenario(50, 45, 85), CURRENT_YEAR))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Required corpus and drawdown")
+    class RequiredAndDrawdown {
+
+        @Test
+        @DisplayName("should fill one required-corpus column per strategy for every year")
+        void requiredCorpusPerStrategy() {
+            Expense rent = Expense.builder().name("Household").amount(50_000.0)
+                    .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+            UserFinancialSnapshot snapshot = UserFinancialSnapshot.of("user-1", List.of(), List.of(), List.of(),
+                    List.of(rent), List.of(), List.of());
+
+            RetirementProjection p = engine.project(snapshot, scenario(35, 60, 85), CURRENT_YEAR);
+
+            assertThat(p.requiredCorpus).hasNumberOfRows(RequiredCorpusSolver.STRATEGIES.length);
+            for (double[] column : p.requiredCorpus) {
+                assertThat(column).hasSize(p.rows());
+                assertThat(column[p.yearsToRetirement]).isPositive();
+            }
+        }
+
+        @Test
+        @DisplayName("should cap drawdown at 30 years and start from the rounded final corpus")
+        void drawdownCappedAtThirtyYears() {
+            Investment cash = Investment.builder().type(Investment.InvestmentType.CASH).currentValue(10_000_000.4).build();
+
+            RetirementProjection p = engine.project(snapshot(List.of(cash), List.of()), scenario(55, 60, 100), CURRENT_YEAR);
+
+            assertThat(p.retirementYears).isEqualTo(40);
+            assertThat(p.drawdownRows()).isEqualTo(31);
+            assertThat(p.finalCorpus()).isEqualTo(Math.round(p.netCorpus[p.yearsToRetirement]));
+            // SUSTAINABLE: 8% withdrawal, 10% return
+            assertThat(p.drawdownCorpus[0]).isCloseTo(p.finalCorpus() * 1.02, within(0.01));
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental reprojection")
+    class Reprojection {
+
+        private UserFinancialSnapshot portfolio() {
+            Investment mf = Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(1_000_000.0).monthlySip(20_000.0).build();
+            Investment epf = Investment.builder().type(Investment.InvestmentType.EPF).currentValue(800_000.0).build();
+            Expense household = Expense.builder().name("Household").amount(50_000.0)
+                    .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+            return UserFinancialSnapshot.of("user-1", List.of(mf, epf), List.of(), List.of(), List.of(household),
+                    List.of(), List.of());
+        }
+
+        @Test
+        @DisplayName("should find the first row an edit can change")
+        void firstAffectedRow() {
+            RetirementScenario before = scenario(35, 60, 85);
+            before.setEffectiveFromYear(4);
+
+            assertThat(ProjectionEngine.firstAffectedRow(before, before.toBuilder().build(), 26)).isEqualTo(26);
+            assertThat(ProjectionEngine.firstAffectedRow(before, before.toBuilder().mfReturn(9.0).build(), 26))
+                    .isEqualTo(4);
+            assertThat(ProjectionEngine.firstAffectedRow(before,
+                    before.toBuilder().sipStepup(5.0).effectiveFromYear(7).build(), 26)).isEqualTo(4);
+            assertThat(ProjectionEngine.firstAffectedRow(before, before.toBuilder().lumpsumAmount(100_000.0).build(), 26))
+                    .isEqualTo(1);
+            assertThat(ProjectionEngine.firstAffectedRow(before, before.toBuilder().inflation(7.0).build(), 26))
+                    .isEqualTo(-1);
+            assertThat(ProjectionEngine.firstAffectedRow(before, before.toBuilder().retirementAge(55).build(), 26))
+                    .isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("should match a full projection after resuming from the first affected row")
+        void resumedMatchesFullProjection() {
+            UserFinancialSnapshot snapshot = portfolio();
+            RetirementScenario before = scenario(35, 60, 85);
+            before.setEffectiveFromYear(4);
+            List<RetirementScenario> edits = List.of(
+                    before.toBuilder().mfReturn(9.0).build(),
+                    before.toBuilder().sipStepup(15.0).effectiveFromYear(2).build(),
+                    before.toBuilder().epfReturn(7.0).lumpsumAmount(200_000.0).build(),
+                    before.toBuilder().enableRateReduction(true).build());
+
+            for (RetirementScenario after : edits) {
+                RetirementProjection p = engine.project(snapshot, before, CURRENT_YEAR);
+                int fromRow = ProjectionEngine.firstAffectedRow(before, after, p.rows());
+                engine.reproject(p, snapshot, after, fromRow);
+                RetirementProjection full = engine.project(snapshot, after, CURRENT_YEAR);
+
+                assertThat(fromRow).isBetween(1, p.rows() - 1);
+                assertThat(p.netCorpus).containsExactly(full.netCorpus);
+                assertThat(p.mfSip).containsExactly(full.mfSip);
+                assertThat(p.epfRate).containsExactly(full.epfRate);
+                assertThat(p.requiredCorpus).isDeepEqualTo(full.requiredCorpus);
+                assertThat(p.drawdownCorpus).containsExactly(full.drawdownCorpus);
+                assertThat(p.finalCorpus()).isEqualTo(full.finalCorpus());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.retyrment.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the recurrence kernel with the per-year pow formulas it replaced: a 40-year
+ * projection of a 30-holding portfolio, and a 30-year step-up SIP. Before measuring, setup
+ * asserts the two agree within ₹1.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.retyrment.service.ProjectionKernelBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionKernelBenchmark {
+
+    private static final int HOLDINGS = 30;
+    private static final int YEARS = 40;
+
+    private final CalculationService calculationService = new CalculationService();
+    private double[] principals;
+    private double[] rates;
+    private double[] sips;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(1);
+        principals = new double[HOLDINGS];
+        rates = new double[HOLDINGS];
+        sips = new double[HOLDINGS];
+        for (int i = 0; i < HOLDINGS; i++) {
+            principals[i] = random.nextDouble(10_000, 2_000_000);
+            rates[i] = random.nextDouble(4, 14);
+            sips[i] = i % 3 == 0 ? 0 : random.nextDouble(1_000, 50_000);
+        }
+
+        double[] kernel = ProjectionKernel.portfolioTotals(principals, rates, sips, YEARS);
+        double[] pow = powTotals();
+        for (int year = 0; year <= YEARS; year++) {
+            if (Math.abs(kernel[year] - pow[year]) > 1.0) {
+                throw new IllegalStateException(String.format(
+                        "Year %d: kernel %.2f vs pow %.2f", year, kernel[year], pow[year]));
+            }
+        }
+        double closedForm = ProjectionKernel.stepUpSipFutureValue(25_000, 12.0, 10.0, 30);
+        double byMonth = ProjectionKernel.stepUpSipFutureValueByMonth(25_000, 12.0, 10.0, 30);
+        if (Math.abs(closedForm - byMonth) > 1.0) {
+            throw new IllegalStateException(String.format(
+                    "Step-up SIP: closed form %.2f vs by month %.2f", closedForm, byMonth));
+        }
+    }
+
+    // The per-holding, per-year loop AnalysisService.calculateProjections used to run
+    private double[] powTotals() {
+        double[] totals = new double[YEARS + 1];
+        for (int year = 0; year <= YEARS; year++) {
+            double total = 0;
+            for (int i = 0; i < HOLDINGS; i++) {
+                total += calculationService.calculateFutureValue(principals[i], rates[i], year);
+                if (sips[i] > 0) {
+                    total += calculationService.calculateSIPFutureValue(sips[i], rates[i], year);
+                }
+            }
+            totals[year] = total;
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public double[] portfolioKernel() {
+        return ProjectionKernel.portfolioTotals(principals, rates, sips, YEARS);
+    }
+
+    @Benchmark
+    public double[] portfolioPow() {
+        return powTotals();
+    }
+
+    @Benchmark
+    public void stepUpClosedForm(Blackhole blackhole) {
+        blackhole.consume(ProjectionKernel.stepUpSipFutureValue(25_000, 12.0, 10.0, 30));
+    }
+
+    @Benchmark
+    public void stepUpByMonth(Blackhole blackhole) {
+        blackhole.consume(ProjectionKernel.stepUpSipFutureValueByMonth(25_000, 12.0, 10.0, 30));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProjectionKernelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
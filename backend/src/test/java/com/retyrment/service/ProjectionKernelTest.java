@@ -0,0 +1,144 @@
+package com.retyrment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ProjectionKernelTest {
+
+    private static final int CASES = 500;
+    // Relative tolerance against the pow-based formulas
+    private static final double TOLERANCE = 1e-9;
+
+    private final CalculationService formulas = new CalculationService();
+
+    private static void assertRelativelyClose(double actual, double expected, String description) {
+        assertThat(actual).as(description).isCloseTo(expected, within(TOLERANCE * Math.max(1, Math.abs(expected))));
+    }
+
+    @Nested
+    @DisplayName("Portfolio totals")
+    class PortfolioTotals {
+
+        @Test
+        @DisplayName("should match calculateFutureValue plus calculateSIPFutureValue for every holding and year")
+        void matchesPowFormulas() {
+            SplittableRandom random = new SplittableRandom(42);
+            for (int c = 0; c < CASES; c++) {
+                int holdings = random.nextInt(0, 12);
+                int years = random.nextInt(0, 50);
+                double[] principals = new double[holdings];
+                double[] rates = new double[holdings];
+                double[] sips = new double[holdings];
+                for (int i = 0; i < holdings; i++) {
+                    principals[i] = random.nextDouble(0, 5_000_000);
+                    // Non-zero rates: calculateSIPFutureValue divides by the monthly rate
+                    rates[i] = random.nextBoolean() ? random.nextDouble(0.5, 18) : -random.nextDouble(0.5, 5);
+                    sips[i] = random.nextInt(3) == 0 ? 0 : random.nextDouble(500, 100_000);
+                }
+
+                double[] totals = ProjectionKernel.portfolioTotals(principals, rates, sips, years);
+
+                assertThat(totals).hasSize(years + 1);
+                for (int year = 0; year <= years; year++) {
+                    double expected = 0;
+                    for (int i = 0; i < holdings; i++) {
+                        expected += formulas.calculateFutureValue(principals[i], rates[i], year);
+                        if (sips[i] > 0) {
+                            expected += formulas.calculateSIPFutureValue(sips[i], rates[i], year);
+                        }
+                    }
+                    assertRelativelyClose(totals[year], expected, "case " + c + ", year " + year);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should add SIPs without growth at a zero rate")
+        void zeroRate() {
+            double[] totals = ProjectionKernel.portfolioTotals(
+                    new double[]{100_000}, new double[]{0}, new double[]{10_000}, 3);
+
+            assertThat(totals).containsExactly(100_000, 220_000, 340_000, 460_000);
+        }
+
+        @Test
+        @DisplayName("should return only the principals for zero years")
+        void zeroYears() {
+            double[] totals = ProjectionKernel.portfolioTotals(
+                    new double[]{100_000, 50_000}, new double[]{12, 7}, new double[]{5_000, 0}, 0);
+
+            assertThat(totals).containsExactly(150_000);
+        }
+
+        @Test
+        @DisplayName("should reject arrays of different lengths and negative years")
+        void rejectsInvalidInput() {
+            assertThatThrownBy(() -> ProjectionKernel.portfolioTotals(
+                    new double[]{1, 2}, new double[]{12}, new double[]{0, 0}, 5))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> ProjectionKernel.portfolioTotals(
+                    new double[]{1}, new double[]{12}, new double[]{0}, -1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Step-up SIP")
+    class StepUpSip {
+
+        @Test
+        @DisplayName("should match the month-by-month sum")
+        void matchesMonthlyLoop() {
+            SplittableRandom random = new SplittableRandom(7);
+            for (int c = 0; c < CASES; c++) {
+                double monthly = random.nextDouble(500, 200_000);
+                double rate = random.nextInt(10) == 0 ? 0 : random.nextDouble(-5, 20);
+                double stepUp = random.nextInt(10) == 0 ? 0 : random.nextDouble(-20, 25);
+                int years = random.nextInt(0, 45);
+
+                assertRelativelyClose(ProjectionKernel.stepUpSipFutureValue(monthly, rate, stepUp, years),
+                        ProjectionKernel.stepUpSipFutureValueByMonth(monthly, rate, stepUp, years),
+                        "case " + c + ": " + monthly + " at " + rate + "% stepping up " + stepUp + "% for " + years);
+            }
+        }
+
+        @Test
+        @DisplayName("should stay accurate when the step-up equals or nearly equals the yearly growth")
+        void stepUpEqualToGrowth() {
+            double yearlyGrowthPercent = (Math.pow(1 + 12.0 / 1200, 12) - 1) * 100;
+            for (double stepUp : new double[]{yearlyGrowthPercent, yearlyGrowthPercent + 1e-9,
+                    yearlyGrowthPercent - 1e-12, yearlyGrowthPercent + 1e-6}) {
+                assertRelativelyClose(ProjectionKernel.stepUpSipFutureValue(10_000, 12.0, stepUp, 30),
+                        ProjectionKernel.stepUpSipFutureValueByMonth(10_000, 12.0, stepUp, 30),
+                        "step-up " + stepUp);
+            }
+        }
+
+        @Test
+        @DisplayName("should equal a plain SIP without step-up")
+        void noStepUp() {
+            assertRelativelyClose(ProjectionKernel.stepUpSipFutureValue(10_000, 12.0, 0, 10),
+                    formulas.calculateSIPFutureValue(10_000, 12.0, 10), "no step-up");
+        }
+
+        @Test
+        @DisplayName("should count only the first year when the SIP stops after it")
+        void fullStepDown() {
+            assertRelativelyClose(ProjectionKernel.stepUpSipFutureValue(10_000, 12.0, -100, 5),
+                    ProjectionKernel.stepUpSipFutureValueByMonth(10_000, 12.0, -100, 5), "full step-down");
+        }
+
+        @Test
+        @DisplayName("should return 0 for zero years")
+        void zeroYears() {
+            assertThat(ProjectionKernel.stepUpSipFutureValue(10_000, 12.0, 10, 0)).isZero();
+        }
+    }
+}
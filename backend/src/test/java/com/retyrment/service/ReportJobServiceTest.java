@@ -0,0 +1,207 @@
+package com.retyrment.service;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.retyrment.exception.BusinessException;
+import com.retyrment.exception.ResourceNotFoundException;
+import org.bson.BsonObjectId;
+import org.bson.BsonValue;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReportJobServiceTest {
+
+    private ExportService exportService;
+    private MongoTemplate mongoTemplate;
+    private GridFSBucket files;
+    private WorkerPools workerPools;
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        exportService = mock(ExportService.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        files = mock(GridFSBucket.class);
+        workerPools = new WorkerPools();
+        service = new ReportJobService(exportService, mongoTemplate, files,
+                workerPools.rejecting("report-worker", 1, 2, Thread.NORM_PRIORITY), 2, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerPools.shutdown();
+    }
+
+    private static ReportJob awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(job.isFinished()).as("job finished").isTrue();
+        return job;
+    }
+
+    /**
+     * Upload stream that keeps the bytes in memory.
+     */
+    private static final class MemoryUpload extends GridFSUploadStream {
+        final ObjectId id = new ObjectId();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean closed;
+        boolean aborted;
+
+        @Override public ObjectId getObjectId() { return id; }
+        @Override public BsonValue getId() { return new BsonObjectId(id); }
+        @Override public void abort() { aborted = true; }
+        @Override public void write(int b) { bytes.write(b); }
+        @Override public void write(byte[] b) { bytes.writeBytes(b); }
+        @Override public void write(byte[] b, int off, int len) { bytes.write(b, off, len); }
+        @Override public void close() { closed = true; }
+    }
+
+    private MemoryUpload givenUpload() {
+        MemoryUpload upload = new MemoryUpload();
+        when(files.openUploadStream(anyString())).thenReturn(upload);
+        return upload;
+    }
+
+    @Nested
+    @DisplayName("Rendering")
+    class Rendering {
+
+        @Test
+        @DisplayName("should render the requested report into GridFS and store the job's outcome")
+        void rendersReportToGridFs() throws Exception {
+            MemoryUpload upload = givenUpload();
+            doAnswer(invocation -> {
+                invocation.<OutputStream>getArgument(1).write("XLSX".getBytes());
+                return null;
+            }).when(exportService).writeExcelReport(eq("user-1"), any(OutputStream.class));
+
+            ReportJob job = awaitFinished(service.submit("user-1", ReportJob.Kind.EXCEL));
+
+            assertThat(job.getStatus()).isEqualTo(ReportJob.Status.DONE);
+            assertThat(job.getFileId()).isEqualTo(upload.id.toHexString());
+            assertThat(upload.closed).isTrue();
+            assertThat(upload.bytes.toString(StandardCharsets.UTF_8)).isEqualTo("XLSX");
+            verify(mongoTemplate).insert(job);
+            verify(mongoTemplate, timeout(1000).times(2)).save(job);
+            assertThat(service.getStats()).containsEntry("completed", 1L).containsEntry("failed", 0L);
+        }
+
+        @Test
+        @DisplayName("should mark the job failed and discard the partial upload when rendering throws")
+        void failedRenderAbortsUpload() throws Exception {
+            MemoryUpload upload = givenUpload();
+            doThrow(new RuntimeException("boom"))
+                    .when(exportService).writeRetirementPdfReport(eq("user-1"), any(OutputStream.class));
+
+            ReportJob job = awaitFinished(service.submit("user-1", ReportJob.Kind.RETIREMENT_PDF));
+
+            assertThat(job.getStatus()).isEqualTo(ReportJob.Status.FAILED);
+            assertThat(job.toMap()).containsEntry("error", "Report generation failed");
+            assertThat(job.getFileId()).isNull();
+            assertThat(upload.aborted).isTrue();
+            assertThat(service.getStats()).containsEntry("failed", 1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Limits")
+    class Limits {
+
+        @Test
+        @DisplayName("should reject a user's job while the cluster already has the per-user limit in flight")
+        void perUserLimit() {
+            when(mongoTemplate.count(any(Query.class), eq(ReportJob.class))).thenReturn(2L);
+
+            assertThatThrownBy(() -> service.submit("user-1", ReportJob.Kind.SUMMARY_PDF))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("2 reports in progress");
+            verify(mongoTemplate, never()).insert(any(ReportJob.class));
+            assertThat(service.getStats()).containsEntry("rejected", 1L);
+        }
+
+        @Test
+        @DisplayName("should reject jobs once the queue is full and drop their stored record")
+        void boundedQueue() {
+            givenUpload();
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(exportService).writeFinancialSummaryPdfReport(any(), any(OutputStream.class));
+
+            try {
+                // One running on the single worker, two waiting in the queue
+                service.submit("user-1", ReportJob.Kind.SUMMARY_PDF);
+                service.submit("user-2", ReportJob.Kind.SUMMARY_PDF);
+                service.submit("user-3", ReportJob.Kind.SUMMARY_PDF);
+
+                assertThatThrownBy(() -> service.submit("user-4", ReportJob.Kind.SUMMARY_PDF))
+                        .isInstanceOf(BusinessException.class)
+                        .hasMessageContaining("queue is full");
+                verify(mongoTemplate).remove(any(ReportJob.class));
+                assertThat(service.getStats()).containsEntry("rejected", 1L).containsEntry("submitted", 3L);
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup and cleanup")
+    class LookupAndCleanup {
+
+        @Test
+        @DisplayName("should load a job stored by any instance and hide it from other users")
+        void otherUserCannotSeeJob() {
+            ReportJob job = new ReportJob("job-1", "user-1", ReportJob.Kind.SUMMARY_PDF, Instant.now());
+            when(mongoTemplate.findById("job-1", ReportJob.class)).thenReturn(job);
+
+            assertThat(service.getJob("user-1", "job-1")).isSameAs(job);
+            assertThatThrownBy(() -> service.getJob("user-2", "job-1"))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            assertThatThrownBy(() -> service.getJob("user-1", "job-2"))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("should delete expired jobs and their files")
+        void removesExpiredJobs() {
+            ReportJob done = new ReportJob("job-1", "user-1", ReportJob.Kind.SUMMARY_PDF, Instant.now());
+            ObjectId fileId = new ObjectId();
+            done.markDone(Instant.now(), fileId.toHexString());
+            ReportJob abandoned = new ReportJob("job-2", "user-1", ReportJob.Kind.EXCEL, Instant.now());
+            when(mongoTemplate.findAllAndRemove(any(Query.class), eq(ReportJob.class)))
+                    .thenReturn(List.of(done, abandoned));
+
+            service.removeExpiredJobs();
+
+            verify(files).delete(fileId);
+            verifyNoMoreInteractions(files);
+            assertThat(service.getStats()).containsEntry("expired", 2L);
+        }
+    }
+}
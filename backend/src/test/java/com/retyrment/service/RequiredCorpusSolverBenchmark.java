@@ -0,0 +1,85 @@
+package com.retyrment.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the closed-form required-corpus solve with the bisection it replaced, over
+ * every row of a 30-year matrix. Before measuring, setup asserts the two agree within ₹1.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.retyrment.service.RequiredCorpusSolverBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequiredCorpusSolverBenchmark {
+
+    private static final String[] STRATEGIES = RequiredCorpusSolver.STRATEGIES;
+    private static final int YEARS_TO_RETIREMENT = 30;
+    private static final int HORIZON = 56;
+
+    private RequiredCorpusSolver solver;
+    private double[] yearlyExpenseByRow;
+    private double[][] required;
+
+    @Setup
+    public void setUp() {
+        double[] annuity = new double[HORIZON];
+        double[] rent = new double[HORIZON];
+        double[] goals = new double[HORIZON];
+        for (int t = 0; t < HORIZON; t++) {
+            annuity[t] = t >= 25 ? 15_000 * Math.pow(1.03, t - 25.0) : 0;
+            rent[t] = 20_000 * Math.pow(1.05, t);
+            goals[t] = t % 7 == 3 ? 1_500_000 * Math.pow(1.06, t) : 0;
+        }
+        solver = new RequiredCorpusSolver(annuity, rent, goals, 6.0, 8.0, 10.0);
+        yearlyExpenseByRow = new double[YEARS_TO_RETIREMENT + 1];
+        required = new double[STRATEGIES.length][YEARS_TO_RETIREMENT + 1];
+        for (int row = 0; row <= YEARS_TO_RETIREMENT; row++) {
+            yearlyExpenseByRow[row] = 960_000 * Math.pow(1.06, row);
+        }
+
+        for (int row = 0; row <= YEARS_TO_RETIREMENT; row++) {
+            for (String strategy : STRATEGIES) {
+                double closedForm = solver.solve(strategy, row, yearlyExpenseByRow[row], HORIZON - 1 - row);
+                double bisection = solver.solveByBisection(strategy, row, yearlyExpenseByRow[row], HORIZON - 1 - row);
+                if (Math.abs(closedForm - bisection) > 1.0) {
+                    throw new IllegalStateException(String.format(
+                            "Row %d %s: closed form %.2f vs bisection %.2f", row, strategy, closedForm, bisection));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void closedForm(Blackhole blackhole) {
+        for (int row = 0; row <= YEARS_TO_RETIREMENT; row++) {
+            solver.solveAll(row, yearlyExpenseByRow[row], HORIZON - 1 - row, required, row);
+        }
+        blackhole.consume(required);
+    }
+
+    @Benchmark
+    public void bisection(Blackhole blackhole) {
+        for (int row = 0; row <= YEARS_TO_RETIREMENT; row++) {
+            for (String strategy : STRATEGIES) {
+                blackhole.consume(solver.solveByBisection(strategy, row, yearlyExpenseByRow[row], HORIZON - 1 - row));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequiredCorpusSolverBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.retyrment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RequiredCorpusSolverTest {
+
+    private static final String[] STRATEGIES = RequiredCorpusSolver.STRATEGIES;
+
+    private static RequiredCorpusSolver emptySolver(int horizon, double inflation, double withdrawal, double corpusReturn) {
+        return new RequiredCorpusSolver(new double[horizon], new double[horizon], new double[horizon],
+                inflation, withdrawal, corpusReturn);
+    }
+
+    @Nested
+    @DisplayName("Closed form")
+    class ClosedForm {
+
+        @Test
+        @DisplayName("SUSTAINABLE without other income is first-year expense divided by withdrawal rate")
+        void sustainableWithoutOtherIncome() {
+            // Without inflation and with return above withdrawal the corpus grows, so year 0 binds
+            RequiredCorpusSolver solver = emptySolver(30, 0.0, 8.0, 10.0);
+
+            double required = solver.solve(RequiredCorpusSolver.SUSTAINABLE, 0, 1_200_000, 25);
+
+            assertThat(required).isCloseTo((1_200_000 - 0.01) / 0.08, within(0.01));
+        }
+
+        @Test
+        @DisplayName("SIMPLE_DEPLETION needs years times the largest yearly shortfall")
+        void simpleDepletionUsesLargestShortfall() {
+            RequiredCorpusSolver solver = emptySolver(30, 0.0, 8.0, 10.0);
+
+            double required = solver.solve(RequiredCorpusSolver.SIMPLE_DEPLETION, 0, 100_000, 20);
+
+            assertThat(required).isCloseTo(20 * (100_000 - 0.01), within(0.01));
+        }
+
+        @Test
+        @DisplayName("should need nothing when annuity and rent cover every year")
+        void noCorpusWhenIncomeCoversExpenses() {
+            double[] annuity = new double[30];
+            double[] rent = new double[30];
+            java.util.Arrays.fill(annuity, 50_000);
+            java.util.Arrays.fill(rent, 50_000);
+            RequiredCorpusSolver solver = new RequiredCorpusSolver(annuity, rent, new double[30], 0.0, 8.0, 10.0);
+
+            for (String strategy : STRATEGIES) {
+                assertThat(solver.solve(strategy, 0, 600_000, 25)).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("should cap at the old search ceiling when the plan can never be funded")
+        void capsWhenUnfundable() {
+            // Withdrawal rate above return + 100% wipes the corpus after the first year
+            RequiredCorpusSolver solver = emptySolver(10, 0.0, 150.0, 10.0);
+
+            double required = solver.solve(RequiredCorpusSolver.SUSTAINABLE, 0, 100_000, 5);
+
+            assertThat(required).isEqualTo(100_000 * 100 * Math.pow(2, 30));
+            assertThat(required).isEqualTo(solver.solveByBisection(RequiredCorpusSolver.SUSTAINABLE, 0, 100_000, 5));
+        }
+
+        @Test
+        @DisplayName("solveAll should write each strategy to its own column in matrix order")
+        void solveAllOrder() {
+            RequiredCorpusSolver solver = emptySolver(30, 6.0, 8.0, 10.0);
+            double[][] required = new double[STRATEGIES.length][2];
+
+            solver.solveAll(0, 1_000_000, 25, required, 1);
+
+            assertThat(STRATEGIES).containsExactly(RequiredCorpusSolver.SUSTAINABLE,
+                    RequiredCorpusSolver.SAFE_4_PERCENT, RequiredCorpusSolver.SIMPLE_DEPLETION);
+            for (int s = 0; s < STRATEGIES.length; s++) {
+                assertThat(required[s][0]).isZero();
+                assertThat(required[s][1]).isEqualTo(solver.solve(STRATEGIES[s], 0, 1_000_000, 25));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Equivalence with bisection")
+    class EquivalenceWithBisection {
+
+        @Test
+        @DisplayName("should match the bisection within one rupee (or its resolution) across random plans")
+        void matchesBisectionWithinOneRupee() {
+            Random random = new Random(42);
+            for (int trial = 0; trial < 300; trial++) {
+                int horizon = 10 + random.nextInt(60);
+                double[] annuity = new double[horizon];
+                double[] rent = new double[horizon];
+                double[] goals = new double[horizon];
+                int annuityStart = random.nextInt(horizon);
+                double annuityAmount = random.nextBoolean() ? random.nextDouble() * 40_000 : 0;
+                double rentAmount = random.nextBoolean() ? random.nextDouble() * 30_000 : 0;
+                for (int t = 0; t < horizon; t++) {
+                    annuity[t] = t >= annuityStart ? annuityAmount * Math.pow(1.03, t - annuityStart) : 0;
+                    rent[t] = rentAmount * Math.pow(1.05, t);
+                    goals[t] = random.nextInt(8) == 0 ? random.nextDouble() * 3_000_000 : 0;
+                }
+                double inflation = 3 + random.nextDouble() * 6;
+                double withdrawal = 3 + random.nextDouble() * 7;
+                double corpusReturn = 6 + random.nextDouble() * 6;
+                RequiredCorpusSolver solver = new RequiredCorpusSolver(annuity, rent, goals, inflation, withdrawal, corpusReturn);
+
+                int start = random.nextInt(horizon);
+                int retirementYears = horizon - start - 1;
+                double yearlyExpense = 200_000 + random.nextDouble() * 1_800_000;
+
+                for (String strategy : STRATEGIES) {
+                    double closedForm = solver.solve(strategy, start, yearlyExpense, retirementYears);
+                    double bisection = solver.solveByBisection(strategy, start, yearlyExpense, retirementYears);
+                    // 32 halvings cannot resolve below ~corpus / 2^31, which exceeds ₹1 only past ₹200 crore
+                    double tolerance = Math.max(1.0, bisection / (1L << 31));
+                    assertThat(closedForm)
+                            .as("trial %d %s", trial, strategy)
+                            .isCloseTo(bisection, within(tolerance));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("closed-form result should itself be feasible")
+        void closedFormIsFeasible() {
+            double[] goals = new double[40];
+            goals[5] = 2_500_000;
+            goals[12] = 1_000_000;
+            RequiredCorpusSolver solver = new RequiredCorpusSolver(new double[40], new double[40], goals, 6.0, 7.0, 9.0);
+
+            for (String strategy : STRATEGIES) {
+                double required = solver.solve(strategy, 0, 900_000, 30);
+                assertThat(solver.isFeasible(required + 1, strategy, 0, 900_000, 30)).as(strategy).isTrue();
+                assertThat(solver.isFeasible(required - 1, strategy, 0, 900_000, 30)).as(strategy).isFalse();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.retyrment.service;
+
+import com.retyrment.model.RetirementScenario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetirementMatrixCacheTest {
+
+    private UserDataVersionService dataVersionService;
+    private RetirementMatrixCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        dataVersionService = new UserDataVersionService();
+        cache = new RetirementMatrixCache(dataVersionService, 100, 10);
+        loads = new AtomicInteger();
+    }
+
+    private Map<String, Object> load() {
+        return Map.of("load", loads.incrementAndGet());
+    }
+
+    private static RetirementScenario scenario(double mfReturn) {
+        return RetirementScenario.builder().currentAge(35).retirementAge(60).mfReturn(mfReturn).build();
+    }
+
+    @Nested
+    @DisplayName("Lookup")
+    class Lookup {
+
+        @Test
+        @DisplayName("should return the cached result for an equal scenario")
+        void hitsForEqualScenario() {
+            Map<String, Object> first = cache.get("user-1", scenario(12.0), RetirementMatrixCacheTest.this::load);
+            Map<String, Object> second = cache.get("user-1", scenario(12.0), RetirementMatrixCacheTest.this::load);
+
+            assertThat(second).isSameAs(first);
+            assertThat(loads).hasValue(1);
+            assertThat(cache.getStats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+        }
+
+        @Test
+        @DisplayName("should keep users and scenarios apart")
+        void missesForOtherUserOrScenario() {
+            cache.get("user-1", scenario(12.0), RetirementMatrixCacheTest.this::load);
+            cache.get("user-2", scenario(12.0), RetirementMatrixCacheTest.this::load);
+            cache.get("user-1", scenario(13.0), RetirementMatrixCacheTest.this::load);
+            cache.get("user-1", null, RetirementMatrixCacheTest.this::load);
+
+            assertThat(loads).hasValue(4);
+        }
+
+        @Test
+        @DisplayName("should recompute after the user's data version changes")
+        void missesAfterDataChange() {
+            cache.get("user-1", scenario(12.0), RetirementMatrixCacheTest.this::load);
+            cache.get("user-2", scenario(12.0), RetirementMatrixCacheTest.this::load);
+
+            dataVersionService.markChanged("user-1");
+            cache.get("user-1", scenario(12.0), RetirementMatrixCacheTest.this::load);
+            cache.get("user-2", scenario(12.0), RetirementMatrixCacheTest.this::load);
+
+            assertThat(loads).hasValue(3);
+            assertThat(cache.getStats()).containsEntry("invalidations", 1L).containsEntry("size", 2L);
+        }
+
+        @Test
+        @DisplayName("should not cache a failed computation")
+        void doesNotCacheFailures() {
+            try {
+                cache.get("user-1", null, () -> {
+                    throw new IllegalStateException("boom");
+                });
+            } catch (IllegalStateException expected) {
+                // fall through
+            }
+
+            cache.get("user-1", null, RetirementMatrixCacheTest.this::load);
+
+            assertThat(loads).hasValue(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Scenario hash")
+    class ScenarioHash {
+
+        @Test
+        @DisplayName("should be stable for equal scenarios and differ when any field changes")
+        void hashReflectsFields() {
+            String base = RetirementMatrixCache.scenarioHash(scenario(12.0));
+
+            assertThat(RetirementMatrixCache.scenarioHash(scenario(12.0))).isEqualTo(base).hasSize(64);
+            assertThat(RetirementMatrixCache.scenarioHash(scenario(12.5))).isNotEqualTo(base);
+
+            RetirementScenario withStrategy = scenario(12.0);
+            withStrategy.setIncomeStrategy("SAFE_4_PERCENT");
+            assertThat(RetirementMatrixCache.scenarioHash(withStrategy)).isNotEqualTo(base);
+        }
+
+        @Test
+        @DisplayName("should use a fixed key for the default scenario")
+        void nullScenario() {
+            assertThat(RetirementMatrixCache.scenarioHash(null)).isEqualTo("default");
+        }
+    }
+}
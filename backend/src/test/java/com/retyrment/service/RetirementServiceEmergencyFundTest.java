@@ -91,11 +91,8 @@ class RetirementServiceEmergencyFundTest {
         Investment regularFD = createFD("FD1", 100000.0, 110000.0, false);
         Investment emergencyFD = createFD("FD2", 200000.0, 220000.0, true);
 
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.FD)))
-                .thenReturn(Arrays.asList(regularFD, emergencyFD));
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.RD)))
-                .thenReturn(List.of());
         setupEmptyRepositories();
+        when(investmentRepository.findByUserId(testUserId)).thenReturn(Arrays.asList(regularFD, emergencyFD));
         when(scenarioRepository.findByUserIdAndIsDefaultTrue(testUserId)).thenReturn(Optional.of(defaultScenario));
         when(calculationService.calculateSIPFutureValue(anyDouble(), anyDouble(), anyInt())).thenReturn(0.0);
 
@@ -122,11 +119,8 @@ class RetirementServiceEmergencyFundTest {
         Investment emergencyFD = createFD("FD1", 100000.0, 110000.0, true);
         Investment emergencyRD = createRD("RD1", 50000.0, 55000.0, true);
 
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.FD)))
-                .thenReturn(List.of(emergencyFD));
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.RD)))
-                .thenReturn(List.of(emergencyRD));
         setupEmptyRepositories();
+        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of(emergencyFD, emergencyRD));
         when(scenarioRepository.findByUserIdAndIsDefaultTrue(testUserId)).thenReturn(Optional.of(defaultScenario));
         when(calculationService.calculateSIPFutureValue(anyDouble(), anyDouble(), anyInt())).thenReturn(0.0);
 
@@ -149,11 +143,8 @@ class RetirementServiceEmergencyFundTest {
         Investment regularFD1 = createFD("FD1", 100000.0, 110000.0, false);
         Investment regularFD2 = createFD("FD2", 200000.0, 220000.0, false);
 
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.FD)))
-                .thenReturn(Arrays.asList(regularFD1, regularFD2));
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.RD)))
-                .thenReturn(List.of());
         setupEmptyRepositories();
+        when(investmentRepository.findByUserId(testUserId)).thenReturn(Arrays.asList(regularFD1, regularFD2));
         when(scenarioRepository.findByUserIdAndIsDefaultTrue(testUserId)).thenReturn(Optional.of(defaultScenario));
         when(calculationService.calculateSIPFutureValue(anyDouble(), anyDouble(), anyInt())).thenReturn(0.0);
 
@@ -172,25 +163,8 @@ class RetirementServiceEmergencyFundTest {
     // Helper methods
     
     private void setupEmptyRepositories() {
-        // Setup other investment types as empty
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.PPF)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.EPF)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.MUTUAL_FUND)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.NPS)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.STOCK)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.CASH)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.GOLD)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.REAL_ESTATE)))
-                .thenReturn(List.of());
-        when(investmentRepository.findByUserIdAndType(eq(testUserId), eq(Investment.InvestmentType.CRYPTO)))
-                .thenReturn(List.of());
+        // No investments unless a test stubs its own
+        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of());
         
         // Setup other repositories as empty
         when(incomeRepository.findByUserId(testUserId)).thenReturn(List.of());
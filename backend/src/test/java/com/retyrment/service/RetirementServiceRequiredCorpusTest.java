@@ -345,10 +345,7 @@ class RetirementServiceRequiredCorpusTest {
 
             when(scenarioRepository.findByUserIdAndIsDefaultTrue(userId))
                     .thenReturn(Optional.of(scenario));
-            when(investmentRepository.findByUserIdAndType(userId, Investment.InvestmentType.MUTUAL_FUND))
-                    .thenReturn(List.of(investment));
-            when(investmentRepository.findByUserIdAndType(eq(userId), argThat(type -> type != Investment.InvestmentType.MUTUAL_FUND)))
-                    .thenReturn(Collections.emptyList());
+            when(investmentRepository.findByUserId(userId)).thenReturn(List.of(investment));
             when(insuranceRepository.findByUserIdAndTypeIn(eq(userId), anyList())).thenReturn(Collections.emptyList());
             when(goalRepository.findByUserIdOrderByTargetYearAsc(userId)).thenReturn(Collections.emptyList());
             when(expenseRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
@@ -450,10 +447,7 @@ class RetirementServiceRequiredCorpusTest {
 
             when(scenarioRepository.findByUserIdAndIsDefaultTrue(userId))
                     .thenReturn(Optional.of(scenario));
-            when(investmentRepository.findByUserIdAndType(userId, Investment.InvestmentType.MUTUAL_FUND))
-                    .thenReturn(List.of(investment));
-            when(investmentRepository.findByUserIdAndType(eq(userId), argThat(type -> type != Investment.InvestmentType.MUTUAL_FUND)))
-                    .thenReturn(Collections.emptyList());
+            when(investmentRepository.findByUserId(userId)).thenReturn(List.of(investment));
             when(insuranceRepository.findByUserIdAndTypeIn(eq(userId), anyList())).thenReturn(Collections.emptyList());
             when(goalRepository.findByUserIdOrderByTargetYearAsc(userId)).thenReturn(Collections.emptyList());
             when(expenseRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
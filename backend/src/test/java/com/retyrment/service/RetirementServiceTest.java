@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyDouble;
@@ -106,6 +107,35 @@ class RetirementServiceTest {
             assertThat(matrix).hasSize(26); // 25 years + 1 for current year
         }
 
+        @Test
+        @DisplayName("should load each collection once regardless of years to retirement")
+        void shouldLoadEachCollectionOnce() {
+            Investment fd = Investment.builder()
+                    .type(Investment.InvestmentType.FD)
+                    .name("Bank FD")
+                    .currentValue(100000.0)
+                    .maturityDate(LocalDate.now().plusYears(3))
+                    .build();
+            when(investmentRepository.findByUserId("test-user")).thenReturn(List.of(fd));
+
+            RetirementScenario scenario = RetirementScenario.builder()
+                    .currentAge(30)
+                    .retirementAge(60)
+                    .lifeExpectancy(85)
+                    .build();
+
+            retirementService.generateRetirementMatrix("test-user", scenario);
+
+            verify(investmentRepository, times(1)).findByUserId("test-user");
+            verify(investmentRepository, never()).findByUserIdAndType(any(), any());
+            verify(insuranceRepository, times(1)).findByUserId("test-user");
+            verify(insuranceRepository, never()).findByUserIdAndTypeIn(any(), anyList());
+            verify(goalRepository, times(1)).findByUserIdOrderByTargetYearAsc("test-user");
+            verify(expenseRepository, times(1)).findByUserId("test-user");
+            verify(incomeRepository, times(1)).findByUserId("test-user");
+            verify(loanRepository, times(1)).findByUserId("test-user");
+        }
+
         @Test
         @DisplayName("should include investments in calculation")
         void shouldIncludeInvestments() {
@@ -162,13 +192,7 @@ class RetirementServiceTest {
                     .monthlySip(0.0)
                     .build();
 
-            when(investmentRepository.findByUserIdAndType(eq("test-user"), any()))
-                    .thenReturn(Collections.emptyList());
-            when(investmentRepository.findByUserIdAndType("test-user", Investment.InvestmentType.NPS))
-                    .thenReturn(Collections.singletonList(nps));
-            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
-            when(insuranceRepository.findByUserIdAndTypeIn(eq("test-user"), anyList()))
-                    .thenReturn(Collections.emptyList());
+            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(nps));
             when(insuranceRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
             when(calculationService.calculateSIPFutureValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(0.0);
@@ -203,13 +227,7 @@ class RetirementServiceTest {
                     .monthlySip(0.0)
                     .build();
 
-            when(investmentRepository.findByUserIdAndType(eq("test-user"), any()))
-                    .thenReturn(Collections.emptyList());
-            when(investmentRepository.findByUserIdAndType("test-user", Investment.InvestmentType.NPS))
-                    .thenReturn(Collections.singletonList(nps));
-            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
-            when(insuranceRepository.findByUserIdAndTypeIn(eq("test-user"), anyList()))
-                    .thenReturn(Collections.emptyList());
+            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(nps));
             when(insuranceRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
             when(calculationService.calculateSIPFutureValue(anyDouble(), anyDouble(), anyInt()))
                     .thenReturn(0.0);
@@ -1504,14 +1522,12 @@ class RetirementServiceTest {
                     .yearlyContribution(50000.0)
                     .build();
 
-            when(investmentRepository.findByUserIdAndType("test-user", Investment.InvestmentType.PPF))
-                    .thenReturn(Collections.singletonList(ppf));
             when(investmentRepository.findByType(Investment.InvestmentType.PPF))
                     .thenReturn(Collections.singletonList(ppf));
             when(investmentRepository.findByType(Investment.InvestmentType.EPF)).thenReturn(Collections.emptyList());
             when(investmentRepository.findByType(Investment.InvestmentType.MUTUAL_FUND)).thenReturn(Collections.emptyList());
             when(investmentRepository.findByType(Investment.InvestmentType.NPS)).thenReturn(Collections.emptyList());
-            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
+            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(ppf));
             when(goalRepository.findByUserIdOrderByTargetYearAsc("test-user")).thenReturn(Collections.emptyList());
             when(insuranceRepository.findByTypeIn(anyList())).thenReturn(Collections.emptyList());
             when(loanRepository.findByUserId("test-user")).thenReturn(Collections.emptyList());
@@ -1540,4 +1556,157 @@ class RetirementServiceTest {
             assertThat(ppfBalanceYear1).isGreaterThan(ppfBalanceYear0); // Should have grown
         }
     }
+
+    @Nested
+    @DisplayName("simulateRetirement")
+    class SimulateRetirement {
+
+        @Test
+        @DisplayName("should report success probability and required corpus for every strategy")
+        @SuppressWarnings("unchecked")
+        void shouldReportEveryStrategy() {
+            Investment mf = Investment.builder()
+                    .type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(2000000.0)
+                    .build();
+            when(investmentRepository.findByUserId("test-user")).thenReturn(Collections.singletonList(mf));
+            RetirementScenario scenario = RetirementScenario.builder().currentAge(35).retirementAge(60).build();
+
+            Map<String, Object> result = retirementService.simulateRetirement("test-user", scenario, 300, 42L);
+
+            assertThat(result).containsEntry("paths", 300).containsEntry("seed", 42L);
+            assertThat((Map<String, Object>) result.get("successProbability"))
+                    .containsOnlyKeys("SUSTAINABLE", "SAFE_4_PERCENT", "SIMPLE_DEPLETION");
+            assertThat((Map<String, Object>) result.get("requiredCorpus"))
+                    .containsOnlyKeys("SUSTAINABLE", "SAFE_4_PERCENT", "SIMPLE_DEPLETION");
+            assertThat((List<Map<String, Object>>) result.get("corpusBands")).hasSize(26);
+            assertThat((Map<String, Object>) result.get("corpusAtRetirement")).containsEntry("age", 60);
+        }
+
+        @Test
+        @DisplayName("should reject a path count outside the supported range")
+        void shouldRejectInvalidPaths() {
+            assertThatThrownBy(() -> retirementService.simulateRetirement("test-user", null, 0, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("summarizeScenario")
+    class SummarizeScenario {
+
+        @Test
+        @DisplayName("should agree with the matrix on final corpus, gap and first retirement year")
+        @SuppressWarnings("unchecked")
+        void shouldMatchMatrix() {
+            Investment mf = Investment.builder()
+                    .type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(3000000.0)
+                    .build();
+            Expense household = Expense.builder().name("Household").amount(40000.0)
+                    .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+            UserFinancialSnapshot snapshot = UserFinancialSnapshot.of("test-user", List.of(mf), List.of(),
+                    List.of(), List.of(household), List.of(), List.of());
+            RetirementScenario scenario = retirementService.resolveScenario("test-user",
+                    RetirementScenario.builder().id("s1").name("Base").currentAge(35).retirementAge(60).build());
+
+            Map<String, Object> summary = retirementService.summarizeScenario(snapshot, scenario);
+            Map<String, Object> matrix = retirementService.generateRetirementMatrix(snapshot, scenario);
+
+            Map<String, Object> matrixSummary = (Map<String, Object>) matrix.get("summary");
+            Map<String, Object> gap = (Map<String, Object>) matrix.get("gapAnalysis");
+            assertThat(summary).containsEntry("scenarioId", "s1")
+                    .containsEntry("scenario", "Base")
+                    .containsEntry("finalCorpus", matrixSummary.get("finalCorpus"))
+                    .containsEntry("requiredCorpus", gap.get("requiredCorpus"))
+                    .containsEntry("corpusGap", gap.get("corpusGap"));
+            assertThat((Map<String, Object>) summary.get("requiredCorpusByStrategy"))
+                    .containsOnlyKeys("SUSTAINABLE", "SAFE_4_PERCENT", "SIMPLE_DEPLETION");
+
+            List<Map<String, Object>> rows = (List<Map<String, Object>>) matrix.get("matrix");
+            Object firstYear = rows.stream()
+                    .filter(row -> ((Map<String, Boolean>) row.get("canRetireByStrategy")).get("SUSTAINABLE"))
+                    .map(row -> row.get("year"))
+                    .findFirst().orElse(null);
+            assertThat(summary.get("firstCanRetireYear")).isEqualTo(firstYear);
+        }
+    }
+
+    @Nested
+    @DisplayName("findEarliestRetirement")
+    class FindEarliestRetirement {
+
+        @Test
+        @DisplayName("should find the first age each strategy's required corpus is met, past the planned age")
+        @SuppressWarnings("unchecked")
+        void shouldMatchProjectionAtEachAge() {
+            Investment mf = Investment.builder()
+                    .type(Investment.InvestmentType.MUTUAL_FUND)
+                    .currentValue(3000000.0)
+                    .build();
+            Expense household = Expense.builder().name("Household").amount(40000.0)
+                    .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+            UserFinancialSnapshot snapshot = UserFinancialSnapshot.of("test-user", List.of(mf), List.of(),
+                    List.of(), List.of(household), List.of(), List.of());
+            RetirementScenario scenario = retirementService.resolveScenario("test-user",
+                    RetirementScenario.builder().currentAge(35).retirementAge(40).build());
+
+            Map<String, Object> result = retirementService.findEarliestRetirement(snapshot, scenario);
+
+            assertThat(result).containsEntry("plannedRetirementAge", 40).containsEntry("lifeExpectancy", 85);
+            Map<String, Object> byStrategy = (Map<String, Object>) result.get("earliestByStrategy");
+            assertThat(byStrategy).containsOnlyKeys("SUSTAINABLE", "SAFE_4_PERCENT", "SIMPLE_DEPLETION");
+            assertThat(byStrategy.get("SIMPLE_DEPLETION")).isNotNull();
+            for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+                Map<String, Object> earliest = (Map<String, Object>) byStrategy.get(RequiredCorpusSolver.STRATEGIES[s]);
+                if (earliest == null) {
+                    continue;
+                }
+                int age = (Integer) earliest.get("age");
+                RetirementProjection atAge = retirementService.projectRetirement(snapshot,
+                        scenario.toBuilder().retirementAge(age).build());
+                assertThat(atAge.netCorpus[atAge.yearsToRetirement])
+                        .isGreaterThanOrEqualTo(atAge.requiredCorpus[s][atAge.yearsToRetirement]);
+                assertThat(earliest).containsEntry("corpus", Math.round(atAge.finalCorpus()));
+                if (age > 35) {
+                    RetirementProjection yearBefore = retirementService.projectRetirement(snapshot,
+                            scenario.toBuilder().retirementAge(age - 1).build());
+                    assertThat(yearBefore.netCorpus[yearBefore.yearsToRetirement])
+                            .isLessThan(yearBefore.requiredCorpus[s][yearBefore.yearsToRetirement]);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should report no age for a plan that is never affordable, not life expectancy")
+        @SuppressWarnings("unchecked")
+        void shouldReportNullWhenNeverAffordable() {
+            Expense household = Expense.builder().name("Household").amount(40000.0)
+                    .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+            UserFinancialSnapshot snapshot = UserFinancialSnapshot.of("test-user", List.of(), List.of(),
+                    List.of(), List.of(household), List.of(), List.of());
+            RetirementScenario scenario = retirementService.resolveScenario("test-user",
+                    RetirementScenario.builder().currentAge(35).retirementAge(60).build());
+
+            Map<String, Object> result = retirementService.findEarliestRetirement(snapshot, scenario);
+
+            assertThat(result).containsEntry("earliestRetirementAge", null)
+                    .containsEntry("canRetireByPlannedAge", false);
+            Map<String, Object> byStrategy = (Map<String, Object>) result.get("earliestByStrategy");
+            assertThat(byStrategy).containsOnlyKeys("SUSTAINABLE", "SAFE_4_PERCENT", "SIMPLE_DEPLETION")
+                    .allSatisfy((strategy, earliest) -> assertThat(earliest).isNull());
+        }
+
+        @Test
+        @DisplayName("should reject a life expectancy below the current age")
+        void shouldRejectLifeExpectancyBelowCurrentAge() {
+            RetirementScenario scenario = RetirementScenario.builder()
+                    .currentAge(70).retirementAge(70).lifeExpectancy(65).inflationRate(6.0).build();
+            UserFinancialSnapshot snapshot = UserFinancialSnapshot.of("test-user", List.of(), List.of(),
+                    List.of(), List.of(), List.of(), List.of());
+
+            assertThatThrownBy(() -> retirementService.findEarliestRetirement(snapshot, scenario))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
 }
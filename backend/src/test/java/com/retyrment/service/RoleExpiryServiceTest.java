@@ -1,40 +1,76 @@
 package com.retyrment.service;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.retyrment.model.User;
-import com.retyrment.repository.UserRepository;
+import com.retyrment.security.UserPrincipalCache;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 @DisplayName("RoleExpiryService Tests")
 class RoleExpiryServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
 
-    @InjectMocks
     private RoleExpiryService roleExpiryService;
 
     private User userWithExpiredRole;
-    private User userWithActiveRole;
-    private User userWithNoExpiry;
+    private User anotherExpiredUser;
 
     @BeforeEach
     void setUp() {
+        roleExpiryService = new RoleExpiryService(mongoTemplate, userPrincipalCache, jobLeaseService, 2);
+
+        JobLeaseService.Lease lease = new JobLeaseService.Lease(RoleExpiryService.JOB, "node-1", 1, Instant.now().plusSeconds(60));
+        when(jobLeaseService.runScheduled(eq(RoleExpiryService.JOB), any(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(invocation.<Function<JobLeaseService.Lease, ?>>getArgument(2).apply(lease)));
+        when(jobLeaseService.runExclusively(eq(RoleExpiryService.JOB), any(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(invocation.<Function<JobLeaseService.Lease, ?>>getArgument(2).apply(lease)));
+        when(jobLeaseService.isHeld(lease)).thenReturn(true);
+
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+
         // User with expired role
         userWithExpiredRole = User.builder()
                 .id("user1")
@@ -44,93 +80,150 @@ class RoleExpiryServiceTest {
                 .roleExpiryDate(LocalDateTime.now().minusDays(1))
                 .build();
 
-        // User with active (not expired) role
-        userWithActiveRole = User.builder()
+        anotherExpiredUser = User.builder()
                 .id("user2")
-                .email("active@example.com")
-                .role(User.UserRole.PRO)
-                .originalRole(User.UserRole.FREE)
-                .roleExpiryDate(LocalDateTime.now().plusDays(5))
+                .email("expired2@example.com")
+                .role(User.UserRole.ADMIN)
+                .originalRole(User.UserRole.PRO)
+                .roleExpiryDate(LocalDateTime.now().minusHours(2))
                 .build();
+    }
 
-        // User with no expiry (permanent role)
-        userWithNoExpiry = User.builder()
-                .id("user3")
-                .email("permanent@example.com")
-                .role(User.UserRole.PRO)
-                .originalRole(null)
-                .roleExpiryDate(null)
-                .build();
+    private void givenCandidates(User... users) {
+        when(mongoTemplate.stream(any(Query.class), eq(User.class))).thenAnswer(invocation -> Stream.of(users));
     }
 
     @Nested
     @DisplayName("checkAndRevertExpiredRoles")
     class CheckAndRevertExpiredRoles {
         @Test
-        @DisplayName("should revert expired roles")
+        @DisplayName("should revert expired roles with a guarded bulk update")
         void shouldRevertExpiredRoles() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithExpiredRole, userWithActiveRole));
-            when(userRepository.save(any(User.class))).thenReturn(userWithExpiredRole);
+            givenCandidates(userWithExpiredRole);
+            when(bulkWriteResult.getModifiedCount()).thenReturn(1);
 
             roleExpiryService.checkAndRevertExpiredRoles();
 
-            verify(userRepository, times(1)).save(any(User.class));
-            verify(userRepository).save(argThat(user -> 
-                user.getRole() == User.UserRole.FREE && 
-                user.getOriginalRole() == null &&
-                user.getRoleExpiryDate() == null
-            ));
+            ArgumentCaptor<Query> filter = ArgumentCaptor.forClass(Query.class);
+            ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+            verify(bulkOperations).updateOne(filter.capture(), update.capture());
+            assertThat(filter.getValue().getQueryObject())
+                    .containsEntry("_id", "user1")
+                    .containsEntry("role", User.UserRole.PRO)
+                    .containsEntry("roleExpiryDate", userWithExpiredRole.getRoleExpiryDate());
+            Document changes = update.getValue().getUpdateObject();
+            assertThat(changes.get("$set", Document.class))
+                    .containsEntry("role", User.UserRole.FREE)
+                    .containsEntry("roleChangedBy", "SYSTEM");
+            assertThat(changes.get("$unset", Document.class)).containsKeys("originalRole", "roleExpiryDate");
+            verify(bulkOperations).execute();
         }
 
         @Test
-        @DisplayName("should not revert non-expired roles")
-        void shouldNotRevertNonExpiredRoles() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithActiveRole, userWithNoExpiry));
+        @DisplayName("should only ask for expired roles that have an original role")
+        void shouldQueryExpiredRolesOnly() {
+            givenCandidates();
 
             roleExpiryService.checkAndRevertExpiredRoles();
 
-            verify(userRepository, never()).save(any(User.class));
+            ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).stream(query.capture(), eq(User.class));
+            Document criteria = query.getValue().getQueryObject();
+            assertThat(criteria.get("roleExpiryDate", Document.class)).containsKey("$lt");
+            assertThat(criteria.get("originalRole", Document.class)).containsEntry("$ne", null);
+            verify(mongoTemplate, never()).findAll(any());
         }
 
         @Test
-        @DisplayName("should handle empty user list")
-        void shouldHandleEmptyUserList() {
-            when(userRepository.findAll()).thenReturn(Collections.emptyList());
+        @DisplayName("should evict reverted users from the principal cache")
+        void shouldEvictRevertedUsers() {
+            givenCandidates(userWithExpiredRole);
+            when(bulkWriteResult.getModifiedCount()).thenReturn(1);
 
             roleExpiryService.checkAndRevertExpiredRoles();
 
-            verify(userRepository, never()).save(any(User.class));
+            verify(userPrincipalCache).evict(userWithExpiredRole);
         }
 
         @Test
-        @DisplayName("should handle users without original role")
-        void shouldHandleUsersWithoutOriginalRole() {
-            User userWithoutOriginal = User.builder()
-                    .id("user4")
-                    .email("nooriginal@example.com")
-                    .role(User.UserRole.PRO)
-                    .originalRole(null)
-                    .roleExpiryDate(LocalDateTime.now().minusDays(1))
-                    .build();
-
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithoutOriginal));
+        @DisplayName("should handle empty candidate list")
+        void shouldHandleEmptyUserList() {
+            givenCandidates();
 
             roleExpiryService.checkAndRevertExpiredRoles();
 
-            // Should not revert if no original role
-            verify(userRepository, never()).save(any(User.class));
+            verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(User.class));
+            assertThat(roleExpiryService.getStats()).containsEntry("runs", 1L).containsEntry("processed", 0L);
+        }
+
+        @Test
+        @DisplayName("should write candidates in batches")
+        void shouldWriteInBatches() {
+            User third = User.builder().id("user3").role(User.UserRole.PRO).originalRole(User.UserRole.FREE)
+                    .roleExpiryDate(LocalDateTime.now().minusMinutes(5)).build();
+            givenCandidates(userWithExpiredRole, anotherExpiredUser, third);
+            when(bulkWriteResult.getModifiedCount()).thenReturn(2, 1);
+
+            int reverted = roleExpiryService.forceCheckExpiredRoles();
+
+            assertThat(reverted).isEqualTo(3);
+            verify(bulkOperations, times(2)).execute();
+            verify(bulkOperations, times(3)).updateOne(any(Query.class), any(Update.class));
+        }
+
+        @Test
+        @DisplayName("should count a user changed concurrently as a conflict")
+        void shouldCountConflicts() {
+            givenCandidates(userWithExpiredRole, anotherExpiredUser);
+            when(bulkWriteResult.getModifiedCount()).thenReturn(1);
+
+            int reverted = roleExpiryService.forceCheckExpiredRoles();
+
+            assertThat(reverted).isEqualTo(1);
+            assertThat(roleExpiryService.getStats())
+                    .containsEntry("processed", 1L)
+                    .containsEntry("conflicts", 1L)
+                    .containsEntry("failed", 0L);
         }
 
         @Test
         @DisplayName("should handle exception during revert")
         void shouldHandleExceptionDuringRevert() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithExpiredRole));
-            when(userRepository.save(any(User.class))).thenThrow(new RuntimeException("Database error"));
+            givenCandidates(userWithExpiredRole);
+            when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("Database error"));
 
             // Should not throw exception, just log error
             roleExpiryService.checkAndRevertExpiredRoles();
 
-            verify(userRepository).save(any(User.class));
+            assertThat(roleExpiryService.getStats()).containsEntry("failed", 1L).containsEntry("processed", 0L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cluster lease")
+    class ClusterLease {
+        @Test
+        @DisplayName("should do nothing when another instance holds the lease")
+        void shouldSkipWithoutLease() {
+            when(jobLeaseService.runScheduled(eq(RoleExpiryService.JOB), any(), any())).thenReturn(Optional.empty());
+            when(jobLeaseService.runExclusively(eq(RoleExpiryService.JOB), any(), any())).thenReturn(Optional.empty());
+
+            roleExpiryService.checkAndRevertExpiredRoles();
+
+            assertThat(roleExpiryService.forceCheckExpiredRoles()).isZero();
+            verify(mongoTemplate, never()).stream(any(Query.class), eq(User.class));
+        }
+
+        @Test
+        @DisplayName("should stop writing once the lease is lost")
+        void shouldStopWhenLeaseIsLost() {
+            givenCandidates(userWithExpiredRole);
+            when(jobLeaseService.isHeld(any())).thenReturn(false);
+
+            int reverted = roleExpiryService.forceCheckExpiredRoles();
+
+            assertThat(reverted).isZero();
+            verify(bulkOperations, never()).execute();
         }
     }
 
@@ -140,24 +233,23 @@ class RoleExpiryServiceTest {
         @Test
         @DisplayName("should return count of reverted roles")
         void shouldReturnCountOfRevertedRoles() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithExpiredRole, userWithActiveRole));
-            when(userRepository.save(any(User.class))).thenReturn(userWithExpiredRole);
+            givenCandidates(userWithExpiredRole);
+            when(bulkWriteResult.getModifiedCount()).thenReturn(1);
 
             int count = roleExpiryService.forceCheckExpiredRoles();
 
             assertThat(count).isEqualTo(1);
-            verify(userRepository).save(any(User.class));
         }
 
         @Test
         @DisplayName("should return zero when no expired roles")
         void shouldReturnZeroWhenNoExpiredRoles() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithActiveRole, userWithNoExpiry));
+            givenCandidates();
 
             int count = roleExpiryService.forceCheckExpiredRoles();
 
             assertThat(count).isEqualTo(0);
-            verify(userRepository, never()).save(any(User.class));
+            verify(bulkOperations, never()).execute();
         }
     }
 
@@ -165,47 +257,25 @@ class RoleExpiryServiceTest {
     @DisplayName("countExpiringRoles")
     class CountExpiringRoles {
         @Test
-        @DisplayName("should count roles expiring within days")
+        @DisplayName("should count roles expiring within days with a range query")
         void shouldCountRolesExpiringWithinDays() {
-            User expiringSoon = User.builder()
-                    .id("user5")
-                    .email("expiring@example.com")
-                    .role(User.UserRole.PRO)
-                    .roleExpiryDate(LocalDateTime.now().plusDays(3))
-                    .build();
-
-            when(userRepository.findAll()).thenReturn(Arrays.asList(
-                    expiringSoon,
-                    userWithActiveRole,
-                    userWithNoExpiry
-            ));
+            when(mongoTemplate.count(any(Query.class), eq(User.class))).thenReturn(2L);
 
             long count = roleExpiryService.countExpiringRoles(7);
 
-            assertThat(count).isEqualTo(2); // expiringSoon and userWithActiveRole
-        }
-
-        @Test
-        @DisplayName("should not count already expired roles")
-        void shouldNotCountAlreadyExpiredRoles() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(
-                    userWithExpiredRole,
-                    userWithActiveRole
-            ));
-
-            long count = roleExpiryService.countExpiringRoles(7);
-
-            assertThat(count).isEqualTo(1); // Only userWithActiveRole
+            assertThat(count).isEqualTo(2);
+            ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).count(query.capture(), eq(User.class));
+            assertThat(query.getValue().getQueryObject().get("roleExpiryDate", Document.class))
+                    .containsKeys("$gt", "$lt");
         }
 
         @Test
         @DisplayName("should return zero when no expiring roles")
         void shouldReturnZeroWhenNoExpiringRoles() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(userWithNoExpiry));
+            when(mongoTemplate.count(any(Query.class), eq(User.class))).thenReturn(0L);
 
-            long count = roleExpiryService.countExpiringRoles(7);
-
-            assertThat(count).isEqualTo(0);
+            assertThat(roleExpiryService.countExpiringRoles(7)).isEqualTo(0);
         }
     }
 }
@@ -0,0 +1,122 @@
+package com.retyrment.service;
+
+import com.retyrment.exception.ResourceNotFoundException;
+import com.retyrment.model.RetirementScenario;
+import com.retyrment.repository.RetirementScenarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ScenarioComparisonService Tests")
+class ScenarioComparisonServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    private RetirementService retirementService;
+    private RetirementScenarioRepository scenarioRepository;
+    private ExecutorService executor;
+    private ScenarioComparisonService service;
+    private final UserFinancialSnapshot snapshot = UserFinancialSnapshot.of(USER_ID,
+            List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+
+    @BeforeEach
+    void setUp() {
+        retirementService = mock(RetirementService.class);
+        scenarioRepository = mock(RetirementScenarioRepository.class);
+        executor = Executors.newFixedThreadPool(4);
+        service = new ScenarioComparisonService(retirementService, scenarioRepository, executor, 3);
+
+        when(retirementService.loadSnapshot(USER_ID)).thenReturn(snapshot);
+        when(retirementService.resolveScenario(eq(USER_ID), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(retirementService.summarizeScenario(eq(snapshot), any())).thenAnswer(invocation ->
+                Map.of("scenario", ((RetirementScenario) invocation.getArgument(1)).getName()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static RetirementScenario scenario(String id, String name, String userId) {
+        return RetirementScenario.builder().id(id).name(name).userId(userId).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> summaries(Map<String, Object> result) {
+        return (List<Map<String, Object>>) result.get("scenarios");
+    }
+
+    @Test
+    @DisplayName("should load the user's data once and summarize saved then unsaved scenarios in order")
+    void comparesScenarios() {
+        when(scenarioRepository.findAllById(any())).thenReturn(List.of(
+                scenario("s2", "Aggressive", USER_ID), scenario("s1", "Conservative", null)));
+
+        Map<String, Object> result = service.compare(USER_ID, List.of("s1", "s2"),
+                List.of(scenario(null, "What if", null)));
+
+        assertThat(result).containsEntry("count", 3);
+        assertThat(summaries(result)).extracting(s -> s.get("scenario"))
+                .containsExactly("Conservative", "Aggressive", "What if");
+        verify(retirementService, times(1)).loadSnapshot(USER_ID);
+        verify(retirementService, times(3)).summarizeScenario(eq(snapshot), any());
+    }
+
+    @Test
+    @DisplayName("should report another user's scenario as not found")
+    void rejectsForeignScenario() {
+        when(scenarioRepository.findAllById(any())).thenReturn(List.of(scenario("s1", "Theirs", "user-2")));
+
+        assertThatThrownBy(() -> service.compare(USER_ID, List.of("s1"), null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(retirementService, never()).loadSnapshot(any());
+    }
+
+    @Test
+    @DisplayName("should report a missing scenario as not found")
+    void rejectsMissingScenario() {
+        when(scenarioRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+        assertThatThrownBy(() -> service.compare(USER_ID, List.of("missing"), null))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("missing");
+    }
+
+    @Test
+    @DisplayName("should require between one and the maximum number of scenarios")
+    void limitsScenarioCount() {
+        assertThatThrownBy(() -> service.compare(USER_ID, null, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.compare(USER_ID, List.of("a", "b"), List.of(
+                scenario(null, "c", null), scenario(null, "d", null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Between 1 and 3 scenarios can be compared");
+        verifyNoInteractions(scenarioRepository);
+    }
+
+    @Test
+    @DisplayName("should return the other summaries when one scenario fails")
+    void reportsFailedScenario() {
+        RetirementScenario broken = scenario(null, "Broken", null);
+        when(retirementService.summarizeScenario(snapshot, broken)).thenThrow(new IllegalStateException("Boom"));
+
+        Map<String, Object> result = service.compare(USER_ID, null, List.of(scenario(null, "Fine", null), broken));
+
+        assertThat(summaries(result)).hasSize(2);
+        assertThat(summaries(result).get(0)).containsEntry("scenario", "Fine");
+        assertThat(summaries(result).get(1)).containsEntry("scenario", "Broken").containsEntry("error", "Boom");
+    }
+}
@@ -0,0 +1,75 @@
+package com.retyrment.service;
+
+import com.retyrment.model.Expense;
+import com.retyrment.model.Investment;
+import com.retyrment.model.RetirementScenario;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the default 10×10×5×5 sensitivity grid, which projects once per market combination
+ * and reads retirement ages from its rows, against projecting every one of the 2,500 cells.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.retyrment.service.SensitivityGridBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SensitivityGridBenchmark {
+
+    private static final int CURRENT_YEAR = 2026;
+
+    private final ProjectionEngine engine = new ProjectionEngine(new CalculationService(), 7.1, 8.15, 12.0, 6.0);
+    private UserFinancialSnapshot snapshot;
+    private RetirementScenario scenario;
+
+    @Setup
+    public void setUp() {
+        Investment mf = Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                .currentValue(2_000_000.0).monthlySip(30_000.0).build();
+        Investment epf = Investment.builder().type(Investment.InvestmentType.EPF).currentValue(1_200_000.0).build();
+        Expense household = Expense.builder().name("Household").amount(60_000.0)
+                .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+        snapshot = UserFinancialSnapshot.of("user-1", List.of(mf, epf), List.of(), List.of(),
+                List.of(household), List.of(), List.of());
+        scenario = RetirementScenario.builder().currentAge(35).retirementAge(60).lifeExpectancy(85)
+                .inflation(6.0).mfReturn(12.0).sipStepup(10.0).build();
+    }
+
+    @Benchmark
+    public Map<String, Object> grid() {
+        return new SensitivityGrid(engine, snapshot, scenario, CURRENT_YEAR).evaluate(null, null, null, null);
+    }
+
+    @Benchmark
+    public void projectEveryCell(Blackhole blackhole) {
+        for (int age = 56; age <= 65; age++) {
+            for (int mf = 7; mf <= 16; mf++) {
+                for (int inflation = 4; inflation <= 8; inflation++) {
+                    for (int stepUp = 0; stepUp <= 20; stepUp += 5) {
+                        RetirementScenario cell = scenario.toBuilder().retirementAge(age).mfReturn((double) mf)
+                                .inflation((double) inflation).sipStepup((double) stepUp).build();
+                        blackhole.consume(engine.project(snapshot, cell, CURRENT_YEAR).finalCorpus());
+                    }
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SensitivityGridBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
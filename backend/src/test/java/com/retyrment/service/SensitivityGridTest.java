@@ -0,0 +1,156 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SensitivityGrid Tests")
+class SensitivityGridTest {
+
+    private static final int CURRENT_YEAR = 2026;
+
+    private ProjectionEngine engine;
+    private UserFinancialSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ProjectionEngine(new CalculationService(), 7.1, 8.15, 12.0, 6.0);
+        Investment mf = Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                .currentValue(2_000_000.0).monthlySip(30_000.0).build();
+        Investment ppf = Investment.builder().type(Investment.InvestmentType.PPF).currentValue(600_000.0).build();
+        Goal car = Goal.builder().name("Car").targetYear(CURRENT_YEAR + 4).targetAmount(900_000.0)
+                .adjustForInflation(true).build();
+        Expense household = Expense.builder().name("Household").amount(60_000.0)
+                .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+        snapshot = UserFinancialSnapshot.of("user-1", List.of(mf, ppf), List.of(), List.of(car),
+                List.of(household), List.of(), List.of());
+    }
+
+    private static RetirementScenario scenario() {
+        return RetirementScenario.builder()
+                .currentAge(35)
+                .retirementAge(60)
+                .lifeExpectancy(85)
+                .inflation(6.0)
+                .mfReturn(12.0)
+                .sipStepup(10.0)
+                .incomeStrategy("SAFE_4_PERCENT")
+                .build();
+    }
+
+    private SensitivityGrid grid(RetirementScenario scenario) {
+        return new SensitivityGrid(engine, snapshot, scenario, CURRENT_YEAR);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Map<String, Object> result, String key) {
+        return (List<Map<String, Object>>) result.get(key);
+    }
+
+    @Test
+    @DisplayName("should match a separate full projection in every cell")
+    void cellsMatchFullProjections() {
+        Map<String, Object> result = grid(scenario()).evaluate(List.of(60, 52, 58), List.of(10.0, 13.0),
+                List.of(5.0, 7.0), List.of(0.0, 10.0));
+
+        List<Map<String, Object>> cells = list(result, "cells");
+        assertThat(cells).hasSize(3 * 2 * 2 * 2);
+        int strategy = 1; // SAFE_4_PERCENT
+        for (Map<String, Object> cell : cells) {
+            double inflation = (Double) cell.get(SensitivityGrid.INFLATION);
+            double stepUp = (Double) cell.get(SensitivityGrid.SIP_STEP_UP);
+            RetirementScenario single = scenario().toBuilder()
+                    .retirementAge((Integer) cell.get(SensitivityGrid.RETIREMENT_AGE))
+                    .mfReturn((Double) cell.get(SensitivityGrid.MF_RETURN))
+                    .inflation(inflation).inflationRate(inflation)
+                    .sipStepup(stepUp).sipStepUpPercent(stepUp)
+                    .build();
+            RetirementProjection p = engine.project(snapshot, single, CURRENT_YEAR);
+
+            long finalCorpus = Math.round(p.finalCorpus());
+            long required = Math.round(p.requiredCorpus[strategy][p.yearsToRetirement]);
+            assertThat(cell.get("finalCorpus")).isEqualTo(finalCorpus);
+            assertThat(cell.get("requiredCorpus")).isEqualTo(required);
+            assertThat((Long) cell.get("gap")).isBetween(required - finalCorpus - 1, required - finalCorpus + 1);
+        }
+        assertThat(result).containsEntry("incomeStrategy", "SAFE_4_PERCENT").containsEntry("projectionsRun", 8 + 7);
+    }
+
+    @Test
+    @DisplayName("should default to a 10×10×5×5 grid around the scenario's own assumptions")
+    void defaultAxes() {
+        Map<String, Object> result = grid(scenario()).evaluate(null, null, null, List.of());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> axes = (Map<String, Object>) result.get("axes");
+        assertThat((int[]) axes.get(SensitivityGrid.RETIREMENT_AGE)).containsExactly(56, 57, 58, 59, 60, 61, 62, 63, 64, 65);
+        assertThat((double[]) axes.get(SensitivityGrid.MF_RETURN))
+                .containsExactly(7, 8, 9, 10, 11, 12, 13, 14, 15, 16);
+        assertThat((double[]) axes.get(SensitivityGrid.INFLATION)).containsExactly(4, 5, 6, 7, 8);
+        assertThat((double[]) axes.get(SensitivityGrid.SIP_STEP_UP)).containsExactly(0, 5, 10, 15, 20);
+        assertThat(list(result, "cells")).hasSize(2500);
+
+        RetirementProjection base = engine.project(snapshot, scenario(), CURRENT_YEAR);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> baseline = (Map<String, Object>) result.get("baseline");
+        assertThat(baseline).containsEntry("finalCorpus", Math.round(base.finalCorpus()))
+                .containsEntry(SensitivityGrid.RETIREMENT_AGE, 60)
+                .containsEntry(SensitivityGrid.MF_RETURN, 12.0);
+    }
+
+    @Test
+    @DisplayName("should clamp default retirement ages to the current age and life expectancy")
+    void clampsDefaultRetirementAges() {
+        RetirementScenario nearRetirement = scenario().toBuilder().currentAge(58).lifeExpectancy(63).build();
+
+        Map<String, Object> result = grid(nearRetirement).evaluate(null, List.of(12.0), List.of(6.0), List.of(10.0));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> axes = (Map<String, Object>) result.get("axes");
+        assertThat((int[]) axes.get(SensitivityGrid.RETIREMENT_AGE)).containsExactly(58, 59, 60, 61, 62, 63);
+    }
+
+    @Test
+    @DisplayName("should rank tornado bars by the swing in gap between each axis's extremes")
+    void tornadoSortedBySwing() {
+        Map<String, Object> result = grid(scenario()).evaluate(List.of(55, 65), List.of(8.0, 16.0),
+                List.of(5.0, 7.0), List.of(5.0, 15.0));
+
+        List<Map<String, Object>> tornado = list(result, "tornado");
+        assertThat(tornado).extracting(bar -> bar.get("variable")).containsExactlyInAnyOrder(
+                SensitivityGrid.RETIREMENT_AGE, SensitivityGrid.MF_RETURN, SensitivityGrid.INFLATION,
+                SensitivityGrid.SIP_STEP_UP);
+        assertThat(tornado).extracting(bar -> (Long) bar.get("swing")).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        for (Map<String, Object> bar : tornado) {
+            assertThat(bar.get("swing")).isEqualTo(Math.abs((Long) bar.get("gapAtHigh") - (Long) bar.get("gapAtLow")));
+        }
+
+        Map<String, Object> mfBar = tornado.stream()
+                .filter(bar -> SensitivityGrid.MF_RETURN.equals(bar.get("variable"))).findFirst().orElseThrow();
+        RetirementProjection high = engine.project(snapshot, scenario().toBuilder().mfReturn(16.0).build(), CURRENT_YEAR);
+        assertThat(mfBar).containsEntry("low", 8.0).containsEntry("high", 16.0)
+                .containsEntry("finalCorpusAtHigh", Math.round(high.finalCorpus()));
+        assertThat((Long) mfBar.get("gapAtHigh")).isLessThan((Long) mfBar.get("gapAtLow"));
+    }
+
+    @Test
+    @DisplayName("should reject retirement ages outside the plan and oversized axes")
+    void rejectsInvalidAxes() {
+        assertThatThrownBy(() -> grid(scenario()).evaluate(List.of(30), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Retirement ages must be between 35 and 85");
+        List<Double> tooMany = java.util.stream.IntStream.range(0, SensitivityGrid.MAX_AXIS_VALUES + 1)
+                .mapToObj(i -> (double) i).toList();
+        assertThatThrownBy(() -> grid(scenario()).evaluate(null, tooMany, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> grid(scenario()).evaluate(null, List.of(Double.NaN), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
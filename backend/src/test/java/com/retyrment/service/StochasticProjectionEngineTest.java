@@ -0,0 +1,131 @@
+package com.retyrment.service;
+
+import com.retyrment.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class StochasticProjectionEngineTest {
+
+    private static final int CURRENT_YEAR = 2026;
+    private static final StochasticProjectionEngine.Assumptions NO_VOLATILITY =
+            new StochasticProjectionEngine.Assumptions(0, 0, 0, 0, 0, 0);
+
+    private ProjectionEngine projectionEngine;
+
+    @BeforeEach
+    void setUp() {
+        projectionEngine = new ProjectionEngine(new CalculationService(), 7.1, 8.15, 12.0, 6.0);
+    }
+
+    private RetirementProjection project(double mfValue, double monthlyExpense) {
+        Investment ppf = Investment.builder().type(Investment.InvestmentType.PPF)
+                .currentValue(400_000.0).yearlyContribution(150_000.0).build();
+        Investment mf = Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                .currentValue(mfValue).monthlySip(25_000.0).build();
+        Investment stock = Investment.builder().type(Investment.InvestmentType.STOCK).currentValue(300_000.0).build();
+        Investment rd = Investment.builder().type(Investment.InvestmentType.RD)
+                .currentValue(50_000.0).monthlySip(5_000.0).interestRate(6.5).build();
+        Expense household = Expense.builder().name("Household").amount(monthlyExpense)
+                .frequency(Expense.ExpenseFrequency.MONTHLY).build();
+        Goal car = Goal.builder().name("Car").targetYear(CURRENT_YEAR + 5).targetAmount(800_000.0)
+                .adjustForInflation(false).build();
+        UserFinancialSnapshot snapshot = UserFinancialSnapshot.of("user-1", List.of(ppf, mf, stock, rd), List.of(),
+                List.of(car), List.of(household), List.of(), List.of());
+        RetirementScenario scenario = RetirementScenario.builder()
+                .currentAge(35).retirementAge(60).lifeExpectancy(85).inflation(6.0).build();
+        return projectionEngine.project(snapshot, scenario, CURRENT_YEAR);
+    }
+
+    @Nested
+    @DisplayName("Without volatility")
+    class WithoutVolatility {
+
+        @Test
+        @DisplayName("should reproduce the deterministic net corpus on every path")
+        void matchesDeterministicProjection() {
+            RetirementProjection p = project(1_000_000, 50_000);
+
+            StochasticProjectionEngine.Result result = new StochasticProjectionEngine(NO_VOLATILITY).simulate(p, 3, 1L);
+
+            for (int year = 0; year < p.rows(); year++) {
+                for (int path = 0; path < 3; path++) {
+                    assertThat(result.netCorpus[year][path])
+                            .isCloseTo(p.netCorpus[year], within(Math.abs(p.netCorpus[year]) * 1e-9 + 1e-6));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should succeed exactly for strategies whose required corpus is covered")
+        void successMatchesRequiredCorpus() {
+            RetirementProjection p = project(1_000_000, 50_000);
+
+            StochasticProjectionEngine.Result result = new StochasticProjectionEngine(NO_VOLATILITY).simulate(p, 10, 1L);
+
+            double corpus = p.netCorpus[p.yearsToRetirement];
+            for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+                double required = p.requiredCorpus[s][p.yearsToRetirement];
+                if (Math.abs(corpus - required) > required * 1e-6) {
+                    assertThat(result.successProbability(s))
+                            .as(RequiredCorpusSolver.STRATEGIES[s])
+                            .isEqualTo(corpus >= required ? 1.0 : 0.0);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("With volatility")
+    class WithVolatility {
+
+        @Test
+        @DisplayName("should give identical results for the same seed across blocks")
+        void reproducibleForSeed() {
+            RetirementProjection p = project(1_000_000, 60_000);
+            StochasticProjectionEngine engine = new StochasticProjectionEngine(StochasticProjectionEngine.Assumptions.DEFAULT);
+            int paths = StochasticProjectionEngine.BLOCK_SIZE * 3 + 5;
+
+            StochasticProjectionEngine.Result first = engine.simulate(p, paths, 42L);
+            StochasticProjectionEngine.Result second = engine.simulate(p, paths, 42L);
+
+            assertThat(second.successfulPaths).containsExactly(first.successfulPaths);
+            assertThat(second.netCorpus[p.yearsToRetirement]).containsExactly(first.netCorpus[p.yearsToRetirement]);
+        }
+
+        @Test
+        @DisplayName("should spread outcomes around the deterministic path")
+        void spreadsAroundDeterministicPath() {
+            RetirementProjection p = project(1_000_000, 60_000);
+
+            StochasticProjectionEngine.Result result = new StochasticProjectionEngine(StochasticProjectionEngine.Assumptions.DEFAULT)
+                    .simulate(p, 2000, 7L);
+
+            double[] atRetirement = result.netCorpus[p.yearsToRetirement].clone();
+            double[] q = MonteCarloEngine.percentiles(atRetirement, 0.10, 0.50, 0.90);
+            double deterministic = p.netCorpus[p.yearsToRetirement];
+            assertThat(q[0]).isLessThan(deterministic);
+            assertThat(q[2]).isGreaterThan(deterministic);
+            for (int s = 0; s < RequiredCorpusSolver.STRATEGIES.length; s++) {
+                assertThat(result.successProbability(s)).isBetween(0.0, 1.0);
+            }
+        }
+
+        @Test
+        @DisplayName("should reject correlations that are not positive definite")
+        void rejectsInvalidCorrelations() {
+            StochasticProjectionEngine.Assumptions invalid =
+                    new StochasticProjectionEngine.Assumptions(15, 2, 1, 0.9, 0.9, -0.9);
+
+            assertThatThrownBy(() -> new StochasticProjectionEngine(invalid))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -1,395 +1,238 @@
 package com.retyrment.service;
 
+import com.mongodb.client.result.DeleteResult;
 import com.retyrment.model.*;
-import com.retyrment.repository.*;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.util.Arrays;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-
-import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 @DisplayName("UserDataDeletionService Tests")
 class UserDataDeletionServiceTest {
 
-    @Mock
-    private IncomeRepository incomeRepository;
-
-    @Mock
-    private InvestmentRepository investmentRepository;
-
-    @Mock
-    private LoanRepository loanRepository;
-
-    @Mock
-    private InsuranceRepository insuranceRepository;
-
-    @Mock
-    private ExpenseRepository expenseRepository;
-
-    @Mock
-    private GoalRepository goalRepository;
-
-    @Mock
-    private FamilyMemberRepository familyMemberRepository;
-
-    @Mock
-    private UserPreferenceRepository userPreferenceRepository;
-
-    @Mock
-    private SettingsRepository settingsRepository;
-    
-    @Mock
-    private UserSettingsRepository userSettingsRepository;
+    private static final String USER_ID = "test-user-123";
 
-    @Mock
-    private UserStrategyRepository userStrategyRepository;
-
-    @Mock
-    private RetirementScenarioRepository retirementScenarioRepository;
-
-    @Mock
-    private CalendarEntryRepository calendarEntryRepository;
-
-    @InjectMocks
-    private UserDataDeletionService userDataDeletionService;
-
-    private String testUserId;
+    private MongoTemplate mongoTemplate;
+    private UserDataVersionService dataVersionService;
+    private ExecutorService executor;
+    private UserDataDeletionService service;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
-        testUserId = "test-user-123";
-    }
-
-    @Test
-    @DisplayName("Get user data summary with data in all categories")
-    void testGetUserDataSummary_WithData() {
-        // Arrange
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(createIncomeList(5));
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(createInvestmentList(10));
-        when(loanRepository.findByUserId(testUserId)).thenReturn(createLoanList(2));
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(createInsuranceList(3));
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(createExpenseList(15));
-        when(goalRepository.findByUserId(testUserId)).thenReturn(createGoalList(4));
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(createFamilyMemberList(4));
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.of(new UserPreference()));
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.of(new Settings()));
-//        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.of(new UserStrategy()));
-        when(retirementScenarioRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(calendarEntryRepository.findByUserId(testUserId)).thenReturn(List.of());
-
-        // Act
-        Map<String, Object> summary = userDataDeletionService.getUserDataSummary(testUserId);
-
-        // Assert
-        assertNotNull(summary);
-        assertEquals(5, summary.get("income"));
-        assertEquals(10, summary.get("investments"));
-        assertEquals(2, summary.get("loans"));
-        assertEquals(3, summary.get("insurance"));
-        assertEquals(15, summary.get("expenses"));
-        assertEquals(4, summary.get("goals"));
-        assertEquals(4, summary.get("familyMembers"));
-        assertEquals(1, summary.get("preferences"));
-        assertEquals(1, summary.get("settings"));
-        assertEquals(1, summary.get("strategies"));
-        assertEquals(0, summary.get("scenarios"));
-        assertEquals(0, summary.get("calendarEntries"));
-        assertEquals(46, summary.get("total"));
-
-        verify(incomeRepository).findByUserId(testUserId);
-        verify(investmentRepository).findByUserId(testUserId);
-    }
-
-    @Test
-    @DisplayName("Get user data summary with no data")
-    void testGetUserDataSummary_WithNoData() {
-        // Arrange
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(loanRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(goalRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-//        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(retirementScenarioRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(calendarEntryRepository.findByUserId(testUserId)).thenReturn(List.of());
-
-        // Act
-        Map<String, Object> summary = userDataDeletionService.getUserDataSummary(testUserId);
-
-        // Assert
-        assertNotNull(summary);
-        assertEquals(0, summary.get("total"));
-    }
-
-    @Test
-    @DisplayName("Delete all user data successfully")
-    void testDeleteAllUserData_Success() {
-        // Arrange
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(createIncomeList(5));
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(createInvestmentList(10));
-        when(loanRepository.findByUserId(testUserId)).thenReturn(createLoanList(2));
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(createInsuranceList(3));
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(createExpenseList(15));
-        when(goalRepository.findByUserId(testUserId)).thenReturn(createGoalList(4));
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(createFamilyMemberList(4));
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.of(new UserPreference()));
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.of(new Settings()));
-        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.of(new UserStrategy()));
-        when(retirementScenarioRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(calendarEntryRepository.findByUserId(testUserId)).thenReturn(List.of());
-
-        // Act
-        Map<String, Object> result = userDataDeletionService.deleteAllUserData(testUserId);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(true, result.get("success"));
-        assertEquals(46, result.get("total"));
-        
-        // Verify all deletions were called
-        verify(incomeRepository).deleteByUserId(testUserId);
-        verify(investmentRepository).deleteByUserId(testUserId);
-        verify(loanRepository).deleteByUserId(testUserId);
-        verify(insuranceRepository).deleteByUserId(testUserId);
-        verify(expenseRepository).deleteByUserId(testUserId);
-        verify(goalRepository).deleteByUserId(testUserId);
-        verify(userPreferenceRepository).delete(any(UserPreference.class));
-        verify(settingsRepository).delete(any(Settings.class));
-        verify(userStrategyRepository).delete(any(UserStrategy.class));
-        verify(retirementScenarioRepository).deleteByUserId(testUserId);
-        verify(calendarEntryRepository).deleteByUserId(testUserId);
-    }
-
-    @Test
-    @DisplayName("Delete all user data with empty data")
-    void testDeleteAllUserData_WithEmptyData() {
-        // Arrange
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(loanRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(goalRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(retirementScenarioRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(calendarEntryRepository.findByUserId(testUserId)).thenReturn(List.of());
-
-        // Act
-        Map<String, Object> result = userDataDeletionService.deleteAllUserData(testUserId);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(true, result.get("success"));
-        assertEquals(0, result.get("total"));
-
-        // Verify deletions were still called (idempotent operation)
-        verify(incomeRepository).deleteByUserId(testUserId);
-        verify(investmentRepository).deleteByUserId(testUserId);
-    }
-
-    @Test
-    @DisplayName("Delete handles exception gracefully")
-    void testDeleteAllUserData_WithException() {
-        // Arrange
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(createIncomeList(5));
-        doThrow(new RuntimeException("Database error")).when(incomeRepository).deleteByUserId(testUserId);
-
-        // Act
-        Map<String, Object> result = userDataDeletionService.deleteAllUserData(testUserId);
+        mongoTemplate = mock(MongoTemplate.class);
+        dataVersionService = new UserDataVersionService();
+        executor = Executors.newFixedThreadPool(4);
+        when(mongoTemplate.remove(any(Query.class), any(Class.class))).thenReturn(DeleteResult.acknowledged(0));
+        service = new UserDataDeletionService(mongoTemplate, dataVersionService,
+                TransactionOperations.withoutTransaction(), false, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void givenDeleted(Class<?> type, long count) {
+        when(mongoTemplate.remove(any(Query.class), eq(type))).thenReturn(DeleteResult.acknowledged(count));
+    }
+
+    @Nested
+    @DisplayName("getUserDataSummary")
+    class GetUserDataSummary {
+
+        @Test
+        @DisplayName("should count every collection without loading documents")
+        void countsEveryCollection() {
+            when(mongoTemplate.count(any(Query.class), eq(Income.class))).thenReturn(5L);
+            when(mongoTemplate.count(any(Query.class), eq(Expense.class))).thenReturn(15L);
+            when(mongoTemplate.count(any(Query.class), eq(UserPreference.class))).thenReturn(1L);
+            when(mongoTemplate.count(any(Query.class), eq(CalendarEntry.class))).thenReturn(3L);
+
+            Map<String, Object> summary = service.getUserDataSummary(USER_ID);
+
+            assertThat(summary).containsKeys(UserDataDeletionService.COLLECTIONS.keySet().toArray(String[]::new))
+                    .containsEntry("income", 5L)
+                    .containsEntry("expenses", 15L)
+                    .containsEntry("preferences", 1L)
+                    .containsEntry("calendarEntries", 3L)
+                    .containsEntry("loans", 0L)
+                    .containsEntry("total", 24L);
+            ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate, times(UserDataDeletionService.COLLECTIONS.size())).count(query.capture(), any(Class.class));
+            assertThat(query.getAllValues()).allSatisfy(q -> assertThat(q.getQueryObject()).isEqualTo(new Document("userId", USER_ID)));
+            verify(mongoTemplate, never()).find(any(Query.class), any(Class.class));
+        }
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(false, result.get("success"));
-        assertTrue(((String) result.get("error")).contains("Database error"));
-    }
+        @Test
+        @DisplayName("should rethrow a failed count")
+        void rethrowsFailure() {
+            when(mongoTemplate.count(any(Query.class), eq(Goal.class)))
+                    .thenThrow(new DataAccessResourceFailureException("Database error"));
 
-    @Test
-    @DisplayName("Summary with retirement scenarios and calendar entries")
-    void testGetUserDataSummary_WithRetirementScenariosAndCalendar() {
-        // Arrange
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(loanRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(goalRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-//        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(retirementScenarioRepository.findByUserId(testUserId))
-            .thenReturn(Arrays.asList(new RetirementScenario(), new RetirementScenario()));
-        when(calendarEntryRepository.findByUserId(testUserId))
-            .thenReturn(Arrays.asList(new CalendarEntry(), new CalendarEntry(), new CalendarEntry()));
-
-        // Act
-        Map<String, Object> summary = userDataDeletionService.getUserDataSummary(testUserId);
-
-        // Assert
-        assertNotNull(summary);
-        assertEquals(2, summary.get("scenarios"));
-        assertEquals(3, summary.get("calendarEntries"));
-        assertEquals(5, summary.get("total"));
+            assertThatThrownBy(() -> service.getUserDataSummary(USER_ID))
+                    .isInstanceOf(DataAccessResourceFailureException.class)
+                    .hasMessage("Database error");
+        }
     }
 
-    @Test
-    @DisplayName("Delete with preferences, settings and strategies")
-    void testDeleteAllUserData_WithPreferencesSettingsStrategies() {
-        // Arrange
-        UserPreference pref = new UserPreference();
-        Settings settings = new Settings();
-        UserStrategy strategy = new UserStrategy();
-        
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(loanRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(goalRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.of(pref));
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.of(settings));
-        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.of(strategy));
-        when(retirementScenarioRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(calendarEntryRepository.findByUserId(testUserId)).thenReturn(List.of());
-
-        // Act
-        Map<String, Object> result = userDataDeletionService.deleteAllUserData(testUserId);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(true, result.get("success"));
-        assertEquals(1, result.get("preferences"));
-        assertEquals(1, result.get("settings"));
-        assertEquals(1, result.get("strategies"));
-        assertEquals(3, result.get("total"));
-        
-        verify(userPreferenceRepository).delete(pref);
-        verify(settingsRepository).delete(settings);
-        verify(userStrategyRepository).delete(strategy);
-    }
+    @Nested
+    @DisplayName("deleteAllUserData")
+    class DeleteAllUserData {
+
+        @Test
+        @DisplayName("should delete each collection with one deleteMany and report its count")
+        void deletesEveryCollection() {
+            givenDeleted(Income.class, 5);
+            givenDeleted(Investment.class, 10);
+            givenDeleted(FamilyMember.class, 4);
+            givenDeleted(Settings.class, 1);
+
+            Map<String, Object> result = service.deleteAllUserData(USER_ID);
+
+            assertThat(result)
+                    .containsEntry("success", true)
+                    .containsEntry("income", 5L)
+                    .containsEntry("investments", 10L)
+                    .containsEntry("familyMembers", 4L)
+                    .containsEntry("settings", 1L)
+                    .containsEntry("scenarios", 0L)
+                    .containsEntry("total", 20L);
+            UserDataDeletionService.COLLECTIONS.values()
+                    .forEach(type -> verify(mongoTemplate).remove(any(Query.class), eq(type)));
+            verify(mongoTemplate, never()).find(any(Query.class), any(Class.class));
+        }
 
-    @Test
-    @DisplayName("Delete family members one by one")
-    void testDeleteAllUserData_DeletesFamilyMembersOneByOne() {
-        // Arrange
-        FamilyMember fm1 = new FamilyMember();
-        fm1.setId("fm1");
-        FamilyMember fm2 = new FamilyMember();
-        fm2.setId("fm2");
-        
-        when(incomeRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(investmentRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(loanRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(insuranceRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(expenseRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(goalRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(familyMemberRepository.findByUserId(testUserId)).thenReturn(Arrays.asList(fm1, fm2));
-        when(userPreferenceRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(settingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userSettingsRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(userStrategyRepository.findByUserId(testUserId)).thenReturn(Optional.empty());
-        when(retirementScenarioRepository.findByUserId(testUserId)).thenReturn(List.of());
-        when(calendarEntryRepository.findByUserId(testUserId)).thenReturn(List.of());
-
-        // Act
-        Map<String, Object> result = userDataDeletionService.deleteAllUserData(testUserId);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(true, result.get("success"));
-        assertEquals(2, result.get("familyMembers"));
-        
-        verify(familyMemberRepository).deleteById("fm1");
-        verify(familyMemberRepository).deleteById("fm2");
-    }
+        @Test
+        @DisplayName("should bump the data version once done")
+        void bumpsDataVersion() {
+            service.deleteAllUserData(USER_ID);
 
-    // Helper methods
-    
-    private List<Income> createIncomeList(int count) {
-        Income[] incomes = new Income[count];
-        for (int i = 0; i < count; i++) {
-            incomes[i] = new Income();
-            incomes[i].setId("income-" + i);
+            assertThat(dataVersionService.currentVersion(USER_ID)).isEqualTo(1);
         }
-        return Arrays.asList(incomes);
-    }
 
-    private List<Investment> createInvestmentList(int count) {
-        Investment[] investments = new Investment[count];
-        for (int i = 0; i < count; i++) {
-            investments[i] = new Investment();
-            investments[i].setId("investment-" + i);
-        }
-        return Arrays.asList(investments);
-    }
+        @Test
+        @DisplayName("should report a failure with the counts of the collections that were deleted")
+        void reportsPartialFailure() {
+            givenDeleted(Loan.class, 2);
+            when(mongoTemplate.remove(any(Query.class), eq(Income.class)))
+                    .thenThrow(new DataAccessResourceFailureException("Database error"));
 
-    private List<Loan> createLoanList(int count) {
-        Loan[] loans = new Loan[count];
-        for (int i = 0; i < count; i++) {
-            loans[i] = new Loan();
-            loans[i].setId("loan-" + i);
+            Map<String, Object> result = service.deleteAllUserData(USER_ID);
+
+            assertThat(result).containsEntry("success", false).containsEntry("loans", 2L).doesNotContainKey("income");
+            assertThat((String) result.get("error")).contains("Database error");
         }
-        return Arrays.asList(loans);
-    }
 
-    private List<Insurance> createInsuranceList(int count) {
-        Insurance[] insurances = new Insurance[count];
-        for (int i = 0; i < count; i++) {
-            insurances[i] = new Insurance();
-            insurances[i].setId("insurance-" + i);
+        @Test
+        @DisplayName("should report no deletions when the transaction rolls back")
+        void reportsRollback() {
+            service = new UserDataDeletionService(mongoTemplate, dataVersionService,
+                    TransactionOperations.withoutTransaction(), true, executor);
+            givenDeleted(Income.class, 5);
+            when(mongoTemplate.remove(any(Query.class), eq(Goal.class)))
+                    .thenThrow(new DataAccessResourceFailureException("Database error"));
+
+            Map<String, Object> result = service.deleteAllUserData(USER_ID);
+
+            assertThat(result).containsEntry("success", false).containsEntry("total", 0L).doesNotContainKey("income");
+            ArgumentCaptor<UserDataDeletion> saved = ArgumentCaptor.forClass(UserDataDeletion.class);
+            verify(mongoTemplate).save(saved.capture());
+            assertThat(saved.getValue().isRolledBack()).isTrue();
+            assertThat(saved.getValue().getStatus()).isEqualTo(UserDataDeletion.Status.FAILED);
         }
-        return Arrays.asList(insurances);
     }
 
-    private List<Expense> createExpenseList(int count) {
-        Expense[] expenses = new Expense[count];
-        for (int i = 0; i < count; i++) {
-            expenses[i] = new Expense();
-            expenses[i].setId("expense-" + i);
+    @Nested
+    @DisplayName("startDeletion")
+    class StartDeletion {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("should expose progress that ends in DONE")
+        void tracksProgress() {
+            givenDeleted(Goal.class, 3);
+
+            UserDataDeletion deletion = service.startDeletion(USER_ID);
+            deletion.completion().join();
+
+            verify(mongoTemplate).findAndReplace(any(Query.class), same(deletion), any(FindAndReplaceOptions.class));
+            verify(mongoTemplate, times(UserDataDeletionService.COLLECTIONS.size()))
+                    .updateFirst(any(Query.class), any(Update.class), eq(UserDataDeletion.class));
+            verify(mongoTemplate).save(deletion);
+            Map<String, Object> status = deletion.toMap();
+            assertThat(status).containsEntry("status", "DONE")
+                    .containsEntry("collectionsDone", UserDataDeletionService.COLLECTIONS.size())
+                    .containsEntry("collectionsTotal", UserDataDeletionService.COLLECTIONS.size());
+            assertThat((Map<String, Object>) status.get("deleted")).containsEntry("goals", 3L).containsEntry("total", 3L);
         }
-        return Arrays.asList(expenses);
-    }
 
-    private List<Goal> createGoalList(int count) {
-        Goal[] goals = new Goal[count];
-        for (int i = 0; i < count; i++) {
-            goals[i] = new Goal();
-            goals[i].setId("goal-" + i);
+        @Test
+        @DisplayName("should return the running deletion instead of starting another")
+        void joinsRunningDeletion() {
+            ExecutorService paused = Executors.newSingleThreadExecutor();
+            CountDownLatch release = new CountDownLatch(1);
+            paused.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            service = new UserDataDeletionService(mongoTemplate, dataVersionService,
+                    TransactionOperations.withoutTransaction(), false, paused);
+
+            UserDataDeletion first = service.startDeletion(USER_ID);
+            UserDataDeletion second = service.startDeletion(USER_ID);
+            release.countDown();
+            first.completion().join();
+            UserDataDeletion next = service.startDeletion(USER_ID);
+            next.completion().join();
+            paused.shutdown();
+
+            assertThat(second).isSameAs(first);
+            assertThat(next).isNotSameAs(first);
         }
-        return Arrays.asList(goals);
-    }
 
-    private List<FamilyMember> createFamilyMemberList(int count) {
-        FamilyMember[] members = new FamilyMember[count];
-        for (int i = 0; i < count; i++) {
-            members[i] = new FamilyMember();
-            members[i].setId("family-" + i);
+        @Test
+        @DisplayName("should return a deletion running on another instance instead of starting one")
+        void joinsDeletionOnAnotherInstance() {
+            UserDataDeletion elsewhere = new UserDataDeletion("run-1", USER_ID, false,
+                    List.copyOf(UserDataDeletionService.COLLECTIONS.keySet()), Instant.now());
+            // As read back from Mongo, which nothing on this instance completes
+            ReflectionTestUtils.setField(elsewhere, "completion", null);
+            when(mongoTemplate.findAndReplace(any(Query.class), any(UserDataDeletion.class),
+                    any(FindAndReplaceOptions.class))).thenThrow(new DuplicateKeyException("E11000"));
+            when(mongoTemplate.findById(USER_ID, UserDataDeletion.class)).thenReturn(elsewhere);
+
+            assertThat(service.startDeletion(USER_ID)).isSameAs(elsewhere);
+            assertThat(service.getDeletion(USER_ID)).containsSame(elsewhere);
+            assertThat(service.deleteAllUserData(USER_ID)).containsEntry("success", false);
+            verify(mongoTemplate, never()).remove(any(Query.class), any(Class.class));
         }
-        return Arrays.asList(members);
     }
 }
@@ -0,0 +1,80 @@
+package com.retyrment.service;
+
+import com.retyrment.model.UserDataVersion;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("UserDataVersionService Tests")
+class UserDataVersionServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private UserDataVersionService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new UserDataVersionService(mongoTemplate, 100, 0);
+    }
+
+    @Test
+    @DisplayName("should read the shared version, and 0 for a user that never wrote")
+    void readsSharedVersion() {
+        when(mongoTemplate.findById("user-1", UserDataVersion.class))
+                .thenReturn(UserDataVersion.builder().userId("user-1").version(4).build());
+
+        assertThat(service.currentVersion("user-1")).isEqualTo(4);
+        assertThat(service.currentVersion("user-2")).isZero();
+    }
+
+    @Test
+    @DisplayName("should increment the shared version with an upsert and notify local listeners")
+    void incrementsSharedVersion() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(UserDataVersion.class)))
+                .thenReturn(UserDataVersion.builder().userId("user-1").version(5).build());
+        List<String> notified = new ArrayList<>();
+        service.addListener(notified::add);
+
+        assertThat(service.markChanged("user-1")).isEqualTo(5);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(), eq(UserDataVersion.class));
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("version", 1);
+        assertThat(options.getValue().isUpsert()).isTrue();
+        assertThat(notified).containsExactly("user-1");
+    }
+
+    @Test
+    @DisplayName("should answer repeat reads from this instance's copy and update it on a local write")
+    void cachesVersionLocally() {
+        UserDataVersionService cached = new UserDataVersionService(mongoTemplate, 100, 60_000);
+        when(mongoTemplate.findById("user-1", UserDataVersion.class))
+                .thenReturn(UserDataVersion.builder().userId("user-1").version(4).build());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(UserDataVersion.class)))
+                .thenReturn(UserDataVersion.builder().userId("user-1").version(5).build());
+
+        assertThat(cached.currentVersion("user-1")).isEqualTo(4);
+        assertThat(cached.currentVersion("user-1")).isEqualTo(4);
+        cached.markChanged("user-1");
+
+        assertThat(cached.currentVersion("user-1")).isEqualTo(5);
+        verify(mongoTemplate, times(1)).findById("user-1", UserDataVersion.class);
+    }
+}
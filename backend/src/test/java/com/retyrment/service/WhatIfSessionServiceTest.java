@@ -0,0 +1,172 @@
+package com.retyrment.service;
+
+import com.retyrment.exception.ResourceNotFoundException;
+import com.retyrment.model.Expense;
+import com.retyrment.model.Investment;
+import com.retyrment.model.RetirementScenario;
+import com.retyrment.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@DisplayName("WhatIfSessionService Tests")
+class WhatIfSessionServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    private InvestmentRepository investmentRepository;
+    private RetirementService retirementService;
+    private UserDataVersionService dataVersionService;
+    private WhatIfSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        investmentRepository = mock(InvestmentRepository.class);
+        ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+        retirementService = new RetirementService(investmentRepository, mock(InsuranceRepository.class),
+                mock(GoalRepository.class), expenseRepository, mock(IncomeRepository.class),
+                mock(LoanRepository.class), mock(RetirementScenarioRepository.class), new CalculationService());
+        ReflectionTestUtils.setField(retirementService, "defaultInflation", 6.0);
+        ReflectionTestUtils.setField(retirementService, "defaultEpfReturn", 8.15);
+        ReflectionTestUtils.setField(retirementService, "defaultPpfReturn", 7.1);
+        ReflectionTestUtils.setField(retirementService, "defaultMfReturn", 12.0);
+        dataVersionService = new UserDataVersionService();
+        service = new WhatIfSessionService(retirementService, dataVersionService, 10_000, 2, 15);
+
+        when(investmentRepository.findByUserId(USER_ID)).thenReturn(List.of(
+                Investment.builder().type(Investment.InvestmentType.MUTUAL_FUND)
+                        .currentValue(1_500_000.0).monthlySip(25_000.0).build(),
+                Investment.builder().type(Investment.InvestmentType.PPF).currentValue(400_000.0).build()));
+        when(expenseRepository.findByUserId(USER_ID)).thenReturn(List.of(
+                Expense.builder().name("Household").amount(50_000.0).frequency(Expense.ExpenseFrequency.MONTHLY).build()));
+    }
+
+    private static RetirementScenario scenario() {
+        return RetirementScenario.builder()
+                .name("Base")
+                .currentAge(35)
+                .retirementAge(55)
+                .lifeExpectancy(85)
+                .inflationRate(6.0)
+                .mfReturn(12.0)
+                .effectiveFromYear(5)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(Map<String, Object> result, String key) {
+        return (List<Map<String, Object>>) result.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> summary(Map<String, Object> result) {
+        return (Map<String, Object>) result.get("summary");
+    }
+
+    private Map<String, Object> freshMatrix(RetirementScenario scenario) {
+        UserFinancialSnapshot snapshot = retirementService.loadSnapshot(USER_ID);
+        RetirementProjection projection = retirementService.projectRetirement(snapshot, scenario);
+        return Map.of("rows", retirementService.matrixRows(projection, 0),
+                "summary", retirementService.summarizeProjection(snapshot, scenario, projection));
+    }
+
+    @Test
+    @DisplayName("should recompute from the effective year and return only the rows and summary fields that changed")
+    void editReturnsDelta() {
+        Map<String, Object> started = service.start(USER_ID, scenario());
+        String sessionId = (String) started.get("sessionId");
+        List<Map<String, Object>> rows = new ArrayList<>(rows(started, "rows"));
+        assertThat(rows).hasSize(21);
+
+        Map<String, Object> delta = service.edit(USER_ID, sessionId, RetirementScenario.builder().mfReturn(9.0).build());
+
+        assertThat(delta).containsEntry("revision", 1)
+                .containsEntry("fullRecompute", false)
+                .containsEntry("recomputedFromYear", LocalDate.now().getYear() + 5)
+                .containsEntry("rowCount", 21);
+        List<Map<String, Object>> changed = rows(delta, "changedRows");
+        assertThat(changed).isNotEmpty().allSatisfy(row -> assertThat((Integer) row.get("sno")).isGreaterThan(5));
+        changed.forEach(row -> rows.set((Integer) row.get("sno") - 1, row));
+
+        Map<String, Object> fresh = freshMatrix(scenario().toBuilder().mfReturn(9.0).build());
+        assertThat(rows).isEqualTo(fresh.get("rows"));
+        assertThat(summary(delta)).containsEntry("finalCorpus", summary(fresh).get("finalCorpus"))
+                .doesNotContainKeys("scenario", "currentAge", "retirementAge");
+    }
+
+    @Test
+    @DisplayName("should fall back to a full projection when inflation or ages change")
+    void fullRecomputeForNonAccumulationEdit() {
+        String sessionId = (String) service.start(USER_ID, scenario()).get("sessionId");
+
+        Map<String, Object> delta = service.edit(USER_ID, sessionId,
+                RetirementScenario.builder().inflation(7.0).retirementAge(50).build());
+
+        assertThat(delta).containsEntry("fullRecompute", true)
+                .containsEntry("recomputedFromYear", LocalDate.now().getYear())
+                .containsEntry("rowCount", 16);
+        assertThat(summary(delta)).containsEntry("retirementAge", 50);
+    }
+
+    @Test
+    @DisplayName("should reload the user's data after a write and recompute in full")
+    void reloadsAfterDataChange() {
+        String sessionId = (String) service.start(USER_ID, scenario()).get("sessionId");
+        dataVersionService.markChanged(USER_ID);
+
+        Map<String, Object> delta = service.edit(USER_ID, sessionId, RetirementScenario.builder().mfReturn(9.0).build());
+
+        assertThat(delta).containsEntry("fullRecompute", true);
+        verify(investmentRepository, times(2)).findByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("should return an empty delta for an edit that changes nothing")
+    void emptyDeltaForNoOpEdit() {
+        String sessionId = (String) service.start(USER_ID, scenario()).get("sessionId");
+
+        Map<String, Object> delta = service.edit(USER_ID, sessionId, RetirementScenario.builder().mfReturn(12.0).build());
+
+        assertThat(delta).containsEntry("recomputedFromYear", null).containsEntry("fullRecompute", false);
+        assertThat(rows(delta, "changedRows")).isEmpty();
+        assertThat(summary(delta)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should report another user's session and an ended session as not found")
+    void rejectsForeignAndEndedSessions() {
+        String sessionId = (String) service.start(USER_ID, scenario()).get("sessionId");
+
+        assertThatThrownBy(() -> service.edit("user-2", sessionId, scenario()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        service.end(USER_ID, sessionId);
+        assertThatThrownBy(() -> service.edit(USER_ID, sessionId, scenario()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("should close the user's least recently used session beyond the per-user limit")
+    void limitsSessionsPerUser() {
+        String first = (String) service.start(USER_ID, scenario()).get("sessionId");
+        String second = (String) service.start(USER_ID, scenario()).get("sessionId");
+        service.edit(USER_ID, first, RetirementScenario.builder().mfReturn(10.0).build());
+
+        String third = (String) service.start(USER_ID, scenario()).get("sessionId");
+
+        assertThatThrownBy(() -> service.edit(USER_ID, second, scenario()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(service.edit(USER_ID, first, scenario())).containsEntry("revision", 2);
+        assertThat(service.edit(USER_ID, third, scenario())).containsEntry("revision", 1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.retyrment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("WorkerPools Tests")
+class WorkerPoolsTest {
+
+    private final WorkerPools workerPools = new WorkerPools();
+
+    @AfterEach
+    void tearDown() {
+        workerPools.shutdown();
+    }
+
+    @Test
+    @DisplayName("should run tasks on named daemon threads")
+    void namedDaemonThreads() throws Exception {
+        ThreadPoolExecutor pool = workerPools.fixed("test-worker", 1);
+
+        Thread worker = pool.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        assertThat(worker.getName()).isEqualTo("test-worker-1");
+        assertThat(worker.isDaemon()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should run a task on the caller once a caller-runs pool is full, and reject on a rejecting one")
+    void fullQueues() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ThreadPoolExecutor callerRuns = workerPools.callerRuns("caller-runs", 1, 1);
+        ThreadPoolExecutor rejecting = workerPools.rejecting("rejecting", 1, 1, Thread.NORM_PRIORITY);
+        try {
+            callerRuns.execute(blocker);
+            callerRuns.execute(blocker);
+            rejecting.execute(blocker);
+            rejecting.execute(blocker);
+
+            Thread[] ranOn = new Thread[1];
+            callerRuns.execute(() -> ranOn[0] = Thread.currentThread());
+            assertThat(ranOn[0]).isSameAs(Thread.currentThread());
+            assertThatThrownBy(() -> rejecting.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("should shut down every pool it created")
+    void shutsDownPools() {
+        ThreadPoolExecutor first = workerPools.fixed("first", 1);
+        ThreadPoolExecutor second = workerPools.callerRuns("second", 1, 1);
+
+        workerPools.shutdown();
+
+        assertThat(first.isShutdown()).isTrue();
+        assertThat(second.isShutdown()).isTrue();
+    }
+}